@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Immutable snapshot of durations recorded by a {@link HistogramDurationStatisticsTracker} over a period of time.
+ * Durations are counted in log-linear buckets, each of which covers values within 1/64 of each other, hence all
+ * values reported by this class are accurate to within ~1.6%.
+ */
+@Beta
+@Immutable
+public final class DurationHistogram {
+    /**
+     * Number of bits of a value used to select a linear sub-bucket, including the most significant bit.
+     */
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_HALF_COUNT = 1 << (SUB_BUCKET_BITS - 1);
+    private static final int LINEAR_LIMIT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Maximum value which is tracked with full precision, about 18 minutes. Larger values are counted as this value.
+     */
+    static final long MAX_TRACKABLE_VALUE = (1L << 40) - 1;
+    static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_VALUE) + 1;
+
+    private final long[] counts;
+    private final long totalCount;
+    private final long totalDuration;
+    private final long startTimeMillis;
+    private final long endTimeMillis;
+
+    DurationHistogram(final long[] counts, final long totalDuration, final long startTimeMillis,
+            final long endTimeMillis) {
+        this.counts = counts;
+        this.totalDuration = totalDuration;
+        this.startTimeMillis = startTimeMillis;
+        this.endTimeMillis = endTimeMillis;
+
+        long sum = 0;
+        for (long count : counts) {
+            sum += count;
+        }
+        this.totalCount = sum;
+    }
+
+    static int bucketIndex(final long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) Math.max(value, 0);
+        }
+
+        final long clamped = Math.min(value, MAX_TRACKABLE_VALUE);
+        final int shift = 64 - Long.numberOfLeadingZeros(clamped) - SUB_BUCKET_BITS;
+        return (shift << (SUB_BUCKET_BITS - 1)) + (int) (clamped >>> shift);
+    }
+
+    static long bucketLowestValue(final int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        final int shift = (index >>> (SUB_BUCKET_BITS - 1)) - 1;
+        final long subBucket = (index & (SUB_BUCKET_HALF_COUNT - 1)) + SUB_BUCKET_HALF_COUNT;
+        return subBucket << shift;
+    }
+
+    static long bucketHighestValue(final int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        final int shift = (index >>> (SUB_BUCKET_BITS - 1)) - 1;
+        return bucketLowestValue(index) + (1L << shift) - 1;
+    }
+
+    /**
+     * Returns the number of durations in this histogram.
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the average duration in nanoseconds. Unlike other values, this one is exact.
+     */
+    public double getAverageDuration() {
+        return totalCount == 0 ? 0 : (double) totalDuration / totalCount;
+    }
+
+    /**
+     * Returns the shortest duration in nanoseconds, or 0 if the histogram is empty.
+     */
+    public long getMinDuration() {
+        for (int i = 0; i < counts.length; ++i) {
+            if (counts[i] != 0) {
+                return bucketLowestValue(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the longest duration in nanoseconds, or 0 if the histogram is empty.
+     */
+    public long getMaxDuration() {
+        for (int i = counts.length - 1; i >= 0; --i) {
+            if (counts[i] != 0) {
+                return bucketHighestValue(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the duration at a percentile, i.e. the duration such that the specified percentage of durations in this
+     * histogram are equal to or shorter than it.
+     *
+     * @param percentile Percentile, between 0 and 100, for example 99.9
+     * @return Duration in nanoseconds, or 0 if the histogram is empty
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    public long getDurationAtPercentile(final double percentile) {
+        Preconditions.checkArgument(percentile >= 0 && percentile <= 100, "Invalid percentile %s", percentile);
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; ++i) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return bucketHighestValue(i);
+            }
+        }
+        return getMaxDuration();
+    }
+
+    /**
+     * Returns the wall-clock time at which this histogram's period started, in milliseconds.
+     */
+    public long getStartTimeMillis() {
+        return startTimeMillis;
+    }
+
+    /**
+     * Returns the wall-clock time at which this histogram's period ended, in milliseconds.
+     */
+    public long getEndTimeMillis() {
+        return endTimeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("count", totalCount).add("average", getAverageDuration())
+                .add("p50", getDurationAtPercentile(50)).add("p99", getDurationAtPercentile(99))
+                .add("p999", getDurationAtPercentile(99.9)).add("max", getMaxDuration()).toString();
+    }
+}
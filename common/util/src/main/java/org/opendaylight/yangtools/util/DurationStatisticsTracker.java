@@ -57,6 +57,17 @@ public abstract class DurationStatisticsTracker {
         return new SynchronizedDurationStatsTracker();
     }
 
+    /**
+     * Create a {@link HistogramDurationStatisticsTracker}, which additionally
+     * tracks percentiles of durations and performs well in very contended
+     * environments, at the cost of a larger memory footprint.
+     *
+     * @return A new instance.
+     */
+    public static HistogramDurationStatisticsTracker createHistogram() {
+        return new HistogramDurationStatisticsTracker();
+    }
+
     /**
      * Add a duration to track.
      *
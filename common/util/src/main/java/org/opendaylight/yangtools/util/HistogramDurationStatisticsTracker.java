@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.annotations.Beta;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * A {@link DurationStatisticsTracker} which also keeps a histogram of durations, so it can report percentiles, such
+ * as the 99th or 99.9th. Recording a duration does not take any locks and threads record into separate stripes of the
+ * histogram, so recording scales with the number of threads. Stripes are allocated on first use.
+ *
+ * <p>Recorded counts are never cleared. Both {@link #reset()} and {@link #getIntervalHistogram()} remember the counts
+ * seen at the time they were invoked and report the difference from then on, hence they do not interfere with
+ * threads recording durations.
+ */
+@Beta
+public final class HistogramDurationStatisticsTracker extends DurationStatisticsTracker {
+    private static final int STRIPE_COUNT;
+
+    static {
+        int stripes = 1;
+        while (stripes < Runtime.getRuntime().availableProcessors() && stripes < 16) {
+            stripes <<= 1;
+        }
+        STRIPE_COUNT = stripes;
+    }
+
+    private static final AtomicReferenceFieldUpdater<HistogramDurationStatisticsTracker, DurationWithTime>
+        LONGEST_UPDATER = AtomicReferenceFieldUpdater.newUpdater(HistogramDurationStatisticsTracker.class,
+                DurationWithTime.class, "longest");
+
+    private static final AtomicReferenceFieldUpdater<HistogramDurationStatisticsTracker, DurationWithTime>
+        SHORTEST_UPDATER = AtomicReferenceFieldUpdater.newUpdater(HistogramDurationStatisticsTracker.class,
+                DurationWithTime.class, "shortest");
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPE_COUNT);
+    private final LongAdder sum = new LongAdder();
+
+    private volatile DurationWithTime longest = null;
+    private volatile DurationWithTime shortest = null;
+
+    @GuardedBy("this")
+    private Baseline resetBaseline = new Baseline(new long[DurationHistogram.BUCKET_COUNT], 0);
+    @GuardedBy("this")
+    private Baseline intervalBaseline = resetBaseline;
+
+    /**
+     * Counts and sum observed at some point in time, along with the time.
+     */
+    private static final class Baseline {
+        final long[] counts;
+        final long sum;
+        final long timeMillis = System.currentTimeMillis();
+
+        Baseline(final long[] counts, final long sum) {
+            this.counts = counts;
+            this.sum = sum;
+        }
+    }
+
+    HistogramDurationStatisticsTracker() {
+        // Hidden on purpose
+    }
+
+    @Override
+    public void addDuration(final long duration) {
+        final int index = DurationHistogram.bucketIndex(duration);
+        stripe().incrementAndGet(index);
+        sum.add(duration);
+
+        // Improvements to shortest/longest become rare quickly, so these are mostly just a volatile read
+        DurationWithTime current = shortest;
+        if (current == null || duration < current.getDuration()) {
+            final DurationWithTime newObj = new DurationWithTime(duration, System.currentTimeMillis());
+            while (!SHORTEST_UPDATER.weakCompareAndSet(this, current, newObj)) {
+                current = shortest;
+                if (current != null && duration >= current.getDuration()) {
+                    break;
+                }
+            }
+        }
+
+        current = longest;
+        if (current == null || duration > current.getDuration()) {
+            final DurationWithTime newObj = new DurationWithTime(duration, System.currentTimeMillis());
+            while (!LONGEST_UPDATER.weakCompareAndSet(this, current, newObj)) {
+                current = longest;
+                if (current != null && duration <= current.getDuration()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public double getAverageDuration() {
+        return getHistogram().getAverageDuration();
+    }
+
+    @Override
+    public long getTotalDurations() {
+        return getHistogram().getTotalCount();
+    }
+
+    @Override
+    public synchronized void reset() {
+        longest = null;
+        shortest = null;
+        resetBaseline = new Baseline(sumStripes(), sum.sum());
+    }
+
+    /**
+     * Returns the duration at a percentile of all durations recorded since the last {@link #reset()}.
+     *
+     * @param percentile Percentile, between 0 and 100, for example 99.9
+     * @return Duration in nanoseconds, accurate to within ~1.6%, or 0 if there are no durations
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    public long getDurationAtPercentile(final double percentile) {
+        return getHistogram().getDurationAtPercentile(percentile);
+    }
+
+    /**
+     * Returns a histogram of all durations recorded since the last {@link #reset()}.
+     *
+     * @return A histogram snapshot
+     */
+    @Nonnull public synchronized DurationHistogram getHistogram() {
+        return snapshotSince(resetBaseline, new Baseline(sumStripes(), sum.sum()));
+    }
+
+    /**
+     * Returns a histogram of durations recorded since the previous invocation of this method, or since this tracker
+     * was created. This is useful for periodic reporting, where each report should cover only its own interval.
+     * Intervals are independent of {@link #reset()}.
+     *
+     * @return A histogram snapshot
+     */
+    @Nonnull public synchronized DurationHistogram getIntervalHistogram() {
+        final Baseline now = new Baseline(sumStripes(), sum.sum());
+        final DurationHistogram ret = snapshotSince(intervalBaseline, now);
+        intervalBaseline = now;
+        return ret;
+    }
+
+    @Override
+    protected DurationWithTime getShortest() {
+        return shortest;
+    }
+
+    @Override
+    protected DurationWithTime getLongest() {
+        return longest;
+    }
+
+    private AtomicLongArray stripe() {
+        final int index = (int) Thread.currentThread().getId() & (STRIPE_COUNT - 1);
+        final AtomicLongArray existing = stripes.get(index);
+        if (existing != null) {
+            return existing;
+        }
+
+        final AtomicLongArray created = new AtomicLongArray(DurationHistogram.BUCKET_COUNT);
+        return stripes.compareAndSet(index, null, created) ? created : stripes.get(index);
+    }
+
+    private long[] sumStripes() {
+        final long[] counts = new long[DurationHistogram.BUCKET_COUNT];
+        for (int i = 0; i < STRIPE_COUNT; ++i) {
+            final AtomicLongArray stripe = stripes.get(i);
+            if (stripe != null) {
+                for (int j = 0; j < counts.length; ++j) {
+                    counts[j] += stripe.get(j);
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static DurationHistogram snapshotSince(final Baseline base, final Baseline now) {
+        final long[] counts = new long[now.counts.length];
+        for (int i = 0; i < counts.length; ++i) {
+            counts[i] = now.counts[i] - base.counts[i];
+        }
+        return new DurationHistogram(counts, now.sum - base.sum, base.timeMillis, now.timeMillis);
+    }
+}
@@ -24,13 +24,14 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import javax.annotation.Nonnull;
 
 /**
- * Implementation of the {@link Map} interface which stores a set of immutable mappings using a key-to-offset map and
- * a backing array. This is useful for situations where the same key set is shared across a multitude of maps, as this
- * class uses a global cache to share the key-to-offset mapping.
+ * Implementation of the {@link Map} interface which stores a set of immutable mappings using a key-to-offset layout
+ * and a backing array. This is useful for situations where the same key set is shared across a multitude of maps, as
+ * this class uses a global cache to share the key-to-offset layout.
  *
  * @param <K> the type of keys maintained by this map
  * @param <V> the type of mapped values
@@ -40,7 +41,7 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
     static final class Ordered<K, V> extends ImmutableOffsetMap<K, V> {
         private static final long serialVersionUID = 1L;
 
-        Ordered(final Map<K, Integer> offsets, final V[] objects) {
+        Ordered(final OffsetLayout<K> offsets, final V[] objects) {
             super(offsets, objects);
         }
 
@@ -59,7 +60,7 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
     static final class Unordered<K, V> extends ImmutableOffsetMap<K, V> {
         private static final long serialVersionUID = 1L;
 
-        Unordered(final Map<K, Integer> offsets, final V[] objects) {
+        Unordered(final OffsetLayout<K> offsets, final V[] objects) {
             super(offsets, objects);
         }
 
@@ -70,7 +71,7 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
 
         @Override
         void setFields(final List<K> keys, final V[] values) throws IOException {
-            final Map<K, Integer> newOffsets = OffsetMapCache.unorderedOffsets(keys);
+            final OffsetLayout<K> newOffsets = OffsetMapCache.unorderedOffsets(keys);
 
             setField(this, OFFSETS_FIELD, newOffsets);
             setField(this, ARRAY_FIELD, OffsetMapCache.adjustedArray(newOffsets, keys, values));
@@ -79,18 +80,18 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
 
     private static final long serialVersionUID = 1L;
 
-    private final transient Map<K, Integer> offsets;
+    private final transient OffsetLayout<K> offsets;
     private final transient V[] objects;
     private transient int hashCode;
 
     /**
-     * Construct a new instance backed by specified key-to-offset map and array of objects.
+     * Construct a new instance backed by specified key layout and array of objects.
      *
-     * @param offsets Key-to-offset map, may not be null
+     * @param offsets Key layout, may not be null
      * @param objects Array of value object, may not be null. The array is stored as is, the caller
      *              is responsible for ensuring its contents remain unmodified.
      */
-    ImmutableOffsetMap(@Nonnull final Map<K, Integer> offsets, @Nonnull final V[] objects) {
+    ImmutableOffsetMap(@Nonnull final OffsetLayout<K> offsets, @Nonnull final V[] objects) {
         this.offsets = Preconditions.checkNotNull(offsets);
         this.objects = Preconditions.checkNotNull(objects);
         Preconditions.checkArgument(offsets.size() == objects.length);
@@ -138,11 +139,11 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
             return SharedSingletonMap.orderedOf(e.getKey(), e.getValue());
         }
 
-        final Map<K, Integer> offsets = OffsetMapCache.orderedOffsets(m.keySet());
+        final OffsetLayout<K> offsets = OffsetMapCache.orderedOffsets(m.keySet());
         @SuppressWarnings("unchecked")
         final V[] array = (V[]) new Object[offsets.size()];
         for (Entry<K, V> e : m.entrySet()) {
-            array[offsets.get(e.getKey())] = e.getValue();
+            array[offsets.offsetOf(e.getKey())] = e.getValue();
         }
 
         return new Ordered<>(offsets, array);
@@ -185,11 +186,11 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
             return SharedSingletonMap.unorderedOf(e.getKey(), e.getValue());
         }
 
-        final Map<K, Integer> offsets = OffsetMapCache.unorderedOffsets(m.keySet());
+        final OffsetLayout<K> offsets = OffsetMapCache.unorderedOffsets(m.keySet());
         @SuppressWarnings("unchecked")
         final V[] array = (V[]) new Object[offsets.size()];
         for (Entry<K, V> e : m.entrySet()) {
-            array[offsets.get(e.getKey())] = e.getValue();
+            array[offsets.offsetOf(e.getKey())] = e.getValue();
         }
 
         return new Unordered<>(offsets, array);
@@ -212,8 +213,8 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
         }
 
         int result = 0;
-        for (Entry<K, Integer> e : offsets.entrySet()) {
-            result += e.getKey().hashCode() ^ objects[e.getValue()].hashCode();
+        for (int i = 0; i < objects.length; ++i) {
+            result += offsets.keyAt(i).hashCode() ^ objects[i].hashCode();
         }
 
         hashCode = result;
@@ -250,8 +251,8 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
 
         try {
             // Ensure all objects are present
-            for (Entry<K, Integer> e : offsets.entrySet()) {
-                if (!objects[e.getValue()].equals(other.get(e.getKey()))) {
+            for (int i = 0; i < objects.length; ++i) {
+                if (!objects[i].equals(other.get(offsets.keyAt(i)))) {
                     return false;
                 }
             }
@@ -265,7 +266,7 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
 
     @Override
     public final boolean containsKey(final Object key) {
-        return offsets.containsKey(key);
+        return offsets.offsetOf(key) >= 0;
     }
 
     @Override
@@ -280,8 +281,8 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
 
     @Override
     public final V get(final Object key) {
-        final Integer offset = offsets.get(key);
-        return offset == null ? null : objects[offset];
+        final int offset = offsets.offsetOf(key);
+        return offset < 0 ? null : objects[offset];
     }
 
     @Override
@@ -337,7 +338,7 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
         return sb.append('}').toString();
     }
 
-    final Map<K, Integer> offsets() {
+    final OffsetLayout<K> offsets() {
         return offsets;
     }
 
@@ -348,18 +349,22 @@ public abstract class ImmutableOffsetMap<K, V> implements UnmodifiableMapPhase<K
     private final class EntrySet extends AbstractSet<Entry<K, V>> {
         @Override
         public Iterator<Entry<K, V>> iterator() {
-            final Iterator<Entry<K, Integer>> it = offsets.entrySet().iterator();
-
             return new UnmodifiableIterator<Entry<K, V>>() {
+                private int offset = 0;
+
                 @Override
                 public boolean hasNext() {
-                    return it.hasNext();
+                    return offset < objects.length;
                 }
 
                 @Override
                 public Entry<K, V> next() {
-                    final Entry<K, Integer> e = it.next();
-                    return new SimpleImmutableEntry<>(e.getKey(), objects[e.getValue()]);
+                    if (offset >= objects.length) {
+                        throw new NoSuchElementException();
+                    }
+
+                    final int i = offset++;
+                    return new SimpleImmutableEntry<>(offsets.keyAt(i), objects[i]);
                 }
             };
         }
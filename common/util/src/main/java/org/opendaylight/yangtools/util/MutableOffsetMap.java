@@ -51,7 +51,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
             super(OffsetMapCache.orderedOffsets(source.keySet()), source, new LinkedHashMap<>());
         }
 
-        Ordered(final Map<K, Integer> offsets, final V[] objects) {
+        Ordered(final OffsetLayout<K> offsets, final V[] objects) {
             super(offsets, objects, new LinkedHashMap<>());
         }
 
@@ -66,7 +66,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
         }
 
         @Override
-        UnmodifiableMapPhase<K, V> unmodifiedMap(final Map<K, Integer> offsets, final V[] objects) {
+        UnmodifiableMapPhase<K, V> unmodifiedMap(final OffsetLayout<K> offsets, final V[] objects) {
             return new ImmutableOffsetMap.Ordered<>(offsets, objects);
         }
 
@@ -85,7 +85,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
             super(OffsetMapCache.unorderedOffsets(source.keySet()), source, new HashMap<>());
         }
 
-        Unordered(final Map<K, Integer> offsets, final V[] objects) {
+        Unordered(final OffsetLayout<K> offsets, final V[] objects) {
             super(offsets, objects, new HashMap<>());
         }
 
@@ -96,12 +96,12 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
         @Override
         UnmodifiableMapPhase<K, V> modifiedMap(final List<K> keys, final V[] objects) {
-            final Map<K, Integer> offsets = OffsetMapCache.unorderedOffsets(keys);
+            final OffsetLayout<K> offsets = OffsetMapCache.unorderedOffsets(keys);
             return new ImmutableOffsetMap.Unordered<>(offsets, OffsetMapCache.adjustedArray(offsets, keys, objects));
         }
 
         @Override
-        UnmodifiableMapPhase<K, V> unmodifiedMap(final Map<K, Integer> offsets, final V[] objects) {
+        UnmodifiableMapPhase<K, V> unmodifiedMap(final OffsetLayout<K> offsets, final V[] objects) {
             return new ImmutableOffsetMap.Unordered<>(offsets, objects);
         }
 
@@ -113,14 +113,14 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     private static final Object[] EMPTY_ARRAY = new Object[0];
     private static final Object REMOVED = new Object();
-    private final Map<K, Integer> offsets;
+    private final OffsetLayout<K> offsets;
     private HashMap<K, V> newKeys;
     private Object[] objects;
     private int removed = 0;
     private transient volatile int modCount;
     private boolean needClone = true;
 
-    MutableOffsetMap(final Map<K, Integer> offsets, final V[] objects, final HashMap<K, V> newKeys) {
+    MutableOffsetMap(final OffsetLayout<K> offsets, final V[] objects, final HashMap<K, V> newKeys) {
         Verify.verify(newKeys.isEmpty());
         this.offsets = Preconditions.checkNotNull(offsets);
         this.objects = Preconditions.checkNotNull(objects);
@@ -129,15 +129,15 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     @SuppressWarnings("unchecked")
     MutableOffsetMap(final HashMap<K, V> newKeys) {
-        this(ImmutableMap.of(), (V[]) EMPTY_ARRAY, newKeys);
+        this(OffsetLayout.empty(), (V[]) EMPTY_ARRAY, newKeys);
     }
 
     @SuppressWarnings("unchecked")
-    MutableOffsetMap(final Map<K, Integer> offsets, final Map<K, V> source, final HashMap<K, V> newKeys) {
+    MutableOffsetMap(final OffsetLayout<K> offsets, final Map<K, V> source, final HashMap<K, V> newKeys) {
         this(offsets, (V[]) new Object[offsets.size()], newKeys);
 
         for (Entry<K, V> e : source.entrySet()) {
-            objects[offsets.get(e.getKey())] = Preconditions.checkNotNull(e.getValue());
+            objects[offsets.offsetOf(e.getKey())] = Preconditions.checkNotNull(e.getValue());
         }
 
         this.needClone = false;
@@ -179,7 +179,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     abstract UnmodifiableMapPhase<K, V> modifiedMap(List<K> keys, V[] objects);
 
-    abstract UnmodifiableMapPhase<K, V> unmodifiedMap(Map<K, Integer> offsets, V[] objects);
+    abstract UnmodifiableMapPhase<K, V> unmodifiedMap(OffsetLayout<K> offsets, V[] objects);
 
     abstract SharedSingletonMap<K, V> singletonMap();
 
@@ -195,8 +195,8 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     @Override
     public final boolean containsKey(final Object key) {
-        final Integer offset = offsets.get(key);
-        if (offset != null) {
+        final int offset = offsets.offsetOf(key);
+        if (offset >= 0) {
             final Object obj = objects[offset];
             if (!REMOVED.equals(obj)) {
                 return obj != null;
@@ -208,8 +208,8 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     @Override
     public final V get(final Object key) {
-        final Integer offset = offsets.get(key);
-        if (offset != null) {
+        final int offset = offsets.offsetOf(key);
+        if (offset >= 0) {
             final Object obj = objects[offset];
 
             /*
@@ -239,8 +239,8 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
     @Override
     public final V put(final K key, final V value) {
         Preconditions.checkNotNull(value);
-        final Integer offset = offsets.get(Preconditions.checkNotNull(key));
-        if (offset != null) {
+        final int offset = offsets.offsetOf(Preconditions.checkNotNull(key));
+        if (offset >= 0) {
             final Object obj = objects[offset];
 
             /*
@@ -272,8 +272,8 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     @Override
     public final V remove(final Object key) {
-        final Integer offset = offsets.get(key);
-        if (offset != null) {
+        final int offset = offsets.offsetOf(key);
+        if (offset >= 0) {
             final Object obj = objects[offset];
 
             /*
@@ -347,10 +347,10 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
         final List<K> keyset = new ArrayList<>(s);
         if (removed != 0) {
             if (removed != offsets.size()) {
-                for (Entry<K, Integer> e : offsets.entrySet()) {
-                    final Object o = objects[e.getValue()];
+                for (int j = 0; j < offsets.size(); ++j) {
+                    final Object o = objects[j];
                     if (o != null && !REMOVED.equals(o)) {
-                        keyset.add(e.getKey());
+                        keyset.add(offsets.keyAt(j));
                     }
                 }
             }
@@ -365,8 +365,8 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
         int i = 0;
         if (removed != 0) {
             if (removed != offsets.size()) {
-                for (Entry<K, Integer> e : offsets.entrySet()) {
-                    final Object o = objects[e.getValue()];
+                for (int j = 0; j < offsets.size(); ++j) {
+                    final Object o = objects[j];
                     if (o != null && !REMOVED.equals(o)) {
                         @SuppressWarnings("unchecked")
                         final V v = (V) o;
@@ -405,10 +405,10 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
     public final int hashCode() {
         int result = 0;
 
-        for (Entry<K, Integer> e : offsets.entrySet()) {
-            final Object v = objects[e.getValue()];
+        for (int i = 0; i < offsets.size(); ++i) {
+            final Object v = objects[i];
             if (v != null) {
-                result += e.getKey().hashCode() ^ v.hashCode();
+                result += offsets.keyAt(i).hashCode() ^ v.hashCode();
             }
         }
 
@@ -456,9 +456,9 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
             }
 
             // Ensure all objects are present
-            for (Entry<K, Integer> e : offsets.entrySet()) {
-                final Object obj = objects[e.getValue()];
-                if (obj != null && !REMOVED.equals(obj) && !obj.equals(other.get(e.getKey()))) {
+            for (int i = 0; i < offsets.size(); ++i) {
+                final Object obj = objects[i];
+                if (obj != null && !REMOVED.equals(obj) && !obj.equals(other.get(offsets.keyAt(i)))) {
                     return false;
                 }
             }
@@ -573,7 +573,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
     }
 
     private abstract class AbstractSetIterator<E> implements Iterator<E> {
-        private final Iterator<Entry<K, Integer>> oldIterator = offsets.entrySet().iterator();
+        private int oldOffset = 0;
         private final Iterator<K> newIterator = newKeys.keySet().iterator();
         private int expectedModCount = modCount;
         private K currentKey;
@@ -584,11 +584,11 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
         }
 
         private void updateNextKey() {
-            while (oldIterator.hasNext()) {
-                final Entry<K, Integer> e = oldIterator.next();
-                final Object obj = objects[e.getValue()];
+            while (oldOffset < offsets.size()) {
+                final int offset = oldOffset++;
+                final Object obj = objects[offset];
                 if (obj != null && !REMOVED.equals(obj)) {
-                    nextKey = e.getKey();
+                    nextKey = offsets.keyAt(offset);
                     return;
                 }
             }
@@ -613,8 +613,8 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
             Preconditions.checkState(currentKey != null);
 
             checkModCount();
-            final Integer offset = offsets.get(currentKey);
-            if (offset != null) {
+            final int offset = offsets.offsetOf(currentKey);
+            if (offset >= 0) {
                 cloneArray();
                 objects[offset] = removedObject();
                 removed++;
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.UnmodifiableIterator;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Key layout shared by {@link ImmutableOffsetMap}s and {@link MutableOffsetMap}s with the same set of keys. It assigns
+ * each key an offset into the value array and resolves keys to offsets through an open-addressed table of primitive
+ * slots, so that lookups do not allocate and do not go through {@link Integer} boxes.
+ *
+ * <p>Instances are canonicalized by {@link OffsetMapCache}, hence maps with the same keys usually share the same
+ * instance and can compare their layouts by identity. Layouts with the same keys in the same order are equal even if
+ * they are not the same instance.
+ *
+ * @param <K> the type of keys
+ */
+@Immutable
+final class OffsetLayout<K> {
+    private static final OffsetLayout<?> EMPTY = new OffsetLayout<>(new Object[0]);
+
+    private final Object[] keys;
+    private final int[] slots;
+    private final KeySet<K> keySet;
+
+    private OffsetLayout(final Object[] keys) {
+        this.keys = keys;
+        this.slots = createSlots(keys);
+        this.keySet = new KeySet<>(keys, slots);
+    }
+
+    /**
+     * Create a layout for a collection of keys, assigning offsets in the collection's iteration order.
+     *
+     * @param keys Keys, may not contain nulls nor duplicates
+     * @return A new layout
+     * @throws NullPointerException if any of the keys is null
+     * @throws IllegalArgumentException if the keys contain duplicates
+     */
+    static <K> OffsetLayout<K> of(final Collection<K> keys) {
+        return keys.isEmpty() ? empty() : new OffsetLayout<>(keys.toArray());
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K> OffsetLayout<K> empty() {
+        return (OffsetLayout<K>) EMPTY;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    /**
+     * Return the offset assigned to a key.
+     *
+     * @param key Key to look up, may be null
+     * @return Offset of the key, or -1 if this layout does not contain it
+     */
+    int offsetOf(final Object key) {
+        return offsetOf(keys, slots, key);
+    }
+
+    @SuppressWarnings("unchecked")
+    K keyAt(final int offset) {
+        return (K) keys[offset];
+    }
+
+    /**
+     * Return the keys of this layout. The returned set is immutable and iterates in offset order.
+     *
+     * @return Set of keys
+     */
+    Set<K> keySet() {
+        return keySet;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(keys);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return obj == this || obj instanceof OffsetLayout && Arrays.equals(keys, ((OffsetLayout<?>) obj).keys);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(keys);
+    }
+
+    private static int[] createSlots(final Object[] keys) {
+        // Keep the load factor at or below 1/2, so probe sequences stay short
+        final int[] slots = new int[Integer.highestOneBit(Math.max(2 * keys.length - 1, 1)) << 1];
+        final int mask = slots.length - 1;
+
+        for (int i = 0; i < keys.length; ++i) {
+            final Object key = Preconditions.checkNotNull(keys[i], "Null key at offset %s", i);
+            int slot = hash(key) & mask;
+            while (slots[slot] != 0) {
+                Preconditions.checkArgument(!key.equals(keys[slots[slot] - 1]), "Duplicate key %s", key);
+                slot = (slot + 1) & mask;
+            }
+
+            // Slots hold offset + 1, so that 0 can mark an empty slot
+            slots[slot] = i + 1;
+        }
+
+        return slots;
+    }
+
+    private static int offsetOf(final Object[] keys, final int[] slots, final Object key) {
+        if (key == null) {
+            return -1;
+        }
+
+        final int mask = slots.length - 1;
+        int slot = hash(key) & mask;
+        while (true) {
+            final int found = slots[slot];
+            if (found == 0) {
+                return -1;
+            }
+
+            final Object candidate = keys[found - 1];
+            if (candidate == key || candidate.equals(key)) {
+                return found - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static int hash(final Object key) {
+        // Spread the hash, as we use only its lower bits
+        final int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Key set view. It intentionally does not reference the layout, as it is used as a key in {@link OffsetMapCache},
+     * which must not prevent the layout from being garbage-collected.
+     */
+    static final class KeySet<K> extends AbstractSet<K> {
+        private final Object[] keys;
+        private final int[] slots;
+
+        KeySet(final Object[] keys, final int[] slots) {
+            this.keys = keys;
+            this.slots = slots;
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new UnmodifiableIterator<K>() {
+                private int offset = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return offset < keys.length;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public K next() {
+                    if (offset >= keys.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return (K) keys[offset++];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return offsetOf(keys, slots, o) >= 0;
+        }
+
+        @Override
+        public Object[] toArray() {
+            return keys.clone();
+        }
+    }
+}
@@ -9,46 +9,84 @@ package org.opendaylight.yangtools.util;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Verify;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMap.Builder;
 import com.google.common.collect.ImmutableSet;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Array;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 final class OffsetMapCache {
     /*
-     * Cache for offsets where order matters. The key is a List, which defines the iteration order. Since we want
-     * to retain this order, it is okay to use a simple LoadingCache.
+     * Canonical layouts where order matters. The key is a List, which defines the iteration order.
      */
-    private static final LoadingCache<List<?>, Map<?, Integer>> ORDERED_CACHE =
-            CacheBuilder.newBuilder().weakValues().build(new CacheLoader<List<?>, Map<?, Integer>>() {
-                @Override
-                public Map<?, Integer> load(final List<?> key) {
-                    return createMap(key);
-                }
-            });
+    private static final LayoutTable ORDERED_LAYOUTS = new LayoutTable();
     /*
-     * Cache for offsets where order does not mapper. The key is a Set of elements. We use manual two-stage loading
-     * because of the nature of the objects we store as values, which is ImmutableMaps. An ImmutableMap, when queried
-     * for keys (as is done in ImmutableOffsetMap.keySet()), will instantiate an ImmutableSet to hold these keys. It
-     * would be wasteful to use one Set for lookup only to have the map have an exact copy.
-     *
-     * We perform the first look up using a Set (which may come from the user, for example via
-     * ImmutableOffsetMap.unorderedCopyOf()), hence potentially saving a copy operation. If we fail to find an entry,
-     * we construct the map and put it conditionally with Map.keySet() as the key. This will detect concurrent loading
-     * and also lead to the cache and the map sharing the same Set.
+     * Canonical layouts where order does not matter. The key is a Set of elements. The first look up is performed
+     * using a Set (which may come from the user, for example via ImmutableOffsetMap.unorderedCopyOf()), hence
+     * potentially saving a copy operation. If we fail to find an entry, we construct the layout and put it
+     * conditionally with OffsetLayout.keySet() as the key, so the table and the layout share the same Set.
+     */
+    private static final LayoutTable UNORDERED_LAYOUTS = new LayoutTable();
+
+    /**
+     * Weak-valued canonicalization table. Lookups do not take any locks. Keys must not reference the layout they map
+     * to, otherwise the layout would never be garbage-collected.
      */
-    private static final Cache<Set<?>, Map<?, Integer>> UNORDERED_CACHE =
-            CacheBuilder.newBuilder().weakValues().build();
+    private static final class LayoutTable {
+        private final ConcurrentMap<Object, LayoutReference> layouts = new ConcurrentHashMap<>();
+        private final ReferenceQueue<OffsetLayout<?>> queue = new ReferenceQueue<>();
+
+        OffsetLayout<?> get(final Object key) {
+            final LayoutReference ref = layouts.get(key);
+            return ref == null ? null : ref.get();
+        }
+
+        OffsetLayout<?> intern(final Object key, final OffsetLayout<?> layout) {
+            expungeStaleEntries();
+
+            final LayoutReference ref = new LayoutReference(key, layout, queue);
+            while (true) {
+                final LayoutReference prev = layouts.putIfAbsent(key, ref);
+                if (prev == null) {
+                    return layout;
+                }
+
+                final OffsetLayout<?> existing = prev.get();
+                if (existing != null) {
+                    return existing;
+                }
+                if (layouts.replace(key, prev, ref)) {
+                    return layout;
+                }
+            }
+        }
+
+        void clear() {
+            layouts.clear();
+        }
+
+        private void expungeStaleEntries() {
+            for (Reference<?> ref = queue.poll(); ref != null; ref = queue.poll()) {
+                layouts.remove(((LayoutReference) ref).key, ref);
+            }
+        }
+    }
+
+    private static final class LayoutReference extends WeakReference<OffsetLayout<?>> {
+        final Object key;
+
+        LayoutReference(final Object key, final OffsetLayout<?> layout, final ReferenceQueue<OffsetLayout<?>> queue) {
+            super(layout, queue);
+            this.key = key;
+        }
+    }
 
     private OffsetMapCache() {
         throw new UnsupportedOperationException();
@@ -56,27 +94,29 @@ final class OffsetMapCache {
 
     @VisibleForTesting
     static void invalidateCache() {
-        ORDERED_CACHE.invalidateAll();
-        UNORDERED_CACHE.invalidateAll();
+        ORDERED_LAYOUTS.clear();
+        UNORDERED_LAYOUTS.clear();
     }
 
     @SuppressWarnings("unchecked")
-    static <T> Map<T, Integer> orderedOffsets(final Collection<T> args) {
+    static <T> OffsetLayout<T> orderedOffsets(final Collection<T> args) {
         if (args.size() == 1) {
             return unorderedOffsets(args);
         }
 
-        return (Map<T, Integer>) ORDERED_CACHE.getUnchecked(ImmutableList.copyOf(args));
+        final List<T> key = ImmutableList.copyOf(args);
+        final OffsetLayout<T> existing = (OffsetLayout<T>) ORDERED_LAYOUTS.get(key);
+        return existing != null ? existing : (OffsetLayout<T>) ORDERED_LAYOUTS.intern(key, OffsetLayout.of(key));
     }
 
-    static <T> Map<T, Integer> unorderedOffsets(final Collection<T> args) {
+    static <T> OffsetLayout<T> unorderedOffsets(final Collection<T> args) {
         return unorderedOffsets(args instanceof Set ? (Set<T>)args : ImmutableSet.copyOf(args));
     }
 
-    static <K, V> V[] adjustedArray(final Map<K, Integer> offsets, final List<K> keys, final V[] array) {
+    static <K, V> V[] adjustedArray(final OffsetLayout<K> offsets, final List<K> keys, final V[] array) {
         Verify.verify(offsets.size() == keys.size(), "Offsets %s do not match keys %s", offsets, keys);
 
-        // This relies on the fact that offsets has an ascending iterator
+        // This relies on the fact that the key set iterates in offset order
         final Iterator<K> oi = offsets.keySet().iterator();
         final Iterator<K> ki = keys.iterator();
 
@@ -91,36 +131,25 @@ final class OffsetMapCache {
         return array;
     }
 
-    private static <T> Map<T, Integer> createMap(final Collection<T> keys) {
-        final Builder<T, Integer> b = ImmutableMap.builder();
-        int i = 0;
-
-        for (T arg : keys) {
-            b.put(arg, i++);
-        }
-
-        return b.build();
-    }
-
     @SuppressWarnings("unchecked")
-    private static <T> Map<T, Integer> unorderedOffsets(final Set<T> args) {
-        final Map<T, Integer> existing = (Map<T, Integer>) UNORDERED_CACHE.getIfPresent(args);
+    private static <T> OffsetLayout<T> unorderedOffsets(final Set<T> args) {
+        final OffsetLayout<T> existing = (OffsetLayout<T>) UNORDERED_LAYOUTS.get(args);
         if (existing != null) {
             return existing;
         }
 
-        final Map<T, Integer> newMap = createMap(args);
-        final Map<?, Integer> raced = UNORDERED_CACHE.asMap().putIfAbsent(newMap.keySet(), newMap);
-        return raced == null ? newMap : (Map<T, Integer>)raced;
+        final OffsetLayout<T> newLayout = OffsetLayout.of(args);
+        return (OffsetLayout<T>) UNORDERED_LAYOUTS.intern(newLayout.keySet(), newLayout);
     }
 
-    private static <K, V> V[] adjustArray(final Map<K, Integer> offsets, final List<K> keys, final V[] array) {
+    private static <K, V> V[] adjustArray(final OffsetLayout<K> offsets, final List<K> keys, final V[] array) {
         @SuppressWarnings("unchecked")
         final V[] ret = (V[]) Array.newInstance(array.getClass().getComponentType(), array.length);
 
         int i = 0;
         for (final K k : keys) {
-            final Integer o = Verify.verifyNotNull(offsets.get(k), "Key %s not present in offsets %s", k, offsets);
+            final int o = offsets.offsetOf(k);
+            Verify.verify(o >= 0, "Key %s not present in offsets %s", k, offsets);
             ret[o] = array[i++];
         }
 
@@ -11,6 +11,7 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.MoreObjects.ToStringHelper;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
@@ -39,6 +40,8 @@ public class CachedThreadPoolExecutor extends ThreadPoolExecutor {
 
     private final RejectedTaskHandler rejectedTaskHandler;
 
+    private volatile ExecutorMetrics metrics;
+
     /**
      * Constructs an instance.
      *
@@ -92,6 +95,44 @@ public class CachedThreadPoolExecutor extends ThreadPoolExecutor {
         return executorQueue.getBackingQueue();
     }
 
+    /**
+     * Enables collection of task statistics. Only tasks submitted after this method is invoked are accounted for.
+     * Until then, this executor does not incur any overhead. Subsequent invocations return the same instance.
+     * Once enabled, queued tasks are wrapped, see {@link ExecutorMetrics}.
+     *
+     * @return Metrics of this executor
+     */
+    public synchronized ExecutorMetrics enableMetrics() {
+        if (metrics == null) {
+            metrics = new ExecutorMetrics( threadPrefix );
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns task statistics of this executor, if they have been enabled.
+     *
+     * @return Metrics of this executor, or null if {@link #enableMetrics()} has not been invoked
+     */
+    public ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void execute( final Runnable command ) {
+        final ExecutorMetrics local = metrics;
+        if (local == null) {
+            super.execute( command );
+        } else {
+            local.execute( command, super::execute );
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return ExecutorMetrics.unwrap( super.shutdownNow() );
+    }
+
     public long getLargestQueueSize() {
         return ((TrackingLinkedBlockingQueue<?>)executorQueue.getBackingQueue()).getLargestQueueSize();
     }
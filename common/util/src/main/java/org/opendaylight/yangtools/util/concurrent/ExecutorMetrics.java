@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.opendaylight.yangtools.concepts.AbstractRegistration;
+import org.opendaylight.yangtools.util.DurationHistogram;
+import org.opendaylight.yangtools.util.DurationStatisticsTracker;
+import org.opendaylight.yangtools.util.HistogramDurationStatisticsTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Task statistics of an executor, such as {@link FastThreadPoolExecutor} or {@link CachedThreadPoolExecutor}. Metrics
+ * are not collected unless they are enabled on the executor, in which case each submitted task is wrapped so that the
+ * time it spends queued and executing can be recorded. Recording does not take any locks.
+ *
+ * <p>Statistics can be obtained either as a snapshot via {@link #getStats()}, or exported to JMX via
+ * {@link #registerMBean()}.
+ *
+ * <p>Since tasks are wrapped before they are handed to the executor, its queue, {@code remove(Runnable)} and
+ * {@link java.util.concurrent.RejectedExecutionHandler}s see the wrappers rather than the submitted tasks while
+ * metrics are enabled. {@code shutdownNow()} returns the submitted tasks. Tasks which a rejection handler discards
+ * without throwing are counted as submitted.
+ */
+@Beta
+public final class ExecutorMetrics implements ExecutorMetricsMXBean {
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutorMetrics.class);
+    private static final String MBEAN_DOMAIN = "org.opendaylight.yangtools.util.concurrent";
+
+    private final String executorName;
+    private final AtomicInteger activeTasks = new AtomicInteger();
+
+    /*
+     * Replaced as a whole on reset, so a snapshot never mixes counters from before and after a reset. Tasks record
+     * into the counters which were current when they were submitted.
+     */
+    private volatile Counters counters = new Counters(0);
+
+    ExecutorMetrics(@Nonnull final String executorName) {
+        this.executorName = Preconditions.checkNotNull(executorName);
+    }
+
+    /**
+     * Returns the name of the executor.
+     *
+     * @return Executor name
+     */
+    @Nonnull public String getExecutorName() {
+        return executorName;
+    }
+
+    /**
+     * Returns the histogram of time tasks spent waiting to be executed since these metrics were enabled or last reset.
+     *
+     * @return A histogram snapshot
+     */
+    @Nonnull public DurationHistogram getQueueTimeHistogram() {
+        return counters.queueTime.getHistogram();
+    }
+
+    /**
+     * Returns the histogram of task execution times since these metrics were enabled or last reset.
+     *
+     * @return A histogram snapshot
+     */
+    @Nonnull public DurationHistogram getExecutionTimeHistogram() {
+        return counters.executionTime.getHistogram();
+    }
+
+    @Override
+    public ExecutorStats getStats() {
+        final Counters local = counters;
+        final DurationHistogram queued = local.queueTime.getHistogram();
+        final DurationHistogram executed = local.executionTime.getHistogram();
+        final long completed = local.completedTasks.sum();
+        final long failed = local.failedTasks.sum();
+        final long elapsedNanos = Math.max(System.nanoTime() - local.startNanos, 1);
+
+        return new ExecutorStats(executorName, local.submittedTasks.sum(), completed, failed, activeTasks.get(),
+            local.peakActiveTasks.get(), queued.getAverageDuration(), queued.getDurationAtPercentile(99),
+            queued.getMaxDuration(), executed.getAverageDuration(), executed.getDurationAtPercentile(99),
+            executed.getMaxDuration(), (completed + failed) * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Tasks submitted before the reset are not accounted for afterwards, except for the number of currently
+     * executing tasks.
+     */
+    @Override
+    public void reset() {
+        counters = new Counters(activeTasks.get());
+    }
+
+    /**
+     * Register these metrics with the platform MBean server, with an object name derived from the executor name.
+     *
+     * @return Registration, which unregisters the MBean when closed
+     * @throws IllegalStateException if the registration fails, for example because an executor with the same name is
+     *         already registered
+     */
+    @Nonnull public AbstractRegistration registerMBean() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name;
+        try {
+            name = new ObjectName(MBEAN_DOMAIN + ":type=ExecutorMetrics,name=" + ObjectName.quote(executorName));
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register metrics of executor " + executorName, e);
+        }
+
+        return new AbstractRegistration() {
+            @Override
+            protected void removeRegistration() {
+                try {
+                    server.unregisterMBean(name);
+                } catch (JMException e) {
+                    LOG.warn("Failed to unregister {}", name, e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return getStats().toString();
+    }
+
+    /**
+     * Wrap a task and hand it to an executor. The task is counted as submitted only if the executor does not reject
+     * it.
+     *
+     * @param task Task to execute
+     * @param target Executor to hand the wrapped task to
+     * @throws RejectedExecutionException if the executor rejects the task
+     */
+    void execute(@Nonnull final Runnable task, @Nonnull final Executor target) {
+        final Counters local = counters;
+        local.submittedTasks.increment();
+        try {
+            target.execute(new InstrumentedTask(Preconditions.checkNotNull(task), local, System.nanoTime()));
+        } catch (RejectedExecutionException e) {
+            local.submittedTasks.decrement();
+            throw e;
+        }
+    }
+
+    /**
+     * Return the task submitted by the user, if the specified task is a wrapper created by {@link #execute}.
+     */
+    static Runnable unwrap(final Runnable task) {
+        return task instanceof InstrumentedTask ? ((InstrumentedTask) task).delegate : task;
+    }
+
+    /**
+     * Replace wrappers created by {@link #execute} in a list of tasks with the tasks submitted by the user.
+     */
+    static List<Runnable> unwrap(final List<Runnable> tasks) {
+        tasks.replaceAll(ExecutorMetrics::unwrap);
+        return tasks;
+    }
+
+    private void taskStarted(final Counters submitted, final long submittedNanos, final long startedNanos) {
+        submitted.queueTime.addDuration(startedNanos - submittedNanos);
+
+        final int active = activeTasks.incrementAndGet();
+        final AtomicInteger peakActiveTasks = counters.peakActiveTasks;
+        int peak = peakActiveTasks.get();
+        while (active > peak && !peakActiveTasks.compareAndSet(peak, active)) {
+            peak = peakActiveTasks.get();
+        }
+    }
+
+    private void taskFinished(final Counters submitted, final long startedNanos, final boolean success) {
+        submitted.executionTime.addDuration(System.nanoTime() - startedNanos);
+        if (success) {
+            submitted.completedTasks.increment();
+        } else {
+            submitted.failedTasks.increment();
+        }
+        activeTasks.decrementAndGet();
+    }
+
+    private static final class Counters {
+        final long startNanos = System.nanoTime();
+        final HistogramDurationStatisticsTracker queueTime = DurationStatisticsTracker.createHistogram();
+        final HistogramDurationStatisticsTracker executionTime = DurationStatisticsTracker.createHistogram();
+        final LongAdder submittedTasks = new LongAdder();
+        final LongAdder completedTasks = new LongAdder();
+        final LongAdder failedTasks = new LongAdder();
+        final AtomicInteger peakActiveTasks;
+
+        Counters(final int activeTasks) {
+            peakActiveTasks = new AtomicInteger(activeTasks);
+        }
+    }
+
+    private final class InstrumentedTask implements Runnable {
+        private final Runnable delegate;
+        private final Counters counters;
+        private final long submittedNanos;
+
+        InstrumentedTask(final Runnable delegate, final Counters counters, final long submittedNanos) {
+            this.delegate = delegate;
+            this.counters = counters;
+            this.submittedNanos = submittedNanos;
+        }
+
+        @Override
+        public void run() {
+            final long startedNanos = System.nanoTime();
+            taskStarted(counters, submittedNanos, startedNanos);
+
+            boolean success = false;
+            try {
+                delegate.run();
+                success = true;
+            } finally {
+                taskFinished(counters, startedNanos, success);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * JMX view of {@link ExecutorMetrics}.
+ */
+@Beta
+public interface ExecutorMetricsMXBean {
+    /**
+     * Returns a snapshot of the statistics collected since the metrics were enabled or last reset.
+     *
+     * @return Statistics snapshot
+     */
+    ExecutorStats getStats();
+
+    /**
+     * Resets all statistics, except the number of currently executing tasks.
+     */
+    void reset();
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of task statistics collected by {@link ExecutorMetrics}. Apart from the number of tasks executing at the
+ * time of the snapshot, all statistics cover the period since the metrics were enabled or last reset.
+ *
+ * <p>Queue time is the time a task spent between being submitted and starting to execute, execution time is the time
+ * it took to run. Comparing the two tells whether latency comes from waiting for a thread or from the work itself.
+ */
+@Beta
+public class ExecutorStats {
+    private final String executorName;
+    private final long submittedTasks;
+    private final long completedTasks;
+    private final long failedTasks;
+    private final int activeTasks;
+    private final int peakActiveTasks;
+    private final double averageQueueTimeNanos;
+    private final long p99QueueTimeNanos;
+    private final long maxQueueTimeNanos;
+    private final double averageExecutionTimeNanos;
+    private final long p99ExecutionTimeNanos;
+    private final long maxExecutionTimeNanos;
+    private final double throughput;
+
+    @ConstructorProperties({ "executorName", "submittedTasks", "completedTasks", "failedTasks", "activeTasks",
+        "peakActiveTasks", "averageQueueTimeNanos", "p99QueueTimeNanos", "maxQueueTimeNanos",
+        "averageExecutionTimeNanos", "p99ExecutionTimeNanos", "maxExecutionTimeNanos", "throughput" })
+    public ExecutorStats(final String executorName, final long submittedTasks, final long completedTasks,
+            final long failedTasks, final int activeTasks, final int peakActiveTasks,
+            final double averageQueueTimeNanos, final long p99QueueTimeNanos, final long maxQueueTimeNanos,
+            final double averageExecutionTimeNanos, final long p99ExecutionTimeNanos,
+            final long maxExecutionTimeNanos, final double throughput) {
+        this.executorName = executorName;
+        this.submittedTasks = submittedTasks;
+        this.completedTasks = completedTasks;
+        this.failedTasks = failedTasks;
+        this.activeTasks = activeTasks;
+        this.peakActiveTasks = peakActiveTasks;
+        this.averageQueueTimeNanos = averageQueueTimeNanos;
+        this.p99QueueTimeNanos = p99QueueTimeNanos;
+        this.maxQueueTimeNanos = maxQueueTimeNanos;
+        this.averageExecutionTimeNanos = averageExecutionTimeNanos;
+        this.p99ExecutionTimeNanos = p99ExecutionTimeNanos;
+        this.maxExecutionTimeNanos = maxExecutionTimeNanos;
+        this.throughput = throughput;
+    }
+
+    /**
+     * Returns the name of the executor.
+     */
+    public String getExecutorName() {
+        return executorName;
+    }
+
+    /**
+     * Returns the number of tasks submitted to the executor. Tasks rejected by the executor with a
+     * {@link java.util.concurrent.RejectedExecutionException} are not included.
+     */
+    public long getSubmittedTasks() {
+        return submittedTasks;
+    }
+
+    /**
+     * Returns the number of tasks which completed normally.
+     */
+    public long getCompletedTasks() {
+        return completedTasks;
+    }
+
+    /**
+     * Returns the number of tasks which completed by throwing an exception. Tasks submitted via
+     * {@link java.util.concurrent.ExecutorService#submit(Runnable)} report exceptions through their future, hence
+     * they are counted as completed.
+     */
+    public long getFailedTasks() {
+        return failedTasks;
+    }
+
+    /**
+     * Returns the number of tasks executing at the time of the snapshot.
+     */
+    public int getActiveTasks() {
+        return activeTasks;
+    }
+
+    /**
+     * Returns the largest number of tasks observed executing at the same time.
+     */
+    public int getPeakActiveTasks() {
+        return peakActiveTasks;
+    }
+
+    /**
+     * Returns the average time tasks spent waiting to be executed, in nanoseconds.
+     */
+    public double getAverageQueueTimeNanos() {
+        return averageQueueTimeNanos;
+    }
+
+    /**
+     * Returns the 99th percentile of the time tasks spent waiting to be executed, in nanoseconds.
+     */
+    public long getP99QueueTimeNanos() {
+        return p99QueueTimeNanos;
+    }
+
+    /**
+     * Returns the longest time a task spent waiting to be executed, in nanoseconds.
+     */
+    public long getMaxQueueTimeNanos() {
+        return maxQueueTimeNanos;
+    }
+
+    /**
+     * Returns the average execution time of tasks, in nanoseconds.
+     */
+    public double getAverageExecutionTimeNanos() {
+        return averageExecutionTimeNanos;
+    }
+
+    /**
+     * Returns the 99th percentile of task execution time, in nanoseconds.
+     */
+    public long getP99ExecutionTimeNanos() {
+        return p99ExecutionTimeNanos;
+    }
+
+    /**
+     * Returns the longest execution time of a task, in nanoseconds.
+     */
+    public long getMaxExecutionTimeNanos() {
+        return maxExecutionTimeNanos;
+    }
+
+    /**
+     * Returns the average number of tasks finished per second.
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("executor", executorName).add("submitted", submittedTasks)
+                .add("completed", completedTasks).add("failed", failedTasks).add("active", activeTasks)
+                .add("peakActive", peakActiveTasks).add("avgQueueTime", averageQueueTimeNanos)
+                .add("p99QueueTime", p99QueueTimeNanos).add("maxQueueTime", maxQueueTimeNanos)
+                .add("avgExecutionTime", averageExecutionTimeNanos).add("p99ExecutionTime", p99ExecutionTimeNanos)
+                .add("maxExecutionTime", maxExecutionTimeNanos).add("throughput", throughput).toString();
+    }
+}
@@ -11,6 +11,7 @@ package org.opendaylight.yangtools.util.concurrent;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.MoreObjects.ToStringHelper;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.List;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -28,6 +29,7 @@ public class FastThreadPoolExecutor extends ThreadPoolExecutor {
 
     private final String threadPrefix;
     private final int maximumQueueSize;
+    private volatile ExecutorMetrics metrics;
 
     /**
      * Constructs a FastThreadPoolExecutor instance.
@@ -84,6 +86,44 @@ public class FastThreadPoolExecutor extends ThreadPoolExecutor {
         setRejectedExecutionHandler( CountingRejectedExecutionHandler.newAbortPolicy() );
     }
 
+    /**
+     * Enables collection of task statistics. Only tasks submitted after this method is invoked are accounted for.
+     * Until then, this executor does not incur any overhead. Subsequent invocations return the same instance.
+     * Once enabled, queued tasks are wrapped, see {@link ExecutorMetrics}.
+     *
+     * @return Metrics of this executor
+     */
+    public synchronized ExecutorMetrics enableMetrics() {
+        if (metrics == null) {
+            metrics = new ExecutorMetrics( threadPrefix );
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns task statistics of this executor, if they have been enabled.
+     *
+     * @return Metrics of this executor, or null if {@link #enableMetrics()} has not been invoked
+     */
+    public ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void execute( final Runnable command ) {
+        final ExecutorMetrics local = metrics;
+        if (local == null) {
+            super.execute( command );
+        } else {
+            local.execute( command, super::execute );
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return ExecutorMetrics.unwrap( super.shutdownNow() );
+    }
+
     public long getLargestQueueSize() {
         return ((TrackingLinkedBlockingQueue<?>)getQueue()).getLargestQueueSize();
     }
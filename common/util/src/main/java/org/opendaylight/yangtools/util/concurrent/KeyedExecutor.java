@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+
+/**
+ * An executor which spreads tasks across a fixed number of lanes, each of which is served by a single thread with
+ * its own bounded queue. Tasks are assigned to lanes by their affinity key, hence all tasks with equal keys execute
+ * in submission order on the same thread, while tasks with different keys execute in parallel. Since each lane has
+ * its own queue, producers submitting tasks with different keys do not contend with each other.
+ *
+ * <p>Tasks implementing {@link KeyedRunnable}, whether executed or submitted, are assigned by their key, other tasks
+ * are assigned to lanes in round-robin fashion. This makes this executor suitable for
+ * {@link QueuedNotificationManager}, whose tasks are keyed by listener, so each listener sticks to a single thread.
+ *
+ * <p>See {@link SpecialExecutors#newKeyedThreadPool} for more details.
+ */
+@Beta
+public class KeyedExecutor extends AbstractExecutorService {
+    private final FastThreadPoolExecutor[] lanes;
+    private final AtomicInteger nextLane = new AtomicInteger();
+    private final String threadPrefix;
+    private volatile ExecutorMetrics metrics;
+
+    /**
+     * Constructs a KeyedExecutor instance.
+     *
+     * @param laneCount
+     *            the number of lanes, each served by a single thread. Threads are created on demand and
+     *            terminate after being idle for 15 seconds.
+     * @param maximumQueueSize
+     *            the capacity of the queue of each lane.
+     * @param threadPrefix
+     *            the name prefix for threads created by this executor.
+     */
+    public KeyedExecutor(final int laneCount, final int maximumQueueSize, @Nonnull final String threadPrefix) {
+        Preconditions.checkArgument(laneCount > 0, "Invalid lane count %s", laneCount);
+        this.threadPrefix = Preconditions.checkNotNull(threadPrefix);
+
+        lanes = new FastThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; ++i) {
+            lanes[i] = new FastThreadPoolExecutor(1, maximumQueueSize, threadPrefix + "-" + i);
+        }
+    }
+
+    /**
+     * Executes a task on the lane assigned to a key.
+     *
+     * @param key
+     *            the affinity key.
+     * @param task
+     *            the task to execute.
+     * @throws java.util.concurrent.RejectedExecutionException if the lane's queue is full or this executor has been
+     *         shut down
+     */
+    public void execute(@Nonnull final Object key, @Nonnull final Runnable task) {
+        submitToLane(lanes[laneIndex(key.hashCode())], task);
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        Preconditions.checkNotNull(task);
+        final int index = task instanceof KeyedRunnable ? laneIndex(((KeyedRunnable) task).getKey().hashCode())
+                : Math.floorMod(nextLane.getAndIncrement(), lanes.length);
+        submitToLane(lanes[index], task);
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(final Runnable runnable, final T value) {
+        // Keep the key of tasks passed to submit(), so they are assigned to the same lane as if they were executed
+        return runnable instanceof KeyedRunnable
+                ? new KeyedFutureTask<>(runnable, value, ((KeyedRunnable) runnable).getKey())
+                : super.newTaskFor(runnable, value);
+    }
+
+    /**
+     * Returns the number of lanes.
+     *
+     * @return Lane count
+     */
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * Returns the largest queue size observed on any of the lanes.
+     *
+     * @return Largest queue size
+     */
+    public long getLargestQueueSize() {
+        long ret = 0;
+        for (FastThreadPoolExecutor lane : lanes) {
+            ret = Math.max(ret, lane.getLargestQueueSize());
+        }
+        return ret;
+    }
+
+    /**
+     * Enables collection of task statistics, aggregated across all lanes. See
+     * {@link FastThreadPoolExecutor#enableMetrics()}.
+     *
+     * @return Metrics of this executor
+     */
+    public synchronized ExecutorMetrics enableMetrics() {
+        if (metrics == null) {
+            metrics = new ExecutorMetrics(threadPrefix);
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns task statistics of this executor, if they have been enabled.
+     *
+     * @return Metrics of this executor, or null if {@link #enableMetrics()} has not been invoked
+     */
+    public ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void shutdown() {
+        for (FastThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        final List<Runnable> ret = new ArrayList<>();
+        for (FastThreadPoolExecutor lane : lanes) {
+            ret.addAll(lane.shutdownNow());
+        }
+        return ret;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        for (FastThreadPoolExecutor lane : lanes) {
+            if (!lane.isShutdown()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        for (FastThreadPoolExecutor lane : lanes) {
+            if (!lane.isTerminated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (FastThreadPoolExecutor lane : lanes) {
+            if (!lane.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("Thread Prefix", threadPrefix).add("Lane Count", lanes.length)
+                .add("Largest Queue Size", getLargestQueueSize()).toString();
+    }
+
+    private int laneIndex(final int hash) {
+        // Spread the hash, as identity hash codes and small integers are not distributed well
+        final int h = hash * 0x9E3779B9;
+        return Math.floorMod(h ^ (h >>> 16), lanes.length);
+    }
+
+    private void submitToLane(final FastThreadPoolExecutor lane, final Runnable task) {
+        final ExecutorMetrics local = metrics;
+        if (local == null) {
+            lane.execute(task);
+        } else {
+            local.execute(task, lane);
+        }
+    }
+
+    private static final class KeyedFutureTask<T> extends FutureTask<T> implements KeyedRunnable {
+        private final Object key;
+
+        KeyedFutureTask(final Runnable runnable, final T value, final Object key) {
+            super(runnable, value);
+            this.key = Preconditions.checkNotNull(key);
+        }
+
+        @Override
+        public Object getKey() {
+            return key;
+        }
+    }
+}
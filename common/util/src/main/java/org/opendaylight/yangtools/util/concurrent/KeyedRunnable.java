@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.annotations.Beta;
+import javax.annotation.Nonnull;
+
+/**
+ * A {@link Runnable} which carries an affinity key. When submitted to a {@link KeyedExecutor}, all tasks with equal
+ * keys are executed by the same thread, in submission order.
+ */
+@Beta
+public interface KeyedRunnable extends Runnable {
+    /**
+     * Returns the affinity key of this task.
+     *
+     * @return Affinity key
+     */
+    @Nonnull Object getKey();
+}
@@ -14,6 +14,9 @@ import java.beans.ConstructorProperties;
  * Class used by the {@link QueuedNotificationManager} that contains a snapshot of notification
  * queue statistics for a listener.
  *
+ * <p>Apart from the current queue size, all statistics are cumulative over the lifetime of the
+ * listener.
+ *
  * @author Thomas Pantelis
  * @see QueuedNotificationManager
  */
@@ -21,11 +24,35 @@ public class ListenerNotificationQueueStats {
 
     private final String listenerClassName;
     private final int currentQueueSize;
+    private final int maxQueueSize;
+    private final long dispatchedNotifications;
+    private final long droppedNotifications;
+    private final long coalescedNotifications;
+    private final long handedOffNotifications;
+    private final long averageLatencyNanos;
+    private final long maxLatencyNanos;
 
     @ConstructorProperties({ "listenerClassName","currentQueueSize" })
     public ListenerNotificationQueueStats( final String listenerClassName, final int currentQueueSize ) {
+        this( listenerClassName, currentQueueSize, currentQueueSize, 0, 0, 0, 0, 0, 0 );
+    }
+
+    @ConstructorProperties({ "listenerClassName","currentQueueSize","maxQueueSize","dispatchedNotifications",
+        "droppedNotifications","coalescedNotifications","handedOffNotifications","averageLatencyNanos",
+        "maxLatencyNanos" })
+    public ListenerNotificationQueueStats( final String listenerClassName, final int currentQueueSize,
+            final int maxQueueSize, final long dispatchedNotifications, final long droppedNotifications,
+            final long coalescedNotifications, final long handedOffNotifications, final long averageLatencyNanos,
+            final long maxLatencyNanos ) {
         this.listenerClassName = listenerClassName;
         this.currentQueueSize = currentQueueSize;
+        this.maxQueueSize = maxQueueSize;
+        this.dispatchedNotifications = dispatchedNotifications;
+        this.droppedNotifications = droppedNotifications;
+        this.coalescedNotifications = coalescedNotifications;
+        this.handedOffNotifications = handedOffNotifications;
+        this.averageLatencyNanos = averageLatencyNanos;
+        this.maxLatencyNanos = maxLatencyNanos;
     }
 
     /**
@@ -41,4 +68,57 @@ public class ListenerNotificationQueueStats {
     public int getCurrentQueueSize() {
         return currentQueueSize;
     }
+
+    /**
+     * Returns the largest notification queue size observed.
+     */
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    /**
+     * Returns the number of notifications dispatched to the listener.
+     */
+    public long getDispatchedNotifications() {
+        return dispatchedNotifications;
+    }
+
+    /**
+     * Returns the number of notifications dropped because the queue was full.
+     */
+    public long getDroppedNotifications() {
+        return droppedNotifications;
+    }
+
+    /**
+     * Returns the number of notifications which replaced a queued notification because the queue
+     * was full.
+     */
+    public long getCoalescedNotifications() {
+        return coalescedNotifications;
+    }
+
+    /**
+     * Returns the number of notifications handed off to the overload callback because the queue
+     * was full.
+     */
+    public long getHandedOffNotifications() {
+        return handedOffNotifications;
+    }
+
+    /**
+     * Returns the average time a notification spent in the queue before being dispatched, in
+     * nanoseconds.
+     */
+    public long getAverageLatencyNanos() {
+        return averageLatencyNanos;
+    }
+
+    /**
+     * Returns the longest time a notification spent in the queue before being dispatched, in
+     * nanoseconds.
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+
+/**
+ * Policy applied by {@link QueuedNotificationManager} when a notification is submitted to a listener whose queue has
+ * reached its capacity. The default policy, {@link #block()}, makes the producer wait for the listener to catch up,
+ * which means a single slow listener can throttle all producers. The other policies trade completeness of the
+ * notification stream for keeping producers running.
+ *
+ * @param <L> the listener type
+ * @param <N> the notification type
+ */
+@Beta
+public final class OverloadPolicy<L, N> {
+    /**
+     * Callback invoked in the producer's thread with notifications which do not fit into a listener's queue. It can
+     * be used to report the overload, to persist the notification, for example to disk, or to resubmit it later.
+     *
+     * @param <L> the listener type
+     * @param <N> the notification type
+     */
+    @FunctionalInterface
+    public interface OverloadHandler<L, N> {
+        /**
+         * Invoked with a notification which was not queued for a listener.
+         *
+         * @param listener the listener whose queue is full
+         * @param notification the notification which was not queued
+         */
+        void onOverload(L listener, N notification);
+    }
+
+    enum Kind {
+        BLOCK,
+        DROP_OLDEST,
+        COALESCE,
+        HANDOFF,
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static final OverloadPolicy BLOCK = new OverloadPolicy<>(Kind.BLOCK, null, null);
+    @SuppressWarnings("rawtypes")
+    private static final OverloadPolicy DROP_OLDEST = new OverloadPolicy<>(Kind.DROP_OLDEST, null, null);
+
+    private final Kind kind;
+    private final Function<? super N, ?> keyFunction;
+    private final OverloadHandler<? super L, ? super N> handler;
+
+    private OverloadPolicy(final Kind kind, final Function<? super N, ?> keyFunction,
+            final OverloadHandler<? super L, ? super N> handler) {
+        this.kind = kind;
+        this.keyFunction = keyFunction;
+        this.handler = handler;
+    }
+
+    /**
+     * Return a policy which makes the producer wait until the listener's queue has room. A warning is logged each
+     * minute the producer waits and the notification is dropped after ten minutes.
+     *
+     * @return Blocking policy
+     */
+    @SuppressWarnings("unchecked")
+    @Nonnull public static <L, N> OverloadPolicy<L, N> block() {
+        return BLOCK;
+    }
+
+    /**
+     * Return a policy which discards the oldest notification queued for the listener, making room for the new one.
+     * If all queued notifications are already being dispatched, the new notification is discarded instead.
+     *
+     * @return Dropping policy
+     */
+    @SuppressWarnings("unchecked")
+    @Nonnull public static <L, N> OverloadPolicy<L, N> dropOldest() {
+        return DROP_OLDEST;
+    }
+
+    /**
+     * Return a policy which replaces a queued notification with the same key with the new one, keeping the position
+     * of the queued notification. This is useful for notifications which convey the current state of something, where
+     * only the latest state matters. If there is no queued notification with the same key, the producer waits as if
+     * the policy was {@link #block()}.
+     *
+     * @param keyFunction Function returning the key of a notification, it must not return null
+     * @return Coalescing policy
+     */
+    @Nonnull public static <L, N> OverloadPolicy<L, N> coalesce(@Nonnull final Function<? super N, ?> keyFunction) {
+        return new OverloadPolicy<>(Kind.COALESCE, Preconditions.checkNotNull(keyFunction), null);
+    }
+
+    /**
+     * Return a policy which hands the new notification to a callback instead of queueing it. The callback is invoked
+     * in the producer's thread and it should not block. Exceptions thrown by the callback propagate to the producer.
+     *
+     * @param handler Callback to invoke
+     * @return Hand-off policy
+     */
+    @Nonnull public static <L, N> OverloadPolicy<L, N> handOff(
+            @Nonnull final OverloadHandler<? super L, ? super N> handler) {
+        return new OverloadPolicy<>(Kind.HANDOFF, null, Preconditions.checkNotNull(handler));
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    Object keyOf(final N notification) {
+        return Preconditions.checkNotNull(keyFunction.apply(notification), "Null key for notification %s",
+            notification);
+    }
+
+    void handOff(final L listener, final N notification) {
+        handler.onOverload(listener, notification);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).omitNullValues().add("kind", kind).add("key", keyFunction)
+                .add("handler", handler).toString();
+    }
+}
@@ -9,19 +9,25 @@
 package org.opendaylight.yangtools.util.concurrent;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-import javax.annotation.concurrent.GuardedBy;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,7 +41,18 @@ import org.slf4j.LoggerFactory;
  * is created and a task is submitted to the executor to dispatch the queue to the associated
  * listener. Any subsequent notifications that occur before all previous notifications have been
  * dispatched are appended to the existing queue. When all notifications have been dispatched, the
- * queue and task are discarded.
+ * queue and task are discarded and the executor thread is released immediately.
+ *
+ * <p>Queues are lock-free, so producers never contend with the task dispatching to the listener.
+ * If the {@link Invoker} is also a {@link BatchInvoker}, the task hands all notifications pending
+ * for a listener, up to a configurable maximum, to the listener in one invocation.
+ *
+ * <p>Tasks submitted to the executor implement {@link KeyedRunnable}, keyed by listener. When used
+ * with a {@link KeyedExecutor}, each listener's notifications are therefore always dispatched by
+ * the same thread.
+ *
+ * <p>What happens when a listener's queue is full is governed by the listener's
+ * {@link OverloadPolicy}. By default producers wait for the listener to catch up.
  *
  * @author Thomas Pantelis
  *
@@ -63,6 +80,30 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
         void invokeListener( L listener, N notification );
     }
 
+    /**
+     * {@link Invoker} which is able to invoke a listener with a batch of notifications at once.
+     *
+     * @param <L> the listener type
+     * @param <N> the notification type
+     */
+    public interface BatchInvoker<L,N> extends Invoker<L,N> {
+
+        /**
+         * Called to invoke a listener with notifications, in the order in which they were
+         * submitted. The list is reused once this method returns, hence implementations must not
+         * retain a reference to it.
+         *
+         * @param listener the listener to invoke
+         * @param notifications the notifications to send, never empty
+         */
+        void invokeListener( L listener, List<N> notifications );
+
+        @Override
+        default void invokeListener( final L listener, final N notification ) {
+            invokeListener( listener, Collections.singletonList( notification ) );
+        }
+    }
+
     private static final Logger LOG = LoggerFactory.getLogger( QueuedNotificationManager.class );
 
     /**
@@ -70,15 +111,39 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
      * attempt window is 1 minute, so an offer times out after roughly 10 minutes.
      */
     private static final int MAX_NOTIFICATION_OFFER_ATTEMPTS = 10;
+    private static final long OFFER_ATTEMPT_NANOS = TimeUnit.MINUTES.toNanos( 1 );
+
+    /**
+     * Bounds of the back-off used by producers waiting for a full queue to drain.
+     */
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos( 1 );
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos( 1 );
+
+    private static final int RESERVE_DEAD = -1;
+    private static final int RESERVE_TIMED_OUT = -2;
+    private static final int OFFER_HANDLED = -3;
+
+    /**
+     * Default maximum number of notifications dispatched in one go.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
 
     private final Executor executor;
     private final Invoker<L,N> listenerInvoker;
+    private final BatchInvoker<L,N> batchInvoker;
+
+    /**
+     * Per-listener policies and metrics. These outlive the listener's notification tasks, but not
+     * the listener itself. Weak keys are compared by identity, just like {@link ListenerKey}s.
+     */
+    private final LoadingCache<L, ListenerState<L,N>> listenerStates;
 
     private final ConcurrentMap<ListenerKey<L>,NotificationTask>
                                                           listenerCache = new ConcurrentHashMap<>();
 
     private final String name;
     private final int maxQueueCapacity;
+    private final int maxBatchSize;
 
     /**
      * Constructor.
@@ -90,10 +155,55 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
      */
     public QueuedNotificationManager( Executor executor, Invoker<L,N> listenerInvoker,
             int maxQueueCapacity, String name ) {
+        this( executor, listenerInvoker, maxQueueCapacity, DEFAULT_MAX_BATCH_SIZE, name );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param executor the {@link Executor} to use for notification tasks
+     * @param listenerInvoker the {@link Invoker} to use for invoking listeners. If it is a
+     *        {@link BatchInvoker}, listeners are invoked with batches of notifications.
+     * @param maxQueueCapacity the capacity of each listener queue
+     * @param maxBatchSize the maximum number of notifications dispatched to a listener in one go
+     * @param name the name of this instance for logging info
+     */
+    public QueuedNotificationManager( Executor executor, Invoker<L,N> listenerInvoker,
+            int maxQueueCapacity, int maxBatchSize, String name ) {
+        this( executor, listenerInvoker, maxQueueCapacity, maxBatchSize, listener -> OverloadPolicy.block(),
+            name );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param executor the {@link Executor} to use for notification tasks
+     * @param listenerInvoker the {@link Invoker} to use for invoking listeners. If it is a
+     *        {@link BatchInvoker}, listeners are invoked with batches of notifications.
+     * @param maxQueueCapacity the capacity of each listener queue
+     * @param maxBatchSize the maximum number of notifications dispatched to a listener in one go
+     * @param policySelector function selecting the {@link OverloadPolicy} of a listener, invoked
+     *        once per listener
+     * @param name the name of this instance for logging info
+     */
+    public QueuedNotificationManager( Executor executor, Invoker<L,N> listenerInvoker,
+            int maxQueueCapacity, int maxBatchSize,
+            Function<? super L, OverloadPolicy<L,N>> policySelector, String name ) {
         this.executor = Preconditions.checkNotNull( executor );
         this.listenerInvoker = Preconditions.checkNotNull( listenerInvoker );
+        this.batchInvoker = listenerInvoker instanceof BatchInvoker ? (BatchInvoker<L,N>) listenerInvoker : null;
         Preconditions.checkArgument( maxQueueCapacity > 0, "maxQueueCapacity must be > 0 " );
         this.maxQueueCapacity = maxQueueCapacity;
+        Preconditions.checkArgument( maxBatchSize > 0, "maxBatchSize must be > 0 " );
+        this.maxBatchSize = maxBatchSize;
+        Preconditions.checkNotNull( policySelector );
+        this.listenerStates = CacheBuilder.newBuilder().weakKeys().build( new CacheLoader<L, ListenerState<L,N>>() {
+            @Override
+            public ListenerState<L,N> load( final L key ) {
+                return new ListenerState<>( Preconditions.checkNotNull( policySelector.apply( key ),
+                    "No overload policy for listener %s", key ) );
+            }
+        } );
         this.name = Preconditions.checkNotNull( name );
     }
 
@@ -127,48 +237,59 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
                        name, listener.toString(), notifications );
         }
 
-        ListenerKey<L> key = new ListenerKey<>( listener );
-        NotificationTask newNotificationTask = null;
-
-        // Keep looping until we are either able to add a new NotificationTask or are able to
-        // add our notifications to an existing NotificationTask. Eventually one or the other
-        // will occur.
+        final ListenerKey<L> key = new ListenerKey<>( listener );
+        NotificationTask task = null;
 
         try {
-            while (true) {
-                NotificationTask existingTask = listenerCache.get( key );
-
-                if (existingTask == null || !existingTask.submitNotifications( notifications )) {
+            for (N notification : notifications) {
+                Preconditions.checkNotNull( notification, "Notifications may not be null" );
 
-                    // Either there's no existing task or we couldn't add our notifications to the
-                    // existing one because it's in the process of exiting and removing itself from
-                    // the cache. Either way try to put a new task in the cache. If we can't put
-                    // then either the existing one is still there and hasn't removed itself quite
-                    // yet or some other concurrent thread beat us to the put although this method
-                    // shouldn't be called concurrently for the same listener as that would violate
-                    // notification ordering. In any case loop back up and try again.
+                while (true) {
+                    if (task == null) {
+                        task = listenerCache.computeIfAbsent( key, NotificationTask::new );
+                    }
 
-                    if (newNotificationTask == null) {
-                        newNotificationTask = new NotificationTask( key, notifications );
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug( "{}: Offering notification to the queue for listener {}: {}",
+                                   name, listener, notification );
                     }
 
-                    existingTask = listenerCache.putIfAbsent( key, newNotificationTask );
-                    if (existingTask == null) {
+                    final int prev = task.offer( notification );
+                    if (prev == RESERVE_DEAD) {
 
-                        // We were able to put our new task - now submit it to the executor and
-                        // we're done. If it throws a RejectedxecutionException, let that propagate
-                        // to the caller.
+                        // The task has dispatched all its notifications and is exiting, or is
+                        // about to. Make sure it is gone from the cache and try again with a new
+                        // one.
 
-                        LOG.debug( "{}: Submitting NotificationTask for listener {}",
-                                   name, listener.toString() );
+                        listenerCache.remove( key, task );
+                        task = null;
+                        continue;
+                    }
 
-                        executor.execute( newNotificationTask );
+                    if (prev == RESERVE_TIMED_OUT) {
+                        LOG.warn( "{}: Failed to offer a notification to the queue for listener {}. "
+                                + "Exceeded max allowable attempts of {} in {} minutes; the listener "
+                                + "is likely in an unrecoverable state (deadlock or endless loop).",
+                                name, listener, MAX_NOTIFICATION_OFFER_ATTEMPTS,
+                                MAX_NOTIFICATION_OFFER_ATTEMPTS );
                         break;
                     }
-                } else {
 
-                    // We were able to add our notifications to an existing task so we're done.
+                    if (prev == 0) {
 
+                        // We made the first reservation, hence the task is not running yet - now
+                        // submit it to the executor. If it throws a RejectedExecutionException,
+                        // discard the task and let the exception propagate to the caller.
+
+                        LOG.debug( "{}: Submitting NotificationTask for listener {}",
+                                   name, listener );
+                        try {
+                            executor.execute( task );
+                        } catch (RejectedExecutionException e) {
+                            task.abandon();
+                            throw e;
+                        }
+                    }
                     break;
                 }
             }
@@ -194,8 +315,7 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
     public List<ListenerNotificationQueueStats> getListenerNotificationQueueStats() {
         List<ListenerNotificationQueueStats> statsList = new ArrayList<>( listenerCache.size() );
         for (NotificationTask task: listenerCache.values()) {
-            statsList.add( new ListenerNotificationQueueStats(
-                    task.listenerKey.toString(), task.notificationQueue.size() ) );
+            statsList.add( task.state.toStats( task.listenerKey.toString(), task.pendingCount() ) );
         }
 
         return statsList ;
@@ -208,6 +328,13 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
         return maxQueueCapacity;
     }
 
+    /**
+     * Returns the maximum number of notifications dispatched to a listener in one go.
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
     /**
      * Returns the {@link Executor} to used for notification tasks.
      */
@@ -259,155 +386,379 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
     }
 
     /**
-     * Executor task for a single listener that queues notifications and sends them serially to the
-     * listener.
+     * Overload policy and metrics of a single listener.
      */
-    private class NotificationTask implements Runnable {
+    private static final class ListenerState<L,N> {
 
-        private final BlockingQueue<N> notificationQueue;
+        final OverloadPolicy<L,N> policy;
 
-        private volatile boolean done = false;
+        final LongAdder dispatched = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final LongAdder coalesced = new LongAdder();
+        final LongAdder handedOff = new LongAdder();
+        final LongAdder totalLatencyNanos = new LongAdder();
+        final AtomicLong maxLatencyNanos = new AtomicLong();
+        final AtomicInteger maxQueueSize = new AtomicInteger();
 
-        @GuardedBy("queuingLock")
-        private boolean queuedNotifications = false;
+        ListenerState( OverloadPolicy<L,N> policy ) {
+            this.policy = policy;
+        }
 
-        private final Lock queuingLock = new ReentrantLock();
+        void recordQueueSize( int size ) {
+            if (size > maxQueueSize.get()) {
+                maxQueueSize.accumulateAndGet( size, Math::max );
+            }
+        }
 
-        private final ListenerKey<L> listenerKey;
+        void recordLatency( long latencyNanos ) {
+            totalLatencyNanos.add( latencyNanos );
+            if (latencyNanos > maxLatencyNanos.get()) {
+                maxLatencyNanos.accumulateAndGet( latencyNanos, Math::max );
+            }
+        }
 
-        NotificationTask( ListenerKey<L> listenerKey, Iterable<N> notifications ) {
+        ListenerNotificationQueueStats toStats( String listenerName, int currentQueueSize ) {
+            final long count = dispatched.sum();
+            return new ListenerNotificationQueueStats( listenerName, currentQueueSize,
+                    maxQueueSize.get(), count, dropped.sum(), coalesced.sum(), handedOff.sum(),
+                    count == 0 ? 0 : totalLatencyNanos.sum() / count, maxLatencyNanos.get() );
+        }
+    }
 
-            this.listenerKey = listenerKey;
-            this.notificationQueue = new LinkedBlockingQueue<>( maxQueueCapacity );
+    /**
+     * Queue entry holding a notification. The notification can be replaced until the entry is
+     * taken for dispatch, which is what coalescing does.
+     */
+    private static final class Slot<N> {
 
-            for (N notification: notifications) {
-                this.notificationQueue.add( notification );
-            }
-        }
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<Slot, Object> VALUE_UPDATER =
+                AtomicReferenceFieldUpdater.newUpdater( Slot.class, Object.class, "value" );
 
-        boolean submitNotifications( Iterable<N> notifications ) throws InterruptedException {
+        private static final Object TAKEN = new Object();
 
-            queuingLock.lock();
-            try {
+        final long enqueuedNanos = System.nanoTime();
+        final Object key;
 
-                // Check the done flag - if true then #run is in the process of exiting so return
-                // false to indicate such. Otherwise, offer the notifications to the queue.
+        private volatile Object value;
 
-                if (done) {
+        Slot( N value, Object key ) {
+            this.value = value;
+            this.key = key;
+        }
+
+        @SuppressWarnings("unchecked")
+        N take() {
+            return (N) VALUE_UPDATER.getAndSet( this, TAKEN );
+        }
+
+        boolean replace( N newValue ) {
+            while (true) {
+                final Object current = value;
+                if (current == TAKEN) {
                     return false;
                 }
+                if (VALUE_UPDATER.compareAndSet( this, current, newValue )) {
+                    return true;
+                }
+            }
+        }
+    }
 
-                for (N notification: notifications) {
-                    boolean notificationOfferAttemptSuccess = false;
-                    // The offer is attempted for up to 10 minutes, with a status message printed each minute
-                    for (int notificationOfferAttempts = 0;
-                         notificationOfferAttempts < MAX_NOTIFICATION_OFFER_ATTEMPTS; notificationOfferAttempts++) {
+    /**
+     * Executor task for a single listener that queues notifications and sends them serially to the
+     * listener.
+     *
+     * <p>The task is lock-free. Producers append to a {@link ConcurrentLinkedQueue} after reserving
+     * a slot in the {@code pending} counter, which tracks notifications which have been reserved but
+     * not yet dispatched. The producer which makes the first reservation submits the task to the
+     * executor. The task then drains the queue in batches until the counter would drop to zero, at
+     * which point it atomically marks itself as dead instead, removes itself from the cache and
+     * exits, releasing its thread immediately. Producers which find a dead task replace it with a
+     * new one.
+     */
+    private class NotificationTask implements KeyedRunnable {
 
-                        // Try to offer for up to a minute and log a message if it times out.
-                        if (LOG.isDebugEnabled()) {
-                            LOG.debug( "{}: Offering notification to the queue for listener {}: {}",
-                                       name, listenerKey.toString(), notification );
-                        }
+        private final Queue<Slot<N>> notificationQueue = new ConcurrentLinkedQueue<>();
 
-                        if (notificationOfferAttemptSuccess = notificationQueue.offer(
-                                notification, 1, TimeUnit.MINUTES)) {
-                            break;
-                        }
+        private final AtomicInteger pending = new AtomicInteger();
 
-                        LOG.warn(
-                                "{}: Timed out trying to offer a notification to the queue for listener {} "
-                                        + "on attempt {} of {}. " + "The queue has reached its capacity of {}",
-                                name, listenerKey.toString(), notificationOfferAttempts,
-                                MAX_NOTIFICATION_OFFER_ATTEMPTS, maxQueueCapacity);
-                    }
-                    if (!notificationOfferAttemptSuccess) {
-                        LOG.warn(
-                                "{}: Failed to offer a notification to the queue for listener {}. "
-                                        + "Exceeded max allowable attempts of {} in {} minutes; the listener "
-                                        + "is likely in an unrecoverable state (deadlock or endless loop).",
-                                name, listenerKey.toString(), MAX_NOTIFICATION_OFFER_ATTEMPTS,
-                                MAX_NOTIFICATION_OFFER_ATTEMPTS);
-                    }
-                }
+        private final ListenerKey<L> listenerKey;
 
-                // Set the queuedNotifications flag to tell #run that we've just queued
-                // notifications and not to exit yet, even if it thinks the queue is empty at this
-                // point.
+        private final ListenerState<L,N> state;
 
-                queuedNotifications = true;
+        /**
+         * Queued slots by notification key, maintained only with the coalescing policy.
+         */
+        private final ConcurrentMap<Object, Slot<N>> coalesceMap;
 
-            } finally {
-                queuingLock.unlock();
-            }
+        NotificationTask( ListenerKey<L> listenerKey ) {
+            this.listenerKey = listenerKey;
+            this.state = listenerStates.getUnchecked( listenerKey.getListener() );
+            this.coalesceMap = state.policy.getKind() == OverloadPolicy.Kind.COALESCE ? new ConcurrentHashMap<>()
+                    : null;
+        }
 
-            return true;
+        int pendingCount() {
+            return Math.max( pending.get(), 0 );
         }
 
-        @Override
-        public void run() {
+        /**
+         * Offer a notification to this task. If the queue is full, the listener's overload policy is
+         * applied, which may involve waiting for the queue to drain.
+         *
+         * @return previous number of pending notifications if a slot was reserved for the
+         *         notification, {@link #OFFER_HANDLED} if it was handled by the overload policy,
+         *         {@link #RESERVE_DEAD} if the task has exited, {@link #RESERVE_TIMED_OUT} if the
+         *         queue has not drained in time
+         * @throws InterruptedException if the thread is interrupted while waiting
+         */
+        int offer( N notification ) throws InterruptedException {
+
+            // The key function is user code which may throw, so invoke it before reserving a slot.
+            // A reservation which is never enqueued would keep the task from ever draining.
 
+            final Object key;
             try {
-                // Loop until we've dispatched all the notifications in the queue.
+                key = coalesceMap != null ? state.policy.keyOf( notification ) : null;
+            } catch (RuntimeException e) {
 
-                while (true) {
+                // Do not leave a task which has never been submitted in the cache
 
-                    // Get the notification at the head of the queue, waiting a little bit for one
-                    // to get offered.
+                if (pending.compareAndSet( 0, RESERVE_DEAD )) {
+                    listenerCache.remove( listenerKey, this );
+                }
+                throw e;
+            }
+            int attempt = 0;
+            long deadline = 0;
+            long parkNanos = MIN_PARK_NANOS;
 
-                    N notification = notificationQueue.poll( 10, TimeUnit.MILLISECONDS );
-                    if (notification == null) {
+            while (true) {
+                final int prev = pending.get();
+                if (prev < 0) {
+                    return RESERVE_DEAD;
+                }
+                if (prev < maxQueueCapacity) {
+                    if (pending.compareAndSet( prev, prev + 1 )) {
+                        enqueue( notification, key );
+                        state.recordQueueSize( prev + 1 );
+                        return prev;
+                    }
+                    continue;
+                }
 
-                        // The queue is empty - try to get the queuingLock. If we can't get the lock
-                        // then #submitNotifications is in the process of offering to the queue so
-                        // we'll loop back up and poll the queue again.
+                if (handleOverload( notification, key )) {
+                    return OFFER_HANDLED;
+                }
+                if (pending.get() < maxQueueCapacity) {
+                    // The queue has drained or the task has exited meanwhile, retry right away
+                    continue;
+                }
 
-                        if (queuingLock.tryLock()) {
-                            try {
+                // The queue is full - back off and try again. The offer is attempted for up to 10
+                // minutes, with a status message printed each minute
+                final long now = System.nanoTime();
+                if (deadline == 0) {
+                    deadline = now + OFFER_ATTEMPT_NANOS;
+                } else if (now - deadline >= 0) {
+                    LOG.warn( "{}: Timed out trying to offer a notification to the queue for listener {} "
+                            + "on attempt {} of {}. The queue has reached its capacity of {}",
+                            name, listenerKey, attempt, MAX_NOTIFICATION_OFFER_ATTEMPTS, maxQueueCapacity );
+                    if (++attempt == MAX_NOTIFICATION_OFFER_ATTEMPTS) {
+                        return RESERVE_TIMED_OUT;
+                    }
+                    deadline = now + OFFER_ATTEMPT_NANOS;
+                }
 
-                                // Check the queuedNotifications flag to see if #submitNotifications
-                                // has offered new notification(s) to the queue. If so, loop back up
-                                // and poll the queue again. Otherwise set done to true and exit.
-                                // Once we set the done flag and unlock, calls to
-                                // #submitNotifications will fail and a new task will be created.
+                LockSupport.parkNanos( this, parkNanos );
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                parkNanos = Math.min( parkNanos * 2, MAX_PARK_NANOS );
+            }
+        }
+
+        /**
+         * Apply the overload policy to a notification which does not fit into the queue.
+         *
+         * @return true if the notification has been handled, false if the producer should wait
+         */
+        private boolean handleOverload( N notification, Object key ) {
+            switch (state.policy.getKind()) {
+                case DROP_OLDEST:
+                    final Slot<N> oldest = notificationQueue.poll();
+                    if (oldest != null) {
+
+                        // The new notification takes over the reservation of the oldest one, so the
+                        // pending count does not change. The task does not release a reservation it
+                        // has not dispatched, hence it cannot exit before we enqueue. It can only be
+                        // abandoned, in which case we take the notification back and retry.
+
+                        final Slot<N> slot = enqueue( notification, key );
+                        if (pending.get() < 0 && notificationQueue.remove( slot )) {
+                            return false;
+                        }
+                        LOG.debug( "{}: Dropping notification {} for listener {}", name, oldest.value,
+                                   listenerKey );
+                    } else if (pending.get() < maxQueueCapacity) {
 
-                                if (!queuedNotifications) {
-                                    done = true;
-                                    break;
-                                }
+                        // All pending notifications have been dispatched since we found the queue
+                        // full, retry through the reservation path.
 
-                                // Clear the queuedNotifications flag so we'll try to exit the next
-                                // time through the loop when the queue is empty.
+                        return false;
+                    } else {
 
-                                queuedNotifications = false;
+                        // All pending notifications are being dispatched, there is nothing to drop
+                        // but the new notification.
 
-                            } finally {
-                                queuingLock.unlock();
-                            }
-                        }
+                        LOG.debug( "{}: Dropping notification {} for listener {}", name, notification,
+                                   listenerKey );
+                    }
+                    state.dropped.increment();
+                    return true;
+                case COALESCE:
+                    final Slot<N> existing = coalesceMap.get( key );
+                    if (existing != null && existing.replace( notification )) {
+                        LOG.debug( "{}: Coalesced notification {} for listener {}", name, notification,
+                                   listenerKey );
+                        state.coalesced.increment();
+                        return true;
+                    }
+                    return false;
+                case HANDOFF:
+                    state.handedOff.increment();
+                    state.policy.handOff( listenerKey.getListener(), notification );
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Enqueue a notification for which a slot has been reserved.
+         */
+        private Slot<N> enqueue( N notification, Object key ) {
+            final Slot<N> slot = new Slot<>( notification, key );
+            if (coalesceMap != null) {
+                coalesceMap.put( key, slot );
+            }
+            notificationQueue.add( slot );
+            return slot;
+        }
+
+        /**
+         * Mark this task as dead and remove it from the cache. Any notifications still queued are
+         * discarded.
+         */
+        void abandon() {
+            pending.set( RESERVE_DEAD );
+            listenerCache.remove( listenerKey, this );
+        }
+
+        @Override
+        public Object getKey() {
+            return listenerKey;
+        }
+
+        @Override
+        public void run() {
+            final List<N> batch = new ArrayList<>( Math.min( maxBatchSize, maxQueueCapacity ) );
+
+            // Loop until we've dispatched all the notifications which have been reserved.
+            while (true) {
+                final long now = System.nanoTime();
+                for (Slot<N> slot = notificationQueue.poll(); slot != null; slot = notificationQueue.poll()) {
+                    batch.add( slot.take() );
+                    if (coalesceMap != null) {
+                        coalesceMap.remove( slot.key, slot );
+                    }
+                    state.recordLatency( Math.max( now - slot.enqueuedNanos, 0 ) );
+                    if (batch.size() == maxBatchSize) {
+                        break;
                     }
+                }
 
-                    notifyListener( notification );
+                if (batch.isEmpty()) {
+                    // A producer has reserved a slot, but has not enqueued its notification yet.
+                    // This is a very short window, so just give it a chance to finish.
+                    Thread.yield();
+                    continue;
                 }
-            } catch (InterruptedException e) {
 
-                // The executor is probably shutting down so log as debug.
-                LOG.debug( "{}: Interrupted trying to remove from {} listener's queue",
-                           name, listenerKey.toString() );
-            } finally {
+                notifyListener( batch );
+                final int dispatched = batch.size();
+                state.dispatched.add( dispatched );
+                batch.clear();
 
-                // We're exiting, gracefully or not - either way make sure we always remove
-                // ourselves from the cache.
+                if (release( dispatched )) {
+                    LOG.debug( "{}: NotificationTask for listener {} has drained its queue",
+                               name, listenerKey );
+                    return;
+                }
+            }
+        }
 
-                listenerCache.remove( listenerKey );
+        /**
+         * Release slots of dispatched notifications. If that would release all slots, the task is
+         * marked as dead instead, so producers do not add to it anymore.
+         *
+         * @return true if the task is dead and should exit
+         */
+        private boolean release( int dispatched ) {
+            while (true) {
+                final int prev = pending.get();
+                final int next = prev - dispatched;
+                if (next == 0) {
+                    if (pending.compareAndSet( prev, RESERVE_DEAD )) {
+                        listenerCache.remove( listenerKey, this );
+                        return true;
+                    }
+                } else if (pending.compareAndSet( prev, next )) {
+                    return false;
+                }
             }
         }
 
-        private void notifyListener( N notification ) {
+        private void notifyListener( List<N> notifications ) {
+            try {
+                if (batchInvoker != null) {
+                    invokeBatch( notifications );
+                } else {
+                    for (N notification : notifications) {
+                        invokeSingle( notification );
+                    }
+                }
+            } catch (Error e) {
+
+                // A JVM Error is severe - best practice is to throw them up the chain. Mark the task
+                // as dead so no new notifications can be added to this task as we're about to bail.
+
+                abandon();
+                throw e;
+            }
+        }
+
+        private void invokeBatch( List<N> notifications ) {
+            try {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug( "{}: Invoking listener {} with {} notifications: {}",
+                               name, listenerKey, notifications.size(), notifications );
+                }
+
+                batchInvoker.invokeListener( listenerKey.getListener(), notifications );
+
+            } catch (RuntimeException e ) {
+
+                // We'll let a RuntimeException from the listener slide and keep sending any
+                // remaining notifications.
 
-            if (notification == null) {
-                return;
+                LOG.error( String.format( "%1$s: Error notifying listener %2$s", name,
+                           listenerKey.toString() ), e );
             }
+        }
 
+        private void invokeSingle( N notification ) {
             try {
 
                 if (LOG.isDebugEnabled()) {
@@ -424,14 +775,6 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
 
                 LOG.error( String.format( "%1$s: Error notifying listener %2$s", name,
                            listenerKey.toString() ), e );
-
-            } catch (Error e) {
-
-                // A JVM Error is severe - best practice is to throw them up the chain. Set done to
-                // true so no new notifications can be added to this task as we're about to bail.
-
-                done = true;
-                throw e;
             }
         }
     }
@@ -150,4 +150,76 @@ public final class SpecialExecutors {
         return new FastThreadPoolExecutor( 1, maximumQueueSize, Long.MAX_VALUE, TimeUnit.SECONDS,
                 threadPrefix );
     }
+
+    /**
+     * Creates an ExecutorService with a specified bounded capacity whose threads steal work from each other. Each
+     * thread has its own task deque, so unlike the other executors created by this class, producers and threads do
+     * not contend on a single shared queue. This makes it suitable for fanning out large numbers of short tasks from
+     * many producers. There is no ordering guarantee between tasks.
+     *
+     * <p>The number of tasks which have been submitted but not yet finished is limited to the number of threads plus
+     * the maximum queue size. Tasks submitted beyond that limit are rejected.
+     *
+     * @param parallelism
+     *            the number of threads in the pool.
+     * @param maximumQueueSize
+     *            the number of tasks which can wait for a thread.
+     * @param threadPrefix
+     *            the name prefix for threads created by this executor.
+     * @return a new ExecutorService with the specified configuration.
+     */
+    public static ExecutorService newBoundedWorkStealingPool( int parallelism, int maximumQueueSize,
+            String threadPrefix ) {
+        return new WorkStealingExecutor( parallelism, maximumQueueSize, threadPrefix );
+    }
+
+    /**
+     * Creates an executor which assigns tasks to threads by their affinity key, so that all tasks with equal keys
+     * execute in submission order on the same thread, while tasks with different keys execute in parallel. Each
+     * thread has its own bounded queue, so producers submitting tasks with different keys do not contend with each
+     * other. If a thread's queue is full, subsequent tasks assigned to it will be rejected.
+     *
+     * <p>Tasks are keyed either explicitly via {@link KeyedExecutor#execute(Object, Runnable)}, or by implementing
+     * {@link KeyedRunnable}. Tasks submitted by {@link QueuedNotificationManager} are keyed by listener, hence using
+     * this executor with it pins each listener to a single thread.
+     *
+     * <p>Threads that have not been used for 15 seconds are terminated and recreated on demand.
+     *
+     * @param threadCount
+     *            the number of threads.
+     * @param maximumQueueSize
+     *            the capacity of each thread's queue.
+     * @param threadPrefix
+     *            the name prefix for threads created by this executor.
+     * @return a new KeyedExecutor with the specified configuration.
+     */
+    public static KeyedExecutor newKeyedThreadPool( int threadCount, int maximumQueueSize,
+            String threadPrefix ) {
+        return new KeyedExecutor( threadCount, maximumQueueSize, threadPrefix );
+    }
+
+    /**
+     * Enables collection of task statistics, such as queue and execution times, on an executor created by one of the
+     * methods of this class. Executors do not incur any overhead until their metrics are enabled.
+     *
+     * @param executor
+     *            the executor, which must have been created by this class.
+     * @return metrics of the executor
+     * @throws IllegalArgumentException if the executor was not created by this class
+     */
+    public static ExecutorMetrics enableMetrics( final ExecutorService executor ) {
+        if (executor instanceof FastThreadPoolExecutor) {
+            return ((FastThreadPoolExecutor) executor).enableMetrics();
+        }
+        if (executor instanceof CachedThreadPoolExecutor) {
+            return ((CachedThreadPoolExecutor) executor).enableMetrics();
+        }
+        if (executor instanceof WorkStealingExecutor) {
+            return ((WorkStealingExecutor) executor).enableMetrics();
+        }
+        if (executor instanceof KeyedExecutor) {
+            return ((KeyedExecutor) executor).enableMetrics();
+        }
+        throw new IllegalArgumentException( "Unsupported executor " + executor );
+    }
 }
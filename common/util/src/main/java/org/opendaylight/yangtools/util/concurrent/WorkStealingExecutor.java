@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+
+/**
+ * A bounded executor backed by a {@link ForkJoinPool}. Each worker thread has its own task deque and idle workers
+ * steal tasks from busy ones, hence there is no single queue all producers and workers contend on. Tasks are
+ * executed in FIFO order per deque, but there is no global ordering guarantee.
+ *
+ * <p>The number of tasks which have been submitted but not yet finished is limited to the number of threads plus
+ * the specified queue size. Tasks submitted beyond that limit are rejected with a {@link RejectedExecutionException}.
+ *
+ * <p>See {@link SpecialExecutors#newBoundedWorkStealingPool} for more details.
+ */
+@Beta
+public class WorkStealingExecutor extends AbstractExecutorService {
+    private final Pool pool;
+    private final String threadPrefix;
+    private final int maximumQueueSize;
+    private final int capacity;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final LongAdder rejectedTasks = new LongAdder();
+    private volatile ExecutorMetrics metrics;
+
+    /**
+     * Constructs a WorkStealingExecutor instance.
+     *
+     * @param parallelism
+     *            the number of worker threads.
+     * @param maximumQueueSize
+     *            the number of tasks which can wait for a thread.
+     * @param threadPrefix
+     *            the name prefix for threads created by this executor.
+     */
+    public WorkStealingExecutor(final int parallelism, final int maximumQueueSize, @Nonnull final String threadPrefix) {
+        Preconditions.checkArgument(maximumQueueSize >= 0, "Invalid queue size %s", maximumQueueSize);
+        this.threadPrefix = Preconditions.checkNotNull(threadPrefix);
+        this.maximumQueueSize = maximumQueueSize;
+        this.capacity = parallelism + maximumQueueSize;
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        pool = new Pool(parallelism, p -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName(threadPrefix + "-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        Preconditions.checkNotNull(task);
+
+        if (outstanding.incrementAndGet() > capacity) {
+            outstanding.decrementAndGet();
+            rejectedTasks.increment();
+            throw new RejectedExecutionException("Task " + task + " rejected from " + this);
+        }
+
+        final ExecutorMetrics local = metrics;
+        try {
+            if (local == null) {
+                dispatch(task);
+            } else {
+                local.execute(task, this::dispatch);
+            }
+        } catch (RejectedExecutionException e) {
+            outstanding.decrementAndGet();
+            rejectedTasks.increment();
+            throw e;
+        }
+    }
+
+    private void dispatch(final Runnable task) {
+        pool.execute(new OutstandingTask(task));
+    }
+
+    /**
+     * Returns the number of tasks which were rejected because the executor was full.
+     *
+     * @return Rejected task count
+     */
+    public long getRejectedTaskCount() {
+        return rejectedTasks.sum();
+    }
+
+    /**
+     * Returns the number of tasks which were submitted and have not finished yet.
+     *
+     * @return Outstanding task count
+     */
+    public int getOutstandingTaskCount() {
+        return outstanding.get();
+    }
+
+    /**
+     * Returns an estimate of the number of tasks stolen by one worker from another.
+     *
+     * @return Steal count
+     */
+    public long getStealCount() {
+        return pool.getStealCount();
+    }
+
+    /**
+     * Enables collection of task statistics. See {@link FastThreadPoolExecutor#enableMetrics()}.
+     *
+     * @return Metrics of this executor
+     */
+    public synchronized ExecutorMetrics enableMetrics() {
+        if (metrics == null) {
+            metrics = new ExecutorMetrics(threadPrefix);
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns task statistics of this executor, if they have been enabled.
+     *
+     * @return Metrics of this executor, or null if {@link #enableMetrics()} has not been invoked
+     */
+    public ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Tasks forked by executing tasks, rather than submitted to this executor, are not returned.
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        // ForkJoinPool.shutdownNow() cancels queued tasks without returning them, so drain them first
+        pool.shutdown();
+        final List<ForkJoinTask<?>> queued = new ArrayList<>();
+        pool.drain(queued);
+        pool.shutdownNow();
+
+        final List<Runnable> ret = new ArrayList<>(queued.size());
+        for (ForkJoinTask<?> task : queued) {
+            if (task instanceof OutstandingTask) {
+                outstanding.decrementAndGet();
+                ret.add(ExecutorMetrics.unwrap(((OutstandingTask) task).task));
+            }
+        }
+        return ret;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return pool.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return pool.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return pool.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("Thread Prefix", threadPrefix)
+                .add("Current Thread Pool Size", pool.getPoolSize()).add("Parallelism", pool.getParallelism())
+                .add("Outstanding Task Count", outstanding.get()).add("Max Queue Size", maximumQueueSize)
+                .add("Active Thread Count", pool.getActiveThreadCount()).add("Steal Count", pool.getStealCount())
+                .add("Rejected Task Count", rejectedTasks.sum()).toString();
+    }
+
+    private static final class Pool extends ForkJoinPool {
+        Pool(final int parallelism, final ForkJoinWorkerThreadFactory factory) {
+            super(parallelism, factory, null, true);
+        }
+
+        void drain(final Collection<? super ForkJoinTask<?>> tasks) {
+            drainTasksTo(tasks);
+        }
+    }
+
+    /**
+     * A submitted task, tracked in the outstanding task count. Unlike the wrapper ForkJoinPool creates for a plain
+     * {@link Runnable}, it allows the task to be recovered when it is drained from the pool.
+     */
+    private final class OutstandingTask extends ForkJoinTask<Void> {
+        private static final long serialVersionUID = 1L;
+
+        final Runnable task;
+
+        OutstandingTask(final Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public Void getRawResult() {
+            return null;
+        }
+
+        @Override
+        protected void setRawResult(final Void value) {
+            // Nothing to do
+        }
+
+        @Override
+        protected boolean exec() {
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                // ForkJoinPool would only record the failure in the task, report it like a plain Runnable's instead
+                final Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            } finally {
+                outstanding.decrementAndGet();
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class HistogramDurationStatisticsTrackerTest {
+
+    @Test
+    public void testBuckets() {
+        int prevIndex = -1;
+        for (long value = 0; value < 100000; ++value) {
+            final int index = DurationHistogram.bucketIndex(value);
+            assertTrue(index == prevIndex || index == prevIndex + 1);
+            assertTrue(DurationHistogram.bucketLowestValue(index) <= value);
+            assertTrue(DurationHistogram.bucketHighestValue(index) >= value);
+            prevIndex = index;
+        }
+
+        final int last = DurationHistogram.BUCKET_COUNT - 1;
+        assertEquals(last, DurationHistogram.bucketIndex(DurationHistogram.MAX_TRACKABLE_VALUE));
+        assertEquals(last, DurationHistogram.bucketIndex(Long.MAX_VALUE));
+        assertEquals(DurationHistogram.MAX_TRACKABLE_VALUE, DurationHistogram.bucketHighestValue(last));
+        assertEquals(0, DurationHistogram.bucketIndex(-1));
+    }
+
+    @Test
+    public void testPercentiles() {
+        final HistogramDurationStatisticsTracker tracker = DurationStatisticsTracker.createHistogram();
+        for (int i = 1; i <= 1000; ++i) {
+            tracker.addDuration(i * 1000L);
+        }
+
+        assertEquals(1000, tracker.getTotalDurations());
+        assertEquals(500500.0, tracker.getAverageDuration(), 0.1);
+        assertEquals(1000, tracker.getShortestDuration());
+        assertEquals(1000000, tracker.getLongestDuration());
+        assertApprox(500000, tracker.getDurationAtPercentile(50));
+        assertApprox(990000, tracker.getDurationAtPercentile(99));
+        assertApprox(999000, tracker.getDurationAtPercentile(99.9));
+        assertApprox(1000000, tracker.getDurationAtPercentile(100));
+        assertApprox(1000, tracker.getHistogram().getMinDuration());
+
+        tracker.reset();
+        assertEquals(0, tracker.getTotalDurations());
+        assertEquals(0, tracker.getDurationAtPercentile(99));
+        assertEquals(0, tracker.getLongestDuration());
+
+        tracker.addDuration(42);
+        assertEquals(1, tracker.getTotalDurations());
+        assertEquals(42, tracker.getDurationAtPercentile(50));
+    }
+
+    @Test
+    public void testIntervals() {
+        final HistogramDurationStatisticsTracker tracker = DurationStatisticsTracker.createHistogram();
+        tracker.addDuration(100);
+        tracker.addDuration(200);
+
+        DurationHistogram interval = tracker.getIntervalHistogram();
+        assertEquals(2, interval.getTotalCount());
+        assertEquals(150.0, interval.getAverageDuration(), 0.1);
+
+        tracker.addDuration(300);
+        interval = tracker.getIntervalHistogram();
+        assertEquals(1, interval.getTotalCount());
+        assertApprox(300, interval.getDurationAtPercentile(50));
+        assertTrue(interval.getStartTimeMillis() <= interval.getEndTimeMillis());
+
+        assertEquals(0, tracker.getIntervalHistogram().getTotalCount());
+        assertEquals(3, tracker.getTotalDurations());
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        final HistogramDurationStatisticsTracker tracker = DurationStatisticsTracker.createHistogram();
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; ++i) {
+            final Random random = new Random(i);
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 100000; ++j) {
+                    tracker.addDuration(random.nextInt(1000000));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertEquals(800000, tracker.getTotalDurations());
+        assertApprox(500000, tracker.getDurationAtPercentile(50));
+    }
+
+    private static void assertApprox(final long expected, final long actual) {
+        assertTrue("Expected " + expected + " got " + actual, Math.abs(expected - actual) <= expected / 50);
+    }
+}
@@ -15,6 +15,7 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
@@ -27,6 +28,7 @@ import java.util.AbstractMap.SimpleEntry;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
@@ -53,7 +55,7 @@ public class OffsetMapTest {
 
     @Test(expected = IllegalArgumentException.class)
     public void testWrongImmutableConstruction() {
-        new ImmutableOffsetMap.Ordered<>(Collections.<String, Integer>emptyMap(), new String[1]);
+        new ImmutableOffsetMap.Ordered<>(OffsetLayout.<String>empty(), new String[1]);
     }
 
     @Test
@@ -765,4 +767,46 @@ public class OffsetMapTest {
 
         assertEquals(source, result);
     }
+
+    @Test
+    public void testLayoutLookup() {
+        final Map<String, String> source = new LinkedHashMap<>();
+        for (int i = 0; i < 100; ++i) {
+            source.put("k" + i, "v" + i);
+        }
+
+        final ImmutableOffsetMap<String, String> map =
+                (ImmutableOffsetMap<String, String>) ImmutableOffsetMap.orderedCopyOf(source);
+        final OffsetLayout<String> offsets = map.offsets();
+        assertEquals(100, offsets.size());
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(i, offsets.offsetOf("k" + i));
+            assertEquals("k" + i, offsets.keyAt(i));
+            assertEquals("v" + i, map.get("k" + i));
+        }
+        assertEquals(-1, offsets.offsetOf("k100"));
+        assertEquals(-1, offsets.offsetOf(null));
+        assertEquals(source.keySet(), offsets.keySet());
+        assertEquals(ImmutableList.copyOf(source.keySet()), ImmutableList.copyOf(offsets.keySet()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLayoutDuplicateKeys() {
+        OffsetLayout.of(ImmutableList.of("k1", "k2", "k1"));
+    }
+
+    @Test
+    public void testLayoutSharing() {
+        final ImmutableOffsetMap<String, String> unordered = unorderedMap();
+        final ImmutableOffsetMap<String, String> reversed = (ImmutableOffsetMap<String, String>)
+                ImmutableOffsetMap.unorderedCopyOf(ImmutableMap.of("k2", "v2", "k1", "v1"));
+        assertSame(unordered.offsets(), reversed.offsets());
+        assertEquals(unordered, reversed);
+
+        final ImmutableOffsetMap<String, String> ordered = (ImmutableOffsetMap<String, String>)
+                ImmutableOffsetMap.orderedCopyOf(ImmutableMap.of("k2", "v2", "k1", "v1"));
+        assertNotSame(createMap().offsets(), ordered.offsets());
+        assertSame(ordered.offsets(), ((ImmutableOffsetMap<String, String>)
+                ImmutableOffsetMap.orderedCopyOf(ImmutableMap.of("k2", "v3", "k1", "v4"))).offsets());
+    }
 }
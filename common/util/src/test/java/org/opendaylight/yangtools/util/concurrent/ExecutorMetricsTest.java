@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.management.ObjectName;
+import org.junit.After;
+import org.junit.Test;
+import org.opendaylight.yangtools.concepts.AbstractRegistration;
+
+public class ExecutorMetricsTest {
+    private ExecutorService executor;
+
+    @After
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFastThreadPoolMetrics() throws Exception {
+        executor = SpecialExecutors.newBoundedFastThreadPool(1, 100, "MetricsPool");
+        assertNull(((FastThreadPoolExecutor) executor).getMetrics());
+        assertMetrics(SpecialExecutors.enableMetrics(executor));
+    }
+
+    @Test
+    public void testCachedThreadPoolMetrics() throws Exception {
+        executor = SpecialExecutors.newBoundedCachedThreadPool(1, 100, "MetricsPool");
+        assertNull(((CachedThreadPoolExecutor) executor).getMetrics());
+        assertMetrics(SpecialExecutors.enableMetrics(executor));
+    }
+
+    @Test
+    public void testRejectedTasks() throws Exception {
+        executor = SpecialExecutors.newBoundedFastThreadPool(1, 1, "MetricsPool");
+        final ExecutorMetrics metrics = SpecialExecutors.enableMetrics(executor);
+
+        final CountDownLatch blocker = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        final Runnable queued = () -> { };
+        executor.execute(queued);
+        try {
+            executor.execute(() -> { });
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException e) {
+            // Expected
+        }
+        assertEquals(2, metrics.getStats().getSubmittedTasks());
+
+        // Queued tasks are returned as they were submitted
+        assertEquals(Collections.singletonList(queued), executor.shutdownNow());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedExecutor() {
+        executor = Executors.newSingleThreadExecutor();
+        SpecialExecutors.enableMetrics(executor);
+    }
+
+    @Test
+    public void testRegisterMBean() throws Exception {
+        executor = SpecialExecutors.newBoundedFastThreadPool(1, 100, "MBeanPool");
+        final ExecutorMetrics metrics = SpecialExecutors.enableMetrics(executor);
+        final ObjectName name = new ObjectName(
+            "org.opendaylight.yangtools.util.concurrent:type=ExecutorMetrics,name=\"MBeanPool\"");
+
+        final AbstractRegistration reg = metrics.registerMBean();
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+        reg.close();
+        assertTrue(!ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    private void assertMetrics(final ExecutorMetrics metrics) throws InterruptedException {
+        assertSame(metrics, SpecialExecutors.enableMetrics(executor));
+        assertEquals("MetricsPool", metrics.getExecutorName());
+
+        // The first task blocks the only thread, so the others have to queue
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(4);
+        executor.execute(() -> {
+            try {
+                blocker.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                done.countDown();
+            }
+        });
+        for (int i = 0; i < 2; ++i) {
+            executor.execute(done::countDown);
+        }
+        executor.execute(() -> {
+            done.countDown();
+            throw new IllegalStateException("Expected failure");
+        });
+
+        Thread.sleep(10);
+        assertEquals(1, metrics.getStats().getActiveTasks());
+        blocker.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        // Counters are updated after the task finishes, so wait for them to settle
+        for (int i = 0; i < 500 && metrics.getStats().getActiveTasks() != 0; ++i) {
+            Thread.sleep(10);
+        }
+
+        final ExecutorStats stats = metrics.getStats();
+        assertEquals(4, stats.getSubmittedTasks());
+        assertEquals(3, stats.getCompletedTasks());
+        assertEquals(1, stats.getFailedTasks());
+        assertEquals(0, stats.getActiveTasks());
+        assertEquals(1, stats.getPeakActiveTasks());
+        assertTrue(stats.getMaxQueueTimeNanos() >= TimeUnit.MILLISECONDS.toNanos(9));
+        assertTrue(stats.getMaxExecutionTimeNanos() >= TimeUnit.MILLISECONDS.toNanos(9));
+        assertTrue(stats.getThroughput() > 0);
+        assertEquals(4, metrics.getExecutionTimeHistogram().getTotalCount());
+
+        metrics.reset();
+        final ExecutorStats reset = metrics.getStats();
+        assertEquals(0, reset.getSubmittedTasks());
+        assertEquals(0, reset.getCompletedTasks());
+        assertEquals(0, reset.getPeakActiveTasks());
+        assertEquals(0, metrics.getQueueTimeHistogram().getTotalCount());
+    }
+}
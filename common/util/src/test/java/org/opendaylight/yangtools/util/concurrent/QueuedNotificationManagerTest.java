@@ -9,11 +9,13 @@
 package org.opendaylight.yangtools.util.concurrent;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -132,6 +134,19 @@ public class QueuedNotificationManagerTest {
         }
     }
 
+    static class TestBatchNotifier<N> implements QueuedNotificationManager.BatchInvoker<TestListener<N>,N> {
+
+        final List<Integer> batchSizes = Collections.synchronizedList( new ArrayList<>() );
+
+        @Override
+        public void invokeListener( TestListener<N> listener, List<N> notifications ) {
+            batchSizes.add( notifications.size() );
+            for (N notification : notifications) {
+                listener.onNotification( notification );
+            }
+        }
+    }
+
     private ExecutorService queueExecutor;
 
     @After
@@ -295,4 +310,130 @@ public class QueuedNotificationManagerTest {
 
         listener.verifyNotifications();
     }
+
+    @Test(timeout=10000)
+    public void testNotificationsWithBatchInvoker() throws InterruptedException {
+
+        queueExecutor = Executors.newFixedThreadPool( 1 );
+
+        // Occupy the only thread, so the notifications queue up
+        final CountDownLatch blockLatch = new CountDownLatch( 1 );
+        queueExecutor.execute( () -> Uninterruptibles.awaitUninterruptibly( blockLatch ) );
+
+        final TestBatchNotifier<Integer> notifier = new TestBatchNotifier<>();
+        QueuedNotificationManager<TestListener<Integer>, Integer> manager =
+                new QueuedNotificationManager<>( queueExecutor, notifier, 100, 4, "TestMgr" );
+        assertEquals( 4, manager.getMaxBatchSize() );
+
+        TestListener<Integer> listener = new TestListener<>( 10, 1 );
+        List<Integer> expNotifications = Lists.newArrayList( 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 );
+        manager.submitNotifications( listener, expNotifications );
+        assertEquals( 10, manager.getListenerNotificationQueueStats().get( 0 ).getCurrentQueueSize() );
+
+        blockLatch.countDown();
+        listener.verifyNotifications( expNotifications );
+        assertEquals( Arrays.asList( 4, 4, 2 ), notifier.batchSizes );
+
+        // The task exits once the queue is drained, releasing the thread
+        final Stopwatch sw = Stopwatch.createStarted();
+        while (!manager.getListenerNotificationQueueStats().isEmpty()) {
+            assertTrue( "Task did not exit", sw.elapsed( TimeUnit.SECONDS ) < 5 );
+            Thread.sleep( 1 );
+        }
+
+        // A drained listener gets a new task
+        listener.reset( 1 );
+        manager.submitNotification( listener, 11 );
+        listener.verifyNotifications( Collections.singletonList( 11 ) );
+    }
+
+    @Test(timeout=10000)
+    public void testOverloadPolicies() {
+
+        queueExecutor = Executors.newFixedThreadPool( 1 );
+
+        // Drop oldest: the producer is not blocked and only the newest notifications are delivered
+        CountDownLatch blockLatch = new CountDownLatch( 1 );
+        queueExecutor.execute( () -> Uninterruptibles.awaitUninterruptibly( blockLatch ) );
+
+        QueuedNotificationManager<TestListener<Integer>, Integer> manager = new QueuedNotificationManager<>(
+                queueExecutor, new TestNotifier<>(), 3, 10, listener -> OverloadPolicy.dropOldest(), "TestMgr" );
+        TestListener<Integer> listener = new TestListener<>( 3, 1 );
+        manager.submitNotifications( listener, Arrays.asList( 1, 2, 3, 4, 5 ) );
+
+        ListenerNotificationQueueStats stats = manager.getListenerNotificationQueueStats().get( 0 );
+        assertEquals( 3, stats.getCurrentQueueSize() );
+        assertEquals( 3, stats.getMaxQueueSize() );
+        assertEquals( 2, stats.getDroppedNotifications() );
+
+        blockLatch.countDown();
+        listener.verifyNotifications( Arrays.asList( 3, 4, 5 ) );
+
+        // Coalesce: notifications with the same key replace queued ones in place
+        final CountDownLatch blockLatch2 = new CountDownLatch( 1 );
+        queueExecutor.execute( () -> Uninterruptibles.awaitUninterruptibly( blockLatch2 ) );
+
+        manager = new QueuedNotificationManager<>( queueExecutor, new TestNotifier<>(), 2, 10,
+                l -> OverloadPolicy.coalesce( n -> n % 10 ), "TestMgr" );
+        listener = new TestListener<>( 2, 2 );
+        manager.submitNotifications( listener, Arrays.asList( 1, 2, 11, 12, 21 ) );
+        assertEquals( 3, manager.getListenerNotificationQueueStats().get( 0 ).getCoalescedNotifications() );
+
+        blockLatch2.countDown();
+        listener.verifyNotifications( Arrays.asList( 21, 12 ) );
+
+        // Hand-off: overflowing notifications are given back to the producer
+        final CountDownLatch blockLatch3 = new CountDownLatch( 1 );
+        queueExecutor.execute( () -> Uninterruptibles.awaitUninterruptibly( blockLatch3 ) );
+
+        final List<Integer> handedOff = new ArrayList<>();
+        manager = new QueuedNotificationManager<>( queueExecutor, new TestNotifier<>(), 2, 10,
+                l -> OverloadPolicy.handOff( (lsnr, n) -> handedOff.add( n ) ), "TestMgr" );
+        listener = new TestListener<>( 2, 3 );
+        manager.submitNotifications( listener, Arrays.asList( 1, 2, 3, 4 ) );
+        assertEquals( Arrays.asList( 3, 4 ), handedOff );
+
+        blockLatch3.countDown();
+        listener.verifyNotifications( Arrays.asList( 1, 2 ) );
+    }
+
+    @Test(timeout=10000)
+    public void testFailingCoalesceKey() {
+
+        queueExecutor = Executors.newFixedThreadPool( 1 );
+
+        final QueuedNotificationManager<TestListener<Integer>, Integer> manager = new QueuedNotificationManager<>(
+                queueExecutor, new TestNotifier<>(), 2, 10, l -> OverloadPolicy.coalesce( n -> {
+                    if (n < 0) {
+                        throw new IllegalArgumentException( "Negative notification" );
+                    }
+                    return n % 10;
+                } ), "TestMgr" );
+        final TestListener<Integer> listener = new TestListener<>( 2, 1 );
+        try {
+            manager.submitNotification( listener, -1 );
+            fail( "Expected IllegalArgumentException" );
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        assertTrue( manager.getListenerNotificationQueueStats().isEmpty() );
+
+        manager.submitNotification( listener, 1 );
+        try {
+            manager.submitNotification( listener, -1 );
+            fail( "Expected IllegalArgumentException" );
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        // The failed notification must not have left a reservation behind
+        manager.submitNotification( listener, 2 );
+        listener.verifyNotifications( Arrays.asList( 1, 2 ) );
+
+        final Stopwatch sw = Stopwatch.createStarted();
+        while (!manager.getListenerNotificationQueueStats().isEmpty()) {
+            assertTrue( "Task did not exit", sw.elapsed( TimeUnit.SECONDS ) < 5 );
+            Uninterruptibles.sleepUninterruptibly( 1, TimeUnit.MILLISECONDS );
+        }
+    }
 }
@@ -8,14 +8,18 @@
 package org.opendaylight.yangtools.util.concurrent;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import com.google.common.base.Stopwatch;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -94,6 +98,128 @@ public class ThreadPoolExecutorTest {
                 1000, null, 10 );
     }
 
+    @Test
+    public void testWorkStealingPoolExecution() throws Exception {
+
+        testThreadPoolExecution(
+                SpecialExecutors.newBoundedWorkStealingPool( 8, 100000, "TestPool" ),
+                100000, "TestPool", 0 );
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testWorkStealingPoolRejectingTask() throws Exception {
+
+        executor = SpecialExecutors.newBoundedWorkStealingPool( 1, 1, "TestPool" );
+
+        for (int i = 0; i < 5; i++) {
+            executor.execute( new Task( null, null, null, null,
+                    TimeUnit.MICROSECONDS.convert( 5, TimeUnit.SECONDS ) ) );
+        }
+    }
+
+    @Test
+    public void testWorkStealingPoolShutdownNow() throws Exception {
+
+        final WorkStealingExecutor stealing = new WorkStealingExecutor( 1, 10, "TestPool" );
+        executor = stealing;
+
+        final CountDownLatch startedLatch = new CountDownLatch( 1 );
+        final CountDownLatch blockLatch = new CountDownLatch( 1 );
+        executor.execute( () -> {
+            startedLatch.countDown();
+            try {
+                blockLatch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } );
+        assertTrue( startedLatch.await( 5, TimeUnit.SECONDS ) );
+
+        final Runnable first = () -> { };
+        final Runnable second = () -> { };
+        executor.execute( first );
+        executor.execute( second );
+
+        final List<Runnable> queued = executor.shutdownNow();
+        assertEquals( 2, queued.size() );
+        assertTrue( queued.containsAll( Arrays.asList( first, second ) ) );
+        blockLatch.countDown();
+        assertTrue( executor.awaitTermination( 5, TimeUnit.SECONDS ) );
+        assertEquals( 0, stealing.getOutstandingTaskCount() );
+    }
+
+    @Test
+    public void testKeyedThreadPoolExecution() throws Exception {
+
+        testThreadPoolExecution(
+                SpecialExecutors.newKeyedThreadPool( 4, 100000, "TestPool" ),
+                100000, "TestPool", 0 );
+    }
+
+    @Test
+    public void testKeyedThreadPoolOrdering() throws Exception {
+
+        final KeyedExecutor keyed = SpecialExecutors.newKeyedThreadPool( 4, 100000, "TestPool" );
+        executor = keyed;
+
+        final int numKeys = 16;
+        final int numTasksPerKey = 1000;
+        final CountDownLatch tasksRunLatch = new CountDownLatch( numKeys * numTasksPerKey );
+        final ConcurrentMap<Integer, Thread> threadPerKey = new ConcurrentHashMap<>();
+        final int[] lastSeen = new int[numKeys];
+        final AtomicReference<String> threadError = new AtomicReference<>();
+
+        for (int i = 0; i < numTasksPerKey; i++) {
+            for (int key = 0; key < numKeys; key++) {
+                final int k = key;
+                final int seq = i;
+                keyed.execute( k, () -> {
+                    final Thread prev = threadPerKey.putIfAbsent( k, Thread.currentThread() );
+                    if (prev != null && prev != Thread.currentThread()) {
+                        threadError.set( "Key " + k + " executed on multiple threads" );
+                    }
+                    if (lastSeen[k] != seq) {
+                        threadError.set( "Key " + k + " expected task " + lastSeen[k] + " got " + seq );
+                    }
+                    lastSeen[k] = seq + 1;
+                    tasksRunLatch.countDown();
+                } );
+            }
+        }
+
+        assertEquals( true, tasksRunLatch.await( 15, TimeUnit.SECONDS ) );
+        assertEquals( null, threadError.get() );
+    }
+
+    @Test
+    public void testKeyedThreadPoolSubmit() throws Exception {
+
+        executor = SpecialExecutors.newKeyedThreadPool( 4, 100000, "TestPool" );
+
+        final int numTasks = 100;
+        final ConcurrentMap<Thread, AtomicLong> taskCountPerThread = new ConcurrentHashMap<>();
+        Future<?> last = null;
+        for (int i = 0; i < numTasks; i++) {
+            last = executor.submit( new KeyedRunnable() {
+                @Override
+                public Object getKey() {
+                    return "key";
+                }
+
+                @Override
+                public void run() {
+                    taskCountPerThread.computeIfAbsent( Thread.currentThread(), t -> new AtomicLong() )
+                        .incrementAndGet();
+                }
+            } );
+        }
+        last.get( 5, TimeUnit.SECONDS );
+
+        // All tasks with the same key run on the lane's single thread
+        assertEquals( 1, taskCountPerThread.size() );
+        assertEquals( numTasks, taskCountPerThread.values().iterator().next().get() );
+    }
+
     void testThreadPoolExecution( final ExecutorService executor,
             final int numTasksToRun, final String expThreadPrefix, final long taskDelay ) throws Exception {
 
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.common;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Weak-valued interning table. Unlike Guava's weak interner, entries are keyed by a separate key object, so lookups
+ * can be performed with a probe object which compares equal to the key, without constructing a template value.
+ * Lookups do not take any locks.
+ *
+ * <p>Keys must not reference the value they map to, otherwise the value would never be garbage-collected. Probes
+ * passed to {@link #get(Object)} must have the same hash code as the key they are looking for and their
+ * {@link Object#equals(Object)} must recognize the key.
+ *
+ * @param <T> the type of interned values
+ */
+final class InternTable<T> {
+    private static final class Entry<T> extends WeakReference<T> {
+        final Object key;
+
+        Entry(final Object key, final T value, final ReferenceQueue<T> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+
+    private final ConcurrentMap<Object, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+    /**
+     * Look up an interned value.
+     *
+     * @param probe Key or probe object
+     * @return Interned value, or null if there is none
+     */
+    T get(final Object probe) {
+        final Entry<T> entry = entries.get(probe);
+        return entry == null ? null : entry.get();
+    }
+
+    /**
+     * Intern a value, unless an equivalent value is already interned.
+     *
+     * @param key Key of the value
+     * @param value Value to intern
+     * @return The interned value, which is either the existing value or the one supplied
+     */
+    T intern(final Object key, final T value) {
+        expungeStaleEntries();
+
+        final Entry<T> entry = new Entry<>(key, value, queue);
+        while (true) {
+            final Entry<T> prev = entries.putIfAbsent(key, entry);
+            if (prev == null) {
+                return value;
+            }
+
+            final T existing = prev.get();
+            if (existing != null) {
+                return existing;
+            }
+            if (entries.replace(key, prev, entry)) {
+                return value;
+            }
+        }
+    }
+
+    private void expungeStaleEntries() {
+        for (Reference<? extends T> ref = queue.poll(); ref != null; ref = queue.poll()) {
+            entries.remove(((Entry<?>) ref).key, ref);
+        }
+    }
+}
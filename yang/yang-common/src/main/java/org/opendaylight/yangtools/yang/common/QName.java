@@ -7,16 +7,12 @@
  */
 package org.opendaylight.yangtools.yang.common;
 
-import static org.opendaylight.yangtools.yang.common.SimpleDateFormatUtil.getRevisionFormat;
-
+import com.google.common.annotations.Beta;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
-import com.google.common.collect.Interner;
-import com.google.common.collect.Interners;
 import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.text.ParseException;
 import java.util.Date;
 import java.util.Objects;
 import java.util.regex.Matcher;
@@ -48,7 +44,7 @@ import org.opendaylight.yangtools.concepts.Immutable;
  *
  */
 public final class QName implements Immutable, Serializable, Comparable<QName> {
-    private static final Interner<QName> INTERNER = Interners.newWeakInterner();
+    private static final InternTable<QName> INTERNED = new InternTable<>();
     private static final long serialVersionUID = 5398411242927766414L;
 
     static final String QNAME_REVISION_DELIMITER = "?revision=";
@@ -165,15 +161,41 @@ public final class QName implements Immutable, Serializable, Comparable<QName> {
      * @return Interned reference, or this object if it was interned.
      */
     public QName intern() {
+        final QName existing = INTERNED.get(new NameKey(module, localName));
+        return existing != null ? existing : internNew(this);
+    }
+
+    /**
+     * Return an interned QName with specified module and local name. Unlike {@link #create(QNameModule, String)}
+     * followed by {@link #intern()}, this method does not allocate a QName nor a String if an equivalent QName has
+     * already been interned, which makes it suitable for resolving names while parsing documents. The local name can
+     * be a view into a parser's buffer, for example one created by {@link java.nio.CharBuffer#wrap(char[], int, int)},
+     * as it is not retained.
+     *
+     * @param module Module of the QName
+     * @param localName Local name of the QName
+     * @return Interned QName
+     * @throws NullPointerException if any of the arguments is null
+     * @throws IllegalArgumentException if localName is not a valid local name
+     */
+    @Beta
+    public static QName internedOf(final QNameModule module, final CharSequence localName) {
+        Preconditions.checkNotNull(module, "module may not be null");
+        final QName existing = INTERNED.get(new NameKey(module, Preconditions.checkNotNull(localName)));
+        return existing != null ? existing : internNew(new QName(module, localName.toString()));
+    }
+
+    private static QName internNew(final QName qname) {
         // We also want to make sure we keep the QNameModule cached
-        final QNameModule cacheMod = module.intern();
+        final QNameModule cacheMod = qname.module.intern();
+        final String cacheName = qname.localName.intern();
 
         // Identity comparison is here on purpose, as we are deciding whether to potentially store 'qname' into the
-        // interner. It is important that it does not hold user-supplied reference (such a String instance from
+        // table. It is important that it does not hold user-supplied reference (such a String instance from
         // parsing of an XML document).
-        final QName template = cacheMod == module ? this : QName.create(cacheMod, localName.intern());
-
-        return INTERNER.intern(template);
+        final QName value = cacheMod == qname.module && cacheName == qname.localName ? qname
+                : new QName(cacheMod, cacheName);
+        return INTERNED.intern(new NameKey(cacheMod, cacheName), value);
     }
 
     @Override
@@ -346,8 +368,8 @@ public final class QName implements Immutable, Serializable, Comparable<QName> {
 
     public static Date parseRevision(final String formatedDate) {
         try {
-            return getRevisionFormat().parse(formatedDate);
-        } catch (ParseException | RuntimeException e) {
+            return Revision.of(formatedDate).toDate();
+        } catch (RuntimeException e) {
             throw new IllegalArgumentException(
                     String.format("Revision '%s'is not in a supported format", formatedDate), e);
         }
@@ -369,7 +391,7 @@ public final class QName implements Immutable, Serializable, Comparable<QName> {
         if (revision == null) {
             return null;
         }
-        return getRevisionFormat().format(revision);
+        return Revision.of(revision).toString();
     }
 
     /**
@@ -432,4 +454,56 @@ public final class QName implements Immutable, Serializable, Comparable<QName> {
         return result;
     }
 
+
+    /**
+     * Key of an interned QName. The local name is compared by content, so keys holding a String compare equal to
+     * probes holding any other CharSequence.
+     */
+    private static final class NameKey {
+        private final QNameModule module;
+        private final CharSequence localName;
+        private final int hash;
+
+        NameKey(final QNameModule module, final CharSequence localName) {
+            this.module = module;
+            this.localName = localName;
+
+            int h = module.hashCode();
+            for (int i = 0; i < localName.length(); ++i) {
+                h = 31 * h + localName.charAt(i);
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof NameKey)) {
+                return false;
+            }
+
+            final NameKey other = (NameKey) obj;
+            if (hash != other.hash || !module.equals(other.module)) {
+                return false;
+            }
+
+            final int length = localName.length();
+            if (length != other.localName.length()) {
+                return false;
+            }
+            for (int i = 0; i < length; ++i) {
+                if (localName.charAt(i) != other.localName.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
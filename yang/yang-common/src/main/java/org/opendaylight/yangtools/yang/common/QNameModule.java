@@ -7,9 +7,8 @@
  */
 package org.opendaylight.yangtools.yang.common;
 
+import com.google.common.annotations.Beta;
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.Interner;
-import com.google.common.collect.Interners;
 import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -20,7 +19,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public final class QNameModule implements Immutable, Serializable {
-    private static final Interner<QNameModule> INTERNER = Interners.newWeakInterner();
+    private static final InternTable<QNameModule> INTERNED = new InternTable<>();
     private static final Logger LOG = LoggerFactory.getLogger(QNameModule.class);
     private static final QNameModule NULL_INSTANCE = new QNameModule(null, null);
     private static final long serialVersionUID = 2L;
@@ -32,7 +31,7 @@ public final class QNameModule implements Immutable, Serializable {
     private final Date revision;
 
     //Nullable
-    private transient volatile String formattedRevision;
+    private transient volatile Revision revisionValue;
 
     private transient int hash;
 
@@ -47,7 +46,9 @@ public final class QNameModule implements Immutable, Serializable {
      * @return Interned reference, or this object if it was interned.
      */
     public QNameModule intern() {
-        return INTERNER.intern(this);
+        final ModuleKey key = new ModuleKey(namespace, revision);
+        final QNameModule existing = INTERNED.get(key);
+        return existing != null ? existing : INTERNED.intern(key, this);
     }
 
     /**
@@ -65,15 +66,45 @@ public final class QNameModule implements Immutable, Serializable {
         return new QNameModule(namespace, revision);
     }
 
+    /**
+     * Create a new QName module instance with specified namespace/revision. Unlike
+     * {@link #create(URI, Date)}, the revision does not need to be formatted again when it is requested.
+     *
+     * @param namespace Module namespace
+     * @param revision Module revision, may be null
+     * @return A new, potentially shared, QNameModule instance
+     */
+    @Beta
+    public static QNameModule of(final URI namespace, final Revision revision) {
+        if (revision == null) {
+            return create(namespace, null);
+        }
+
+        final QNameModule ret = new QNameModule(namespace, revision.toDate());
+        ret.revisionValue = revision;
+        return ret;
+    }
+
     public String getFormattedRevision() {
+        final Revision value = getRevisionValue();
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Returns the revision of the module as a {@link Revision}.
+     *
+     * @return revision of the module, or null if it does not have a revision
+     */
+    @Beta
+    public Revision getRevisionValue() {
         if (revision == null) {
             return null;
         }
 
-        String ret = formattedRevision;
+        Revision ret = revisionValue;
         if (ret == null) {
-            ret = SimpleDateFormatUtil.getRevisionFormat().format(revision);
-            formattedRevision = ret;
+            ret = Revision.of(revision);
+            revisionValue = ret;
         }
 
         return ret;
@@ -149,4 +180,34 @@ public final class QNameModule implements Immutable, Serializable {
     public String toString() {
         return MoreObjects.toStringHelper(QNameModule.class).omitNullValues().add("ns", getNamespace()).add("rev", getFormattedRevision()).toString();
     }
+
+    /**
+     * Key of an interned QNameModule. It must not reference the module itself.
+     */
+    private static final class ModuleKey {
+        private final URI namespace;
+        private final Date revision;
+
+        ModuleKey(final URI namespace, final Date revision) {
+            this.namespace = namespace;
+            this.revision = revision;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(namespace, revision);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ModuleKey)) {
+                return false;
+            }
+            final ModuleKey other = (ModuleKey) obj;
+            return Objects.equals(revision, other.revision) && Objects.equals(namespace, other.namespace);
+        }
+    }
 }
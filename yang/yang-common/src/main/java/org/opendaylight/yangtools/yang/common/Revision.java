@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.common;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.io.Serializable;
+import java.text.ParseException;
+import java.util.Calendar;
+import java.util.Date;
+import org.opendaylight.yangtools.concepts.Immutable;
+
+/**
+ * Revision of a YANG module, as specified by the <code>revision</code> and <code>revision-date</code> statements, in
+ * format <code>YYYY-MM-DD</code>. Unlike {@link Date}, instances are immutable, compare and hash as a single packed
+ * integer, cache their string form and are interned, so equal revisions are usually the same object.
+ *
+ * <p>Conversions from and to {@link Date} produce the same results as {@link SimpleDateFormatUtil#getRevisionFormat()},
+ * i.e. they operate on midnight in the default time zone.
+ */
+@Beta
+public final class Revision implements Comparable<Revision>, Immutable, Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final InternTable<Revision> INTERNED = new InternTable<>();
+
+    // Packed as YYYYMMDD
+    private final int value;
+    private final transient String str;
+    private transient volatile Date date;
+
+    private Revision(final int value) {
+        this.value = value;
+        this.str = format(value / 10000, value / 100 % 100, value % 100);
+    }
+
+    /**
+     * Return a revision corresponding to a string. Strings in canonical <code>YYYY-MM-DD</code> form, which denote
+     * a valid date, are parsed directly. Other strings are interpreted as {@link SimpleDateFormatUtil} would,
+     * including its leniency.
+     *
+     * @param str Revision string
+     * @return A revision
+     * @throws IllegalArgumentException if the string cannot be interpreted as a revision
+     */
+    public static Revision of(final String str) {
+        final int value = parseCanonical(Preconditions.checkNotNull(str));
+        if (value != 0) {
+            return intern(value);
+        }
+
+        final Date date;
+        try {
+            date = SimpleDateFormatUtil.getRevisionFormat().parse(str);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException(String.format("Revision '%s' is not in a supported format", str), e);
+        }
+        return of(date);
+    }
+
+    /**
+     * Return a revision corresponding to the day of a date, in the default time zone.
+     *
+     * @param date Date
+     * @return A revision
+     */
+    public static Revision of(final Date date) {
+        final Calendar cal = Calendar.getInstance();
+        cal.setTime(date);
+        return intern(pack(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1, cal.get(Calendar.DAY_OF_MONTH)));
+    }
+
+    /**
+     * Return a revision corresponding to a date, or null if the date is null.
+     *
+     * @param date Date, may be null
+     * @return A revision, or null
+     */
+    public static Revision ofNullable(final Date date) {
+        return date == null ? null : of(date);
+    }
+
+    /**
+     * Return a {@link Date} corresponding to midnight of this revision in the default time zone. Since Date is
+     * mutable, each invocation returns a new object.
+     *
+     * @return A new Date
+     */
+    public Date toDate() {
+        Date ret = date;
+        if (ret == null) {
+            final Calendar cal = Calendar.getInstance();
+            cal.clear();
+            cal.set(value / 10000, value / 100 % 100 - 1, value % 100);
+            ret = cal.getTime();
+            date = ret;
+        }
+        return (Date) ret.clone();
+    }
+
+    @Override
+    public int compareTo(final Revision other) {
+        return Integer.compare(value, other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return this == obj || obj instanceof Revision && value == ((Revision) obj).value;
+    }
+
+    /**
+     * Returns this revision in <code>YYYY-MM-DD</code> format.
+     *
+     * @return Formatted revision
+     */
+    @Override
+    public String toString() {
+        return str;
+    }
+
+    private Object readResolve() {
+        return intern(value);
+    }
+
+    private static Revision intern(final int value) {
+        final Integer key = value;
+        final Revision existing = INTERNED.get(key);
+        return existing != null ? existing : INTERNED.intern(key, new Revision(value));
+    }
+
+    private static int pack(final int year, final int month, final int day) {
+        Preconditions.checkArgument(year >= 0 && year <= 99999, "Year %s is out of range", year);
+        return year * 10000 + month * 100 + day;
+    }
+
+    /**
+     * Parse a revision in canonical form.
+     *
+     * @return packed revision, or 0 if the string is not in canonical form or does not denote a valid Gregorian date
+     */
+    private static int parseCanonical(final String str) {
+        if (str.length() != 10 || str.charAt(4) != '-' || str.charAt(7) != '-') {
+            return 0;
+        }
+
+        final int year = digits(str, 0, 4);
+        final int month = digits(str, 5, 7);
+        final int day = digits(str, 8, 10);
+        // Leave dates around and before the Gregorian calendar reform to the slow path
+        if (year < 1583 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return 0;
+        }
+        return pack(year, month, day);
+    }
+
+    private static int digits(final String str, final int from, final int to) {
+        int ret = 0;
+        for (int i = from; i < to; ++i) {
+            final char c = str.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            ret = ret * 10 + c - '0';
+        }
+        return ret;
+    }
+
+    private static int daysInMonth(final int year, final int month) {
+        switch (month) {
+            case 2:
+                return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static String format(final int year, final int month, final int day) {
+        final StringBuilder sb = new StringBuilder(10);
+        if (year < 1000) {
+            sb.append(year < 10 ? "000" : year < 100 ? "00" : "0");
+        }
+        sb.append(year).append('-');
+        if (month < 10) {
+            sb.append('0');
+        }
+        sb.append(month).append('-');
+        if (day < 10) {
+            sb.append('0');
+        }
+        return sb.append(day).toString();
+    }
+}
@@ -9,9 +9,12 @@ package org.opendaylight.yangtools.yang.common;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import java.net.URI;
+import java.nio.CharBuffer;
 import java.util.Date;
 import org.junit.Test;
 
@@ -123,6 +126,36 @@ public class QNameTest {
         assertEquals(qName, qName.intern());
     }
 
+    @Test
+    public void testInterning() {
+        final QName qName = QName.create(namespace, revision, "interned");
+        final QName interned = qName.intern();
+        assertSame(interned, QName.create(namespace, revision, "interned").intern());
+        assertSame(interned.getModule(), qName.getModule().intern());
+
+        final char[] buf = "xxinternedxx".toCharArray();
+        assertSame(interned, QName.internedOf(qName.getModule(), CharBuffer.wrap(buf, 2, 8)));
+        assertSame(interned, QName.internedOf(QNameModule.create(qName.getNamespace(), qName.getRevision()),
+            new StringBuilder("interned")));
+
+        final QName other = QName.internedOf(qName.getModule(), CharBuffer.wrap(buf, 0, 10));
+        assertEquals("xxinterned", other.getLocalName());
+        assertSame(other, QName.create(qName.getModule(), "xxinterned").intern());
+
+        // The interned instance must not retain the caller's String
+        final String localName = new String(buf, 0, 4);
+        final QName fresh = QName.create(QNameModule.create(qName.getNamespace(), qName.getRevision()), localName);
+        final QName freshInterned = fresh.intern();
+        assertNotSame(fresh, freshInterned);
+        assertSame(localName.intern(), freshInterned.getLocalName());
+        assertSame(qName.getModule().intern(), freshInterned.getModule());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInternedOfInvalid() {
+        QName.internedOf(QNameModule.create(ns, null), "a?b");
+    }
+
     @Test
     public void testQNameModule() {
         final QNameModule qNameModule = QNameModule.create(ns, new Date());
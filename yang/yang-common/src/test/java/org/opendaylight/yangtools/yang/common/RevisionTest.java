@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import java.util.Date;
+import org.junit.Test;
+
+public class RevisionTest {
+
+    @Test
+    public void testCanonical() throws Exception {
+        final Revision rev = Revision.of("2013-12-24");
+        assertEquals("2013-12-24", rev.toString());
+        assertEquals(SimpleDateFormatUtil.getRevisionFormat().parse("2013-12-24"), rev.toDate());
+        assertEquals(rev, Revision.of(rev.toDate()));
+        assertSame(rev, Revision.of("2013-12-24"));
+    }
+
+    @Test
+    public void testLenient() throws Exception {
+        assertSame(Revision.of("2014-03-13"), Revision.of("2014-3-13"));
+        assertEquals("2015-06-09", Revision.of("2013-30-09").toString());
+        assertEquals("2016-03-01", Revision.of("2016-02-30").toString());
+        assertEquals(SimpleDateFormatUtil.getRevisionFormat().parse("1500-02-29"), Revision.of("1500-02-29").toDate());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalid() {
+        Revision.of("foo");
+    }
+
+    @Test
+    public void testCompareTo() {
+        final Revision older = Revision.of("2013-12-24");
+        final Revision newer = Revision.of("2014-01-01");
+        assertTrue(older.compareTo(newer) < 0);
+        assertTrue(newer.compareTo(older) > 0);
+        assertEquals(0, older.compareTo(Revision.of("2013-12-24")));
+    }
+
+    @Test
+    public void testToDateCopies() {
+        final Revision rev = Revision.of("2013-12-24");
+        final Date date = rev.toDate();
+        assertNotSame(date, rev.toDate());
+        date.setTime(0);
+        assertEquals("2013-12-24", Revision.of(rev.toDate()).toString());
+        assertNull(Revision.ofNullable(null));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        final Revision rev = Revision.of("2013-12-24");
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(rev);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            assertSame(rev, ois.readObject());
+        }
+    }
+
+    @Test
+    public void testQNameModule() throws Exception {
+        final Revision rev = Revision.of("2013-12-24");
+        final QNameModule module = QNameModule.of(new URI("urn:foo"), rev);
+        assertSame(rev, module.getRevisionValue());
+        assertEquals("2013-12-24", module.getFormattedRevision());
+        assertEquals(QNameModule.create(new URI("urn:foo"), rev.toDate()), module);
+        assertSame(rev, QNameModule.create(new URI("urn:foo"), rev.toDate()).getRevisionValue());
+        assertNull(QNameModule.of(new URI("urn:foo"), null).getRevisionValue());
+    }
+}
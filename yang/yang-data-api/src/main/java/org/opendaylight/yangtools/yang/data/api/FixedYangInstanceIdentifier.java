@@ -19,11 +19,22 @@ final class FixedYangInstanceIdentifier extends YangInstanceIdentifier implement
     private final ImmutableList<PathArgument> path;
     private transient volatile YangInstanceIdentifier parent;
 
+    /*
+     * Cumulative hash codes of our prefixes, such that prefixHashes[n] is the hash code of the ancestor with n path
+     * arguments. The array may be longer than needed, as it is shared with identifiers derived from the same path.
+     */
+    private transient volatile int[] prefixHashes;
+
     private FixedYangInstanceIdentifier(final ImmutableList<PathArgument> path, final int hash) {
         super(hash);
         this.path = Preconditions.checkNotNull(path, "path must not be null.");
     }
 
+    private FixedYangInstanceIdentifier(final ImmutableList<PathArgument> path, final int[] prefixHashes) {
+        this(path, prefixHashes[path.size()]);
+        this.prefixHashes = prefixHashes;
+    }
+
     static FixedYangInstanceIdentifier create(final Iterable<? extends PathArgument> path, final int hash) {
         return new FixedYangInstanceIdentifier(ImmutableList.copyOf(path), hash);
     }
@@ -50,7 +61,7 @@ final class FixedYangInstanceIdentifier extends YangInstanceIdentifier implement
 
         YangInstanceIdentifier ret = parent;
         if (ret == null) {
-            ret = YangInstanceIdentifier.create(path.subList(0, path.size() - 1));
+            ret = createAncestor(path.size() - 1);
             parent = ret;
         }
 
@@ -69,7 +80,39 @@ final class FixedYangInstanceIdentifier extends YangInstanceIdentifier implement
             // Use the parent cache
             return getParent();
         }
-        return YangInstanceIdentifier.create(path.subList(0, depth));
+        return createAncestor(depth);
+    }
+
+    @Override
+    int depth() {
+        return path.size();
+    }
+
+    @Override
+    int prefixHash(final int depth) {
+        return depth == path.size() ? hashCode() : prefixHashes()[depth];
+    }
+
+    private YangInstanceIdentifier createAncestor(final int depth) {
+        if (depth == 0) {
+            return EMPTY_INSTANCE;
+        }
+
+        // Both the argument list and the hashes are shared with this identifier
+        return new FixedYangInstanceIdentifier(path.subList(0, depth), prefixHashes());
+    }
+
+    private int[] prefixHashes() {
+        int[] ret = prefixHashes;
+        if (ret == null) {
+            ret = new int[path.size() + 1];
+            ret[0] = EMPTY_INSTANCE.hashCode();
+            for (int i = 0; i < path.size(); ++i) {
+                ret[i + 1] = HashCodeBuilder.nextHashCode(ret[i], path.get(i));
+            }
+            prefixHashes = ret;
+        }
+        return ret;
     }
 
     @Override
@@ -40,10 +40,14 @@ final class StackedYangInstanceIdentifier extends YangInstanceIdentifier impleme
     private transient volatile StackedPathArguments pathArguments;
     private transient volatile StackedReversePathArguments reversePathArguments;
 
+    // Effectively final, but needs to be recomputed on deserialization
+    private transient int depth;
+
     StackedYangInstanceIdentifier(final YangInstanceIdentifier parent, final PathArgument pathArgument, final int hash) {
         super(hash);
         this.parent = Preconditions.checkNotNull(parent);
         this.pathArgument = Preconditions.checkNotNull(pathArgument);
+        this.depth = parent.depth() + 1;
     }
 
     @Override
@@ -63,33 +67,38 @@ final class StackedYangInstanceIdentifier extends YangInstanceIdentifier impleme
     @Override
     public YangInstanceIdentifier getAncestor(final int depth) {
         Preconditions.checkArgument(depth >= 0, "Steps cannot be negative");
+        Preconditions.checkArgument(depth <= this.depth, "Depth %s exceeds maximum depth %s", depth, this.depth);
 
-        // Calculate how far up our FixedYangInstanceIdentifier ancestor is
-        int stackedDepth = 1;
-        YangInstanceIdentifier wlk = getParent();
+        // Walk up the stack, the FixedYangInstanceIdentifier at its bottom can then resolve the ancestor directly
+        YangInstanceIdentifier wlk = this;
         while (wlk instanceof StackedYangInstanceIdentifier) {
-            wlk = wlk.getParent();
-            stackedDepth++;
+            final StackedYangInstanceIdentifier stacked = (StackedYangInstanceIdentifier) wlk;
+            if (stacked.depth == depth) {
+                return stacked;
+            }
+            wlk = stacked.parent;
         }
 
-        // Guaranteed to come from FixedYangInstanceIdentifier
-        final int fixedDepth = wlk.getPathArguments().size();
-        if (fixedDepth >= depth) {
-            return wlk.getAncestor(depth);
-        }
+        return wlk.getAncestor(depth);
+    }
 
-        // Calculate our depth and check argument
-        final int ourDepth = stackedDepth + fixedDepth;
-        Preconditions.checkArgument(depth <= ourDepth, "Depth %s exceeds maximum depth %s", depth, ourDepth);
+    @Override
+    int depth() {
+        return depth;
+    }
 
-        // Requested depth is covered by the stack, traverse up for specified number of steps
-        final int toWalk = ourDepth - depth;
-        YangInstanceIdentifier result = this;
-        for (int i = 0; i < toWalk; ++i) {
-            result = result.getParent();
+    @Override
+    int prefixHash(final int depth) {
+        YangInstanceIdentifier wlk = this;
+        while (wlk instanceof StackedYangInstanceIdentifier) {
+            final StackedYangInstanceIdentifier stacked = (StackedYangInstanceIdentifier) wlk;
+            if (stacked.depth == depth) {
+                return stacked.hashCode();
+            }
+            wlk = stacked.parent;
         }
 
-        return result;
+        return wlk.prefixHash(depth);
     }
 
     @Override
@@ -167,6 +176,7 @@ final class StackedYangInstanceIdentifier extends YangInstanceIdentifier impleme
         } catch (IllegalArgumentException | IllegalAccessException e) {
             throw new IOException("Failed to set parent", e);
         }
+        depth = p.depth() + 1;
     }
 
     private void writeObject(final ObjectOutputStream outputStream) throws IOException {
@@ -95,6 +95,21 @@ public abstract class YangInstanceIdentifier implements Path<YangInstanceIdentif
     @Nonnull abstract Collection<PathArgument> tryPathArguments();
     @Nonnull abstract Collection<PathArgument> tryReversePathArguments();
 
+    /**
+     * Return the number of path arguments of this identifier.
+     *
+     * @return Number of path arguments
+     */
+    abstract int depth();
+
+    /**
+     * Return the hash code of the ancestor at specified depth, without instantiating it.
+     *
+     * @param depth Ancestor depth, must not be greater than {@link #depth()}
+     * @return Hash code of the ancestor
+     */
+    abstract int prefixHash(int depth);
+
     /**
      * Check if this instance identifier has empty path arguments, e.g. it is
      * empty and corresponds to {@link #EMPTY}.
@@ -233,23 +248,15 @@ public abstract class YangInstanceIdentifier implements Path<YangInstanceIdentif
      *         the specified parent is not in fact an ancestor of this object.
      */
     public Optional<YangInstanceIdentifier> relativeTo(final YangInstanceIdentifier ancestor) {
-        final Iterator<?> lit = getPathArguments().iterator();
-        final Iterator<?> oit = ancestor.getPathArguments().iterator();
-        int common = 0;
-
-        while (oit.hasNext()) {
-            // Ancestor is not really an ancestor
-            if (!lit.hasNext() || !lit.next().equals(oit.next())) {
-                return Optional.absent();
-            }
-
-            ++common;
+        if (!ancestor.contains(this)) {
+            return Optional.absent();
         }
 
+        final int common = ancestor.depth();
         if (common == 0) {
             return Optional.of(this);
         }
-        if (!lit.hasNext()) {
+        if (common == depth()) {
             return Optional.of(EMPTY);
         }
 
@@ -259,21 +266,25 @@ public abstract class YangInstanceIdentifier implements Path<YangInstanceIdentif
     @Override
     public final boolean contains(final YangInstanceIdentifier other) {
         Preconditions.checkArgument(other != null, "other should not be null");
+        if (this == other) {
+            return true;
+        }
 
-        final Iterator<?> lit = getPathArguments().iterator();
-        final Iterator<?> oit = other.getPathArguments().iterator();
-
-        while (lit.hasNext()) {
-            if (!oit.hasNext()) {
-                return false;
-            }
+        final int depth = depth();
+        if (depth > other.depth()) {
+            return false;
+        }
 
-            if (!lit.next().equals(oit.next())) {
-                return false;
-            }
+        /*
+         * Hash codes are cumulative, hence the hash code of the other identifier's ancestor at our depth has to match
+         * ours. It can be obtained without looking at path arguments, which allows us to reject most non-matching
+         * identifiers cheaply.
+         */
+        if (other.prefixHash(depth) != hash) {
+            return false;
         }
 
-        return true;
+        return other.getAncestor(depth).pathArgumentsEqual(this);
     }
 
     @Override
@@ -11,9 +11,11 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import com.google.common.annotations.Beta;
 import com.google.common.base.Optional;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import javax.annotation.Nonnull;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
@@ -29,6 +31,14 @@ import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgum
 public final class NormalizedNodes {
     private static final int STRINGTREE_INDENT = 4;
 
+    /*
+     * Kinds of containers which compare equal across implementations. More specific kinds need to precede the kinds
+     * they extend.
+     */
+    private static final List<Class<?>> CONTAINER_KINDS = ImmutableList.<Class<?>>of(OrderedMapNode.class,
+        MapNode.class, OrderedLeafSetNode.class, LeafSetNode.class, ContainerNode.class, MapEntryNode.class,
+        AugmentationNode.class, ChoiceNode.class, UnkeyedListEntryNode.class, YangModeledAnyXmlNode.class);
+
     private NormalizedNodes() {
         throw new UnsupportedOperationException("Utility class should not be instantiated");
     }
@@ -93,6 +103,69 @@ public final class NormalizedNodes {
      * @param node Data subtree root
      * @return String containing a human-readable form of the subtree.
      */
+    /**
+     * Compare a container with another object by content. The object is equal if it is a container of the same kind,
+     * such as {@link ContainerNode} or {@link OrderedMapNode}, with an equal identifier and equal children, regardless
+     * of its implementation. Implementations of {@link NormalizedNodeContainer} use this method, together with
+     * {@link #containerHashCode(NormalizedNodeContainer)}, to compare equal to each other.
+     *
+     * @param container Container to compare
+     * @param obj Object to compare with
+     * @return True if the object is equal to the container.
+     */
+    public static boolean containerEquals(@Nonnull final NormalizedNodeContainer<?, ?, ?> container,
+            final Object obj) {
+        if (container == obj) {
+            return true;
+        }
+        if (!(obj instanceof NormalizedNodeContainer)) {
+            return false;
+        }
+        final Class<?> kind = containerKind(container);
+        if (kind == null || kind != containerKind(obj)) {
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        final NormalizedNodeContainer<?, PathArgument, ?> other = (NormalizedNodeContainer<?, PathArgument, ?>) obj;
+        if (!container.getIdentifier().equals(other.getIdentifier())
+                || container.getValue().size() != other.getValue().size()) {
+            return false;
+        }
+        for (NormalizedNode<?, ?> child : container.getValue()) {
+            final Optional<?> otherChild = other.getChild(child.getIdentifier());
+            if (!otherChild.isPresent() || !child.equals(otherChild.get())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compute the hash code of a container, consistent with {@link #containerEquals(NormalizedNodeContainer, Object)}.
+     * It is the hash code of the identifier combined with the hash code of a {@link Map} from child identifiers to
+     * children.
+     *
+     * @param container Container
+     * @return Hash code
+     */
+    public static int containerHashCode(@Nonnull final NormalizedNodeContainer<?, ?, ?> container) {
+        int children = 0;
+        for (NormalizedNode<?, ?> child : container.getValue()) {
+            children += child.getIdentifier().hashCode() ^ child.hashCode();
+        }
+        return 31 * container.getIdentifier().hashCode() + children;
+    }
+
+    private static Class<?> containerKind(final Object obj) {
+        for (Class<?> kind : CONTAINER_KINDS) {
+            if (kind.isInstance(obj)) {
+                return kind;
+            }
+        }
+        return null;
+    }
+
     public static String toStringTree(final NormalizedNode<?, ?> node) {
         final StringBuilder builder = new StringBuilder();
         toStringTree(builder, node, 0);
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.annotations.Beta;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+/**
+ * A {@link DataTreeCandidateTip} resulting from preparing a batch of {@link DataTreeModification}s in sequence.
+ * Committing it transitions the data tree in a single step, as if all modifications in the batch were committed
+ * one after another. The root node of this candidate describes the cumulative effect of the whole batch, so
+ * listeners can be notified once per batch.
+ */
+@Beta
+public interface BatchDataTreeCandidate extends DataTreeCandidateTip {
+    /**
+     * Return the candidates of individual modifications, in the order in which they were prepared. Each candidate
+     * is based on the result of the previous one.
+     *
+     * @return List of individual candidates
+     */
+    @Nonnull List<DataTreeCandidateTip> getCandidates();
+}
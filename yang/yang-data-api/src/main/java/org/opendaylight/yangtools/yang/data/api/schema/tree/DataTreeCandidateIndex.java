@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.concepts.AbstractObjectRegistration;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+
+/**
+ * An index of objects registered at particular {@link YangInstanceIdentifier}s, which can efficiently find
+ * the registrations affected by a {@link DataTreeCandidate}. Registered paths are kept in a trie keyed by
+ * {@link PathArgument}, so matching a candidate requires a single traversal of the candidate nodes covered by
+ * the trie, regardless of the number of registrations.
+ *
+ * <p>Registered paths may be wildcarded: a {@link NodeIdentifier} placed where a list entry or a leaf-list entry
+ * is expected, e.g. <code>/foo/bar/bar/baz</code> with <code>bar</code> being a list, matches all entries of that
+ * list or leaf-list.
+ *
+ * <p>Matching does not acquire any locks and can proceed concurrently with registration and unregistration.
+ * Registrations which are added or removed while a match is in progress may or may not be reported.
+ *
+ * @param <T> type of registered objects
+ */
+@Beta
+public final class DataTreeCandidateIndex<T> {
+    private final class Node {
+        final ConcurrentMap<PathArgument, Node> children = new ConcurrentHashMap<>();
+        final PathArgument identifier;
+        final Node parent;
+
+        // Copy-on-write, modified only while holding the index lock
+        volatile ImmutableList<IndexRegistration> registrations = ImmutableList.of();
+
+        Node(final Node parent, final PathArgument identifier) {
+            this.parent = parent;
+            this.identifier = identifier;
+        }
+
+        boolean isUnused() {
+            return registrations.isEmpty() && children.isEmpty();
+        }
+    }
+
+    private final class IndexRegistration extends AbstractObjectRegistration<T> {
+        private final YangInstanceIdentifier path;
+        private final Node node;
+
+        IndexRegistration(final T instance, final YangInstanceIdentifier path, final Node node) {
+            super(instance);
+            this.path = path;
+            this.node = node;
+        }
+
+        @Override
+        protected void removeRegistration() {
+            unregister(this);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this).add("path", path).add("instance", getInstance()).toString();
+        }
+    }
+
+    private final Node root = new Node(null, null);
+
+    /**
+     * Register an object at specified path. The registration is removed when the returned registration is closed.
+     *
+     * @param path Registered path, which may contain wildcards
+     * @param instance Object to register
+     * @return A registration
+     */
+    public synchronized AbstractObjectRegistration<T> register(@Nonnull final YangInstanceIdentifier path,
+            @Nonnull final T instance) {
+        Preconditions.checkNotNull(instance);
+
+        Node node = root;
+        for (PathArgument arg : path.getPathArguments()) {
+            Node child = node.children.get(arg);
+            if (child == null) {
+                child = new Node(node, arg);
+                node.children.put(arg, child);
+            }
+            node = child;
+        }
+
+        final IndexRegistration ret = new IndexRegistration(instance, path, node);
+        node.registrations = ImmutableList.<IndexRegistration>builder().addAll(node.registrations).add(ret).build();
+        return ret;
+    }
+
+    /**
+     * Find registrations affected by a candidate. For each registration whose path, or a path matched by it if it is
+     * wildcarded, has been modified, the consumer is invoked with the registered object and a candidate rooted at
+     * the matched path. If the registered path is a parent of the candidate's root path, the candidate itself is
+     * reported. A wildcarded registration is reported once for each matching modified entry.
+     *
+     * @param candidate Data tree candidate
+     * @param consumer Consumer invoked for each match
+     */
+    public void match(@Nonnull final DataTreeCandidate candidate,
+            @Nonnull final BiConsumer<? super T, DataTreeCandidate> consumer) {
+        Preconditions.checkNotNull(consumer);
+        final DataTreeCandidateNode rootNode = candidate.getRootNode();
+        if (rootNode.getModificationType() == ModificationType.UNMODIFIED) {
+            return;
+        }
+
+        // Resolve the trie nodes corresponding to the root path, reporting registrations at its parents
+        List<Node> nodes = Collections.singletonList(root);
+        PathArgument previous = null;
+        for (PathArgument arg : candidate.getRootPath().getPathArguments()) {
+            final List<Node> next = new ArrayList<>(1);
+            for (Node node : nodes) {
+                for (IndexRegistration reg : node.registrations) {
+                    consumer.accept(reg.getInstance(), candidate);
+                }
+
+                final Node exact = node.children.get(arg);
+                if (exact != null) {
+                    next.add(exact);
+                }
+                if (previous != null && isWildcardMatch(previous, arg)) {
+                    final Node wildcard = node.children.get(previous);
+                    if (wildcard != null) {
+                        next.add(wildcard);
+                    }
+                }
+            }
+
+            if (next.isEmpty()) {
+                return;
+            }
+            nodes = next;
+            previous = arg;
+        }
+
+        for (Node node : nodes) {
+            matchNode(node, candidate.getRootPath(), rootNode, consumer);
+        }
+    }
+
+    /**
+     * Check whether this index has no registrations.
+     *
+     * @return True if there are no registrations.
+     */
+    public boolean isEmpty() {
+        return root.isUnused();
+    }
+
+    private void matchNode(final Node node, final YangInstanceIdentifier path, final DataTreeCandidateNode candidate,
+            final BiConsumer<? super T, DataTreeCandidate> consumer) {
+        if (candidate.getModificationType() == ModificationType.UNMODIFIED) {
+            return;
+        }
+
+        final List<IndexRegistration> regs = node.registrations;
+        if (!regs.isEmpty()) {
+            final DataTreeCandidate match = DataTreeCandidates.newDataTreeCandidate(path, candidate);
+            for (IndexRegistration reg : regs) {
+                consumer.accept(reg.getInstance(), match);
+            }
+        }
+
+        for (Entry<PathArgument, Node> entry : node.children.entrySet()) {
+            final PathArgument arg = entry.getKey();
+            if (arg.equals(candidate.getIdentifier())) {
+                // Wildcard: a list or a leaf-list identifier repeated, match all of its entries
+                for (DataTreeCandidateNode child : candidate.getChildNodes()) {
+                    final PathArgument childId = child.getIdentifier();
+                    if (childId.equals(arg) || isWildcardMatch(arg, childId)) {
+                        matchNode(entry.getValue(), path.node(childId), child, consumer);
+                    }
+                }
+            } else {
+                final DataTreeCandidateNode child = candidate.getModifiedChild(arg);
+                if (child != null) {
+                    matchNode(entry.getValue(), path.node(arg), child, consumer);
+                }
+            }
+        }
+    }
+
+    private synchronized void unregister(final IndexRegistration reg) {
+        Node node = reg.node;
+        final ImmutableList.Builder<IndexRegistration> builder = ImmutableList.builder();
+        for (IndexRegistration r : node.registrations) {
+            if (r != reg) {
+                builder.add(r);
+            }
+        }
+        node.registrations = builder.build();
+
+        // Prune nodes which are no longer needed
+        while (node.parent != null && node.isUnused()) {
+            node.parent.children.remove(node.identifier, node);
+            node = node.parent;
+        }
+    }
+
+    private static boolean isWildcardMatch(final PathArgument wildcard, final PathArgument arg) {
+        return wildcard instanceof NodeIdentifier
+                && (arg instanceof NodeIdentifierWithPredicates || arg instanceof NodeWithValue)
+                && wildcard.getNodeType().equals(arg.getNodeType());
+    }
+}
@@ -19,6 +19,7 @@ import org.opendaylight.yangtools.concepts.Immutable;
  * <li>treeType</li>
  * <li>enable/disable unique indexes and unique constraint validation</li>
  * <li>enable/disable mandatory nodes validation</li>
+ * <li>minimum size of a written node for its children to be verified in parallel</li>
  * </ul>
  *
  * TreeConfig can be easily extended in order to support further data tree
@@ -36,19 +37,21 @@ import org.opendaylight.yangtools.concepts.Immutable;
 @Beta
 public class DataTreeConfiguration implements Immutable {
     public static final DataTreeConfiguration DEFAULT_CONFIGURATION = new DataTreeConfiguration(TreeType.CONFIGURATION,
-            false, true);
+            false, true, 0);
     public static final DataTreeConfiguration DEFAULT_OPERATIONAL = new DataTreeConfiguration(TreeType.OPERATIONAL,
-            false, true);
+            false, true, 0);
 
     private final TreeType treeType;
     private final boolean uniqueIndexes;
     private final boolean mandatoryNodesValidation;
+    private final int parallelVerificationThreshold;
 
     private DataTreeConfiguration(final TreeType treeType, final boolean uniqueIndexes,
-            final boolean mandatoryNodesValidation) {
+            final boolean mandatoryNodesValidation, final int parallelVerificationThreshold) {
         this.treeType = Preconditions.checkNotNull(treeType);
         this.uniqueIndexes = uniqueIndexes;
         this.mandatoryNodesValidation = mandatoryNodesValidation;
+        this.parallelVerificationThreshold = parallelVerificationThreshold;
     }
 
     public TreeType getTreeType() {
@@ -63,6 +66,17 @@ public class DataTreeConfiguration implements Immutable {
         return mandatoryNodesValidation;
     }
 
+    /**
+     * Return the minimum number of children a written node needs to have for them to be verified in parallel.
+     * Populating a data tree in bulk, for example when restoring it from a backup, is done by writing its root in a
+     * single modification, which benefits from this setting.
+     *
+     * @return Minimum number of children, 0 if parallel verification is disabled.
+     */
+    public int getParallelVerificationThreshold() {
+        return parallelVerificationThreshold;
+    }
+
     public static DataTreeConfiguration getDefault(final TreeType treeType) {
         Preconditions.checkNotNull(treeType);
         switch (treeType) {
@@ -71,7 +85,7 @@ public class DataTreeConfiguration implements Immutable {
         case OPERATIONAL:
             return DEFAULT_OPERATIONAL;
         default:
-            return new DataTreeConfiguration(treeType, false, true);
+            return new DataTreeConfiguration(treeType, false, true, 0);
         }
     }
 
@@ -79,6 +93,7 @@ public class DataTreeConfiguration implements Immutable {
         private final TreeType treeType;
         private boolean uniqueIndexes;
         private boolean mandatoryNodesValidation;
+        private int parallelVerificationThreshold;
 
         public Builder(final TreeType treeType) {
             this.treeType = Preconditions.checkNotNull(treeType);
@@ -94,8 +109,25 @@ public class DataTreeConfiguration implements Immutable {
             return this;
         }
 
+        /**
+         * Enable verifying children of large written nodes, such as lists with many entries, in parallel in the
+         * common {@link java.util.concurrent.ForkJoinPool}. Parallel verification is disabled by default.
+         *
+         * @param parallelVerificationThreshold Minimum number of children of a node for them to be verified in
+         *                                      parallel, 0 to disable parallel verification
+         * @return This builder
+         * @throws IllegalArgumentException if the threshold is negative
+         */
+        public Builder setParallelVerificationThreshold(final int parallelVerificationThreshold) {
+            Preconditions.checkArgument(parallelVerificationThreshold >= 0, "Threshold %s is negative",
+                parallelVerificationThreshold);
+            this.parallelVerificationThreshold = parallelVerificationThreshold;
+            return this;
+        }
+
         public DataTreeConfiguration build() {
-            return new DataTreeConfiguration(treeType, uniqueIndexes, mandatoryNodesValidation);
+            return new DataTreeConfiguration(treeType, uniqueIndexes, mandatoryNodesValidation,
+                parallelVerificationThreshold);
         }
     }
 }
\ No newline at end of file
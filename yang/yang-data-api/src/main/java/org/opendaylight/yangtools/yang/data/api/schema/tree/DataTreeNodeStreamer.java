@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamAttributeWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeStreamOptions.Selection;
+
+/**
+ * A {@link NormalizedNodeWriter} which walks an existing subtree and emits only the parts selected by
+ * {@link DataTreeStreamOptions}. Nodes which are not emitted are not visited, so the cost of streaming is proportional
+ * to the size of the output, not the size of the subtree.
+ */
+final class DataTreeNodeStreamer extends NormalizedNodeWriter {
+    private final DataTreeStreamOptions options;
+
+    // Current position: depth of the last emitted node, field selection for its children and its key leaf names
+    private int depth;
+    private Selection fields;
+    private Set<QName> keys = ImmutableSet.of();
+
+    // Paging state, applicable only to the streamed node
+    private NormalizedNode<?, ?> target;
+    private boolean pageChildren;
+    private PathArgument lastChild;
+    private int position;
+    private List<? extends NormalizedNode<?, ?>> entries;
+    private boolean truncated;
+
+    private DataTreeNodeStreamer(final NormalizedNodeStreamWriter writer, final DataTreeStreamOptions options) {
+        super(writer);
+        this.options = Preconditions.checkNotNull(options);
+        this.fields = options.getFields();
+    }
+
+    /**
+     * Stream a node into a writer.
+     *
+     * @param node Node to stream
+     * @param writer Target writer
+     * @param options Streaming options
+     * @return Continuation if the list entries have been truncated, absent otherwise
+     * @throws IOException when thrown from the writer
+     * @throws IllegalArgumentException if the continuation does not identify an entry of the node
+     */
+    static Optional<DataTreeStreamContinuation> stream(final NormalizedNode<?, ?> node,
+            final NormalizedNodeStreamWriter writer, final DataTreeStreamOptions options) throws IOException {
+        final DataTreeNodeStreamer streamer = new DataTreeNodeStreamer(writer, options);
+        if (node instanceof MapNode || node instanceof LeafSetNode) {
+            final Optional<DataTreeStreamContinuation> continuation = options.getContinuation();
+            if (continuation.isPresent()) {
+                final PathArgument child = continuation.get().getLastChild();
+                @SuppressWarnings("unchecked")
+                final NormalizedNodeContainer<?, PathArgument, ?> container =
+                    (NormalizedNodeContainer<?, PathArgument, ?>) node;
+                Preconditions.checkArgument((node instanceof MapNode ? child instanceof NodeIdentifierWithPredicates
+                        : child instanceof NodeWithValue) && container.getChild(child).isPresent(),
+                    "Continuation %s does not match any entry of %s", continuation.get(), node.getIdentifier());
+            }
+            streamer.pageChildren = options.getLimit() != Integer.MAX_VALUE || continuation.isPresent();
+        }
+
+        streamer.target = node;
+        streamer.writeTarget(node);
+        return streamer.truncated ? Optional.of(DataTreeStreamContinuation.create(streamer.lastChild,
+            streamer.position, node, streamer.entries)) : Optional.absent();
+    }
+
+    private void writeTarget(final NormalizedNode<?, ?> node) throws IOException {
+        // The streamed node is not subject to field selection, as fields are relative to it
+        if (countsLevel(node)) {
+            depth = 1;
+        }
+        if (node instanceof MapEntryNode) {
+            keys = ((MapEntryNode) node).getIdentifier().getKeyValues().keySet();
+        }
+        super.write(node);
+    }
+
+    @Override
+    public NormalizedNodeWriter write(final NormalizedNode<?, ?> node) throws IOException {
+        final int parentDepth = depth;
+        final Selection parentFields = fields;
+        final Set<QName> parentKeys = keys;
+        final boolean isKey = node instanceof LeafNode && parentKeys.contains(node.getNodeType());
+
+        if (countsLevel(node)) {
+            if (parentDepth >= options.getMaxDepth() && !isKey) {
+                return this;
+            }
+            depth = parentDepth + 1;
+        } else if (parentDepth >= options.getMaxDepth()) {
+            // The node would not have any children
+            return this;
+        } else if (!isList(node) && !parentFields.selectsAll() && !hasSelectedChild(node, parentFields)) {
+            // Do not emit empty choices and augmentations
+            return this;
+        }
+
+        if (selectsName(node)) {
+            final Selection childFields = parentFields.getChild(node.getNodeType());
+            if (childFields != null) {
+                fields = childFields;
+            } else if (isKey) {
+                fields = Selection.ALL;
+            } else {
+                depth = parentDepth;
+                return this;
+            }
+        }
+
+        keys = node instanceof MapEntryNode ? ((MapEntryNode) node).getIdentifier().getKeyValues().keySet()
+                : ImmutableSet.of();
+        try {
+            return super.write(node);
+        } finally {
+            depth = parentDepth;
+            fields = parentFields;
+            keys = parentKeys;
+        }
+    }
+
+    @Override
+    protected boolean writeChildren(final Iterable<? extends NormalizedNode<?, ?>> children) throws IOException {
+        if (!pageChildren) {
+            return super.writeChildren(children);
+        }
+
+        // Only the entries of the streamed node are paged
+        pageChildren = false;
+        final Optional<DataTreeStreamContinuation> continuation = options.getContinuation();
+        final Iterator<? extends NormalizedNode<?, ?>> it = continuation.isPresent()
+                ? resume(continuation.get(), children) : children.iterator();
+
+        int count = 0;
+        while (it.hasNext()) {
+            if (count == options.getLimit()) {
+                truncated = true;
+                break;
+            }
+
+            final NormalizedNode<?, ?> child = it.next();
+            write(child);
+            lastChild = child.getIdentifier();
+            position++;
+            count++;
+        }
+
+        getWriter().endNode();
+        return true;
+    }
+
+    /*
+     * Position an iterator just past the last entry emitted by a continuation. If the continuation has been produced
+     * from the very same node, the entries are materialized once and subsequent pages are resumed by position, so
+     * that streaming a list page by page costs time proportional to its size. Otherwise the last entry has to be
+     * looked up by iterating.
+     */
+    private Iterator<? extends NormalizedNode<?, ?>> resume(final DataTreeStreamContinuation continuation,
+            final Iterable<? extends NormalizedNode<?, ?>> children) {
+        if (continuation.getNode() == target) {
+            entries = continuation.getEntries();
+            if (entries == null) {
+                entries = ImmutableList.copyOf(children);
+            }
+            position = continuation.getPosition();
+            return entries.listIterator(position);
+        }
+
+        final Iterator<? extends NormalizedNode<?, ?>> it = children.iterator();
+        final PathArgument last = continuation.getLastChild();
+        while (it.hasNext()) {
+            position++;
+            if (last.equals(it.next().getIdentifier())) {
+                break;
+            }
+        }
+        return it;
+    }
+
+    @Override
+    protected boolean writeMapEntryNode(final MapEntryNode node) throws IOException {
+        if (!options.isOrderKeyLeaves()) {
+            return super.writeMapEntryNode(node);
+        }
+
+        final NormalizedNodeStreamWriter writer = getWriter();
+        if (writer instanceof NormalizedNodeStreamAttributeWriter) {
+            ((NormalizedNodeStreamAttributeWriter) writer).startMapEntryNode(node.getIdentifier(),
+                childSizeHint(node.getValue()), node.getAttributes());
+        } else {
+            writer.startMapEntryNode(node.getIdentifier(), childSizeHint(node.getValue()));
+        }
+
+        // Key leaves first, in the order of the key definition, then all other children
+        final Set<QName> qnames = node.getIdentifier().getKeyValues().keySet();
+        for (QName qname : qnames) {
+            final Optional<? extends NormalizedNode<?, ?>> child = node.getChild(new NodeIdentifier(qname));
+            if (child.isPresent()) {
+                write(child.get());
+            }
+        }
+        for (NormalizedNode<?, ?> child : node.getValue()) {
+            if (child instanceof AugmentationNode || !qnames.contains(child.getNodeType())) {
+                write(child);
+            }
+        }
+
+        writer.endNode();
+        return true;
+    }
+
+    /*
+     * Check whether a choice or an augmentation contains any selected node, looking through nested choices and
+     * augmentations.
+     */
+    private static boolean hasSelectedChild(final NormalizedNode<?, ?> node, final Selection selection) {
+        for (NormalizedNode<?, ?> child : ((DataContainerNode<?>) node).getValue()) {
+            if (child instanceof ChoiceNode || child instanceof AugmentationNode) {
+                if (hasSelectedChild(child, selection)) {
+                    return true;
+                }
+            } else if (selection.getChild(child.getNodeType()) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Choices, augmentations and list nodes do not form a level on their own, list entries do.
+     */
+    private static boolean countsLevel(final NormalizedNode<?, ?> node) {
+        return !(node instanceof ChoiceNode || node instanceof AugmentationNode || isList(node));
+    }
+
+    private static boolean isList(final NormalizedNode<?, ?> node) {
+        return node instanceof MapNode || node instanceof LeafSetNode || node instanceof UnkeyedListNode;
+    }
+
+    /*
+     * Choices and augmentations are transparent to field selection, list entries are selected by their list.
+     */
+    private static boolean selectsName(final NormalizedNode<?, ?> node) {
+        return !(node instanceof ChoiceNode || node instanceof AugmentationNode || node instanceof MapEntryNode
+                || node instanceof UnkeyedListEntryNode || node instanceof LeafSetEntryNode);
+    }
+}
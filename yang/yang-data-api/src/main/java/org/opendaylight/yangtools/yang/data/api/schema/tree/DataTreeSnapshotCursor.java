@@ -9,11 +9,14 @@ package org.opendaylight.yangtools.yang.data.api.schema.tree;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Optional;
+import java.io.IOException;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
 
 /**
  * A cursor holding a logical position within a {@link DataTreeSnapshot}. It allows
@@ -97,6 +100,30 @@ public interface DataTreeSnapshotCursor extends AutoCloseable {
      */
     Optional<NormalizedNode<?, ?>> readNode(@Nonnull PathArgument child);
 
+    /**
+     * Stream a particular node from the snapshot into a {@link NormalizedNodeStreamWriter}. Unlike
+     * {@link #readNode(PathArgument)} followed by a {@link NormalizedNodeWriter}, only the parts of the subtree
+     * selected by the options are visited, and no intermediate tree is built. The writer is neither flushed nor
+     * closed.
+     *
+     * @param child Child identifier
+     * @param writer Writer to receive the node
+     * @param options Options controlling depth, field selection and paging of list entries
+     * @return A continuation if the list entries have been truncated due to the configured limit, absent if the node
+     *         has been emitted completely or it does not exist.
+     * @throws IOException when thrown from the writer
+     * @throws BackendFailedException when implementation-specific error occurs while
+     *                                servicing the request.
+     * @throws IllegalArgumentException when specified path does not identify a valid child, or the continuation
+     *                                  does not identify an entry of the node.
+     */
+    default Optional<DataTreeStreamContinuation> streamNode(@Nonnull final PathArgument child,
+            @Nonnull final NormalizedNodeStreamWriter writer, @Nonnull final DataTreeStreamOptions options)
+                    throws IOException {
+        final Optional<NormalizedNode<?, ?>> node = readNode(child);
+        return node.isPresent() ? DataTreeNodeStreamer.stream(node.get(), writer, options) : Optional.absent();
+    }
+
     /**
      * Close this cursor. Attempting any further operations on the cursor will lead
      * to undefined behavior.
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.concepts.Immutable;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+
+/**
+ * A token allowing a paged stream of list entries to be resumed. It identifies the last entry which has been emitted,
+ * hence it remains valid across snapshots as long as that entry exists. Entries of unordered lists do not have a
+ * defined order, so paging through them is consistent only within a single snapshot.
+ *
+ * <p>
+ * Continuations returned from streaming additionally record the list node they have been produced from and the
+ * position of the next entry, so that streaming the next page of an unmodified list does not have to look for the
+ * last entry again. Such continuations retain the list node, hence they should not be held longer than needed.
+ */
+@Beta
+public final class DataTreeStreamContinuation implements Immutable {
+    private final PathArgument lastChild;
+    // Number of entries up to and including the last emitted one, valid only within node
+    private final int position;
+    // Null if the position is not known
+    private final NormalizedNode<?, ?> node;
+    // Entries of node in iteration order, null if they have not been materialized yet
+    private final List<? extends NormalizedNode<?, ?>> entries;
+
+    private DataTreeStreamContinuation(final PathArgument lastChild, final int position,
+            final NormalizedNode<?, ?> node, final List<? extends NormalizedNode<?, ?>> entries) {
+        this.lastChild = Preconditions.checkNotNull(lastChild);
+        this.position = position;
+        this.node = node;
+        this.entries = entries;
+    }
+
+    public static DataTreeStreamContinuation create(@Nonnull final PathArgument lastChild) {
+        return new DataTreeStreamContinuation(lastChild, 0, null, null);
+    }
+
+    static DataTreeStreamContinuation create(final PathArgument lastChild, final int position,
+            final NormalizedNode<?, ?> node, final List<? extends NormalizedNode<?, ?>> entries) {
+        return new DataTreeStreamContinuation(lastChild, position, node, entries);
+    }
+
+    /**
+     * Return the identifier of the last list entry which has been emitted.
+     *
+     * @return Entry identifier
+     */
+    @Nonnull
+    public PathArgument getLastChild() {
+        return lastChild;
+    }
+
+    int getPosition() {
+        return position;
+    }
+
+    NormalizedNode<?, ?> getNode() {
+        return node;
+    }
+
+    List<? extends NormalizedNode<?, ?>> getEntries() {
+        return entries;
+    }
+
+    @Override
+    public int hashCode() {
+        return lastChild.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return this == obj || obj instanceof DataTreeStreamContinuation
+                && lastChild.equals(((DataTreeStreamContinuation) obj).lastChild);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("lastChild", lastChild).add("position", position)
+                .toString();
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.concepts.Immutable;
+import org.opendaylight.yangtools.yang.common.QName;
+
+/**
+ * Options controlling how {@link DataTreeSnapshotCursor#streamNode(org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument,
+ * org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter, DataTreeStreamOptions)} emits
+ * a subtree. The options follow the semantics of RESTCONF query parameters:
+ * <ul>
+ * <li>maximum depth, where the streamed node is at depth 1 and each container, list entry, leaf and leaf-list entry
+ *     adds one level. Choices, augmentations and the list nodes themselves do not count as a level. Key leaves of
+ *     emitted list entries are always emitted.</li>
+ * <li>field selection, as a set of node name paths relative to the streamed node. Choices and augmentations are
+ *     transparent, e.g. they do not appear in the paths.</li>
+ * <li>a page size limit and a continuation, which apply to the entries of the streamed node if it is a keyed list or
+ *     a leaf-list, and are ignored otherwise.</li>
+ * </ul>
+ */
+@Beta
+public final class DataTreeStreamOptions implements Immutable {
+    /**
+     * Field selection at a particular level of the streamed subtree. An empty selection selects everything.
+     */
+    static final class Selection {
+        static final Selection ALL = new Selection(ImmutableMap.of());
+
+        private final ImmutableMap<QName, Selection> children;
+
+        private Selection(final ImmutableMap<QName, Selection> children) {
+            this.children = Preconditions.checkNotNull(children);
+        }
+
+        boolean selectsAll() {
+            return children.isEmpty();
+        }
+
+        /**
+         * Return the selection applicable to a child node.
+         *
+         * @param name Child node name
+         * @return Child selection, or null if the child is not selected
+         */
+        Selection getChild(final QName name) {
+            return selectsAll() ? ALL : children.get(name);
+        }
+
+        @Override
+        public String toString() {
+            return selectsAll() ? "*" : children.toString();
+        }
+    }
+
+    public static final DataTreeStreamOptions DEFAULT = new Builder().build();
+
+    private final int maxDepth;
+    private final Selection fields;
+    private final int limit;
+    private final DataTreeStreamContinuation continuation;
+    private final boolean orderKeyLeaves;
+
+    private DataTreeStreamOptions(final Builder builder) {
+        this.maxDepth = builder.maxDepth;
+        this.fields = builder.fields.build();
+        this.limit = builder.limit;
+        this.continuation = builder.continuation;
+        this.orderKeyLeaves = builder.orderKeyLeaves;
+    }
+
+    /**
+     * Return the maximum depth of emitted nodes.
+     *
+     * @return Maximum depth, {@link Integer#MAX_VALUE} if unbounded.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Return the maximum number of list entries to emit.
+     *
+     * @return Maximum number of entries, {@link Integer#MAX_VALUE} if unbounded.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Return the continuation from which to resume emitting list entries.
+     *
+     * @return Continuation, or absent if entries should be emitted from the start of the list.
+     */
+    public Optional<DataTreeStreamContinuation> getContinuation() {
+        return Optional.fromNullable(continuation);
+    }
+
+    public boolean isOrderKeyLeaves() {
+        return orderKeyLeaves;
+    }
+
+    Selection getFields() {
+        return fields;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("maxDepth", maxDepth).add("fields", fields).add("limit", limit)
+                .add("continuation", continuation).add("orderKeyLeaves", orderKeyLeaves).toString();
+    }
+
+    public static final class Builder {
+        private final SelectionBuilder fields = new SelectionBuilder();
+        private int maxDepth = Integer.MAX_VALUE;
+        private int limit = Integer.MAX_VALUE;
+        private DataTreeStreamContinuation continuation;
+        private boolean orderKeyLeaves = true;
+
+        /**
+         * Set the maximum depth of emitted nodes.
+         *
+         * @param maxDepth Maximum depth, has to be positive
+         * @return This builder
+         * @throws IllegalArgumentException if maxDepth is not positive
+         */
+        public Builder setMaxDepth(final int maxDepth) {
+            Preconditions.checkArgument(maxDepth > 0, "Maximum depth %s is not positive", maxDepth);
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * Add a field to the selection. Once any field is added, only selected fields, their ancestors and their
+         * descendants are emitted.
+         *
+         * @param path Node names leading to the field, relative to the streamed node
+         * @return This builder
+         * @throws IllegalArgumentException if the path is empty
+         */
+        public Builder addField(@Nonnull final QName... path) {
+            return addField(Arrays.asList(path));
+        }
+
+        /**
+         * Add a field to the selection. Once any field is added, only selected fields, their ancestors and their
+         * descendants are emitted.
+         *
+         * @param path Node names leading to the field, relative to the streamed node
+         * @return This builder
+         * @throws IllegalArgumentException if the path is empty
+         */
+        public Builder addField(@Nonnull final List<QName> path) {
+            Preconditions.checkArgument(!path.isEmpty(), "Field path must not be empty");
+            fields.add(path);
+            return this;
+        }
+
+        /**
+         * Set the maximum number of list entries to emit.
+         *
+         * @param limit Maximum number of entries, has to be positive
+         * @return This builder
+         * @throws IllegalArgumentException if limit is not positive
+         */
+        public Builder setLimit(final int limit) {
+            Preconditions.checkArgument(limit > 0, "Limit %s is not positive", limit);
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * Set the continuation returned from a previous call, so the next page of list entries is emitted.
+         *
+         * @param continuation Continuation, or null to start from the beginning
+         * @return This builder
+         */
+        public Builder setContinuation(final DataTreeStreamContinuation continuation) {
+            this.continuation = continuation;
+            return this;
+        }
+
+        /**
+         * Set whether key leaves of list entries should be emitted before other children, as required by RFC6020
+         * XML encoding. Enabled by default.
+         *
+         * @param orderKeyLeaves True if key leaves should be emitted first
+         * @return This builder
+         */
+        public Builder setOrderKeyLeaves(final boolean orderKeyLeaves) {
+            this.orderKeyLeaves = orderKeyLeaves;
+            return this;
+        }
+
+        public DataTreeStreamOptions build() {
+            return new DataTreeStreamOptions(this);
+        }
+    }
+
+    private static final class SelectionBuilder {
+        private final Map<QName, SelectionBuilder> children = new LinkedHashMap<>();
+        private boolean all;
+
+        void add(final List<QName> path) {
+            SelectionBuilder current = this;
+            for (QName name : path) {
+                SelectionBuilder child = current.children.get(name);
+                if (child == null) {
+                    child = new SelectionBuilder();
+                    current.children.put(name, child);
+                } else if (child.all) {
+                    // Already selected with all its descendants
+                    return;
+                }
+                current = child;
+            }
+
+            current.all = true;
+            current.children.clear();
+        }
+
+        Selection build() {
+            if (children.isEmpty()) {
+                return Selection.ALL;
+            }
+
+            final ImmutableMap.Builder<QName, Selection> builder = ImmutableMap.builder();
+            for (Entry<QName, SelectionBuilder> e : children.entrySet()) {
+                builder.put(e.getKey(), e.getValue().build());
+            }
+            return new Selection(builder.build());
+        }
+    }
+}
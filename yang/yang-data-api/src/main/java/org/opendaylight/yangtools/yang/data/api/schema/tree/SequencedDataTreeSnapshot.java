@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import com.google.common.annotations.Beta;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+
+/**
+ * A {@link DataTreeSnapshot} which knows the sequence number of the last commit it reflects. Sequence numbers
+ * increase monotonically with each commit to the data tree, allowing users to efficiently find out which data has
+ * changed since a previously-observed snapshot.
+ */
+@Beta
+public interface SequencedDataTreeSnapshot extends DataTreeSnapshot {
+    /**
+     * Return the sequence number of the last commit reflected in this snapshot.
+     *
+     * @return Sequence number, 0 if no commit has been made
+     */
+    long getSequence();
+
+    /**
+     * Read the parts of this snapshot which have been modified by commits with a sequence number larger than
+     * specified. The result contains subtrees which cover all nodes written or modified after that commit, keyed by
+     * their path. Implementations are expected to locate these subtrees without traversing unmodified data and to keep
+     * them small, but they may report a container with many modified children as a whole.
+     *
+     * <p>Removals are not reported individually: a removed node is covered by its closest ancestor present in this
+     * snapshot, which is reported as a whole. Users needing an exact account of removed nodes should compare the two
+     * snapshots instead.
+     *
+     * <p>Implementations may retain information about a limited number of recent commits only. If the specified
+     * sequence number is older than that, the entire data is reported as modified.
+     *
+     * @param sequence Sequence number of the last commit already observed, as returned by {@link #getSequence()}
+     * @return Modified subtrees
+     */
+    @Nonnull Map<YangInstanceIdentifier, NormalizedNode<?, ?>> readChangedSince(long sequence);
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree.spi;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Pool of direct memory backing off-heap data tree nodes. Memory is allocated from the operating system in large
+ * chunks, which are carved into regions for individual off-heap subtrees. A region is released once no node
+ * referencing it is reachable, and a chunk is reused once all of its regions have been released. The arena never
+ * holds more than its configured amount of memory, nor does it return chunks to the operating system, hence its
+ * footprint does not depend on the garbage collector reclaiming direct buffers.
+ *
+ * <p>
+ * Instances are thread-safe and are expected to be long-lived, for example one per data tree.
+ */
+@Beta
+public final class OffHeapArena {
+    private final ReferenceQueue<Region> queue = new ReferenceQueue<>();
+    // Keeps the tracking references reachable until they are enqueued
+    @GuardedBy("this")
+    private final Set<Tracker> trackers = new HashSet<>();
+    @GuardedBy("this")
+    private final List<Chunk> freeChunks = new ArrayList<>();
+    private final int chunkSize;
+    private final long maxSize;
+
+    @GuardedBy("this")
+    private Chunk current;
+    @GuardedBy("this")
+    private long allocatedSize;
+    @GuardedBy("this")
+    private long usedSize;
+
+    private OffHeapArena(final int chunkSize, final long maxSize) {
+        this.chunkSize = chunkSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Create a new arena.
+     *
+     * @param chunkSize Size of chunks allocated from the operating system, in bytes. Subtrees whose encoding does
+     *                  not fit into a single chunk are allocated a dedicated chunk.
+     * @param maxSize Maximum amount of memory held by the arena, in bytes
+     * @return A new arena
+     * @throws IllegalArgumentException if any of the sizes is not positive, or the chunk size exceeds the maximum size
+     */
+    public static OffHeapArena create(final int chunkSize, final long maxSize) {
+        Preconditions.checkArgument(chunkSize > 0, "Chunk size %s is not positive", chunkSize);
+        Preconditions.checkArgument(maxSize >= chunkSize, "Maximum size %s is smaller than chunk size %s", maxSize,
+            chunkSize);
+        return new OffHeapArena(chunkSize, maxSize);
+    }
+
+    /**
+     * Return the amount of memory allocated from the operating system.
+     *
+     * @return Size in bytes
+     */
+    public synchronized long getAllocatedSize() {
+        return allocatedSize;
+    }
+
+    /**
+     * Return the amount of memory held by regions of reachable off-heap nodes, as of the last allocation or
+     * invocation of this method.
+     *
+     * @return Size in bytes
+     */
+    public synchronized long getUsedSize() {
+        expungeReleased();
+        return usedSize;
+    }
+
+    /**
+     * Copy data into a newly-allocated region.
+     *
+     * @param bytes Data to copy
+     * @return A new region, or null if the arena does not have enough space
+     */
+    synchronized Region allocate(final byte[] bytes) {
+        expungeReleased();
+
+        final Chunk chunk = chunkFor(bytes.length);
+        if (chunk == null) {
+            return null;
+        }
+
+        final ByteBuffer buffer = chunk.buffer.duplicate();
+        buffer.position(chunk.position);
+        buffer.limit(chunk.position + bytes.length);
+        chunk.position += bytes.length;
+        chunk.regions++;
+        usedSize += bytes.length;
+
+        final ByteBuffer slice = buffer.slice();
+        slice.put(bytes).flip();
+        final Region ret = new Region(slice.asReadOnlyBuffer());
+        trackers.add(new Tracker(ret, queue, chunk, bytes.length));
+        return ret;
+    }
+
+    @GuardedBy("this")
+    private Chunk chunkFor(final int size) {
+        if (current != null && current.buffer.capacity() - current.position >= size) {
+            return current;
+        }
+
+        // Chunks are reused only once they are entirely free, hence any free chunk large enough will do
+        final Iterator<Chunk> it = freeChunks.iterator();
+        while (it.hasNext()) {
+            final Chunk chunk = it.next();
+            if (chunk.buffer.capacity() >= size) {
+                it.remove();
+                return makeCurrent(chunk, size);
+            }
+        }
+
+        final int capacity = Math.max(chunkSize, size);
+        if (allocatedSize + capacity > maxSize) {
+            return null;
+        }
+        allocatedSize += capacity;
+        return makeCurrent(new Chunk(ByteBuffer.allocateDirect(capacity)), size);
+    }
+
+    @GuardedBy("this")
+    private Chunk makeCurrent(final Chunk chunk, final int size) {
+        // Dedicated chunks of oversized regions do not displace the current chunk
+        if (size <= chunkSize) {
+            if (current != null && current.regions == 0) {
+                current.position = 0;
+                freeChunks.add(current);
+            }
+            current = chunk;
+        }
+        return chunk;
+    }
+
+    @GuardedBy("this")
+    private void expungeReleased() {
+        for (Reference<? extends Region> ref = queue.poll(); ref != null; ref = queue.poll()) {
+            final Tracker tracker = (Tracker) ref;
+            trackers.remove(tracker);
+            usedSize -= tracker.size;
+
+            final Chunk chunk = tracker.chunk;
+            if (--chunk.regions == 0) {
+                chunk.position = 0;
+                if (chunk != current) {
+                    freeChunks.add(chunk);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return MoreObjects.toStringHelper(this).add("chunkSize", chunkSize).add("maxSize", maxSize)
+                .add("allocatedSize", allocatedSize).add("usedSize", usedSize).toString();
+    }
+
+    /**
+     * A region of an arena. The region remains allocated for as long as this object is reachable, hence users have
+     * to access the buffer through it and must not retain the buffer on their own.
+     */
+    static final class Region {
+        private final ByteBuffer buffer;
+        // Never changes, read only to keep this object reachable
+        private volatile boolean live = true;
+
+        Region(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Return the data of this region. The returned buffer must not be used once this object becomes
+         * unreachable, hence users have to invoke {@link #reachabilityFence()} once they are done with it.
+         *
+         * @return Read-only buffer, shared by all users of this region
+         */
+        ByteBuffer buffer() {
+            return buffer;
+        }
+
+        /**
+         * Keep this region reachable up to this point. This needs to be invoked after any access to the buffer,
+         * otherwise the region could be released and reused while the access is in progress.
+         */
+        void reachabilityFence() {
+            Preconditions.checkState(live, "Region %s has been released", this);
+        }
+    }
+
+    private static final class Chunk {
+        final ByteBuffer buffer;
+        int position;
+        int regions;
+
+        Chunk(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    private static final class Tracker extends PhantomReference<Region> {
+        final Chunk chunk;
+        final int size;
+
+        Tracker(final Region region, final ReferenceQueue<Region> queue, final Chunk chunk, final int size) {
+            super(region, queue);
+            this.chunk = chunk;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree.spi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.opendaylight.yangtools.yang.data.api.AttributesContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListEntryNode;
+
+/**
+ * Produces the encoding read by {@link OffHeapNode}. Children are encoded before their parent, so the parent can
+ * decide whether they are small enough to be decoded as a whole.
+ */
+final class OffHeapEncoder {
+    /*
+     * Containers whose children are all decoded as a whole and take up less than this number of bytes are decoded
+     * as a whole, too. This keeps the index overhead in check while bounding the amount of data decoded on access.
+     */
+    private static final int MAX_DECODED_SIZE = 1024;
+
+    private OffHeapEncoder() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated");
+    }
+
+    /**
+     * Encode a node so that it can be read by {@link OffHeapNode}.
+     *
+     * @param data Node to encode
+     * @param codec Codec to use for identifiers and nodes decoded as a whole
+     * @return Encoded node, or null if the node cannot be represented by an {@link OffHeapNode}
+     * @throws IOException if the codec fails to encode the data
+     */
+    static byte[] encode(final NormalizedNode<?, ?> data, final OffHeapNodeCodec codec) throws IOException {
+        final byte kind = kindOf(data);
+        return kind == OffHeapNode.DECODED ? null : encodeContainer(data, kind, codec, false);
+    }
+
+    private static byte kindOf(final NormalizedNode<?, ?> data) {
+        if (data instanceof AttributesContainer && !((AttributesContainer) data).getAttributes().isEmpty()) {
+            return OffHeapNode.DECODED;
+        }
+
+        if (data instanceof ContainerNode) {
+            return OffHeapNode.CONTAINER;
+        } else if (data instanceof MapEntryNode) {
+            return OffHeapNode.MAP_ENTRY;
+        } else if (data instanceof OrderedMapNode) {
+            return OffHeapNode.ORDERED_MAP;
+        } else if (data instanceof MapNode) {
+            return OffHeapNode.MAP;
+        } else if (data instanceof AugmentationNode) {
+            return OffHeapNode.AUGMENTATION;
+        } else if (data instanceof ChoiceNode) {
+            return OffHeapNode.CHOICE;
+        } else if (data instanceof UnkeyedListEntryNode) {
+            return OffHeapNode.UNKEYED_LIST_ENTRY;
+        } else {
+            // Leaves, leaf sets and unkeyed lists
+            return OffHeapNode.DECODED;
+        }
+    }
+
+    private static byte[] encodeChild(final NormalizedNode<?, ?> data, final OffHeapNodeCodec codec)
+            throws IOException {
+        final byte kind = kindOf(data);
+        if (kind == OffHeapNode.DECODED) {
+            return encodeDecoded(data, codec);
+        }
+
+        final byte[] ret = encodeContainer(data, kind, codec, true);
+        return ret != null ? ret : encodeDecoded(data, codec);
+    }
+
+    private static byte[] encodeDecoded(final NormalizedNode<?, ?> data, final OffHeapNodeCodec codec)
+            throws IOException {
+        final byte[] bytes = codec.encode(data);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(bytes.length + 64);
+        try (DataOutputStream out = new DataOutputStream(bos)) {
+            writeHeader(out, OffHeapNode.DECODED, data, codec);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        return bos.toByteArray();
+    }
+
+    /*
+     * Encode a container with an index of its children. Returns null if the container is allowed to be decoded as
+     * a whole and is small enough for it.
+     */
+    private static byte[] encodeContainer(final NormalizedNode<?, ?> data, final byte kind,
+            final OffHeapNodeCodec codec, final boolean mayDecodeWhole) throws IOException {
+        @SuppressWarnings("unchecked")
+        final Collection<NormalizedNode<?, ?>> children = (Collection<NormalizedNode<?, ?>>) data.getValue();
+        final List<byte[]> encoded = new ArrayList<>(children.size());
+        final long[] hashes = new long[children.size()];
+
+        boolean decodeWhole = true;
+        long childrenSize = 0;
+        for (NormalizedNode<?, ?> child : children) {
+            final byte[] bytes = encodeChild(child, codec);
+            decodeWhole &= bytes[0] == OffHeapNode.DECODED;
+            childrenSize += bytes.length;
+
+            // Hash code in the upper half, so positions of children with the same hash code remain in order
+            hashes[encoded.size()] = (long) child.getIdentifier().hashCode() << 32 | encoded.size();
+            encoded.add(bytes);
+        }
+
+        if (mayDecodeWhole && decodeWhole && childrenSize < MAX_DECODED_SIZE) {
+            return null;
+        }
+
+        Arrays.sort(hashes);
+
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream((int) childrenSize + 12 * encoded.size() + 64);
+        try (DataOutputStream out = new DataOutputStream(bos)) {
+            final int header = writeHeader(out, kind, data, codec);
+            out.writeInt(encoded.size());
+
+            int childOffset = header + 4 + 12 * encoded.size();
+            for (byte[] bytes : encoded) {
+                out.writeInt(childOffset);
+                childOffset += bytes.length;
+            }
+            for (long hash : hashes) {
+                out.writeInt((int) (hash >> 32));
+            }
+            for (long hash : hashes) {
+                out.writeInt((int) hash);
+            }
+            for (byte[] bytes : encoded) {
+                out.write(bytes);
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private static int writeHeader(final DataOutputStream out, final byte kind, final NormalizedNode<?, ?> data,
+            final OffHeapNodeCodec codec) throws IOException {
+        final byte[] identifier = codec.encodeIdentifier(data.getIdentifier());
+        out.writeByte(kind);
+        out.writeInt(identifier.length);
+        out.write(identifier);
+        return 5 + identifier.length;
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree.spi;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListEntryNode;
+
+/**
+ * A {@link NormalizedNodeContainer} whose data lives in an {@link OffHeapArena}. Only the identifier is kept on heap,
+ * children are decoded each time they are accessed and are not retained. Children which are large containers are
+ * themselves off-heap nodes, hence accessing a node deep in a large subtree decodes only the nodes on the path to it.
+ * Smaller children are decoded as a whole.
+ *
+ * <p>
+ * Off-heap nodes compare equal to any container of the same kind with the same identifier and children, as defined by
+ * {@link NormalizedNodes#containerEquals(NormalizedNodeContainer, Object)}, and compute their hash code accordingly.
+ *
+ * <p>
+ * The encoding of a node, as produced by {@link OffHeapEncoder}, starts with a byte identifying the kind of the node,
+ * followed by the length of the encoded identifier and the identifier itself. Nodes decoded as a whole continue with
+ * the length of their encoding and the encoding itself. Off-heap nodes continue with the number of their children,
+ * offsets of children relative to the start of the node in document order, hash codes of child identifiers in
+ * ascending order, and document positions of children in the order of their hash codes.
+ */
+abstract class OffHeapNode<I extends PathArgument, K extends PathArgument, V extends NormalizedNode<? extends K, ?>>
+        implements NormalizedNodeContainer<I, K, V> {
+    static final byte DECODED = 0;
+    static final byte CONTAINER = 1;
+    static final byte MAP_ENTRY = 2;
+    static final byte MAP = 3;
+    static final byte ORDERED_MAP = 4;
+    static final byte AUGMENTATION = 5;
+    static final byte CHOICE = 6;
+    static final byte UNKEYED_LIST_ENTRY = 7;
+
+    private final OffHeapArena.Region region;
+    private final OffHeapNodeCodec codec;
+    private final I identifier;
+    private final int offset;
+    private final int size;
+
+    // Lazily computed, racy single-check
+    private int hashCode;
+
+    OffHeapNode(final OffHeapArena.Region region, final OffHeapNodeCodec codec, final int offset,
+            final I identifier) {
+        this.region = Preconditions.checkNotNull(region);
+        this.codec = Preconditions.checkNotNull(codec);
+        this.identifier = Preconditions.checkNotNull(identifier);
+        this.offset = offset;
+
+        final ByteBuffer buffer = region.buffer();
+        this.size = buffer.getInt(childrenOffset(buffer, offset));
+        region.reachabilityFence();
+    }
+
+    /**
+     * Move a node to an arena.
+     *
+     * @param data Node to move
+     * @param codec Codec used to encode the data
+     * @param arena Arena to allocate memory from
+     * @return An off-heap node, or null if the node cannot be moved or the arena does not have enough space
+     * @throws IOException if the codec fails to encode the data
+     */
+    static NormalizedNode<?, ?> create(final NormalizedNode<?, ?> data, final OffHeapNodeCodec codec,
+            final OffHeapArena arena) throws IOException {
+        final byte[] bytes = OffHeapEncoder.encode(data, codec);
+        if (bytes == null) {
+            return null;
+        }
+        final OffHeapArena.Region region = arena.allocate(bytes);
+        return region == null ? null : create(region, codec, 0, bytes[0], data.getIdentifier());
+    }
+
+    private static OffHeapNode<?, ?, ?> create(final OffHeapArena.Region region, final OffHeapNodeCodec codec,
+            final int offset, final byte kind, final PathArgument identifier) {
+        switch (kind) {
+        case CONTAINER:
+            return new ContainerImpl(region, codec, offset, (NodeIdentifier) identifier);
+        case MAP_ENTRY:
+            return new MapEntryImpl(region, codec, offset, (NodeIdentifierWithPredicates) identifier);
+        case MAP:
+            return new MapImpl(region, codec, offset, (NodeIdentifier) identifier);
+        case ORDERED_MAP:
+            return new OrderedMapImpl(region, codec, offset, (NodeIdentifier) identifier);
+        case AUGMENTATION:
+            return new AugmentationImpl(region, codec, offset, (AugmentationIdentifier) identifier);
+        case CHOICE:
+            return new ChoiceImpl(region, codec, offset, (NodeIdentifier) identifier);
+        case UNKEYED_LIST_ENTRY:
+            return new UnkeyedListEntryImpl(region, codec, offset, (NodeIdentifier) identifier);
+        default:
+            throw new IllegalStateException("Unknown off-heap node kind " + kind);
+        }
+    }
+
+    private static int childrenOffset(final ByteBuffer buffer, final int offset) {
+        return offset + 5 + buffer.getInt(offset + 1);
+    }
+
+    @Override
+    public final I getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public final QName getNodeType() {
+        return identifier.getNodeType();
+    }
+
+    @Override
+    public final Collection<V> getValue() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new Iterator<V>() {
+                    private int position;
+
+                    @Override
+                    public boolean hasNext() {
+                        return position < size;
+                    }
+
+                    @Override
+                    public V next() {
+                        if (position >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        return childAt(position++);
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public final Optional<V> getChild(final K child) {
+        final ByteBuffer buffer = region.buffer();
+        final int offsets = childrenOffset(buffer, offset) + 4;
+        final int hashes = offsets + 4 * size;
+        final int positions = hashes + 4 * size;
+
+        // Find the first child with a matching hash code, there may be more of them
+        final int hash = child.hashCode();
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (buffer.getInt(hashes + 4 * mid) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        V ret = null;
+        for (int i = low; i < size && buffer.getInt(hashes + 4 * i) == hash; ++i) {
+            final int childOffset = offset + buffer.getInt(offsets + 4 * buffer.getInt(positions + 4 * i));
+            if (child.equals(readIdentifier(buffer, childOffset))) {
+                ret = readChild(buffer, childOffset, child);
+                break;
+            }
+        }
+
+        region.reachabilityFence();
+        return Optional.fromNullable(ret);
+    }
+
+    final V childAt(final int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " is out of range 0-" + size);
+        }
+
+        final ByteBuffer buffer = region.buffer();
+        final int childOffset = offset + buffer.getInt(childrenOffset(buffer, offset) + 4 + 4 * position);
+        final V ret = readChild(buffer, childOffset, readIdentifier(buffer, childOffset));
+        region.reachabilityFence();
+        return ret;
+    }
+
+    final int size() {
+        return size;
+    }
+
+    private PathArgument readIdentifier(final ByteBuffer buffer, final int childOffset) {
+        try {
+            return codec.decodeIdentifier(slice(buffer, childOffset + 5, buffer.getInt(childOffset + 1)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to decode identifier of a child of " + identifier, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V readChild(final ByteBuffer buffer, final int childOffset, final PathArgument childId) {
+        final byte kind = buffer.get(childOffset);
+        if (kind != DECODED) {
+            return (V) create(region, codec, childOffset, kind, childId);
+        }
+
+        final int dataOffset = childrenOffset(buffer, childOffset);
+        try {
+            return (V) codec.decode(slice(buffer, dataOffset + 4, buffer.getInt(dataOffset)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to decode child " + childId + " of " + identifier, e);
+        }
+    }
+
+    private static ByteBuffer slice(final ByteBuffer buffer, final int offset, final int length) {
+        final ByteBuffer ret = buffer.duplicate();
+        ret.position(offset).limit(offset + length);
+        return ret.slice();
+    }
+
+    @Override
+    public final int hashCode() {
+        int ret = hashCode;
+        if (ret == 0) {
+            ret = NormalizedNodes.containerHashCode(this);
+            hashCode = ret;
+        }
+        return ret;
+    }
+
+    @Override
+    public final boolean equals(final Object obj) {
+        if (obj instanceof OffHeapNode) {
+            final OffHeapNode<?, ?, ?> other = (OffHeapNode<?, ?, ?>) obj;
+            if (region == other.region && offset == other.offset) {
+                return true;
+            }
+        }
+        return NormalizedNodes.containerEquals(this, obj);
+    }
+
+    @Override
+    public final String toString() {
+        return MoreObjects.toStringHelper(this).add("identifier", identifier).add("children", size).toString();
+    }
+
+    private abstract static class DataContainerImpl<I extends PathArgument>
+            extends OffHeapNode<I, PathArgument, DataContainerChild<? extends PathArgument, ?>> {
+        DataContainerImpl(final OffHeapArena.Region region, final OffHeapNodeCodec codec, final int offset,
+                final I identifier) {
+            super(region, codec, offset, identifier);
+        }
+
+        // Nodes with attributes are always decoded as a whole
+        public final Map<QName, String> getAttributes() {
+            return Collections.emptyMap();
+        }
+
+        public final Object getAttributeValue(final QName name) {
+            return null;
+        }
+    }
+
+    private static final class ContainerImpl extends DataContainerImpl<NodeIdentifier> implements ContainerNode {
+        ContainerImpl(final OffHeapArena.Region region, final OffHeapNodeCodec codec, final int offset,
+                final NodeIdentifier identifier) {
+            super(region, codec, offset, identifier);
+        }
+    }
+
+    private static final class MapEntryImpl extends DataContainerImpl<NodeIdentifierWithPredicates>
+            implements MapEntryNode {
+        MapEntryImpl(final OffHeapArena.Region region, final OffHeapNodeCodec codec, final int offset,
+                final NodeIdentifierWithPredicates identifier) {
+            super(region, codec, offset, identifier);
+        }
+    }
+
+    private static final class AugmentationImpl extends DataContainerImpl<AugmentationIdentifier>
+            implements AugmentationNode {
+        AugmentationImpl(final OffHeapArena.Region region, final OffHeapNodeCodec codec, final int offset,
+                final AugmentationIdentifier identifier) {
+            super(region, codec, offset, identifier);
+        }
+    }
+
+    private static final class ChoiceImpl extends DataContainerImpl<NodeIdentifier> implements ChoiceNode {
+        ChoiceImpl(final OffHeapArena.Region region, final OffHeapNodeCodec codec, final int offset,
+                final NodeIdentifier identifier) {
+            super(region, codec, offset, identifier);
+        }
+    }
+
+    private static final class UnkeyedListEntryImpl extends DataContainerImpl<NodeIdentifier>
+            implements UnkeyedListEntryNode {
+        UnkeyedListEntryImpl(final OffHeapArena.Region region, final OffHeapNodeCodec codec, final int offset,
+                final NodeIdentifier identifier) {
+            super(region, codec, offset, identifier);
+        }
+    }
+
+    private static class MapImpl extends OffHeapNode<NodeIdentifier, NodeIdentifierWithPredicates, MapEntryNode>
+            implements MapNode {
+        MapImpl(final OffHeapArena.Region region, final OffHeapNodeCodec codec, final int offset,
+                final NodeIdentifier identifier) {
+            super(region, codec, offset, identifier);
+        }
+    }
+
+    private static final class OrderedMapImpl extends MapImpl implements OrderedMapNode {
+        OrderedMapImpl(final OffHeapArena.Region region, final OffHeapNodeCodec codec, final int offset,
+                final NodeIdentifier identifier) {
+            super(region, codec, offset, identifier);
+        }
+
+        @Override
+        public MapEntryNode getChild(final int position) {
+            return childAt(position);
+        }
+
+        @Override
+        public int getSize() {
+            return size();
+        }
+    }
+}
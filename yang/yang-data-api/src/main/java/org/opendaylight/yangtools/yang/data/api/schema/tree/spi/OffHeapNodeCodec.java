@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree.spi;
+
+import com.google.common.annotations.Beta;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+
+/**
+ * Binary encoding of {@link NormalizedNode}s, used to move cold subtrees out of the Java heap. Large subtrees are
+ * split into individually-encoded nodes, indexed by their identifiers. Implementations must be thread-safe, as
+ * decoding happens on whichever thread accesses an off-heap node.
+ */
+@Beta
+public interface OffHeapNodeCodec {
+    /**
+     * Encode a node, including all of its children.
+     *
+     * @param node Node to encode
+     * @return Encoded form of the node
+     * @throws IOException if the node cannot be encoded
+     */
+    @Nonnull byte[] encode(@Nonnull NormalizedNode<?, ?> node) throws IOException;
+
+    /**
+     * Decode a node previously encoded by {@link #encode(NormalizedNode)}. The buffer is positioned at the start of
+     * the encoding and is not shared with other threads.
+     *
+     * @param buffer Buffer holding the encoded form
+     * @return Decoded node
+     * @throws IOException if the node cannot be decoded
+     */
+    @Nonnull NormalizedNode<?, ?> decode(@Nonnull ByteBuffer buffer) throws IOException;
+
+    /**
+     * Encode a node identifier.
+     *
+     * @param identifier Identifier to encode
+     * @return Encoded form of the identifier
+     * @throws IOException if the identifier cannot be encoded
+     */
+    @Nonnull byte[] encodeIdentifier(@Nonnull PathArgument identifier) throws IOException;
+
+    /**
+     * Decode an identifier previously encoded by {@link #encodeIdentifier(PathArgument)}. The buffer is positioned at
+     * the start of the encoding and is not shared with other threads.
+     *
+     * @param buffer Buffer holding the encoded form
+     * @return Decoded identifier
+     * @throws IOException if the identifier cannot be decoded
+     */
+    @Nonnull PathArgument decodeIdentifier(@Nonnull ByteBuffer buffer) throws IOException;
+}
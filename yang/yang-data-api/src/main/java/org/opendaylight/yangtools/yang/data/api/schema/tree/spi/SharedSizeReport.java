@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree.spi;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import org.opendaylight.yangtools.concepts.Immutable;
+
+/**
+ * Estimated heap usage of two trees, split into the part they share and the parts retained by only one of them. The
+ * exclusive part of a tree is the amount of memory which becomes garbage once that tree is no longer referenced,
+ * provided the other tree remains reachable.
+ */
+@Beta
+public final class SharedSizeReport implements Immutable {
+    private final long shared;
+    private final long firstExclusive;
+    private final long secondExclusive;
+
+    SharedSizeReport(final long shared, final long firstExclusive, final long secondExclusive) {
+        this.shared = shared;
+        this.firstExclusive = firstExclusive;
+        this.secondExclusive = secondExclusive;
+    }
+
+    /**
+     * Return the estimated size of data reachable from both trees.
+     *
+     * @return Size in bytes
+     */
+    public long getShared() {
+        return shared;
+    }
+
+    /**
+     * Return the estimated size of data reachable only from the first tree.
+     *
+     * @return Size in bytes
+     */
+    public long getFirstExclusive() {
+        return firstExclusive;
+    }
+
+    /**
+     * Return the estimated size of data reachable only from the second tree.
+     *
+     * @return Size in bytes
+     */
+    public long getSecondExclusive() {
+        return secondExclusive;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("shared", shared).add("firstExclusive", firstExclusive)
+                .add("secondExclusive", secondExclusive).toString();
+    }
+}
@@ -7,6 +7,9 @@
  */
 package org.opendaylight.yangtools.yang.data.api.schema.tree.spi;
 
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
@@ -136,4 +139,43 @@ public final class TreeNodeFactory {
         }
         return new ValueNode(data, version);
     }
+
+    /**
+     * Create a new TreeNode equivalent to an existing node, but with its data moved to an off-heap arena. Children of
+     * the data are decoded each time they are accessed, large children being off-heap nodes themselves. Only nodes
+     * which have not seen a modification since they were created, e.g. whose version is equal to their subtree
+     * version, can be moved. Containers, choices, augmentations, list entries and keyed lists are supported, unless
+     * they carry attributes.
+     *
+     * @param node Node to move
+     * @param codec Codec used to encode and decode the data
+     * @param arena Arena to allocate memory from
+     * @return A new TreeNode, with the same identifier and version as the original, or the original node if it is
+     *         already off-heap, its data is not supported or the arena does not have enough space
+     * @throws IllegalArgumentException if the node has been modified since its creation
+     * @throws IOException if the codec fails to encode the data
+     */
+    @Beta
+    public static TreeNode createOffHeapTreeNode(final TreeNode node, final OffHeapNodeCodec codec,
+            final OffHeapArena arena) throws IOException {
+        Preconditions.checkArgument(node.getVersion().equals(node.getSubtreeVersion()),
+            "Node %s has been modified since its creation", node);
+        if (isOffHeap(node)) {
+            return node;
+        }
+
+        final NormalizedNode<?, ?> data = OffHeapNode.create(node.getData(), codec, arena);
+        return data == null ? node : new SimpleContainerNode(data, node.getVersion());
+    }
+
+    /**
+     * Check whether a TreeNode holds its data off-heap.
+     *
+     * @param node Node to examine
+     * @return True if the node's data is stored off-heap.
+     */
+    @Beta
+    public static boolean isOffHeap(final TreeNode node) {
+        return node.getData() instanceof OffHeapNode;
+    }
 }
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree.spi;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedNodeContainer;
+
+/**
+ * Estimates the amount of heap retained by the data of {@link TreeNode}s. The estimate assumes a 64-bit JVM with
+ * compressed object pointers and covers the {@link NormalizedNode}s themselves, their child indices, list entry keys
+ * and leaf values. It does not cover objects which are typically shared across the whole tree, such as
+ * {@link org.opendaylight.yangtools.yang.common.QName}s, and index structures of materialized {@link TreeNode}s.
+ * Off-heap nodes are accounted only for their on-heap part.
+ *
+ * <p>
+ * Data trees share unmodified subtrees between versions. A caching estimator remembers estimates of container nodes
+ * for as long as the node is reachable, so estimating a tree after a commit does not descend into unmodified subtrees.
+ * It does, however, visit every direct child of each container replaced by the commit, hence adding a single entry to
+ * a list costs time proportional to the number of entries in that list. Instances are thread-safe.
+ */
+@Beta
+public final class TreeNodeSizeEstimator {
+    // Object header, identifier and value references
+    private static final int NODE_SIZE = 24;
+    // Slot in the children map, amortized over typical fill factors
+    private static final int CHILD_ENTRY_SIZE = 32;
+    // Node object, the encoded data is not on heap
+    private static final int OFF_HEAP_NODE_SIZE = 40;
+    // Identifier with predicates and its key map
+    private static final int PREDICATES_SIZE = 40;
+    private static final int PREDICATE_ENTRY_SIZE = 24;
+    private static final int BOXED_SIZE = 16;
+    private static final int BIG_NUMBER_SIZE = 56;
+    private static final int STRING_SIZE = 40;
+    private static final int ARRAY_SIZE = 16;
+    private static final int OTHER_VALUE_SIZE = 32;
+
+    private static final TreeNodeSizeEstimator UNCACHED = new TreeNodeSizeEstimator(null);
+
+    private final Cache<NormalizedNode<?, ?>, Long> cache;
+
+    private TreeNodeSizeEstimator(final Cache<NormalizedNode<?, ?>, Long> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Return an estimator which does not cache estimates.
+     *
+     * @return An estimator
+     */
+    public static TreeNodeSizeEstimator create() {
+        return UNCACHED;
+    }
+
+    /**
+     * Create an estimator which caches estimates of container nodes. Cached estimates do not prevent their nodes
+     * from being garbage-collected.
+     *
+     * @return A new estimator
+     */
+    public static TreeNodeSizeEstimator createCaching() {
+        return new TreeNodeSizeEstimator(CacheBuilder.newBuilder().weakKeys().<NormalizedNode<?, ?>, Long>build());
+    }
+
+    /**
+     * Estimate the heap retained by the data of a tree node, including all of its children.
+     *
+     * @param node Tree node
+     * @return Estimated size in bytes
+     */
+    public long estimate(@Nonnull final TreeNode node) {
+        return estimate(node.getData());
+    }
+
+    /**
+     * Estimate the heap retained by a data node, including all of its children.
+     *
+     * @param data Data node
+     * @return Estimated size in bytes
+     */
+    public long estimate(@Nonnull final NormalizedNode<?, ?> data) {
+        if (data instanceof OffHeapNode) {
+            return OFF_HEAP_NODE_SIZE + identifierSize(data.getIdentifier());
+        }
+        if (!isContainer(data)) {
+            return NODE_SIZE + identifierSize(data.getIdentifier()) + valueSize(data.getValue());
+        }
+        if (cache == null) {
+            return containerSize(data);
+        }
+
+        final Long cached = cache.getIfPresent(data);
+        if (cached != null) {
+            return cached;
+        }
+        // Concurrent estimates of the same node may race, but they arrive at the same value
+        final long ret = containerSize(data);
+        cache.put(data, ret);
+        return ret;
+    }
+
+    /**
+     * Compare two trees, typically roots of two versions of a data tree, and estimate how much of their data they
+     * share. Subtrees are matched by their position in the tree.
+     *
+     * @param first First tree
+     * @param second Second tree
+     * @return Comparison report
+     */
+    public SharedSizeReport compare(@Nonnull final TreeNode first, @Nonnull final TreeNode second) {
+        final long[] sizes = new long[3];
+        compare(first.getData(), second.getData(), sizes);
+        return new SharedSizeReport(sizes[0], sizes[1], sizes[2]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void compare(final NormalizedNode<?, ?> first, final NormalizedNode<?, ?> second, final long[] sizes) {
+        if (first == second) {
+            sizes[0] += estimate(first);
+            return;
+        }
+        if (!(first instanceof NormalizedNodeContainer) || !(second instanceof NormalizedNodeContainer)
+                || first instanceof OffHeapNode || second instanceof OffHeapNode) {
+            sizes[1] += estimate(first);
+            sizes[2] += estimate(second);
+            return;
+        }
+
+        final NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> firstContainer =
+                (NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>>) first;
+        final NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> secondContainer =
+                (NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>>) second;
+        sizes[1] += shallowContainerSize(firstContainer);
+        sizes[2] += shallowContainerSize(secondContainer);
+
+        for (NormalizedNode<?, ?> child : firstContainer.getValue()) {
+            final Optional<NormalizedNode<?, ?>> other = secondContainer.getChild(child.getIdentifier());
+            if (other.isPresent()) {
+                compare(child, other.get(), sizes);
+            } else {
+                sizes[1] += estimate(child);
+            }
+        }
+        for (NormalizedNode<?, ?> child : secondContainer.getValue()) {
+            if (!firstContainer.getChild(child.getIdentifier()).isPresent()) {
+                sizes[2] += estimate(child);
+            }
+        }
+    }
+
+    private long containerSize(final NormalizedNode<?, ?> data) {
+        long ret = shallowContainerSize(data);
+        for (NormalizedNode<?, ?> child : children(data)) {
+            ret += estimate(child);
+        }
+        return ret;
+    }
+
+    private static long shallowContainerSize(final NormalizedNode<?, ?> data) {
+        return NODE_SIZE + identifierSize(data.getIdentifier()) + (long) CHILD_ENTRY_SIZE * children(data).size();
+    }
+
+    private static boolean isContainer(final NormalizedNode<?, ?> data) {
+        return data instanceof NormalizedNodeContainer || data instanceof OrderedNodeContainer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<NormalizedNode<?, ?>> children(final NormalizedNode<?, ?> data) {
+        return (Collection<NormalizedNode<?, ?>>) data.getValue();
+    }
+
+    private static long identifierSize(final PathArgument identifier) {
+        /*
+         * Plain identifiers are cached and shared, leaf-list entries share their value with the entry. Key values
+         * are typically shared with key leaves, hence only the predicate map is accounted for.
+         */
+        if (!(identifier instanceof NodeIdentifierWithPredicates)) {
+            return 0;
+        }
+        return PREDICATES_SIZE + (long) PREDICATE_ENTRY_SIZE
+                * ((NodeIdentifierWithPredicates) identifier).getKeyValues().size();
+    }
+
+    private static long valueSize(final Object value) {
+        if (value == null || value instanceof Boolean || value instanceof Enum) {
+            // Shared instances
+            return 0;
+        }
+        if (value instanceof String) {
+            return STRING_SIZE + 2L * ((String) value).length();
+        }
+        if (value instanceof BigInteger || value instanceof BigDecimal) {
+            return BIG_NUMBER_SIZE;
+        }
+        if (value instanceof Number || value instanceof Character) {
+            return BOXED_SIZE;
+        }
+        if (value instanceof byte[]) {
+            return ARRAY_SIZE + ((byte[]) value).length;
+        }
+        if (value instanceof Collection) {
+            long ret = ARRAY_SIZE + (long) CHILD_ENTRY_SIZE * ((Collection<?>) value).size();
+            for (Object item : (Collection<?>) value) {
+                ret += valueSize(item);
+            }
+            return ret;
+        }
+        return OTHER_VALUE_SIZE;
+    }
+}
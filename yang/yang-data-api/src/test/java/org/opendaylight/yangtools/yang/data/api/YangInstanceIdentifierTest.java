@@ -418,4 +418,53 @@ public class YangInstanceIdentifierTest {
         assertFalse(fixed.isEmpty());
         assertFalse(stacked.isEmpty());
     }
+
+    @Test
+    public void testGetAncestor() {
+        final YangInstanceIdentifier fixed = YangInstanceIdentifier.create(new NodeIdentifier(NODENAME1),
+            new NodeIdentifier(NODENAME2), new NodeIdentifier(NODENAME3));
+        final YangInstanceIdentifier stacked = fixed.getAncestor(1).node(new NodeIdentifier(NODENAME2))
+                .node(new NodeIdentifier(NODENAME3));
+
+        for (int i = 0; i <= 3; ++i) {
+            final YangInstanceIdentifier expected = YangInstanceIdentifier.create(
+                fixed.getPathArguments().subList(0, i));
+            assertEquals(expected, fixed.getAncestor(i));
+            assertEquals(expected.hashCode(), fixed.getAncestor(i).hashCode());
+            assertEquals(expected, stacked.getAncestor(i));
+        }
+
+        assertSame(YangInstanceIdentifier.EMPTY, fixed.getAncestor(0));
+        assertSame(fixed, fixed.getAncestor(3));
+        assertSame(fixed.getParent(), fixed.getAncestor(2));
+        assertSame(stacked.getParent(), stacked.getAncestor(2));
+        assertEquals(fixed.getAncestor(1), fixed.getAncestor(2).getParent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetAncestorTooDeep() {
+        YangInstanceIdentifier.EMPTY.node(new NodeIdentifier(NODENAME1)).getAncestor(2);
+    }
+
+    @Test
+    public void testContainsMixed() throws IOException, ClassNotFoundException {
+        final YangInstanceIdentifier fixed = YangInstanceIdentifier.create(new NodeIdentifier(NODENAME1),
+            new NodeIdentifier(NODENAME2));
+        final YangInstanceIdentifier stacked = YangInstanceIdentifier.EMPTY.node(new NodeIdentifier(NODENAME1))
+                .node(new NodeIdentifier(NODENAME2)).node(new NodeIdentifier(NODENAME3));
+        final YangInstanceIdentifier other = fixed.getParent().node(new NodeIdentifier(NODENAME3));
+
+        assertTrue(YangInstanceIdentifier.EMPTY.contains(stacked));
+        assertTrue(fixed.contains(stacked));
+        assertTrue(stacked.getParent().contains(fixed));
+        assertTrue(fixed.getParent().contains(other));
+        assertFalse(fixed.contains(other));
+        assertFalse(other.contains(stacked));
+        assertFalse(stacked.contains(fixed));
+
+        final YangInstanceIdentifier copy = serdes(stacked);
+        assertTrue(fixed.contains(copy));
+        assertEquals(fixed, copy.getAncestor(2));
+        assertEquals(Optional.of(YangInstanceIdentifier.create(new NodeIdentifier(NODENAME3))), copy.relativeTo(fixed));
+    }
 }
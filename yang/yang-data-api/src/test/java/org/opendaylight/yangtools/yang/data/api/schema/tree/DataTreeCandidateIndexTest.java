@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.concepts.AbstractObjectRegistration;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+
+public class DataTreeCandidateIndexTest {
+    private static final QName FOO = QName.create("test", "2016-01-01", "foo");
+    private static final QName LIST = QName.create(FOO, "list");
+    private static final QName KEY = QName.create(FOO, "key");
+    private static final QName BAR = QName.create(FOO, "bar");
+    private static final QName BAZ = QName.create(FOO, "baz");
+
+    private static final NodeIdentifier FOO_ID = new NodeIdentifier(FOO);
+    private static final NodeIdentifier LIST_ID = new NodeIdentifier(LIST);
+    private static final NodeIdentifierWithPredicates ENTRY1 = new NodeIdentifierWithPredicates(LIST,
+        ImmutableMap.of(KEY, "one"));
+    private static final NodeIdentifierWithPredicates ENTRY2 = new NodeIdentifierWithPredicates(LIST,
+        ImmutableMap.of(KEY, "two"));
+    private static final NodeIdentifier BAR_ID = new NodeIdentifier(BAR);
+    private static final NodeIdentifier BAZ_ID = new NodeIdentifier(BAZ);
+
+    private static final YangInstanceIdentifier FOO_PATH = YangInstanceIdentifier.create(FOO_ID);
+    private static final YangInstanceIdentifier LIST_PATH = FOO_PATH.node(LIST_ID);
+
+    private DataTreeCandidateIndex<String> index;
+    private DataTreeCandidate candidate;
+
+    @Before
+    public void setUp() {
+        index = new DataTreeCandidateIndex<>();
+
+        // /foo/list/list[one]/bar written, /foo/list/list[two] deleted, /foo/baz unmodified
+        final TestNode entry1 = new TestNode(ENTRY1, ModificationType.SUBTREE_MODIFIED,
+            new TestNode(BAR_ID, ModificationType.WRITE));
+        final TestNode entry2 = new TestNode(ENTRY2, ModificationType.DELETE);
+        final TestNode list = new TestNode(LIST_ID, ModificationType.SUBTREE_MODIFIED, entry1, entry2);
+        final TestNode foo = new TestNode(FOO_ID, ModificationType.SUBTREE_MODIFIED, list,
+            new TestNode(BAZ_ID, ModificationType.UNMODIFIED));
+        candidate = DataTreeCandidates.newDataTreeCandidate(FOO_PATH, foo);
+    }
+
+    @Test
+    public void testExactMatch() {
+        index.register(LIST_PATH.node(ENTRY1).node(BAR_ID), "bar");
+        index.register(LIST_PATH.node(ENTRY2), "entry2");
+        index.register(FOO_PATH.node(BAZ_ID), "baz");
+        index.register(YangInstanceIdentifier.create(BAZ_ID), "other");
+
+        final Map<String, List<YangInstanceIdentifier>> matches = match(candidate);
+        assertEquals(2, matches.size());
+        assertEquals(LIST_PATH.node(ENTRY1).node(BAR_ID), matches.get("bar").get(0));
+        assertEquals(LIST_PATH.node(ENTRY2), matches.get("entry2").get(0));
+    }
+
+    @Test
+    public void testWildcardMatch() {
+        index.register(LIST_PATH.node(LIST_ID), "entries");
+        index.register(LIST_PATH.node(LIST_ID).node(BAR_ID), "bars");
+
+        final Map<String, List<YangInstanceIdentifier>> matches = match(candidate);
+        assertEquals(2, matches.size());
+        assertEquals(2, matches.get("entries").size());
+        assertTrue(matches.get("entries").contains(LIST_PATH.node(ENTRY1)));
+        assertTrue(matches.get("entries").contains(LIST_PATH.node(ENTRY2)));
+        assertEquals(1, matches.get("bars").size());
+        assertEquals(LIST_PATH.node(ENTRY1).node(BAR_ID), matches.get("bars").get(0));
+    }
+
+    @Test
+    public void testRootedCandidate() {
+        index.register(YangInstanceIdentifier.EMPTY, "root");
+        index.register(FOO_PATH, "foo");
+        index.register(LIST_PATH.node(LIST_ID).node(BAR_ID), "bars");
+
+        final TestNode bar = new TestNode(BAR_ID, ModificationType.WRITE);
+        final DataTreeCandidate rooted = DataTreeCandidates.newDataTreeCandidate(
+            LIST_PATH.node(ENTRY1).node(BAR_ID), bar);
+
+        final Map<String, List<YangInstanceIdentifier>> matches = match(rooted);
+        assertEquals(3, matches.size());
+        assertEquals(rooted.getRootPath(), matches.get("root").get(0));
+        assertEquals(rooted.getRootPath(), matches.get("foo").get(0));
+        assertEquals(rooted.getRootPath(), matches.get("bars").get(0));
+    }
+
+    @Test
+    public void testUnregister() {
+        final AbstractObjectRegistration<String> reg = index.register(LIST_PATH.node(LIST_ID).node(BAR_ID), "bars");
+        index.register(FOO_PATH, "foo").close();
+        assertFalse(index.isEmpty());
+        assertEquals(1, match(candidate).size());
+
+        reg.close();
+        assertTrue(index.isEmpty());
+        assertTrue(match(candidate).isEmpty());
+    }
+
+    private Map<String, List<YangInstanceIdentifier>> match(final DataTreeCandidate toMatch) {
+        final Map<String, List<YangInstanceIdentifier>> ret = new LinkedHashMap<>();
+        index.match(toMatch, (name, match) -> ret.computeIfAbsent(name, k -> new ArrayList<>())
+            .add(match.getRootPath()));
+        return ret;
+    }
+
+    private static final class TestNode implements DataTreeCandidateNode {
+        private final Map<PathArgument, DataTreeCandidateNode> children = new LinkedHashMap<>();
+        private final PathArgument identifier;
+        private final ModificationType type;
+
+        TestNode(final PathArgument identifier, final ModificationType type, final TestNode... children) {
+            this.identifier = identifier;
+            this.type = type;
+            for (TestNode child : children) {
+                this.children.put(child.getIdentifier(), child);
+            }
+        }
+
+        @Override
+        public PathArgument getIdentifier() {
+            return identifier;
+        }
+
+        @Override
+        public Collection<DataTreeCandidateNode> getChildNodes() {
+            return children.values();
+        }
+
+        @Override
+        public DataTreeCandidateNode getModifiedChild(final PathArgument childIdentifier) {
+            return children.get(childIdentifier);
+        }
+
+        @Override
+        public ModificationType getModificationType() {
+            return type;
+        }
+
+        @Override
+        public Optional<NormalizedNode<?, ?>> getDataAfter() {
+            return Optional.absent();
+        }
+
+        @Override
+        public Optional<NormalizedNode<?, ?>> getDataBefore() {
+            return Optional.absent();
+        }
+    }
+}
@@ -29,7 +29,7 @@ import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.IdentityrefTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.InstanceIdentifierTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.LeafrefTypeDefinition;
-import org.opendaylight.yangtools.yang.model.util.SchemaContextUtil;
+import org.opendaylight.yangtools.yang.model.util.SchemaResolutionCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -86,7 +86,7 @@ class XmlStreamUtils {
 
         if (schemaContext.isPresent() && type instanceof LeafrefTypeDefinition) {
             LeafrefTypeDefinition leafrefTypeDefinition = (LeafrefTypeDefinition) type;
-            type = SchemaContextUtil.getBaseTypeForLeafRef(leafrefTypeDefinition, schemaContext.get(), schemaNode);
+            type = SchemaResolutionCache.getBaseTypeForLeafRef(leafrefTypeDefinition, schemaContext.get(), schemaNode);
             Verify.verifyNotNull(type, "Unable to find base type for leafref node '%s'.", schemaNode.getPath());
         }
 
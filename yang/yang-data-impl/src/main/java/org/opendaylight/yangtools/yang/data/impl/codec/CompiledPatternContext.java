@@ -9,26 +9,27 @@ package org.opendaylight.yangtools.yang.data.impl.codec;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
-import java.util.regex.Pattern;
+import org.opendaylight.yangtools.yang.data.impl.pattern.PatternMatcher;
+import org.opendaylight.yangtools.yang.data.impl.pattern.PatternMatchers;
 import org.opendaylight.yangtools.yang.model.api.type.PatternConstraint;
 
 class CompiledPatternContext {
 
-    private final Pattern pattern;
+    private final PatternMatcher matcher;
     private final String errorMessage;
 
     CompiledPatternContext(final PatternConstraint yangConstraint) {
-        pattern = Pattern.compile("^" + yangConstraint.getRegularExpression() + "$");
+        matcher = PatternMatchers.forConstraint(yangConstraint);
         final String yangMessage = yangConstraint.getErrorMessage();
         if (Strings.isNullOrEmpty(yangMessage)) {
-            errorMessage = "Value %s does not match regular expression <" + pattern.pattern() + ">";
+            errorMessage = "Value %s does not match regular expression <" + matcher.getRegularExpression() + ">";
         } else {
             errorMessage = yangMessage;
         }
     }
 
     public void validate(final String s) {
-        Preconditions.checkArgument(pattern.matcher(s).matches(), errorMessage, s);
+        Preconditions.checkArgument(matcher.matches(s), errorMessage, s);
     }
 
-}
\ No newline at end of file
+}
@@ -9,7 +9,6 @@ package org.opendaylight.yangtools.yang.data.impl.codec;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.regex.PatternSyntaxException;
 import org.opendaylight.yangtools.yang.model.api.type.PatternConstraint;
 import org.opendaylight.yangtools.yang.model.api.type.StringTypeDefinition;
 import org.slf4j.Logger;
@@ -26,7 +25,7 @@ final class StringPatternCheckingCodec extends StringStringCodec {
         for (final PatternConstraint yangPattern : typeDef.getPatternConstraints()) {
             try {
                 patterns.add(new CompiledPatternContext(yangPattern));
-            } catch (final PatternSyntaxException e) {
+            } catch (final IllegalArgumentException e) {
                 LOG.debug("Unable to compile {} pattern, excluding it from validation.", yangPattern, e);
             }
         }
@@ -20,7 +20,7 @@ import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.IdentityrefTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.LeafrefTypeDefinition;
-import org.opendaylight.yangtools.yang.model.util.SchemaContextUtil;
+import org.opendaylight.yangtools.yang.model.util.SchemaResolutionCache;
 import org.w3c.dom.Element;
 
 final class ElementInstanceIdentifierParser extends AbstractStringInstanceIdentifierCodec {
@@ -42,7 +42,7 @@ final class ElementInstanceIdentifierParser extends AbstractStringInstanceIdenti
         if (originalType instanceof IdentityrefTypeDefinition) {
             return new ElementIdentityrefParser(schema, element).deserialize(value);
         } else if (originalType instanceof LeafrefTypeDefinition) {
-            originalType = SchemaContextUtil.getBaseTypeForLeafRef((LeafrefTypeDefinition) originalType, schema,
+            originalType = SchemaResolutionCache.getBaseTypeForLeafRef((LeafrefTypeDefinition) originalType, schema,
                     schemaNode);
         }
         final TypeDefinitionAwareCodec<Object, ? extends TypeDefinition<?>> keyCodec =
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.pattern;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+import javax.annotation.Nullable;
+
+/**
+ * Immutable set of Unicode code points, represented as a sorted array of disjoint, non-adjacent inclusive ranges.
+ * Used by {@link DfaPatternCompiler} to represent character classes.
+ */
+final class CodePointSet {
+    static final CodePointSet EMPTY = new CodePointSet(new int[0]);
+    static final CodePointSet ALL = new CodePointSet(new int[] { 0, Character.MAX_CODE_POINT });
+
+    private static final Map<String, CodePointSet> CATEGORIES = new ConcurrentHashMap<>();
+    private static final Map<Character.UnicodeBlock, CodePointSet> BLOCKS = new ConcurrentHashMap<>();
+
+    /*
+     * Unicode general categories as understood by java.util.regex.Pattern, expressed as masks of
+     * Character.getType() values.
+     */
+    private static final Map<String, Integer> CATEGORY_MASKS;
+
+    static {
+        final Map<String, Integer> masks = new HashMap<>();
+        masks.put("Cn", 1 << Character.UNASSIGNED);
+        masks.put("Lu", 1 << Character.UPPERCASE_LETTER);
+        masks.put("Ll", 1 << Character.LOWERCASE_LETTER);
+        masks.put("Lt", 1 << Character.TITLECASE_LETTER);
+        masks.put("Lm", 1 << Character.MODIFIER_LETTER);
+        masks.put("Lo", 1 << Character.OTHER_LETTER);
+        masks.put("Mn", 1 << Character.NON_SPACING_MARK);
+        masks.put("Me", 1 << Character.ENCLOSING_MARK);
+        masks.put("Mc", 1 << Character.COMBINING_SPACING_MARK);
+        masks.put("Nd", 1 << Character.DECIMAL_DIGIT_NUMBER);
+        masks.put("Nl", 1 << Character.LETTER_NUMBER);
+        masks.put("No", 1 << Character.OTHER_NUMBER);
+        masks.put("Zs", 1 << Character.SPACE_SEPARATOR);
+        masks.put("Zl", 1 << Character.LINE_SEPARATOR);
+        masks.put("Zp", 1 << Character.PARAGRAPH_SEPARATOR);
+        masks.put("Cc", 1 << Character.CONTROL);
+        masks.put("Cf", 1 << Character.FORMAT);
+        masks.put("Co", 1 << Character.PRIVATE_USE);
+        masks.put("Cs", 1 << Character.SURROGATE);
+        masks.put("Pd", 1 << Character.DASH_PUNCTUATION);
+        masks.put("Ps", 1 << Character.START_PUNCTUATION);
+        masks.put("Pe", 1 << Character.END_PUNCTUATION);
+        masks.put("Pc", 1 << Character.CONNECTOR_PUNCTUATION);
+        masks.put("Po", 1 << Character.OTHER_PUNCTUATION);
+        masks.put("Sm", 1 << Character.MATH_SYMBOL);
+        masks.put("Sc", 1 << Character.CURRENCY_SYMBOL);
+        masks.put("Sk", 1 << Character.MODIFIER_SYMBOL);
+        masks.put("So", 1 << Character.OTHER_SYMBOL);
+        masks.put("Pi", 1 << Character.INITIAL_QUOTE_PUNCTUATION);
+        masks.put("Pf", 1 << Character.FINAL_QUOTE_PUNCTUATION);
+        masks.put("L", masks.get("Lu") | masks.get("Ll") | masks.get("Lt") | masks.get("Lm") | masks.get("Lo"));
+        masks.put("M", masks.get("Mn") | masks.get("Me") | masks.get("Mc"));
+        masks.put("N", masks.get("Nd") | masks.get("Nl") | masks.get("No"));
+        masks.put("Z", masks.get("Zs") | masks.get("Zl") | masks.get("Zp"));
+        masks.put("C", masks.get("Cc") | masks.get("Cf") | masks.get("Co") | masks.get("Cs") | masks.get("Cn"));
+        masks.put("P", masks.get("Pd") | masks.get("Ps") | masks.get("Pe") | masks.get("Pc") | masks.get("Po")
+            | masks.get("Pi") | masks.get("Pf"));
+        masks.put("S", masks.get("Sm") | masks.get("Sc") | masks.get("Sk") | masks.get("So"));
+        CATEGORY_MASKS = ImmutableMap.copyOf(masks);
+    }
+
+    private final int[] ranges;
+
+    private CodePointSet(final int[] ranges) {
+        this.ranges = ranges;
+    }
+
+    static CodePointSet of(final int codePoint) {
+        return new CodePointSet(new int[] { codePoint, codePoint });
+    }
+
+    static CodePointSet range(final int from, final int to) {
+        Preconditions.checkArgument(from <= to, "Invalid range %s-%s", from, to);
+        return new CodePointSet(new int[] { from, to });
+    }
+
+    static CodePointSet of(final int... codePoints) {
+        CodePointSet ret = EMPTY;
+        for (int cp : codePoints) {
+            ret = ret.union(of(cp));
+        }
+        return ret;
+    }
+
+    /**
+     * Return the set of code points belonging to a Unicode general category, such as {@code L} or {@code Nd}.
+     *
+     * @param name Category name
+     * @return Set of code points, or null if the category is not known
+     */
+    @Nullable static CodePointSet forCategory(final String name) {
+        final Integer mask = CATEGORY_MASKS.get(name);
+        if (mask == null) {
+            return null;
+        }
+
+        return CATEGORIES.computeIfAbsent(name, key -> {
+            final int m = mask;
+            return collect(cp -> (m & (1 << Character.getType(cp))) != 0);
+        });
+    }
+
+    /**
+     * Return the set of code points belonging to a Unicode block.
+     *
+     * @param name Block name, as understood by {@link Character.UnicodeBlock#forName(String)}
+     * @return Set of code points, or null if the block is not known
+     */
+    @Nullable static CodePointSet forBlock(final String name) {
+        final Character.UnicodeBlock block;
+        try {
+            block = Character.UnicodeBlock.forName(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        return BLOCKS.computeIfAbsent(block, key -> collect(cp -> Character.UnicodeBlock.of(cp) == key));
+    }
+
+    private static CodePointSet collect(final IntPredicate predicate) {
+        int[] tmp = new int[64];
+        int size = 0;
+        int start = -1;
+        for (int cp = 0; cp <= Character.MAX_CODE_POINT; ++cp) {
+            if (predicate.test(cp)) {
+                if (start < 0) {
+                    start = cp;
+                }
+            } else if (start >= 0) {
+                if (size == tmp.length) {
+                    tmp = Arrays.copyOf(tmp, size * 2);
+                }
+                tmp[size++] = start;
+                tmp[size++] = cp - 1;
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            if (size == tmp.length) {
+                tmp = Arrays.copyOf(tmp, size + 2);
+            }
+            tmp[size++] = start;
+            tmp[size++] = Character.MAX_CODE_POINT;
+        }
+        return new CodePointSet(Arrays.copyOf(tmp, size));
+    }
+
+    boolean isEmpty() {
+        return ranges.length == 0;
+    }
+
+    boolean contains(final int codePoint) {
+        // Find the last range which starts at or before the code point
+        int low = 0;
+        int high = ranges.length / 2 - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (ranges[mid * 2] <= codePoint) {
+                if (codePoint <= ranges[mid * 2 + 1]) {
+                    return true;
+                }
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return false;
+    }
+
+    int rangeCount() {
+        return ranges.length / 2;
+    }
+
+    int rangeStart(final int index) {
+        return ranges[index * 2];
+    }
+
+    int rangeEnd(final int index) {
+        return ranges[index * 2 + 1];
+    }
+
+    CodePointSet union(final CodePointSet other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+
+        final int[] tmp = new int[ranges.length + other.ranges.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < ranges.length || j < other.ranges.length) {
+            final int start;
+            final int end;
+            if (j == other.ranges.length || i < ranges.length && ranges[i] <= other.ranges[j]) {
+                start = ranges[i];
+                end = ranges[i + 1];
+                i += 2;
+            } else {
+                start = other.ranges[j];
+                end = other.ranges[j + 1];
+                j += 2;
+            }
+
+            // Merge with the previous range if it overlaps or is adjacent
+            if (size != 0 && start <= tmp[size - 1] + 1) {
+                tmp[size - 1] = Math.max(tmp[size - 1], end);
+            } else {
+                tmp[size++] = start;
+                tmp[size++] = end;
+            }
+        }
+        return new CodePointSet(Arrays.copyOf(tmp, size));
+    }
+
+    CodePointSet complement() {
+        final int[] tmp = new int[ranges.length + 2];
+        int size = 0;
+        int next = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] > next) {
+                tmp[size++] = next;
+                tmp[size++] = ranges[i] - 1;
+            }
+            next = ranges[i + 1] + 1;
+        }
+        if (next <= Character.MAX_CODE_POINT) {
+            tmp[size++] = next;
+            tmp[size++] = Character.MAX_CODE_POINT;
+        }
+        return new CodePointSet(Arrays.copyOf(tmp, size));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ranges);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return this == obj || obj instanceof CodePointSet && Arrays.equals(ranges, ((CodePointSet) obj).ranges);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < ranges.length; i += 2) {
+            sb.append(String.format("\\x{%X}", ranges[i]));
+            if (ranges[i] != ranges[i + 1]) {
+                sb.append(String.format("-\\x{%X}", ranges[i + 1]));
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
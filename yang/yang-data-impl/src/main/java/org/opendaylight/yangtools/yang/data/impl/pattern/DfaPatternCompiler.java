@@ -0,0 +1,602 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.pattern;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import javax.annotation.Nullable;
+
+/**
+ * Compiler of the regular subset of {@link java.util.regex.Pattern} syntax into a {@link DfaPatternMatcher}. Patterns
+ * are parsed into a tree, translated into a Thompson NFA and then determinized via subset construction.
+ *
+ * The supported subset covers what YANG models typically use: literals, escapes, character classes including Unicode
+ * categories and blocks, groups, alternation and greedy or reluctant quantifiers, with an optional leading {@code ^}
+ * and trailing {@code $}. Anything else, such as back-references, look-arounds, possessive quantifiers, inline flags
+ * or class intersections, as well as patterns whose automaton would be too large, is rejected so that the caller can
+ * fall back to a backtracking engine.
+ *
+ * Input patterns are expected to have been validated by {@link java.util.regex.Pattern#compile(String)}, hence syntax
+ * errors are treated as unsupported constructs rather than reported.
+ */
+final class DfaPatternCompiler {
+    private static final int MAX_NFA_STATES = 8192;
+    private static final int MAX_DFA_STATES = 1024;
+
+    private static final CodePointSet DOT = CodePointSet.of('\n', '\r', '\u0085', '\u2028', '\u2029').complement();
+    private static final CodePointSet DIGIT = CodePointSet.range('0', '9');
+    private static final CodePointSet SPACE = CodePointSet.of(' ', '\t', '\n', '\u000B', '\f', '\r');
+    private static final CodePointSet WORD = CodePointSet.range('a', 'z').union(CodePointSet.range('A', 'Z'))
+            .union(CodePointSet.of('_')).union(DIGIT);
+
+    @SuppressWarnings("serial")
+    private static final class UnsupportedPatternException extends Exception {
+        UnsupportedPatternException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final UnsupportedPatternException UNSUPPORTED = new UnsupportedPatternException();
+
+    private abstract static class Node {
+
+    }
+
+    private static final class CharsNode extends Node {
+        final CodePointSet chars;
+
+        CharsNode(final CodePointSet chars) {
+            this.chars = chars;
+        }
+    }
+
+    private static final class SequenceNode extends Node {
+        final List<Node> nodes;
+
+        SequenceNode(final List<Node> nodes) {
+            this.nodes = nodes;
+        }
+    }
+
+    private static final class AlternativeNode extends Node {
+        final List<Node> nodes;
+
+        AlternativeNode(final List<Node> nodes) {
+            this.nodes = nodes;
+        }
+    }
+
+    private static final class RepeatNode extends Node {
+        final Node node;
+        final int min;
+        // -1 indicates unbounded
+        final int max;
+
+        RepeatNode(final Node node, final int min, final int max) {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    private final String regex;
+    private final int[] cps;
+    private int pos;
+
+    // Thompson NFA: each state has at most one character transition and any number of epsilon transitions
+    private final List<CodePointSet> nfaChars = new ArrayList<>();
+    private final List<Integer> nfaTargets = new ArrayList<>();
+    private final List<int[]> nfaEpsilons = new ArrayList<>();
+
+    private DfaPatternCompiler(final String regex) {
+        this.regex = regex;
+        this.cps = regex.codePoints().toArray();
+    }
+
+    /**
+     * Attempt to compile a regular expression into a DFA.
+     *
+     * @param regex Regular expression in {@link java.util.regex.Pattern} syntax
+     * @return A matcher, or null if the expression cannot be compiled into a DFA
+     */
+    @Nullable static DfaPatternMatcher compile(final String regex) {
+        try {
+            return new DfaPatternCompiler(regex).compile();
+        } catch (UnsupportedPatternException e) {
+            return null;
+        }
+    }
+
+    private DfaPatternMatcher compile() throws UnsupportedPatternException {
+        int end = cps.length;
+        if (end != 0 && cps[0] == '^') {
+            pos = 1;
+        }
+        if (end > pos && cps[end - 1] == '$' && !isEscaped(end - 1)) {
+            end--;
+        }
+
+        final Node root = parseAlternatives(end);
+        if (pos != end) {
+            throw UNSUPPORTED;
+        }
+
+        final int accept = newState();
+        final int start = build(root, accept);
+        return determinize(start, accept);
+    }
+
+    private boolean isEscaped(final int offset) {
+        int backslashes = 0;
+        for (int i = offset - 1; i >= 0 && cps[i] == '\\'; --i) {
+            backslashes++;
+        }
+        return backslashes % 2 != 0;
+    }
+
+    private int peek(final int end) {
+        return pos < end ? cps[pos] : -1;
+    }
+
+    private int next(final int end) throws UnsupportedPatternException {
+        if (pos >= end) {
+            throw UNSUPPORTED;
+        }
+        return cps[pos++];
+    }
+
+    private Node parseAlternatives(final int end) throws UnsupportedPatternException {
+        final List<Node> branches = new ArrayList<>(1);
+        branches.add(parseSequence(end));
+        while (peek(end) == '|') {
+            pos++;
+            branches.add(parseSequence(end));
+        }
+        return branches.size() == 1 ? branches.get(0) : new AlternativeNode(branches);
+    }
+
+    private Node parseSequence(final int end) throws UnsupportedPatternException {
+        final List<Node> pieces = new ArrayList<>();
+        for (int c = peek(end); c != -1 && c != '|' && c != ')'; c = peek(end)) {
+            pieces.add(parsePiece(end));
+        }
+        return pieces.size() == 1 ? pieces.get(0) : new SequenceNode(pieces);
+    }
+
+    private Node parsePiece(final int end) throws UnsupportedPatternException {
+        final Node atom = parseAtom(end);
+
+        final int min;
+        final int max;
+        switch (peek(end)) {
+            case '?':
+                min = 0;
+                max = 1;
+                pos++;
+                break;
+            case '*':
+                min = 0;
+                max = -1;
+                pos++;
+                break;
+            case '+':
+                min = 1;
+                max = -1;
+                pos++;
+                break;
+            case '{':
+                pos++;
+                min = parseNumber(end);
+                if (peek(end) == ',') {
+                    pos++;
+                    max = peek(end) == '}' ? -1 : parseNumber(end);
+                } else {
+                    max = min;
+                }
+                if (next(end) != '}' || max != -1 && max < min) {
+                    throw UNSUPPORTED;
+                }
+                break;
+            default:
+                return atom;
+        }
+
+        // Reluctant quantifiers match the same set of strings when the entire input has to match
+        final int modifier = peek(end);
+        if (modifier == '?') {
+            pos++;
+        } else if (modifier == '+' || modifier == '*' || modifier == '{') {
+            throw UNSUPPORTED;
+        }
+        return new RepeatNode(atom, min, max);
+    }
+
+    private int parseNumber(final int end) throws UnsupportedPatternException {
+        int value = 0;
+        int digits = 0;
+        for (int c = peek(end); c >= '0' && c <= '9'; c = peek(end)) {
+            value = value * 10 + c - '0';
+            if (++digits > 4) {
+                throw UNSUPPORTED;
+            }
+            pos++;
+        }
+        if (digits == 0) {
+            throw UNSUPPORTED;
+        }
+        return value;
+    }
+
+    private Node parseAtom(final int end) throws UnsupportedPatternException {
+        final int c = next(end);
+        switch (c) {
+            case '(':
+                if (peek(end) == '?') {
+                    pos++;
+                    if (next(end) != ':') {
+                        throw UNSUPPORTED;
+                    }
+                }
+                final Node group = parseAlternatives(end);
+                if (next(end) != ')') {
+                    throw UNSUPPORTED;
+                }
+                return group;
+            case '[':
+                return new CharsNode(parseClass(end));
+            case '.':
+                return new CharsNode(DOT);
+            case '\\':
+                return new CharsNode(parseEscape(end, false));
+            case '^':
+            case '$':
+            case '?':
+            case '*':
+            case '+':
+            case '{':
+            case ')':
+            case '|':
+                throw UNSUPPORTED;
+            default:
+                return new CharsNode(CodePointSet.of(c));
+        }
+    }
+
+    private CodePointSet parseClass(final int end) throws UnsupportedPatternException {
+        final boolean negated = peek(end) == '^';
+        if (negated) {
+            pos++;
+        }
+        if (peek(end) == ']') {
+            throw UNSUPPORTED;
+        }
+
+        CodePointSet set = CodePointSet.EMPTY;
+        while (true) {
+            final int c = next(end);
+            if (c == ']') {
+                break;
+            }
+            if (c == '[' || c == '&' && peek(end) == '&') {
+                // Unions, intersections and XSD-style subtractions
+                throw UNSUPPORTED;
+            }
+
+            final CodePointSet item;
+            if (c == '\\') {
+                item = parseEscape(end, true);
+            } else {
+                item = CodePointSet.of(c);
+            }
+
+            if (peek(end) == '-' && pos + 1 < end && cps[pos + 1] != ']') {
+                // A range, both ends need to be single characters
+                pos++;
+                final int to = next(end);
+                final CodePointSet toItem;
+                if (to == '\\') {
+                    toItem = parseEscape(end, true);
+                } else if (to == '[') {
+                    throw UNSUPPORTED;
+                } else {
+                    toItem = CodePointSet.of(to);
+                }
+
+                if (item.rangeCount() != 1 || item.rangeStart(0) != item.rangeEnd(0)
+                        || toItem.rangeCount() != 1 || toItem.rangeStart(0) != toItem.rangeEnd(0)
+                        || item.rangeStart(0) > toItem.rangeStart(0)) {
+                    throw UNSUPPORTED;
+                }
+                set = set.union(CodePointSet.range(item.rangeStart(0), toItem.rangeStart(0)));
+            } else {
+                set = set.union(item);
+            }
+        }
+
+        return negated ? set.complement() : set;
+    }
+
+    private CodePointSet parseEscape(final int end, final boolean inClass) throws UnsupportedPatternException {
+        final int c = next(end);
+        switch (c) {
+            case 'd':
+                return DIGIT;
+            case 'D':
+                return DIGIT.complement();
+            case 's':
+                return SPACE;
+            case 'S':
+                return SPACE.complement();
+            case 'w':
+                return WORD;
+            case 'W':
+                return WORD.complement();
+            case 'p':
+                return parseProperty(end);
+            case 'P':
+                return parseProperty(end).complement();
+            case 't':
+                return CodePointSet.of('\t');
+            case 'n':
+                return CodePointSet.of('\n');
+            case 'r':
+                return CodePointSet.of('\r');
+            case 'f':
+                return CodePointSet.of('\f');
+            case 'a':
+                return CodePointSet.of('\u0007');
+            case 'e':
+                return CodePointSet.of('\u001B');
+            case 'u':
+                final int cp = parseHex(end, 4);
+                if (Character.isSurrogate((char) cp)) {
+                    throw UNSUPPORTED;
+                }
+                return CodePointSet.of(cp);
+            case 'x':
+                if (peek(end) == '{') {
+                    pos++;
+                    int value = 0;
+                    for (int h = next(end); h != '}'; h = next(end)) {
+                        value = value * 16 + hexValue(h);
+                        if (value > Character.MAX_CODE_POINT) {
+                            throw UNSUPPORTED;
+                        }
+                    }
+                    return CodePointSet.of(value);
+                }
+                return CodePointSet.of(parseHex(end, 2));
+            default:
+                if (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9') {
+                    // Back-references, boundaries, quoting and others
+                    throw UNSUPPORTED;
+                }
+                return CodePointSet.of(c);
+        }
+    }
+
+    private int parseHex(final int end, final int digits) throws UnsupportedPatternException {
+        int value = 0;
+        for (int i = 0; i < digits; ++i) {
+            value = value * 16 + hexValue(next(end));
+        }
+        return value;
+    }
+
+    private static int hexValue(final int c) throws UnsupportedPatternException {
+        final int value = Character.digit(c, 16);
+        if (value < 0) {
+            throw UNSUPPORTED;
+        }
+        return value;
+    }
+
+    private CodePointSet parseProperty(final int end) throws UnsupportedPatternException {
+        final String name;
+        if (peek(end) == '{') {
+            pos++;
+            final int start = pos;
+            while (next(end) != '}') {
+                // Consume the name
+            }
+            name = new String(cps, start, pos - start - 1);
+        } else {
+            name = new String(cps, pos, 1);
+            pos++;
+        }
+
+        final CodePointSet set;
+        if (name.startsWith("In")) {
+            set = CodePointSet.forBlock(name.substring(2));
+        } else if (name.startsWith("Is")) {
+            set = CodePointSet.forCategory(name.substring(2));
+        } else {
+            set = CodePointSet.forCategory(name);
+        }
+        if (set == null) {
+            throw UNSUPPORTED;
+        }
+        return set;
+    }
+
+    private int newState() throws UnsupportedPatternException {
+        final int state = nfaChars.size();
+        if (state == MAX_NFA_STATES) {
+            throw UNSUPPORTED;
+        }
+        nfaChars.add(null);
+        nfaTargets.add(-1);
+        nfaEpsilons.add(null);
+        return state;
+    }
+
+    private void addEpsilon(final int from, final int to) {
+        final int[] existing = nfaEpsilons.get(from);
+        if (existing == null) {
+            nfaEpsilons.set(from, new int[] { to });
+        } else {
+            final int[] updated = Arrays.copyOf(existing, existing.length + 1);
+            updated[existing.length] = to;
+            nfaEpsilons.set(from, updated);
+        }
+    }
+
+    /**
+     * Build NFA states for a node, so that they lead to specified state.
+     *
+     * @param node Node to build
+     * @param next State which follows the node
+     * @return Start state of the node
+     */
+    private int build(final Node node, final int next) throws UnsupportedPatternException {
+        if (node instanceof CharsNode) {
+            final int state = newState();
+            nfaChars.set(state, ((CharsNode) node).chars);
+            nfaTargets.set(state, next);
+            return state;
+        }
+        if (node instanceof SequenceNode) {
+            final List<Node> nodes = ((SequenceNode) node).nodes;
+            int state = next;
+            for (Node child : ImmutableList.copyOf(nodes).reverse()) {
+                state = build(child, state);
+            }
+            return state;
+        }
+        if (node instanceof AlternativeNode) {
+            final int state = newState();
+            for (Node child : ((AlternativeNode) node).nodes) {
+                addEpsilon(state, build(child, next));
+            }
+            return state;
+        }
+
+        final RepeatNode repeat = (RepeatNode) node;
+        int state = next;
+        if (repeat.max == -1) {
+            // Loop: the loop state can either exit or go through the node again
+            final int loop = newState();
+            addEpsilon(loop, next);
+            addEpsilon(loop, build(repeat.node, loop));
+            state = loop;
+        } else {
+            for (int i = repeat.min; i < repeat.max; ++i) {
+                final int optional = newState();
+                addEpsilon(optional, next);
+                addEpsilon(optional, build(repeat.node, state));
+                state = optional;
+            }
+        }
+        for (int i = 0; i < repeat.min; ++i) {
+            state = build(repeat.node, state);
+        }
+        return state;
+    }
+
+    private BitSet closure(final BitSet states) {
+        final BitSet ret = (BitSet) states.clone();
+        final Deque<Integer> queue = new ArrayDeque<>();
+        states.stream().forEach(queue::add);
+        while (!queue.isEmpty()) {
+            final int[] epsilons = nfaEpsilons.get(queue.pop());
+            if (epsilons != null) {
+                for (int target : epsilons) {
+                    if (!ret.get(target)) {
+                        ret.set(target);
+                        queue.push(target);
+                    }
+                }
+            }
+        }
+        return ret;
+    }
+
+    private DfaPatternMatcher determinize(final int start, final int accept) throws UnsupportedPatternException {
+        final Map<BitSet, Integer> ids = new HashMap<>();
+        final List<BitSet> dfaStates = new ArrayList<>();
+        final List<int[]> transitions = new ArrayList<>();
+
+        final BitSet initial = new BitSet();
+        initial.set(start);
+        final BitSet first = closure(initial);
+        ids.put(first, 0);
+        dfaStates.add(first);
+
+        for (int current = 0; current < dfaStates.size(); ++current) {
+            final BitSet nfaStates = dfaStates.get(current);
+
+            // Split the code point space at every boundary of every outgoing transition
+            final TreeSet<Integer> boundaries = new TreeSet<>();
+            nfaStates.stream().forEach(state -> {
+                final CodePointSet chars = nfaChars.get(state);
+                if (chars != null) {
+                    for (int i = 0; i < chars.rangeCount(); ++i) {
+                        boundaries.add(chars.rangeStart(i));
+                        boundaries.add(chars.rangeEnd(i) + 1);
+                    }
+                }
+            });
+
+            // Flattened (from, to, target) triplets
+            int[] stateTransitions = new int[0];
+            Integer lower = null;
+            for (Integer upper : boundaries) {
+                if (lower != null) {
+                    final BitSet targets = new BitSet();
+                    final int cp = lower;
+                    nfaStates.stream().forEach(state -> {
+                        final CodePointSet chars = nfaChars.get(state);
+                        if (chars != null && chars.contains(cp)) {
+                            targets.set(nfaTargets.get(state));
+                        }
+                    });
+
+                    if (!targets.isEmpty()) {
+                        final BitSet target = closure(targets);
+                        Integer id = ids.get(target);
+                        if (id == null) {
+                            id = dfaStates.size();
+                            if (id == MAX_DFA_STATES) {
+                                throw UNSUPPORTED;
+                            }
+                            ids.put(target, id);
+                            dfaStates.add(target);
+                        }
+
+                        final int len = stateTransitions.length;
+                        if (len != 0 && stateTransitions[len - 1] == id && stateTransitions[len - 2] == cp - 1) {
+                            // Extend previous range
+                            stateTransitions[len - 2] = upper - 1;
+                        } else {
+                            stateTransitions = Arrays.copyOf(stateTransitions, len + 3);
+                            stateTransitions[len] = cp;
+                            stateTransitions[len + 1] = upper - 1;
+                            stateTransitions[len + 2] = id;
+                        }
+                    }
+                }
+                lower = upper;
+            }
+            transitions.add(stateTransitions);
+        }
+
+        final boolean[] accepting = new boolean[dfaStates.size()];
+        for (int i = 0; i < accepting.length; ++i) {
+            accepting[i] = dfaStates.get(i).get(accept);
+        }
+        return new DfaPatternMatcher(regex, transitions.toArray(new int[0][]), accepting);
+    }
+}
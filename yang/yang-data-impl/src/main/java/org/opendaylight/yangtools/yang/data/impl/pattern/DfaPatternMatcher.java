@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.pattern;
+
+import java.util.Arrays;
+
+/**
+ * A {@link PatternMatcher} backed by a deterministic finite automaton. Matching runs in time linear to the length of
+ * the input, does not allocate and never backtracks. ASCII input is dispatched through a flat lookup table, other code
+ * points through a binary search of each state's transition ranges.
+ */
+final class DfaPatternMatcher extends PatternMatcher {
+    private static final int ASCII = 128;
+
+    // Per-state flattened (from, to, target) triplets, sorted by 'from'
+    private final int[][] transitions;
+    // ASCII transitions, indexed by state * ASCII + char, -1 indicates no transition
+    private final int[] asciiTable;
+    private final boolean[] accepting;
+
+    DfaPatternMatcher(final String regex, final int[][] transitions, final boolean[] accepting) {
+        super(regex);
+        this.transitions = transitions;
+        this.accepting = accepting;
+
+        asciiTable = new int[transitions.length * ASCII];
+        Arrays.fill(asciiTable, -1);
+        for (int state = 0; state < transitions.length; ++state) {
+            final int[] ranges = transitions[state];
+            for (int i = 0; i < ranges.length && ranges[i] < ASCII; i += 3) {
+                final int end = Math.min(ranges[i + 1], ASCII - 1);
+                Arrays.fill(asciiTable, state * ASCII + ranges[i], state * ASCII + end + 1, ranges[i + 2]);
+            }
+        }
+    }
+
+    @Override
+    public boolean matches(final String input) {
+        final int length = input.length();
+        int state = 0;
+        int offset = 0;
+        while (offset < length) {
+            final char ch = input.charAt(offset);
+            if (ch < ASCII) {
+                state = asciiTable[state * ASCII + ch];
+                offset++;
+            } else {
+                final int cp = input.codePointAt(offset);
+                state = lookup(transitions[state], cp);
+                offset += Character.charCount(cp);
+            }
+            if (state < 0) {
+                return false;
+            }
+        }
+        return accepting[state];
+    }
+
+    private static int lookup(final int[] ranges, final int cp) {
+        int low = 0;
+        int high = ranges.length / 3 - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int base = mid * 3;
+            if (cp < ranges[base]) {
+                high = mid - 1;
+            } else if (cp > ranges[base + 1]) {
+                low = mid + 1;
+            } else {
+                return ranges[base + 2];
+            }
+        }
+        return -1;
+    }
+
+    int stateCount() {
+        return accepting.length;
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.pattern;
+
+import java.util.regex.Pattern;
+
+/**
+ * A {@link PatternMatcher} backed by {@link Pattern}, used for patterns which cannot be expressed as a DFA.
+ */
+final class JavaPatternMatcher extends PatternMatcher {
+    private final Pattern pattern;
+
+    JavaPatternMatcher(final String regex, final Pattern pattern) {
+        super(regex);
+        this.pattern = pattern;
+    }
+
+    @Override
+    public boolean matches(final String input) {
+        return pattern.matcher(input).matches();
+    }
+}
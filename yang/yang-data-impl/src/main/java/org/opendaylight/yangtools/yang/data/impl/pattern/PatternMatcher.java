@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.pattern;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.concepts.Immutable;
+
+/**
+ * A compiled YANG pattern. Instances are immutable and thread-safe, hence they can be shared freely. Use
+ * {@link PatternMatchers} to acquire instances.
+ */
+@Beta
+public abstract class PatternMatcher implements Immutable {
+    private final String regex;
+
+    PatternMatcher(final String regex) {
+        this.regex = Preconditions.checkNotNull(regex);
+    }
+
+    /**
+     * Return the regular expression this matcher was compiled from.
+     *
+     * @return Regular expression, as returned by {@link
+     *         org.opendaylight.yangtools.yang.model.api.type.PatternConstraint#getRegularExpression()}
+     */
+    @Nonnull public final String getRegularExpression() {
+        return regex;
+    }
+
+    /**
+     * Check whether the entire input matches this pattern.
+     *
+     * @param input Input string
+     * @return True if the input matches the pattern
+     */
+    public abstract boolean matches(@Nonnull String input);
+
+    @Override
+    public final String toString() {
+        return MoreObjects.toStringHelper(this).add("regex", regex).toString();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.pattern;
+
+import com.google.common.annotations.Beta;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.xsd.regex.ParseException;
+import org.opendaylight.yangtools.yang.model.api.type.PatternConstraint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Global registry of compiled {@link PatternMatcher}s. Each distinct regular expression is compiled once and the
+ * resulting matcher is shared by all users, such as codecs and data tree validation, for as long as any of them holds
+ * on to it.
+ *
+ * The engine is selected per pattern. Patterns which fall into the regular subset of the syntax are compiled into
+ * a DFA, which matches in linear time without backtracking. Other patterns are matched by {@link Pattern}, unless they
+ * use XSD-only constructs, such as character class subtraction, in which case the XML Schema regular expression engine
+ * is used.
+ */
+@Beta
+public final class PatternMatchers {
+    private static final Logger LOG = LoggerFactory.getLogger(PatternMatchers.class);
+    private static final LoadingCache<String, PatternMatcher> MATCHERS = CacheBuilder.newBuilder().weakValues()
+            .build(new CacheLoader<String, PatternMatcher>() {
+                @Override
+                public PatternMatcher load(@Nonnull final String key) {
+                    return compile(key);
+                }
+            });
+
+    private PatternMatchers() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Return a matcher for a pattern constraint.
+     *
+     * @param constraint Pattern constraint
+     * @return A shared matcher
+     * @throws IllegalArgumentException if the constraint's regular expression cannot be compiled
+     */
+    @Nonnull public static PatternMatcher forConstraint(@Nonnull final PatternConstraint constraint) {
+        return forRegularExpression(constraint.getRegularExpression());
+    }
+
+    /**
+     * Return a matcher for a regular expression, as held by {@link PatternConstraint#getRegularExpression()}.
+     *
+     * @param regex Regular expression
+     * @return A shared matcher
+     * @throws IllegalArgumentException if the regular expression cannot be compiled
+     */
+    @Nonnull public static PatternMatcher forRegularExpression(@Nonnull final String regex) {
+        try {
+            return MATCHERS.getUnchecked(regex);
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw (IllegalArgumentException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    static PatternMatcher compile(final String regex) {
+        if (hasClassSubtraction(regex)) {
+            // Java would accept this as a union of classes, silently changing its meaning
+            try {
+                return XsdPatternMatcher.create(regex);
+            } catch (ParseException e) {
+                throw new IllegalArgumentException("Invalid pattern " + regex, e);
+            }
+        }
+
+        final Pattern pattern;
+        try {
+            pattern = Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            LOG.debug("Pattern {} is not a valid Java pattern, attempting to use XSD semantics", regex, e);
+            try {
+                return XsdPatternMatcher.create(regex);
+            } catch (ParseException xsdEx) {
+                e.addSuppressed(xsdEx);
+                throw e;
+            }
+        }
+
+        final DfaPatternMatcher dfa = DfaPatternCompiler.compile(regex);
+        if (dfa != null) {
+            LOG.trace("Pattern {} compiled into a DFA with {} states", regex, dfa.stateCount());
+            return dfa;
+        }
+
+        LOG.trace("Pattern {} cannot be compiled into a DFA, using java.util.regex", regex);
+        return new JavaPatternMatcher(regex, pattern);
+    }
+
+    /**
+     * Check whether a regular expression contains an XSD character class subtraction, such as {@code [a-z-[aeiou]]}.
+     */
+    private static boolean hasClassSubtraction(final String regex) {
+        boolean inClass = false;
+        for (int i = 0; i < regex.length(); ++i) {
+            final char ch = regex.charAt(i);
+            if (ch == '\\') {
+                i++;
+            } else if (ch == '[') {
+                inClass = true;
+            } else if (ch == ']') {
+                inClass = false;
+            } else if (inClass && ch == '-' && i + 1 < regex.length() && regex.charAt(i + 1) == '[') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
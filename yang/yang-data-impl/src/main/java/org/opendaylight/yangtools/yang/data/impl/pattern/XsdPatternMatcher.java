@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.pattern;
+
+import org.opendaylight.yangtools.xsd.regex.ParseException;
+import org.opendaylight.yangtools.xsd.regex.RegularExpression;
+
+/**
+ * A {@link PatternMatcher} backed by the XML Schema regular expression engine. It is used for patterns which rely on
+ * XSD-specific constructs, such as character class subtraction or the {@code \i} and {@code \c} escapes, which
+ * {@link java.util.regex.Pattern} does not understand.
+ */
+final class XsdPatternMatcher extends PatternMatcher {
+    // XML Schema mode: implicit anchoring, '^' and '$' are ordinary characters
+    private static final String XSD_OPTIONS = "X";
+
+    private final RegularExpression expression;
+
+    private XsdPatternMatcher(final String regex, final RegularExpression expression) {
+        super(regex);
+        this.expression = expression;
+    }
+
+    static XsdPatternMatcher create(final String regex) throws ParseException {
+        return new XsdPatternMatcher(regex, new RegularExpression(toXsd(regex), XSD_OPTIONS));
+    }
+
+    @Override
+    public boolean matches(final String input) {
+        return expression.matches(input);
+    }
+
+    /**
+     * Undo the transformations done when a YANG pattern is stored in a PatternConstraint: strip the explicit anchors
+     * and turn Java block names ({@code \p{InFoo}}) back into XSD block names ({@code \p{IsFoo}}).
+     */
+    private static String toXsd(final String regex) {
+        int start = 0;
+        int end = regex.length();
+        if (end != 0 && regex.charAt(0) == '^') {
+            start = 1;
+        }
+        if (end > start && regex.charAt(end - 1) == '$' && (end < 2 || regex.charAt(end - 2) != '\\')) {
+            end--;
+        }
+
+        final StringBuilder sb = new StringBuilder(end - start);
+        for (int i = start; i < end; ++i) {
+            final char ch = regex.charAt(i);
+            sb.append(ch);
+            if (ch == '\\' && i + 1 < end) {
+                final char next = regex.charAt(++i);
+                sb.append(next);
+                if ((next == 'p' || next == 'P') && regex.startsWith("{In", i + 1)) {
+                    sb.append("{Is");
+                    i += 3;
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -39,11 +39,12 @@ public class ImmutableAugmentationNodeBuilder extends AbstractImmutableDataConta
     }
 
     public static DataContainerNodeBuilder<AugmentationIdentifier, AugmentationNode> create(final AugmentationNode node) {
-        if (!(node instanceof ImmutableAugmentationNode)) {
-            throw new UnsupportedOperationException(String.format("Cannot initialize from class %s", node.getClass()));
+        if (node instanceof ImmutableAugmentationNode) {
+            return new ImmutableAugmentationNodeBuilder((ImmutableAugmentationNode)node);
         }
 
-        return new ImmutableAugmentationNodeBuilder((ImmutableAugmentationNode)node);
+        // Other implementations, such as off-heap nodes, are copied
+        return create(node.getValue().size()).withNodeIdentifier(node.getIdentifier()).withValue(node.getValue());
     }
 
     @Override
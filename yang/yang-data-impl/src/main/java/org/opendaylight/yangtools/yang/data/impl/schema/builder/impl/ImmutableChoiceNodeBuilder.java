@@ -38,11 +38,12 @@ public class ImmutableChoiceNodeBuilder extends AbstractImmutableDataContainerNo
     }
 
     public static DataContainerNodeBuilder<NodeIdentifier, ChoiceNode> create(final ChoiceNode node) {
-        if (!(node instanceof ImmutableChoiceNode)) {
-            throw new UnsupportedOperationException(String.format("Cannot initialize from class %s", node.getClass()));
+        if (node instanceof ImmutableChoiceNode) {
+            return new ImmutableChoiceNodeBuilder((ImmutableChoiceNode)node);
         }
 
-        return new ImmutableChoiceNodeBuilder((ImmutableChoiceNode)node);
+        // Other implementations, such as off-heap nodes, are copied
+        return create(node.getValue().size()).withNodeIdentifier(node.getIdentifier()).withValue(node.getValue());
     }
 
     @Override
@@ -39,10 +39,13 @@ public class ImmutableContainerNodeBuilder extends AbstractImmutableDataContaine
     }
 
     public static DataContainerNodeAttrBuilder<NodeIdentifier, ContainerNode> create(final ContainerNode node) {
-        if (!(node instanceof ImmutableContainerNode)) {
-            throw new UnsupportedOperationException(String.format("Cannot initialize from class %s", node.getClass()));
+        if (node instanceof ImmutableContainerNode) {
+            return new ImmutableContainerNodeBuilder((ImmutableContainerNode) node);
         }
-        return new ImmutableContainerNodeBuilder((ImmutableContainerNode) node);
+
+        // Other implementations, such as off-heap nodes, are copied
+        return create(node.getValue().size()).withNodeIdentifier(node.getIdentifier())
+                .withAttributes(node.getAttributes()).withValue(node.getValue());
     }
 
     @Override
@@ -54,11 +54,13 @@ public class ImmutableMapEntryNodeBuilder extends AbstractImmutableDataContainer
     }
 
     public static DataContainerNodeAttrBuilder<NodeIdentifierWithPredicates, MapEntryNode> create(final MapEntryNode node) {
-        if (!(node instanceof ImmutableMapEntryNode)) {
-            throw new UnsupportedOperationException(String.format("Cannot initialize from class %s", node.getClass()));
+        if (node instanceof ImmutableMapEntryNode) {
+            return new ImmutableMapEntryNodeBuilder((ImmutableMapEntryNode)node);
         }
 
-        return new ImmutableMapEntryNodeBuilder((ImmutableMapEntryNode)node);
+        // Other implementations, such as off-heap nodes, are copied
+        return create(node.getValue().size()).withNodeIdentifier(node.getIdentifier())
+                .withAttributes(node.getAttributes()).withValue(node.getValue());
     }
 
     private static void fillQnames(final Iterable<DataContainerChild<? extends PathArgument, ?>> iterable, final Map<QName, PathArgument> out) {
@@ -56,11 +56,12 @@ public class ImmutableMapNodeBuilder implements CollectionNodeBuilder<MapEntryNo
     }
 
     public static CollectionNodeBuilder<MapEntryNode, MapNode> create(final MapNode node) {
-        if (!(node instanceof ImmutableMapNode)) {
-            throw new UnsupportedOperationException(String.format("Cannot initialize from class %s", node.getClass()));
+        if (node instanceof ImmutableMapNode) {
+            return new ImmutableMapNodeBuilder((ImmutableMapNode) node);
         }
 
-        return new ImmutableMapNodeBuilder((ImmutableMapNode) node);
+        // Other implementations, such as off-heap nodes, are copied
+        return create(node.getValue().size()).withNodeIdentifier(node.getIdentifier()).withValue(node.getValue());
     }
 
     @Override
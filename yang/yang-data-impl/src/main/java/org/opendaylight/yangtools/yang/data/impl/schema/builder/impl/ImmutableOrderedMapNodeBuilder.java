@@ -59,11 +59,15 @@ public class ImmutableOrderedMapNodeBuilder implements CollectionNodeBuilder<Map
     }
 
     public static CollectionNodeBuilder<MapEntryNode, OrderedMapNode> create(final MapNode node) {
-        if (!(node instanceof ImmutableOrderedMapNode)) {
+        if (node instanceof ImmutableOrderedMapNode) {
+            return new ImmutableOrderedMapNodeBuilder((ImmutableOrderedMapNode) node);
+        }
+        if (!(node instanceof OrderedMapNode)) {
             throw new UnsupportedOperationException(String.format("Cannot initialize from class %s", node.getClass()));
         }
 
-        return new ImmutableOrderedMapNodeBuilder((ImmutableOrderedMapNode) node);
+        // Other implementations, such as off-heap nodes, are copied
+        return create(node.getValue().size()).withNodeIdentifier(node.getIdentifier()).withValue(node.getValue());
     }
 
     private void checkDirty() {
@@ -14,6 +14,8 @@ import org.opendaylight.yangtools.concepts.Immutable;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
 
 public abstract class AbstractImmutableNormalizedNode<K extends PathArgument,V> implements NormalizedNode<K, V>, Immutable {
     private final K nodeIdentifier;
@@ -53,7 +55,9 @@ public abstract class AbstractImmutableNormalizedNode<K extends PathArgument,V>
             return false;
         }
         if (this.getClass() != obj.getClass()) {
-            return false;
+            // Containers compare equal to other implementations by content, their hash codes are computed the same way
+            return this instanceof NormalizedNodeContainer && !(obj instanceof AbstractImmutableNormalizedNode)
+                    && NormalizedNodes.containerEquals((NormalizedNodeContainer<?, ?, ?>) this, obj);
         }
 
         final AbstractImmutableNormalizedNode<?, ?> other = (AbstractImmutableNormalizedNode<?, ?>)obj;
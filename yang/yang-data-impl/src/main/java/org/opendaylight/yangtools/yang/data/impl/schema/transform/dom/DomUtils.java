@@ -31,7 +31,7 @@ import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.IdentityrefTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.InstanceIdentifierTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.LeafrefTypeDefinition;
-import org.opendaylight.yangtools.yang.model.util.SchemaContextUtil;
+import org.opendaylight.yangtools.yang.model.util.SchemaResolutionCache;
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
@@ -123,7 +123,8 @@ public final class DomUtils {
 
         if (type instanceof LeafrefTypeDefinition) {
             final LeafrefTypeDefinition leafrefTypeDefinition = (LeafrefTypeDefinition) type;
-            TypeDefinition<?> baseType = SchemaContextUtil.getBaseTypeForLeafRef(leafrefTypeDefinition, schemaCtx, schema);
+            TypeDefinition<?> baseType = SchemaResolutionCache.getBaseTypeForLeafRef(leafrefTypeDefinition, schemaCtx,
+                schema);
             value = parseXmlValue(xml, codecProvider, schema, baseType, schemaCtx);
         } else if (type instanceof InstanceIdentifierTypeDefinition) {
             value = InstanceIdentifierForXmlCodec.deserialize(xml, schemaCtx);
@@ -9,9 +9,12 @@ package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import javax.annotation.Nonnull;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.BatchDataTreeCandidate;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateTip;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeTip;
@@ -55,4 +58,26 @@ abstract class AbstractDataTreeTip implements DataTreeTip {
         Preconditions.checkState(newRoot.isPresent(), "Apply strategy failed to produce root node for modification %s", modification);
         return new InMemoryDataTreeCandidate(PUBLIC_ROOT_PATH, root, currentRoot, newRoot.get());
     }
+
+    /**
+     * Validate and prepare a batch of modifications in sequence, each on top of the candidate produced by the
+     * previous one. The resulting candidate can be committed in a single step.
+     *
+     * @param modifications Sealed modifications, in the order in which they should be applied
+     * @return A candidate covering the whole batch
+     * @throws DataValidationFailedException if any of the modifications fails validation
+     */
+    final BatchDataTreeCandidate prepareBatch(final Iterable<? extends DataTreeModification> modifications)
+            throws DataValidationFailedException {
+        final List<DataTreeCandidateTip> candidates = new ArrayList<>();
+        AbstractDataTreeTip tip = this;
+        for (final DataTreeModification modification : modifications) {
+            tip.validate(modification);
+            final DataTreeCandidateTip candidate = tip.prepare(modification);
+            candidates.add(candidate);
+            tip = (AbstractDataTreeTip) candidate;
+        }
+
+        return new InMemoryBatchDataTreeCandidate(PUBLIC_ROOT_PATH, getTipRoot(), tip.getTipRoot(), candidates);
+    }
 }
@@ -13,6 +13,8 @@ import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Verify;
 import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
@@ -31,54 +33,112 @@ import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.NormalizedNo
 
 abstract class AbstractNodeContainerModificationStrategy extends SchemaAwareApplyOperation {
 
+    /*
+     * Children of a node verified in parallel are split into chunks of at least this size, to keep the overhead of
+     * scheduling tasks low compared to the work they do.
+     */
+    private static final int MIN_PARALLEL_CHUNK = 64;
+
+    /**
+     * Verification of a range of children of a container, splitting itself until the ranges are small enough to be
+     * verified sequentially.
+     */
+    private final class ChildrenVerification extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final NormalizedNodeContainer<?, ?, ?> container;
+        private final Object[] children;
+        private final int chunkSize;
+        private final int from;
+        private final int to;
+        private final boolean recursively;
+
+        ChildrenVerification(final NormalizedNodeContainer<?, ?, ?> container, final Object[] children,
+                final int chunkSize, final int from, final int to, final boolean recursively) {
+            this.container = container;
+            this.children = children;
+            this.chunkSize = chunkSize;
+            this.from = from;
+            this.to = to;
+            this.recursively = recursively;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; ++i) {
+                    verifyChild(container, children[i], recursively);
+                }
+            } else {
+                final int mid = (from + to) >>> 1;
+                invokeAll(new ChildrenVerification(container, children, chunkSize, from, mid, recursively),
+                    new ChildrenVerification(container, children, chunkSize, mid, to, recursively));
+            }
+        }
+    }
+
     private final Class<? extends NormalizedNode<?, ?>> nodeClass;
     private final boolean verifyChildrenStructure;
+    private final int parallelVerificationThreshold;
 
     protected AbstractNodeContainerModificationStrategy(final Class<? extends NormalizedNode<?, ?>> nodeClass,
             final DataTreeConfiguration treeConfig) {
         this.nodeClass = Preconditions.checkNotNull(nodeClass , "nodeClass");
         this.verifyChildrenStructure = (treeConfig.getTreeType() == TreeType.CONFIGURATION);
+        this.parallelVerificationThreshold = treeConfig.getParallelVerificationThreshold();
     }
 
-    @SuppressWarnings("rawtypes")
     @Override
     void verifyStructure(final NormalizedNode<?, ?> writtenValue, final boolean verifyChildren) {
         checkArgument(nodeClass.isInstance(writtenValue), "Node %s is not of type %s", writtenValue, nodeClass);
         checkArgument(writtenValue instanceof NormalizedNodeContainer);
         if (verifyChildrenStructure && verifyChildren) {
-            final NormalizedNodeContainer container = (NormalizedNodeContainer) writtenValue;
-            for (final Object child : container.getValue()) {
-                checkArgument(child instanceof NormalizedNode);
-                final NormalizedNode<?, ?> castedChild = (NormalizedNode<?, ?>) child;
-                final Optional<ModificationApplyOperation> childOp = getChild(castedChild.getIdentifier());
-                if (childOp.isPresent()) {
-                    childOp.get().verifyStructure(castedChild, verifyChildren);
-                } else {
-                    throw new SchemaValidationFailedException(String.format(
-                            "Node %s is not a valid child of %s according to the schema.",
-                            castedChild.getIdentifier(), container.getIdentifier()));
-                }
-            }
+            verifyChildren((NormalizedNodeContainer<?, ?, ?>) writtenValue, false);
         }
     }
 
     @Override
     protected void recursivelyVerifyStructure(final NormalizedNode<?, ?> value) {
-        final NormalizedNodeContainer container = (NormalizedNodeContainer) value;
-        for (final Object child : container.getValue()) {
-            checkArgument(child instanceof NormalizedNode);
-            final NormalizedNode<?, ?> castedChild = (NormalizedNode<?, ?>) child;
-            final Optional<ModificationApplyOperation> childOp = getChild(castedChild.getIdentifier());
-            if (childOp.isPresent()) {
-                childOp.get().recursivelyVerifyStructure(castedChild);
-            } else {
-                throw new SchemaValidationFailedException(
-                        String.format("Node %s is not a valid child of %s according to the schema.",
-                                castedChild.getIdentifier(), container.getIdentifier()));
+        verifyChildren((NormalizedNodeContainer<?, ?, ?>) value, true);
+    }
+
+    /*
+     * Children of large nodes, typically lists with many entries, are verified in the common fork-join pool. Each
+     * child is still verified in a single pass, which covers its structure and the constraints enforced by
+     * verifyStructure() overrides of the child's strategy.
+     */
+    private void verifyChildren(final NormalizedNodeContainer<?, ?, ?> container, final boolean recursively) {
+        final Collection<?> children = container.getValue();
+        if (parallelVerificationThreshold > 0 && children.size() >= parallelVerificationThreshold) {
+            final Object[] array = children.toArray();
+            final int chunkSize = Math.max(MIN_PARALLEL_CHUNK,
+                array.length / (ForkJoinPool.getCommonPoolParallelism() * 4));
+            new ChildrenVerification(container, array, chunkSize, 0, array.length, recursively).invoke();
+        } else {
+            for (final Object child : children) {
+                verifyChild(container, child, recursively);
             }
         }
     }
 
+    private void verifyChild(final NormalizedNodeContainer<?, ?, ?> container, final Object child,
+            final boolean recursively) {
+        checkArgument(child instanceof NormalizedNode);
+        final NormalizedNode<?, ?> castedChild = (NormalizedNode<?, ?>) child;
+        final Optional<ModificationApplyOperation> childOp = getChild(castedChild.getIdentifier());
+        if (!childOp.isPresent()) {
+            throw new SchemaValidationFailedException(String.format(
+                    "Node %s is not a valid child of %s according to the schema.",
+                    castedChild.getIdentifier(), container.getIdentifier()));
+        }
+
+        if (recursively) {
+            childOp.get().recursivelyVerifyStructure(castedChild);
+        } else {
+            childOp.get().verifyStructure(castedChild, true);
+        }
+    }
+
     @Override
     protected TreeNode applyWrite(final ModifiedNode modification,
             final Optional<TreeNode> currentMeta, final Version version) {
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+
+/**
+ * Paths modified by recent commits to an {@link InMemoryDataTree}, which allow
+ * {@link InMemoryDataTreeSnapshot#readChangedSince(long)} to locate modified data without walking the tree. Instances
+ * are immutable and link to the history of the previous commit, hence a snapshot retains the history as it was when
+ * the snapshot was taken. Only a bounded number of most recent commits is retained.
+ */
+final class ChangeHistory {
+    /**
+     * Number of most recent commits guaranteed to be retained.
+     */
+    static final int RETAINED_COMMITS = 256;
+
+    /**
+     * History of a data tree which has not seen any commit.
+     */
+    static final ChangeHistory EMPTY = new ChangeHistory(0, ImmutableList.of(), null, 0);
+
+    /*
+     * Modified containers with more modified children than this are recorded as a whole, so that the history does
+     * not grow with the number of list entries touched by a single commit.
+     */
+    private static final int MAX_RECORDED_CHILDREN = 32;
+
+    private final long sequence;
+    private final List<YangInstanceIdentifier> paths;
+    // Null if commits before this one are not known
+    private final ChangeHistory previous;
+    private final int depth;
+
+    private ChangeHistory(final long sequence, final List<YangInstanceIdentifier> paths,
+            final ChangeHistory previous, final int depth) {
+        this.sequence = sequence;
+        this.paths = Preconditions.checkNotNull(paths);
+        this.previous = previous;
+        this.depth = depth;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Record a commit on top of this history. The commit is assigned the next sequence number.
+     *
+     * @param changedPaths Paths modified by the commit, as returned by {@link #changedPaths(DataTreeCandidateNode)}
+     * @return History including the new commit
+     */
+    ChangeHistory append(final List<YangInstanceIdentifier> changedPaths) {
+        if (depth < 2 * RETAINED_COMMITS) {
+            return new ChangeHistory(sequence + 1, changedPaths, this, depth + 1);
+        }
+
+        // Copy the most recent commits into a fresh chain, leaving the rest to the garbage collector
+        final Deque<ChangeHistory> retained = new ArrayDeque<>(RETAINED_COMMITS);
+        for (ChangeHistory h = this; retained.size() < RETAINED_COMMITS - 1; h = h.previous) {
+            retained.push(h);
+        }
+
+        ChangeHistory ret = new ChangeHistory(retained.peek().sequence - 1, ImmutableList.of(), null, 0);
+        for (ChangeHistory h : retained) {
+            ret = new ChangeHistory(h.sequence, h.paths, ret, ret.depth + 1);
+        }
+        return new ChangeHistory(sequence + 1, changedPaths, ret, ret.depth + 1);
+    }
+
+    /**
+     * Return paths modified by commits with a sequence number larger than specified.
+     *
+     * @param since Sequence number of the last commit which should not be reported
+     * @return Modified paths, possibly overlapping, or null if the history does not reach back far enough
+     */
+    Collection<YangInstanceIdentifier> changedSince(final long since) {
+        final Collection<YangInstanceIdentifier> ret = new ArrayList<>();
+        for (ChangeHistory h = this; h.sequence > since; h = h.previous) {
+            if (h.previous == null) {
+                return null;
+            }
+            ret.addAll(h.paths);
+        }
+        return ret;
+    }
+
+    /**
+     * Compute the paths modified by a candidate. These are paths to nodes which have been written or deleted as a
+     * whole, or which have too many modified children.
+     *
+     * @param root Candidate root node
+     * @return Modified paths, relative to the root
+     */
+    static List<YangInstanceIdentifier> changedPaths(final DataTreeCandidateNode root) {
+        final ImmutableList.Builder<YangInstanceIdentifier> builder = ImmutableList.builder();
+        collectPaths(builder, YangInstanceIdentifier.EMPTY, root);
+        return builder.build();
+    }
+
+    private static boolean collectPaths(final ImmutableList.Builder<YangInstanceIdentifier> builder,
+            final YangInstanceIdentifier path, final DataTreeCandidateNode node) {
+        switch (node.getModificationType()) {
+        case UNMODIFIED:
+            return false;
+        case APPEARED:
+        case DISAPPEARED:
+        case SUBTREE_MODIFIED:
+            final Collection<DataTreeCandidateNode> children = node.getChildNodes();
+            if (children.size() <= MAX_RECORDED_CHILDREN) {
+                boolean found = false;
+                for (DataTreeCandidateNode child : children) {
+                    found |= collectPaths(builder, path.node(child.getIdentifier()), child);
+                }
+                if (found) {
+                    return true;
+                }
+            }
+            break;
+        default:
+            break;
+        }
+
+        builder.add(path);
+        return true;
+    }
+}
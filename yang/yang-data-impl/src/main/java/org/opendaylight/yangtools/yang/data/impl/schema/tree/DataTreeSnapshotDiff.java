@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.StoreTreeNodes;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+
+/**
+ * Utility methods for computing the difference between two snapshots of an in-memory data tree. The difference is
+ * reported as a {@link DataTreeCandidate}, which, when applied to the older snapshot, produces the newer one.
+ *
+ * <p>Unmodified subtrees are detected by their tree node identity, subtree version or data identity and are not
+ * traversed, hence the cost of computing the difference is proportional to the size of the modified part of the
+ * tree, not the size of the tree. This makes it possible to bring a consumer up to date after it has missed some
+ * candidates, without retaining those candidates.
+ */
+@Beta
+public final class DataTreeSnapshotDiff {
+    private DataTreeSnapshotDiff() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Compute the difference between two snapshots of the same data tree.
+     *
+     * @param before Older snapshot
+     * @param after Newer snapshot
+     * @return A candidate describing the difference
+     * @throws IllegalArgumentException if either of the snapshots was not produced by an in-memory data tree
+     */
+    public static DataTreeCandidate compute(@Nonnull final DataTreeSnapshot before,
+            @Nonnull final DataTreeSnapshot after) {
+        return compute(before, after, YangInstanceIdentifier.EMPTY);
+    }
+
+    /**
+     * Compute the difference between two snapshots of the same data tree, limited to a subtree.
+     *
+     * @param before Older snapshot
+     * @param after Newer snapshot
+     * @param path Path of the subtree, relative to the root of the snapshots
+     * @return A candidate rooted at specified path, describing the difference
+     * @throws IllegalArgumentException if either of the snapshots was not produced by an in-memory data tree
+     */
+    public static DataTreeCandidate compute(@Nonnull final DataTreeSnapshot before,
+            @Nonnull final DataTreeSnapshot after, @Nonnull final YangInstanceIdentifier path) {
+        final TreeNode oldMeta = StoreTreeNodes.findNode(rootOf(before), path).orNull();
+        final TreeNode newMeta = StoreTreeNodes.findNode(rootOf(after), path).orNull();
+
+        DataTreeCandidateNode node = DiffCandidateNode.diff(oldMeta, newMeta);
+        if (node == null) {
+            final TreeNode meta = newMeta != null ? newMeta : oldMeta;
+            node = DiffCandidateNode.unmodified(path.isEmpty() ? meta.getIdentifier() : path.getLastPathArgument(),
+                meta == null ? null : meta.getData());
+        }
+        return DataTreeCandidates.newDataTreeCandidate(path, node);
+    }
+
+    private static TreeNode rootOf(final DataTreeSnapshot snapshot) {
+        Preconditions.checkArgument(snapshot instanceof InMemoryDataTreeSnapshot, "Unsupported snapshot %s",
+            snapshot);
+        return ((InMemoryDataTreeSnapshot) snapshot).getRootNode();
+    }
+}
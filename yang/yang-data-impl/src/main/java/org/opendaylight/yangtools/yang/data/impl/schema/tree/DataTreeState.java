@@ -9,6 +9,10 @@ package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
@@ -22,18 +26,34 @@ final class DataTreeState {
     private final LatestOperationHolder holder;
     private final SchemaContext schemaContext;
     private final TreeNode root;
+    private final ChangeHistory history;
+    /*
+     * Previous roots which hold the same data as root, but were replaced with a different representation. These are
+     * weakly referenced, as only candidates based on them need them to stay around.
+     */
+    private final ImmutableList<WeakReference<TreeNode>> equivalentRoots;
 
     private DataTreeState(final TreeNode root) {
         this.root = Preconditions.checkNotNull(root);
         holder = new LatestOperationHolder();
         schemaContext = null;
+        history = ChangeHistory.EMPTY;
+        equivalentRoots = ImmutableList.of();
     }
 
-    private DataTreeState(final TreeNode root, final LatestOperationHolder holder, final SchemaContext schemaContext) {
+    private DataTreeState(final TreeNode root, final LatestOperationHolder holder, final SchemaContext schemaContext,
+            final ChangeHistory history) {
+        this(root, holder, schemaContext, history, ImmutableList.of());
+    }
+
+    private DataTreeState(final TreeNode root, final LatestOperationHolder holder, final SchemaContext schemaContext,
+            final ChangeHistory history, final ImmutableList<WeakReference<TreeNode>> equivalentRoots) {
         // It should be impossible to instantiate a new root without a SchemaContext
         this.schemaContext = Preconditions.checkNotNull(schemaContext);
         this.holder = Preconditions.checkNotNull(holder);
         this.root = Preconditions.checkNotNull(root);
+        this.history = Preconditions.checkNotNull(history);
+        this.equivalentRoots = Preconditions.checkNotNull(equivalentRoots);
     }
 
     static DataTreeState createInitial(final TreeNode root) {
@@ -44,17 +64,65 @@ final class DataTreeState {
         return root;
     }
 
+    /**
+     * Check whether a candidate based on specified root can be committed on top of this state.
+     *
+     * @param base Candidate base root
+     * @return True if the base is the current root, or a root it has replaced without changing data.
+     */
+    boolean isBasedOn(final TreeNode base) {
+        if (base == root) {
+            return true;
+        }
+        for (WeakReference<TreeNode> ref : equivalentRoots) {
+            if (ref.get() == base) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     InMemoryDataTreeSnapshot newSnapshot() {
-        return new InMemoryDataTreeSnapshot(schemaContext, root, holder.newSnapshot());
+        return new InMemoryDataTreeSnapshot(schemaContext, root, holder.newSnapshot(), history);
     }
 
     DataTreeState withSchemaContext(final SchemaContext newSchemaContext, final ModificationApplyOperation operation) {
         holder.setCurrent(operation);
-        return new DataTreeState(root, holder, newSchemaContext);
+        return new DataTreeState(root, holder, newSchemaContext, history, equivalentRoots);
+    }
+
+    /**
+     * Install a new root, which results from one or more commits. Each commit is assigned the next sequence number.
+     *
+     * @param newRoot New root
+     * @param commits Paths modified by each of the commits, in commit order
+     * @return New state
+     */
+    DataTreeState withRoot(final TreeNode newRoot, final List<List<YangInstanceIdentifier>> commits) {
+        ChangeHistory newHistory = history;
+        for (List<YangInstanceIdentifier> paths : commits) {
+            newHistory = newHistory.append(paths);
+        }
+        return new DataTreeState(newRoot, holder, schemaContext, newHistory);
     }
 
-    DataTreeState withRoot(final TreeNode newRoot) {
-        return new DataTreeState(newRoot, holder, schemaContext);
+    /**
+     * Replace the root with an equivalent one, which holds the same data and versions in a different representation.
+     * Candidates prepared against the current root remain committable until the next commit. This is not a commit,
+     * hence the sequence number and change history are retained.
+     *
+     * @param newRoot Equivalent root
+     * @return New state
+     */
+    DataTreeState withEquivalentRoot(final TreeNode newRoot) {
+        final ImmutableList.Builder<WeakReference<TreeNode>> builder = ImmutableList.builder();
+        for (WeakReference<TreeNode> ref : equivalentRoots) {
+            if (ref.get() != null) {
+                builder.add(ref);
+            }
+        }
+        return new DataTreeState(newRoot, holder, schemaContext, history,
+            builder.add(new WeakReference<>(root)).build());
     }
 
     @Override
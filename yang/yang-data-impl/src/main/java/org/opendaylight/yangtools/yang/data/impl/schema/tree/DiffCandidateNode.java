@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+
+/**
+ * A {@link DataTreeCandidateNode} describing the difference between two versions of a container node, as computed
+ * by {@link #diff(TreeNode, TreeNode)}. Only modified children are retained.
+ */
+final class DiffCandidateNode implements DataTreeCandidateNode {
+    private final Map<PathArgument, DataTreeCandidateNode> children;
+    private final NormalizedNode<?, ?> oldData;
+    private final NormalizedNode<?, ?> newData;
+    private final PathArgument identifier;
+    private final ModificationType type;
+
+    private DiffCandidateNode(final PathArgument identifier, final ModificationType type,
+            final NormalizedNode<?, ?> oldData, final NormalizedNode<?, ?> newData,
+            final Map<PathArgument, DataTreeCandidateNode> children) {
+        this.identifier = Preconditions.checkNotNull(identifier);
+        this.type = Preconditions.checkNotNull(type);
+        this.oldData = oldData;
+        this.newData = newData;
+        this.children = Preconditions.checkNotNull(children);
+    }
+
+    /**
+     * Create a node which reports no modification.
+     *
+     * @param identifier Node identifier
+     * @param data Node data, may be null
+     * @return An unmodified node
+     */
+    static DataTreeCandidateNode unmodified(final PathArgument identifier, @Nullable final NormalizedNode<?, ?> data) {
+        if (data != null) {
+            return AbstractRecursiveCandidateNode.unmodifiedNode(data);
+        }
+        return new DiffCandidateNode(identifier, ModificationType.UNMODIFIED, null, null, Collections.emptyMap());
+    }
+
+    /**
+     * Compute the difference between two versions of a node. Subtrees which are the same object, have the same
+     * subtree version or share the same data are not examined, hence the time spent is proportional to the size of
+     * the modified part of the tree.
+     *
+     * @param oldMeta Old version of the node, null if it did not exist
+     * @param newMeta New version of the node, null if it does not exist
+     * @return Candidate node describing the difference, or null if the two versions are equivalent
+     */
+    @Nullable
+    static DataTreeCandidateNode diff(@Nullable final TreeNode oldMeta, @Nullable final TreeNode newMeta) {
+        if (oldMeta == null) {
+            return newMeta == null ? null : AbstractRecursiveCandidateNode.writeNode(newMeta.getData());
+        }
+        if (newMeta == null) {
+            return AbstractRecursiveCandidateNode.deleteNode(oldMeta.getData());
+        }
+        if (oldMeta == newMeta || oldMeta.getSubtreeVersion().equals(newMeta.getSubtreeVersion())) {
+            return null;
+        }
+
+        final NormalizedNode<?, ?> oldData = oldMeta.getData();
+        final NormalizedNode<?, ?> newData = newMeta.getData();
+        if (oldData == newData) {
+            return null;
+        }
+        if (!(oldData instanceof NormalizedNodeContainer) || !(newData instanceof NormalizedNodeContainer)) {
+            return oldData.equals(newData) ? null : AbstractRecursiveCandidateNode.replaceNode(oldData, newData);
+        }
+
+        @SuppressWarnings("unchecked")
+        final NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> oldContainer =
+                (NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>>) oldData;
+        @SuppressWarnings("unchecked")
+        final NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> newContainer =
+                (NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>>) newData;
+        if (oldData instanceof OrderedNodeContainer && !isSameOrder(oldContainer, newContainer)) {
+            // Entries have been reordered, which cannot be expressed by modifications of individual entries
+            return AbstractRecursiveCandidateNode.replaceNode(oldData, newData);
+        }
+
+        final Map<PathArgument, DataTreeCandidateNode> children = new LinkedHashMap<>();
+        for (NormalizedNode<?, ?> newChild : newContainer.getValue()) {
+            final PathArgument id = newChild.getIdentifier();
+            final Optional<NormalizedNode<?, ?>> maybeOldChild = oldContainer.getChild(id);
+            if (!maybeOldChild.isPresent()) {
+                children.put(id, AbstractRecursiveCandidateNode.writeNode(newChild));
+            } else if (maybeOldChild.get() != newChild) {
+                // Only now instantiate tree nodes, as that may not be free
+                final DataTreeCandidateNode child = diff(oldMeta.getChild(id).orNull(), newMeta.getChild(id).orNull());
+                if (child != null) {
+                    children.put(id, child);
+                }
+            }
+        }
+        for (NormalizedNode<?, ?> oldChild : oldContainer.getValue()) {
+            final PathArgument id = oldChild.getIdentifier();
+            if (!newContainer.getChild(id).isPresent()) {
+                children.put(id, AbstractRecursiveCandidateNode.deleteNode(oldChild));
+            }
+        }
+
+        if (children.isEmpty()) {
+            return null;
+        }
+        return new DiffCandidateNode(newData.getIdentifier(), ModificationType.SUBTREE_MODIFIED, oldData, newData,
+            children);
+    }
+
+    /**
+     * Check whether entries present in both containers appear in the same relative order.
+     */
+    private static boolean isSameOrder(final NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> oldData,
+            final NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> newData) {
+        final Iterator<NormalizedNode<?, ?>> oldIt = oldData.getValue().iterator();
+        for (NormalizedNode<?, ?> newChild : newData.getValue()) {
+            final PathArgument id = newChild.getIdentifier();
+            if (!oldData.getChild(id).isPresent()) {
+                continue;
+            }
+
+            // Skip entries which have been removed
+            NormalizedNode<?, ?> oldChild;
+            do {
+                oldChild = oldIt.next();
+            } while (!newData.getChild(oldChild.getIdentifier()).isPresent());
+
+            if (!id.equals(oldChild.getIdentifier())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    @Nonnull
+    public PathArgument getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    @Nonnull
+    public Collection<DataTreeCandidateNode> getChildNodes() {
+        return children.values();
+    }
+
+    @Override
+    public DataTreeCandidateNode getModifiedChild(final PathArgument childIdentifier) {
+        return children.get(childIdentifier);
+    }
+
+    @Override
+    @Nonnull
+    public ModificationType getModificationType() {
+        return type;
+    }
+
+    @Override
+    @Nonnull
+    public Optional<NormalizedNode<?, ?>> getDataAfter() {
+        return Optional.fromNullable(newData);
+    }
+
+    @Override
+    @Nonnull
+    public Optional<NormalizedNode<?, ?>> getDataBefore() {
+        return Optional.fromNullable(oldData);
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getSimpleName() + "{identifier = " + identifier + ", type = " + type
+                + ", children = " + children.values() + "}";
+    }
+}
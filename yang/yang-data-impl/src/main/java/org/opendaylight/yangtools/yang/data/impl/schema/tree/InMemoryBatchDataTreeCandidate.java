@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.BatchDataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateTip;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+
+/**
+ * A candidate produced by {@link AbstractDataTreeTip#prepareBatch(Iterable)}. Its root node is computed on first access
+ * as the difference between the tree before the first and after the last modification in the batch.
+ */
+final class InMemoryBatchDataTreeCandidate extends AbstractDataTreeCandidate implements BatchDataTreeCandidate {
+    private final List<DataTreeCandidateTip> candidates;
+    private final TreeNode beforeRoot;
+    private final TreeNode afterRoot;
+
+    private volatile DataTreeCandidateNode rootNode;
+
+    InMemoryBatchDataTreeCandidate(final YangInstanceIdentifier rootPath, final TreeNode beforeRoot,
+            final TreeNode afterRoot, final List<DataTreeCandidateTip> candidates) {
+        super(rootPath);
+        this.beforeRoot = Preconditions.checkNotNull(beforeRoot);
+        this.afterRoot = Preconditions.checkNotNull(afterRoot);
+        this.candidates = ImmutableList.copyOf(candidates);
+    }
+
+    @Override
+    @Nonnull
+    protected TreeNode getTipRoot() {
+        return afterRoot;
+    }
+
+    TreeNode getBeforeRoot() {
+        return beforeRoot;
+    }
+
+    @Override
+    public List<DataTreeCandidateTip> getCandidates() {
+        return candidates;
+    }
+
+    @Override
+    public DataTreeCandidateNode getRootNode() {
+        DataTreeCandidateNode ret = rootNode;
+        if (ret == null) {
+            ret = DiffCandidateNode.diff(beforeRoot, afterRoot);
+            if (ret == null) {
+                ret = DiffCandidateNode.unmodified(afterRoot.getIdentifier(), afterRoot.getData());
+            }
+            rootNode = ret;
+        }
+        return ret;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("rootPath", getRootPath()).add("candidates", candidates.size())
+                .toString();
+    }
+}
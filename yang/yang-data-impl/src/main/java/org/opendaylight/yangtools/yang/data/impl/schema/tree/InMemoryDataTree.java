@@ -9,11 +9,15 @@ package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import javax.annotation.Nonnull;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateTip;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
@@ -104,32 +108,83 @@ final class InMemoryDataTree extends AbstractDataTreeTip implements TipProducing
         if (candidate instanceof NoopDataTreeCandidate) {
             return;
         }
-        Preconditions.checkArgument(candidate instanceof InMemoryDataTreeCandidate, "Invalid candidate class %s", candidate.getClass());
-        final InMemoryDataTreeCandidate c = (InMemoryDataTreeCandidate)candidate;
+
+        final TreeNode oldRoot;
+        final TreeNode newRoot;
+        final List<List<YangInstanceIdentifier>> commits;
+        if (candidate instanceof InMemoryBatchDataTreeCandidate) {
+            final InMemoryBatchDataTreeCandidate c = (InMemoryBatchDataTreeCandidate)candidate;
+            oldRoot = c.getBeforeRoot();
+            newRoot = c.getTipRoot();
+            if (oldRoot == newRoot) {
+                // The batch consists of no-op modifications only
+                return;
+            }
+
+            commits = new ArrayList<>(c.getCandidates().size());
+            TreeNode previous = oldRoot;
+            for (final DataTreeCandidateTip tip : c.getCandidates()) {
+                final TreeNode root = ((AbstractDataTreeTip) tip).getTipRoot();
+                // No-op candidates within a batch retain the previous root and do not count as commits
+                if (root != previous) {
+                    commits.add(ChangeHistory.changedPaths(tip.getRootNode()));
+                    previous = root;
+                }
+            }
+        } else {
+            Preconditions.checkArgument(candidate instanceof InMemoryDataTreeCandidate, "Invalid candidate class %s", candidate.getClass());
+            final InMemoryDataTreeCandidate c = (InMemoryDataTreeCandidate)candidate;
+            oldRoot = c.getBeforeRoot();
+            newRoot = c.getTipRoot();
+            commits = Collections.singletonList(ChangeHistory.changedPaths(c.getRootNode()));
+        }
 
         if (LOG.isTraceEnabled()) {
-            LOG.trace("Data Tree is {}", NormalizedNodes.toStringTree(c.getTipRoot().getData()));
+            LOG.trace("Data Tree is {}", NormalizedNodes.toStringTree(newRoot.getData()));
         }
 
-        final TreeNode newRoot = c.getTipRoot();
         DataTreeState currentState, newState;
         do {
             currentState = state;
             final TreeNode currentRoot = currentState.getRoot();
             LOG.debug("Updating datastore from {} to {}", currentRoot, newRoot);
 
-            final TreeNode oldRoot = c.getBeforeRoot();
-            if (oldRoot != currentRoot) {
+            if (!currentState.isBasedOn(oldRoot)) {
                 final String oldStr = simpleToString(oldRoot);
                 final String currentStr = simpleToString(currentRoot);
                 throw new IllegalStateException("Store tree " + currentStr + " and candidate base " + oldStr + " differ.");
             }
 
-            newState = currentState.withRoot(newRoot);
+            newState = currentState.withRoot(newRoot, commits);
             LOG.trace("Updated state from {} to {}", currentState, newState);
         } while (!STATE_UPDATER.compareAndSet(this, currentState, newState));
     }
 
+    /**
+     * Replace the current root with an equivalent one, which holds the same data and versions, but uses a different
+     * representation. Candidates prepared against the current root remain valid. The replacement is not a commit:
+     * snapshots taken after it report the same sequence number and change history as before it.
+     *
+     * @param expected Expected current root
+     * @param replacement Replacement root
+     * @return True if the root was replaced, false if the current root does not match the expected one.
+     */
+    boolean replaceRoot(final TreeNode expected, final TreeNode replacement) {
+        Preconditions.checkArgument(expected.getVersion() == replacement.getVersion()
+            && expected.getSubtreeVersion() == replacement.getSubtreeVersion(), "Root %s is not equivalent to %s",
+            replacement, expected);
+
+        DataTreeState currentState, newState;
+        do {
+            currentState = state;
+            if (currentState.getRoot() != expected) {
+                return false;
+            }
+            newState = currentState.withEquivalentRoot(replacement);
+        } while (!STATE_UPDATER.compareAndSet(this, currentState, newState));
+        return true;
+    }
+
     private static String simpleToString(final Object o) {
         return o.getClass().getName() + "@" + Integer.toHexString(o.hashCode());
     }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.SharedSizeReport;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNodeSizeEstimator;
+
+/**
+ * Memory accounting for in-memory data trees. It estimates how much heap a subtree of a snapshot retains, and how
+ * much heap an outstanding snapshot or modification keeps reachable in addition to the current state of the data
+ * tree, i.e. how much memory would be reclaimed once it is released.
+ *
+ * <p>
+ * Estimates are cached for as long as the data they cover is reachable. Data trees share unmodified subtrees between
+ * versions, hence re-estimating a tree after a commit does not descend into subtrees the commit has not touched. It
+ * still costs time proportional to the number of direct children of the containers replaced by the commit, which for
+ * a modification of a large list includes all of its entries. Instances are thread-safe and are expected to be
+ * long-lived, for example one per data tree.
+ */
+@Beta
+public final class InMemoryDataTreeMemoryAccounting {
+    private final TreeNodeSizeEstimator estimator;
+
+    private InMemoryDataTreeMemoryAccounting(final TreeNodeSizeEstimator estimator) {
+        this.estimator = Preconditions.checkNotNull(estimator);
+    }
+
+    /**
+     * Create a new accounting instance, with an empty cache.
+     *
+     * @return A new instance
+     */
+    public static InMemoryDataTreeMemoryAccounting create() {
+        return new InMemoryDataTreeMemoryAccounting(TreeNodeSizeEstimator.createCaching());
+    }
+
+    /**
+     * Estimate the heap retained by the entire data of a snapshot.
+     *
+     * @param snapshot Snapshot of an in-memory data tree
+     * @return Estimated size in bytes
+     * @throws IllegalArgumentException if the snapshot does not come from an in-memory data tree
+     */
+    public long estimate(@Nonnull final DataTreeSnapshot snapshot) {
+        return estimator.estimate(checkSnapshot(snapshot).getRootNode());
+    }
+
+    /**
+     * Estimate the heap retained by a subtree of a snapshot.
+     *
+     * @param snapshot Snapshot of an in-memory data tree
+     * @param path Path to the subtree
+     * @return Estimated size in bytes, 0 if the subtree does not exist
+     * @throws IllegalArgumentException if the snapshot does not come from an in-memory data tree
+     */
+    public long estimate(@Nonnull final DataTreeSnapshot snapshot, @Nonnull final YangInstanceIdentifier path) {
+        final Optional<NormalizedNode<?, ?>> node = checkSnapshot(snapshot).readNode(path);
+        return node.isPresent() ? estimator.estimate(node.get()) : 0;
+    }
+
+    /**
+     * Estimate how much heap two snapshots share and how much each of them retains exclusively.
+     *
+     * @param first First snapshot
+     * @param second Second snapshot
+     * @return Comparison report
+     * @throws IllegalArgumentException if any of the snapshots does not come from an in-memory data tree
+     */
+    public SharedSizeReport compare(@Nonnull final DataTreeSnapshot first, @Nonnull final DataTreeSnapshot second) {
+        return estimator.compare(checkSnapshot(first).getRootNode(), checkSnapshot(second).getRootNode());
+    }
+
+    /**
+     * Estimate the heap a snapshot keeps reachable in addition to the current state of a data tree.
+     *
+     * @param snapshot Snapshot of the data tree
+     * @param dataTree Data tree
+     * @return Estimated size in bytes
+     * @throws IllegalArgumentException if the snapshot does not come from an in-memory data tree
+     */
+    public long estimatePinned(@Nonnull final DataTreeSnapshot snapshot, @Nonnull final DataTree dataTree) {
+        return compare(snapshot, dataTree.takeSnapshot()).getFirstExclusive();
+    }
+
+    /**
+     * Estimate the heap a modification keeps reachable in addition to the current state of a data tree. This covers
+     * the snapshot the modification is based on and all data written or merged into it. The modification must not
+     * be modified concurrently.
+     *
+     * @param modification Modification of the data tree
+     * @param dataTree Data tree
+     * @return Estimated size in bytes
+     * @throws IllegalArgumentException if the modification does not come from an in-memory data tree
+     */
+    public long estimatePinned(@Nonnull final DataTreeModification modification, @Nonnull final DataTree dataTree) {
+        Preconditions.checkArgument(modification instanceof InMemoryDataTreeModification,
+            "Unsupported modification %s", modification);
+        final InMemoryDataTreeModification mod = (InMemoryDataTreeModification) modification;
+        return estimatePinned(mod.getSnapshot(), dataTree) + estimateWritten(mod.getRootModification());
+    }
+
+    private long estimateWritten(final ModifiedNode node) {
+        final NormalizedNode<?, ?> value = node.getWrittenValue();
+        long ret = value != null ? estimator.estimate(value) : 0;
+        for (final ModifiedNode child : node.getChildren()) {
+            ret += estimateWritten(child);
+        }
+        return ret;
+    }
+
+    private static InMemoryDataTreeSnapshot checkSnapshot(final DataTreeSnapshot snapshot) {
+        Preconditions.checkArgument(snapshot instanceof InMemoryDataTreeSnapshot, "Unsupported snapshot %s",
+            snapshot);
+        return (InMemoryDataTreeSnapshot) snapshot;
+    }
+}
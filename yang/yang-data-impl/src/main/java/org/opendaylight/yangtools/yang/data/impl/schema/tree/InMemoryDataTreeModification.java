@@ -17,10 +17,14 @@ import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.CursorAwareDataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModificationCursor;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.StoreTreeNodes;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
@@ -65,6 +69,10 @@ final class InMemoryDataTreeModification extends AbstractCursorAware implements
         return strategyTree;
     }
 
+    InMemoryDataTreeSnapshot getSnapshot() {
+        return snapshot;
+    }
+
     @Override
     public void write(final YangInstanceIdentifier path, final NormalizedNode<?, ?> data) {
         checkSealed();
@@ -200,6 +208,107 @@ final class InMemoryDataTreeModification extends AbstractCursorAware implements
         return version;
     }
 
+    /**
+     * Rebase this modification onto a newer snapshot of the same data tree. The recorded modifications are replayed
+     * onto a fresh modification of the new snapshot, so that it can be validated and applied to a data tree whose tip
+     * has moved since this modification was created.
+     *
+     * <p>Unlike validation, which rejects a modification as soon as the version of a written node has changed, rebase
+     * fails only when a node which has been written by this modification has been changed to a different value in the
+     * meantime, or when this modification merges into a node whose changes overlap with the merged data. Changes to
+     * unrelated leaves and list entries are retained.
+     *
+     * @param newSnapshot Snapshot to rebase onto
+     * @return A sealed modification based on specified snapshot
+     * @throws ConflictingModificationAppliedException if the modification conflicts with changes made in the new
+     *                                                 snapshot
+     */
+    InMemoryDataTreeModification rebase(final InMemoryDataTreeSnapshot newSnapshot)
+            throws ConflictingModificationAppliedException {
+        Preconditions.checkState(sealed == 1, "Attempted to rebase an unsealed modification");
+        if (newSnapshot.getRootNode() == snapshot.getRootNode()) {
+            return this;
+        }
+
+        final InMemoryDataTreeModification ret = newSnapshot.newModification();
+        rebaseNode(ret, YangInstanceIdentifier.EMPTY, rootNode, Optional.of(newSnapshot.getRootNode()));
+        ret.ready();
+        return ret;
+    }
+
+    private static void rebaseNode(final InMemoryDataTreeModification target, final YangInstanceIdentifier path,
+            final ModifiedNode node, final Optional<TreeNode> current) throws ConflictingModificationAppliedException {
+        final Optional<TreeNode> original = node.getOriginal();
+
+        switch (node.getOperation()) {
+        case NONE:
+            return;
+        case DELETE:
+            // Delete is always applicable
+            target.delete(path);
+            return;
+        case MERGE:
+            if (original.isPresent() && current.isPresent()) {
+                final DataTreeCandidateNode change = DiffCandidateNode.diff(original.get(), current.get());
+                if (change != null && overlaps(change, node.getWrittenValue())) {
+                    throw new ConflictingModificationAppliedException(path,
+                        "Merged data was modified by other transaction.");
+                }
+            }
+            target.merge(path, node.getWrittenValue());
+            break;
+        case TOUCH:
+            if (original.isPresent() && !current.isPresent()) {
+                throw new ConflictingModificationAppliedException(path, "Node was deleted by other transaction.");
+            }
+            break;
+        case WRITE:
+            final NormalizedNode<?, ?> value = node.getWrittenValue();
+            if (current.isPresent() && !value.equals(current.get().getData())
+                    && DiffCandidateNode.diff(original.orNull(), current.get()) != null) {
+                throw new ConflictingModificationAppliedException(path, "Node was modified by other transaction.");
+            }
+            if (original.isPresent() && !current.isPresent()) {
+                throw new ConflictingModificationAppliedException(path, "Node was deleted by other transaction.");
+            }
+            target.write(path, value);
+            break;
+        default:
+            throw new IllegalArgumentException("Unhandled node operation " + node.getOperation());
+        }
+
+        for (final ModifiedNode child : node.getChildren()) {
+            final PathArgument id = child.getIdentifier();
+            final Optional<TreeNode> currentChild = current.isPresent() ? current.get().getChild(id)
+                    : Optional.absent();
+            rebaseNode(target, path.node(id), child, currentChild);
+        }
+    }
+
+    /**
+     * Check whether a concurrent change touches any part of merged data. A leaf which has been changed to the value
+     * being merged is not considered a conflict.
+     */
+    private static boolean overlaps(final DataTreeCandidateNode change, final NormalizedNode<?, ?> merged) {
+        if (change.getModificationType() != ModificationType.SUBTREE_MODIFIED) {
+            return !merged.equals(change.getDataAfter().orNull());
+        }
+        if (!(merged instanceof NormalizedNodeContainer)) {
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        final NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>> container =
+                (NormalizedNodeContainer<?, PathArgument, NormalizedNode<?, ?>>) merged;
+        for (final DataTreeCandidateNode child : change.getChildNodes()) {
+            final Optional<NormalizedNode<?, ?>> mergedChild = container.getChild(child.getIdentifier());
+            if (mergedChild.isPresent() && overlaps(child, mergedChild.get())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     boolean isSealed() {
         return sealed == 1;
     }
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.BatchDataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeTip;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+
+/**
+ * Utility methods for working with modifications of an in-memory data tree.
+ */
+@Beta
+public final class InMemoryDataTreeModifications {
+    private InMemoryDataTreeModifications() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Rebase a sealed modification onto a newer snapshot of the data tree it was created from. This allows a
+     * modification which would fail validation with a {@link ConflictingModificationAppliedException}, because
+     * the data tree has been modified since the modification was created, to be applied as long as it does not
+     * change the same leaves or list entries as the intervening transactions.
+     *
+     * @param modification Sealed modification
+     * @param snapshot Snapshot to rebase onto, typically the current state of the data tree
+     * @return A sealed modification based on specified snapshot, which may be the modification itself
+     * @throws ConflictingModificationAppliedException if the modification conflicts with changes made in the
+     *                                                 snapshot
+     * @throws IllegalArgumentException if the modification or the snapshot was not produced by an in-memory data tree
+     * @throws IllegalStateException if the modification has not been sealed
+     */
+    public static DataTreeModification rebase(@Nonnull final DataTreeModification modification,
+            @Nonnull final DataTreeSnapshot snapshot) throws ConflictingModificationAppliedException {
+        Preconditions.checkArgument(modification instanceof InMemoryDataTreeModification,
+            "Unsupported modification %s", modification);
+        Preconditions.checkArgument(snapshot instanceof InMemoryDataTreeSnapshot, "Unsupported snapshot %s",
+            snapshot);
+        return ((InMemoryDataTreeModification) modification).rebase((InMemoryDataTreeSnapshot) snapshot);
+    }
+
+    /**
+     * Validate and prepare a batch of sealed modifications for commit as a single transition of the data tree.
+     * Modifications are applied in order, each on top of the result of the previous one, so later modifications
+     * observe the effects of earlier ones. Committing the returned candidate to the data tree costs a single state
+     * update, regardless of the size of the batch.
+     *
+     * @param tip Data tree or data tree candidate on which to base the batch
+     * @param modifications Sealed modifications, in the order in which they should be applied
+     * @return A candidate covering the whole batch
+     * @throws DataValidationFailedException if any of the modifications fails validation, in which case none of them
+     *                                       is applied
+     * @throws IllegalArgumentException if the tip or any of the modifications was not produced by an in-memory data
+     *                                  tree
+     */
+    public static BatchDataTreeCandidate prepareBatch(@Nonnull final DataTreeTip tip,
+            @Nonnull final Iterable<? extends DataTreeModification> modifications)
+            throws DataValidationFailedException {
+        Preconditions.checkArgument(tip instanceof AbstractDataTreeTip, "Unsupported tip %s", tip);
+        return ((AbstractDataTreeTip) tip).prepareBatch(modifications);
+    }
+}
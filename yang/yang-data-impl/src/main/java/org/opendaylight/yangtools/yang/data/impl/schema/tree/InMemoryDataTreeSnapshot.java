@@ -10,25 +10,40 @@ package org.opendaylight.yangtools.yang.data.impl.schema.tree;
 import javax.annotation.Nonnull;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
 import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.CursorAwareDataTreeSnapshot;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshotCursor;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.SequencedDataTreeSnapshot;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 
-final class InMemoryDataTreeSnapshot extends AbstractCursorAware implements CursorAwareDataTreeSnapshot {
+final class InMemoryDataTreeSnapshot extends AbstractCursorAware implements CursorAwareDataTreeSnapshot,
+        SequencedDataTreeSnapshot {
     private final RootModificationApplyOperation applyOper;
     private final SchemaContext schemaContext;
     private final TreeNode rootNode;
+    private final ChangeHistory history;
 
     InMemoryDataTreeSnapshot(final SchemaContext schemaContext, final TreeNode rootNode,
             final RootModificationApplyOperation applyOper) {
+        this(schemaContext, rootNode, applyOper, ChangeHistory.EMPTY);
+    }
+
+    InMemoryDataTreeSnapshot(final SchemaContext schemaContext, final TreeNode rootNode,
+            final RootModificationApplyOperation applyOper, final ChangeHistory history) {
         this.schemaContext = Preconditions.checkNotNull(schemaContext);
         this.rootNode = Preconditions.checkNotNull(rootNode);
         this.applyOper = Preconditions.checkNotNull(applyOper);
+        this.history = Preconditions.checkNotNull(history);
     }
 
     TreeNode getRootNode() {
@@ -44,6 +59,67 @@ final class InMemoryDataTreeSnapshot extends AbstractCursorAware implements Curs
         return NormalizedNodes.findNode(rootNode.getData(), path);
     }
 
+    @Override
+    public long getSequence() {
+        return history.getSequence();
+    }
+
+    @Override
+    public Map<YangInstanceIdentifier, NormalizedNode<?, ?>> readChangedSince(final long sequence) {
+        final Collection<YangInstanceIdentifier> paths = history.changedSince(sequence);
+        if (paths == null) {
+            // The history does not reach back far enough, everything may have changed
+            return ImmutableMap.of(YangInstanceIdentifier.EMPTY, rootNode.getData());
+        }
+
+        // Removed nodes are reported through their closest surviving ancestor
+        final PathTrie changed = new PathTrie();
+        for (final YangInstanceIdentifier path : paths) {
+            YangInstanceIdentifier existing = path;
+            while (!NormalizedNodes.findNode(rootNode.getData(), existing).isPresent()) {
+                existing = existing.getParent();
+            }
+            changed.add(existing);
+        }
+
+        final Map<YangInstanceIdentifier, NormalizedNode<?, ?>> ret = new LinkedHashMap<>();
+        changed.collect(ret, YangInstanceIdentifier.EMPTY, rootNode.getData());
+        return ret;
+    }
+
+    /**
+     * A trie of modified paths, which retains only the shortest paths covering all modifications.
+     */
+    private static final class PathTrie {
+        private Map<PathArgument, PathTrie> children = new LinkedHashMap<>();
+
+        void add(final YangInstanceIdentifier path) {
+            PathTrie trie = this;
+            for (final PathArgument arg : path.getPathArguments()) {
+                if (trie.children == null) {
+                    // An ancestor has already been modified as a whole
+                    return;
+                }
+                trie = trie.children.computeIfAbsent(arg, k -> new PathTrie());
+            }
+            trie.children = null;
+        }
+
+        void collect(final Map<YangInstanceIdentifier, NormalizedNode<?, ?>> result, final YangInstanceIdentifier path,
+                final NormalizedNode<?, ?> data) {
+            if (children == null) {
+                result.put(path, data);
+                return;
+            }
+
+            for (final Entry<PathArgument, PathTrie> e : children.entrySet()) {
+                // Paths were resolved against this snapshot, hence the child is present
+                e.getValue().collect(result, path.node(e.getKey()),
+                    NormalizedNodes.getDirectChild(data, e.getKey()).get());
+            }
+        }
+    }
+
     @Override
     public InMemoryDataTreeModification newModification() {
         return new InMemoryDataTreeModification(this, applyOper);
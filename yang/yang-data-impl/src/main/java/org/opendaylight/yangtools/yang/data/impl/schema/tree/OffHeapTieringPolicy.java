@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedNodeContainer;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.MutableTreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.OffHeapArena;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.OffHeapNodeCodec;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNodeFactory;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.NormalizedNodeContainerBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableAugmentationNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableChoiceNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableMapEntryNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableMapNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableOrderedMapNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableUnkeyedListEntryNodeBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Policy which moves cold subtrees of an in-memory data tree out of the Java heap. A subtree is considered cold once
+ * invocations of {@link #apply(DataTree)} have seen it unmodified across a configurable number of commits, and it is
+ * large enough to be worth the encoding overhead. The policy tracks subtrees by their version, hence a subtree is
+ * never considered cold by the first invocation which sees it. Cold subtrees are moved to an {@link OffHeapArena} and
+ * replaced with nodes which decode their children on access, see
+ * {@link TreeNodeFactory#createOffHeapTreeNode(TreeNode, OffHeapNodeCodec, OffHeapArena)}. Once the arena is full,
+ * further subtrees are left on-heap. Modifying a subtree brings the modified nodes and their siblings back on-heap.
+ *
+ * <p>
+ * The policy does not run on its own, users are expected to invoke {@link #apply(DataTree)} periodically, for example
+ * after every few hundred commits or from a timer. It can run concurrently with commits, in which case it retries on
+ * top of the newly-committed root.
+ */
+@Beta
+public final class OffHeapTieringPolicy {
+    private static final Logger LOG = LoggerFactory.getLogger(OffHeapTieringPolicy.class);
+    private static final int MAX_ATTEMPTS = 3;
+
+    /*
+     * Sequence number of the data tree at the time a subtree version was first seen. Versions are compared by
+     * identity and are not retained once their subtrees are gone.
+     */
+    private final Cache<Version, Long> firstSeen = CacheBuilder.newBuilder().weakKeys().build();
+    private final OffHeapNodeCodec codec;
+    private final OffHeapArena arena;
+    private final long idleCommits;
+    private final int minSubtreeNodes;
+
+    private OffHeapTieringPolicy(final OffHeapNodeCodec codec, final OffHeapArena arena, final long idleCommits,
+            final int minSubtreeNodes) {
+        this.codec = Preconditions.checkNotNull(codec);
+        this.arena = Preconditions.checkNotNull(arena);
+        this.idleCommits = idleCommits;
+        this.minSubtreeNodes = minSubtreeNodes;
+    }
+
+    /**
+     * Create a new policy.
+     *
+     * @param codec Codec used to encode subtrees
+     * @param arena Arena holding the encoded subtrees
+     * @param idleCommits Number of commits during which a subtree has to be seen unmodified to be moved off-heap
+     * @param minSubtreeNodes Minimum number of nodes a subtree has to have to be moved off-heap
+     * @return A new policy
+     * @throws IllegalArgumentException if any of the thresholds is not positive
+     */
+    public static OffHeapTieringPolicy create(@Nonnull final OffHeapNodeCodec codec, @Nonnull final OffHeapArena arena,
+            final long idleCommits, final int minSubtreeNodes) {
+        Preconditions.checkArgument(idleCommits > 0, "Idle commits %s is not positive", idleCommits);
+        Preconditions.checkArgument(minSubtreeNodes > 0, "Minimum subtree size %s is not positive", minSubtreeNodes);
+        return new OffHeapTieringPolicy(codec, arena, idleCommits, minSubtreeNodes);
+    }
+
+    /**
+     * Move cold subtrees of a data tree off-heap. The data tree contents, as observed by snapshots, are not affected.
+     *
+     * @param dataTree Data tree to process, has to be an in-memory data tree
+     * @return Number of subtrees which have been moved off-heap
+     * @throws IllegalArgumentException if the data tree is not an in-memory data tree
+     * @throws IOException if the codec fails to encode a subtree
+     */
+    public int apply(@Nonnull final DataTree dataTree) throws IOException {
+        Preconditions.checkArgument(dataTree instanceof InMemoryDataTree, "Unsupported data tree %s", dataTree);
+        final InMemoryDataTree tree = (InMemoryDataTree) dataTree;
+
+        // Subtrees encoded in a failed attempt, reused if they are still present in the next root
+        final Map<NormalizedNode<?, ?>, TreeNode> encoded = new IdentityHashMap<>();
+        for (int i = 0; i < MAX_ATTEMPTS; ++i) {
+            final InMemoryDataTreeSnapshot snapshot = tree.takeSnapshot();
+            final TreeNode root = snapshot.getRootNode();
+            final Pass pass = new Pass(snapshot.getSequence(), encoded);
+            final TreeNode newRoot = pass.tier(root);
+            if (newRoot == root) {
+                return 0;
+            }
+            if (tree.replaceRoot(root, newRoot)) {
+                LOG.debug("Moved {} subtrees of {} off-heap", pass.count, tree);
+                return pass.count;
+            }
+
+            LOG.debug("Root of {} changed while tiering, retrying", tree);
+        }
+
+        LOG.debug("Failed to tier {} after {} attempts due to concurrent commits", tree, MAX_ATTEMPTS);
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("codec", codec).add("arena", arena).add("idleCommits", idleCommits)
+                .add("minSubtreeNodes", minSubtreeNodes).toString();
+    }
+
+    /**
+     * A single tiering pass over a root.
+     */
+    final class Pass {
+        private final Map<NormalizedNode<?, ?>, TreeNode> encoded;
+        private final long sequence;
+        int count;
+
+        Pass(final long sequence, final Map<NormalizedNode<?, ?>, TreeNode> encoded) {
+            this.sequence = sequence;
+            this.encoded = Preconditions.checkNotNull(encoded);
+        }
+
+        private boolean isIdle(final Version version) {
+            final Long seen = firstSeen.asMap().putIfAbsent(version, sequence);
+            return seen != null && sequence - seen >= idleCommits;
+        }
+
+        TreeNode tier(final TreeNode node) throws IOException {
+            final NormalizedNode<?, ?> data = node.getData();
+            if (TreeNodeFactory.isOffHeap(node) || !isContainer(data)) {
+                return node;
+            }
+
+            if (node.getVersion().equals(node.getSubtreeVersion())) {
+                // Uniform: the entire subtree can be moved if it is cold and large enough
+                if (!isIdle(node.getVersion()) || !hasAtLeast(data, minSubtreeNodes)) {
+                    return node;
+                }
+
+                TreeNode ret = encoded.get(data);
+                if (ret == null || !ret.getVersion().equals(node.getVersion())) {
+                    ret = TreeNodeFactory.createOffHeapTreeNode(node, codec, arena);
+                    if (ret == node) {
+                        // Not supported or out of space
+                        return node;
+                    }
+                    encoded.put(data, ret);
+                }
+                count++;
+                return ret;
+            }
+
+            // Parts of the subtree have been modified, we need to look at children individually
+            final NormalizedNodeContainerBuilder<?, ?, ?, ?> builder = createBuilder(data);
+            if (builder == null) {
+                return node;
+            }
+
+            final Map<PathArgument, TreeNode> replaced = new LinkedHashMap<>();
+            for (NormalizedNode<?, ?> child : children(data)) {
+                final TreeNode childNode = node.getChild(child.getIdentifier()).get();
+                final TreeNode newChild = tier(childNode);
+                if (newChild != childNode) {
+                    replaced.put(child.getIdentifier(), newChild);
+                }
+            }
+            if (replaced.isEmpty()) {
+                return node;
+            }
+
+            final MutableTreeNode mutable = node.mutable();
+            for (TreeNode child : replaced.values()) {
+                addChild(builder, child.getData());
+                mutable.addChild(child);
+            }
+            mutable.setData(builder.build());
+            return mutable.seal();
+        }
+    }
+
+    private static boolean isContainer(final NormalizedNode<?, ?> data) {
+        return data instanceof NormalizedNodeContainer || data instanceof OrderedNodeContainer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Iterable<NormalizedNode<?, ?>> children(final NormalizedNode<?, ?> data) {
+        return (Iterable<NormalizedNode<?, ?>>) data.getValue();
+    }
+
+    /**
+     * Check whether a subtree has at least specified number of nodes, without walking more of it than necessary.
+     */
+    static boolean hasAtLeast(final NormalizedNode<?, ?> data, final int count) {
+        return count <= 1 || countNodes(data, count) >= count;
+    }
+
+    private static int countNodes(final NormalizedNode<?, ?> data, final int limit) {
+        int ret = 1;
+        if (isContainer(data)) {
+            for (NormalizedNode<?, ?> child : children(data)) {
+                ret += countNodes(child, limit - ret);
+                if (ret >= limit) {
+                    break;
+                }
+            }
+        }
+        return ret;
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static void addChild(final NormalizedNodeContainerBuilder builder, final NormalizedNode<?, ?> child) {
+        builder.addChild(child);
+    }
+
+    private static NormalizedNodeContainerBuilder<?, ?, ?, ?> createBuilder(final NormalizedNode<?, ?> data) {
+        if (data instanceof ContainerNode) {
+            return ImmutableContainerNodeBuilder.create((ContainerNode) data);
+        } else if (data instanceof MapEntryNode) {
+            return ImmutableMapEntryNodeBuilder.create((MapEntryNode) data);
+        } else if (data instanceof OrderedMapNode) {
+            return ImmutableOrderedMapNodeBuilder.create((OrderedMapNode) data);
+        } else if (data instanceof MapNode) {
+            return ImmutableMapNodeBuilder.create((MapNode) data);
+        } else if (data instanceof AugmentationNode) {
+            return ImmutableAugmentationNodeBuilder.create((AugmentationNode) data);
+        } else if (data instanceof ChoiceNode) {
+            return ImmutableChoiceNodeBuilder.create((ChoiceNode) data);
+        } else if (data instanceof UnkeyedListEntryNode) {
+            return ImmutableUnkeyedListEntryNodeBuilder.create((UnkeyedListEntryNode) data);
+        } else {
+            // Leaf sets hold only values and unkeyed lists cannot address their entries
+            return null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.Test;
+
+public class PatternMatchersTest {
+    // ietf-inet-types ipv4-address
+    private static final String IPV4 = "^(([0-9]|[1-9][0-9]|1[0-9][0-9]|2[0-4][0-9]|25[0-5])\\.){3}"
+            + "([0-9]|[1-9][0-9]|1[0-9][0-9]|2[0-4][0-9]|25[0-5])(%[\\p{N}\\p{L}]+)?$";
+    // ietf-yang-types mac-address
+    private static final String MAC = "^[0-9a-fA-F]{2}(:[0-9a-fA-F]{2}){5}$";
+    // ietf-inet-types domain-name
+    private static final String DOMAIN = "^((([a-zA-Z0-9_]([a-zA-Z0-9\\-_]){0,61})?[a-zA-Z0-9]\\.)*"
+            + "([a-zA-Z0-9_]([a-zA-Z0-9\\-_]){0,61})?[a-zA-Z0-9]\\.?)|\\.$";
+
+    private static final String[] DFA_PATTERNS = {
+        IPV4, MAC, DOMAIN,
+        "^[A-Z]+$", "^abc$", "^$", "^a|b$", "^(a|b)*c?$", "^[^a-c]{1,3}$", "^.+x$", "^a{2,}$", "^a*?b$",
+        "^(?:ab|cd){0,2}$", "^\\d\\D\\s\\S\\w\\W$", "^[\\d\\-]+$", "^[a-]$", "^[-a]$", "^\\p{L}+$", "^\\P{Lu}$",
+        "^\\p{InBasicLatin}*$", "^[\\p{IsL}\\p{Nd}]*$", "^\\u00e9\\x41\\x{1F600}$", "^[\\$\\^\\.]+\\$$",
+        "^x\\$$", "^\\t\\n[\\r\\f]$", "^()a$",
+    };
+
+    private static final String[] NON_DFA_PATTERNS = {
+        "^(a)\\1$", "^a(?=b)b$", "^a++$", "^(?i)abc$", "^[a-z&&[^q]]$", "^\\bx$", "^a$b$", "^\\p{IsLatin}$",
+        "^\\p{Alpha}$", "^\\Qa.b\\E$", "^(a{0,100}){0,100}$",
+    };
+
+    private static final String ALPHABET = "abcxAZ019.-_:%$^\t\n éЖ😀";
+
+    @Test
+    public void testDfaMatchesJavaSemantics() {
+        final Random random = new Random(0);
+        for (String regex : DFA_PATTERNS) {
+            final DfaPatternMatcher dfa = DfaPatternCompiler.compile(regex);
+            assertNotNull(regex, dfa);
+
+            final Pattern pattern = Pattern.compile(regex);
+            for (int i = 0; i < 2000; ++i) {
+                final String input = randomString(random, random.nextInt(12));
+                assertEquals(regex + " on \"" + input + "\"", pattern.matcher(input).matches(), dfa.matches(input));
+            }
+        }
+    }
+
+    @Test
+    public void testWellKnownPatterns() {
+        final PatternMatcher ipv4 = PatternMatchers.forRegularExpression(IPV4);
+        assertTrue(ipv4 instanceof DfaPatternMatcher);
+        assertTrue(ipv4.matches("192.168.1.1"));
+        assertTrue(ipv4.matches("10.0.0.1%eth0"));
+        assertFalse(ipv4.matches("256.1.1.1"));
+        assertFalse(ipv4.matches("1.1.1"));
+
+        final PatternMatcher mac = PatternMatchers.forRegularExpression(MAC);
+        assertTrue(mac.matches("00:1B:44:11:3a:b7"));
+        assertFalse(mac.matches("00:1B:44:11:3a"));
+
+        final PatternMatcher domain = PatternMatchers.forRegularExpression(DOMAIN);
+        assertTrue(domain.matches("www.example.com"));
+        assertTrue(domain.matches("."));
+        assertFalse(domain.matches("exa mple.com"));
+    }
+
+    @Test
+    public void testFallbackToJava() {
+        for (String regex : NON_DFA_PATTERNS) {
+            assertNull(regex, DfaPatternCompiler.compile(regex));
+            assertTrue(regex, PatternMatchers.forRegularExpression(regex) instanceof JavaPatternMatcher);
+        }
+
+        final PatternMatcher backref = PatternMatchers.forRegularExpression("^(a|b)\\1$");
+        assertTrue(backref.matches("aa"));
+        assertFalse(backref.matches("ab"));
+    }
+
+    @Test
+    public void testFallbackToXsd() {
+        // Character class subtraction and name characters are XSD-only constructs
+        final PatternMatcher subtraction = PatternMatchers.forRegularExpression("^[a-z-[aeiou]]+$");
+        assertTrue(subtraction instanceof XsdPatternMatcher);
+        assertTrue(subtraction.matches("xyz"));
+        assertFalse(subtraction.matches("xaz"));
+
+        final PatternMatcher names = PatternMatchers.forRegularExpression("\\i\\c*");
+        assertTrue(names instanceof XsdPatternMatcher);
+        assertTrue(names.matches("foo-bar"));
+        assertFalse(names.matches("-foo"));
+
+        final PatternMatcher block = PatternMatchers.forRegularExpression("^[\\p{InBasicLatin}-[a-z]]+$");
+        assertTrue(block.matches("ABC"));
+        assertFalse(block.matches("abc"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPattern() {
+        PatternMatchers.forRegularExpression("^[a-$");
+    }
+
+    @Test
+    public void testSharing() {
+        assertSame(PatternMatchers.forRegularExpression(MAC), PatternMatchers.forRegularExpression(MAC));
+        assertEquals(MAC, PatternMatchers.forRegularExpression(MAC).getRegularExpression());
+    }
+
+    private static String randomString(final Random random, final int length) {
+        final StringBuilder sb = new StringBuilder();
+        final int[] cps = ALPHABET.codePoints().toArray();
+        for (int i = 0; i < length; ++i) {
+            if (random.nextInt(4) == 0) {
+                sb.append(random.nextInt(256));
+            } else {
+                sb.appendCodePoint(cps[random.nextInt(cps.length)]);
+            }
+        }
+        return sb.toString();
+    }
+}
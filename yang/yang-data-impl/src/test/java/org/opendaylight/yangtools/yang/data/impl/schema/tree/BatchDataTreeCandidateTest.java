@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapEntry;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapNodeBuilder;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.BatchDataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class BatchDataTreeCandidateTest {
+    private static final Short ONE_ID = 1;
+    private static final Short TWO_ID = 2;
+
+    private static final YangInstanceIdentifier OUTER_LIST_1_PATH = YangInstanceIdentifier.builder(
+        TestModel.OUTER_LIST_PATH).nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, ONE_ID).build();
+    private static final YangInstanceIdentifier OUTER_LIST_2_PATH = YangInstanceIdentifier.builder(
+        TestModel.OUTER_LIST_PATH).nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, TWO_ID).build();
+
+    private InMemoryDataTree inMemoryDataTree;
+
+    @Before
+    public void prepare() throws ReactorException, DataValidationFailedException {
+        inMemoryDataTree = (InMemoryDataTree) InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        inMemoryDataTree.setSchemaContext(TestModel.createTestContext());
+
+        final DataTreeModification initial = inMemoryDataTree.takeSnapshot().newModification();
+        initial.write(TestModel.TEST_PATH, Builders.containerBuilder()
+            .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build()).build());
+        initial.ready();
+        inMemoryDataTree.validate(initial);
+        inMemoryDataTree.commit(inMemoryDataTree.prepare(initial));
+    }
+
+    private static DataTreeModification write(final DataTreeSnapshot snapshot, final YangInstanceIdentifier path,
+            final Short id) {
+        final DataTreeModification ret = snapshot.newModification();
+        ret.write(path, mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id));
+        ret.ready();
+        return ret;
+    }
+
+    @Test
+    public void testBatchCommit() throws DataValidationFailedException {
+        final DataTreeSnapshot snapshot = inMemoryDataTree.takeSnapshot();
+        final DataTreeModification mod1 = write(snapshot, OUTER_LIST_1_PATH, ONE_ID);
+        final DataTreeModification mod2 = write(snapshot, OUTER_LIST_2_PATH, TWO_ID);
+        final DataTreeModification mod3 = snapshot.newModification();
+        mod3.delete(OUTER_LIST_1_PATH);
+        mod3.ready();
+
+        final BatchDataTreeCandidate batch = InMemoryDataTreeModifications.prepareBatch(inMemoryDataTree,
+            ImmutableList.of(mod1, mod2, mod3));
+        assertEquals(3, batch.getCandidates().size());
+        assertEquals(ModificationType.SUBTREE_MODIFIED,
+            batch.getCandidates().get(0).getRootNode().getModificationType());
+
+        // Entry 1 was written and deleted within the batch, hence only entry 2 is reported
+        final DataTreeCandidateNode list = batch.getRootNode()
+                .getModifiedChild(TestModel.TEST_PATH.getLastPathArgument())
+                .getModifiedChild(TestModel.OUTER_LIST_PATH.getLastPathArgument());
+        assertEquals(1, list.getChildNodes().size());
+        assertEquals(ModificationType.WRITE,
+            list.getModifiedChild(OUTER_LIST_2_PATH.getLastPathArgument()).getModificationType());
+
+        inMemoryDataTree.commit(batch);
+        final DataTreeSnapshot after = inMemoryDataTree.takeSnapshot();
+        assertFalse(after.readNode(OUTER_LIST_1_PATH).isPresent());
+        assertTrue(after.readNode(OUTER_LIST_2_PATH).isPresent());
+    }
+
+    @Test
+    public void testEmptyBatch() throws DataValidationFailedException {
+        final DataTreeSnapshot before = inMemoryDataTree.takeSnapshot();
+        final BatchDataTreeCandidate batch = InMemoryDataTreeModifications.prepareBatch(inMemoryDataTree,
+            Collections.emptyList());
+        assertTrue(batch.getCandidates().isEmpty());
+        assertEquals(ModificationType.UNMODIFIED, batch.getRootNode().getModificationType());
+
+        inMemoryDataTree.commit(batch);
+        assertSame(before.readNode(TestModel.TEST_PATH).get(),
+            inMemoryDataTree.takeSnapshot().readNode(TestModel.TEST_PATH).get());
+    }
+
+    @Test(expected = ConflictingModificationAppliedException.class)
+    public void testConflictingBatch() throws DataValidationFailedException {
+        final DataTreeSnapshot snapshot = inMemoryDataTree.takeSnapshot();
+        InMemoryDataTreeModifications.prepareBatch(inMemoryDataTree, ImmutableList.of(
+            write(snapshot, OUTER_LIST_1_PATH, ONE_ID), write(snapshot, OUTER_LIST_1_PATH, ONE_ID)));
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+
+public class ChangeHistoryTest {
+    private static final QName FOO = QName.create("urn:foo", "foo");
+
+    private static YangInstanceIdentifier path(final int index) {
+        return YangInstanceIdentifier.of(QName.create(FOO, "node" + index));
+    }
+
+    @Test
+    public void testChangedSince() {
+        ChangeHistory history = ChangeHistory.EMPTY;
+        assertEquals(0, history.getSequence());
+        assertTrue(history.changedSince(0).isEmpty());
+        assertNull(history.changedSince(-1));
+
+        history = history.append(ImmutableList.of(path(1))).append(ImmutableList.of()).append(
+            ImmutableList.of(path(3), path(4)));
+        assertEquals(3, history.getSequence());
+        assertTrue(history.changedSince(3).isEmpty());
+        assertEquals(ImmutableList.of(path(3), path(4)), ImmutableList.copyOf(history.changedSince(1)));
+        assertEquals(ImmutableList.of(path(3), path(4), path(1)), ImmutableList.copyOf(history.changedSince(0)));
+    }
+
+    @Test
+    public void testRetainedCommits() {
+        ChangeHistory history = ChangeHistory.EMPTY;
+        final int commits = 3 * ChangeHistory.RETAINED_COMMITS;
+        for (int i = 1; i <= commits; ++i) {
+            history = history.append(ImmutableList.of(path(i)));
+        }
+
+        assertEquals(commits, history.getSequence());
+        assertEquals(ImmutableList.of(path(commits)), ImmutableList.copyOf(history.changedSince(commits - 1)));
+
+        final long oldest = commits - ChangeHistory.RETAINED_COMMITS;
+        assertEquals(ChangeHistory.RETAINED_COMMITS, history.changedSince(oldest).size());
+        assertNull(history.changedSince(0));
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapEntry;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapEntryBuilder;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapNodeBuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ConflictingModificationAppliedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class DataTreeModificationRebaseTest {
+    private static final Short ONE_ID = 1;
+    private static final Short TWO_ID = 2;
+
+    private static final YangInstanceIdentifier OUTER_LIST_1_PATH = YangInstanceIdentifier.builder(
+        TestModel.OUTER_LIST_PATH).nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, ONE_ID).build();
+    private static final YangInstanceIdentifier OUTER_LIST_2_PATH = YangInstanceIdentifier.builder(
+        TestModel.OUTER_LIST_PATH).nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, TWO_ID).build();
+
+    private InMemoryDataTree inMemoryDataTree;
+
+    @Before
+    public void prepare() throws ReactorException, DataValidationFailedException {
+        inMemoryDataTree = (InMemoryDataTree) InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        inMemoryDataTree.setSchemaContext(TestModel.createTestContext());
+
+        final DataTreeModification initial = inMemoryDataTree.takeSnapshot().newModification();
+        initial.write(TestModel.TEST_PATH, Builders.containerBuilder()
+            .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build()).build());
+        commit(initial);
+    }
+
+    private static MapEntryNode outerEntry(final Short id, final String two) {
+        return mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id)
+                .withChild(ImmutableNodes.leafNode(TestModel.TWO_QNAME, two)).build();
+    }
+
+    private void commit(final DataTreeModification modification) throws DataValidationFailedException {
+        modification.ready();
+        inMemoryDataTree.validate(modification);
+        inMemoryDataTree.commit(inMemoryDataTree.prepare(modification));
+    }
+
+    private DataTreeModification rebase(final DataTreeModification modification)
+            throws ConflictingModificationAppliedException {
+        final DataTreeModification ret = InMemoryDataTreeModifications.rebase(modification,
+            inMemoryDataTree.takeSnapshot());
+        inMemoryDataTree.validate(ret);
+        inMemoryDataTree.commit(inMemoryDataTree.prepare(ret));
+        return ret;
+    }
+
+    @Test
+    public void testRebaseUnchanged() throws DataValidationFailedException {
+        final DataTreeModification mod = inMemoryDataTree.takeSnapshot().newModification();
+        mod.write(OUTER_LIST_1_PATH, mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, ONE_ID));
+        mod.ready();
+        assertSame(mod, InMemoryDataTreeModifications.rebase(mod, inMemoryDataTree.takeSnapshot()));
+    }
+
+    @Test
+    public void testRebaseDisjoint() throws DataValidationFailedException {
+        final DataTreeModification mod1 = inMemoryDataTree.takeSnapshot().newModification();
+        final DataTreeModification mod2 = inMemoryDataTree.takeSnapshot().newModification();
+        mod1.write(OUTER_LIST_1_PATH, outerEntry(ONE_ID, "one"));
+        mod2.write(OUTER_LIST_2_PATH, outerEntry(TWO_ID, "two"));
+        commit(mod1);
+        mod2.ready();
+        rebase(mod2);
+
+        assertEquals(outerEntry(ONE_ID, "one"), inMemoryDataTree.takeSnapshot().readNode(OUTER_LIST_1_PATH).get());
+        assertEquals(outerEntry(TWO_ID, "two"), inMemoryDataTree.takeSnapshot().readNode(OUTER_LIST_2_PATH).get());
+    }
+
+    @Test
+    public void testRebaseSameValue() throws DataValidationFailedException {
+        final DataTreeModification mod1 = inMemoryDataTree.takeSnapshot().newModification();
+        final DataTreeModification mod2 = inMemoryDataTree.takeSnapshot().newModification();
+        mod1.write(OUTER_LIST_1_PATH, outerEntry(ONE_ID, "one"));
+        mod2.write(OUTER_LIST_1_PATH, outerEntry(ONE_ID, "one"));
+        commit(mod1);
+        mod2.ready();
+        rebase(mod2);
+
+        assertEquals(outerEntry(ONE_ID, "one"), inMemoryDataTree.takeSnapshot().readNode(OUTER_LIST_1_PATH).get());
+    }
+
+    @Test
+    public void testRebaseMergeDisjoint() throws DataValidationFailedException {
+        final DataTreeModification init = inMemoryDataTree.takeSnapshot().newModification();
+        init.write(OUTER_LIST_1_PATH, outerEntry(ONE_ID, "one"));
+        commit(init);
+
+        final DataTreeModification mod1 = inMemoryDataTree.takeSnapshot().newModification();
+        final DataTreeModification mod2 = inMemoryDataTree.takeSnapshot().newModification();
+        mod1.write(OUTER_LIST_1_PATH.node(TestModel.TWO_QNAME), ImmutableNodes.leafNode(TestModel.TWO_QNAME, "two"));
+        mod2.merge(OUTER_LIST_1_PATH, mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, ONE_ID)
+            .withChild(ImmutableNodes.leafNode(TestModel.THREE_QNAME, "three")).build());
+        commit(mod1);
+        mod2.ready();
+        rebase(mod2);
+
+        assertEquals(mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, ONE_ID)
+            .withChild(ImmutableNodes.leafNode(TestModel.TWO_QNAME, "two"))
+            .withChild(ImmutableNodes.leafNode(TestModel.THREE_QNAME, "three")).build(),
+            inMemoryDataTree.takeSnapshot().readNode(OUTER_LIST_1_PATH).get());
+    }
+
+    @Test(expected = ConflictingModificationAppliedException.class)
+    public void testRebaseConflictingWrite() throws DataValidationFailedException {
+        final DataTreeModification mod1 = inMemoryDataTree.takeSnapshot().newModification();
+        final DataTreeModification mod2 = inMemoryDataTree.takeSnapshot().newModification();
+        mod1.write(OUTER_LIST_1_PATH, outerEntry(ONE_ID, "one"));
+        mod2.write(OUTER_LIST_1_PATH, outerEntry(ONE_ID, "two"));
+        commit(mod1);
+        mod2.ready();
+        rebase(mod2);
+    }
+
+    @Test
+    public void testRebaseDeletedParent() throws DataValidationFailedException {
+        final DataTreeModification mod1 = inMemoryDataTree.takeSnapshot().newModification();
+        final DataTreeModification mod2 = inMemoryDataTree.takeSnapshot().newModification();
+        mod1.delete(TestModel.TEST_PATH);
+        mod2.write(OUTER_LIST_1_PATH, outerEntry(ONE_ID, "one"));
+        commit(mod1);
+        mod2.ready();
+
+        try {
+            rebase(mod2);
+        } catch (ConflictingModificationAppliedException e) {
+            assertTrue(TestModel.TEST_PATH.contains(e.getPath()));
+            return;
+        }
+        throw new AssertionError("Rebase should have failed");
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNodeFactory;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+
+public class DataTreeSnapshotDiffTest {
+    private static final QName TOP = QName.create("test", "2016-01-01", "top");
+    private static final QName LIST = QName.create(TOP, "list");
+    private static final QName KEY = QName.create(TOP, "key");
+    private static final QName VALUE = QName.create(TOP, "value");
+    private static final QName OTHER = QName.create(TOP, "other");
+
+    private static final NodeIdentifier LIST_ID = new NodeIdentifier(LIST);
+    private static final NodeIdentifier VALUE_ID = new NodeIdentifier(VALUE);
+    private static final NodeIdentifier OTHER_ID = new NodeIdentifier(OTHER);
+
+    private final Version version = Version.initial();
+
+    private static MapEntryNode entry(final String key, final String value) {
+        return ImmutableNodes.mapEntryBuilder(LIST, KEY, key).withChild(ImmutableNodes.leafNode(VALUE, value))
+                .build();
+    }
+
+    private static NodeIdentifierWithPredicates entryId(final String key) {
+        return new NodeIdentifierWithPredicates(LIST, KEY, key);
+    }
+
+    private static CollectionNodeBuilder<MapEntryNode, OrderedMapNode> orderedList() {
+        return Builders.orderedMapBuilder().withNodeIdentifier(LIST_ID);
+    }
+
+    private static ContainerNode top(final MapNode list, final String other) {
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TOP)).withChild(list)
+                .withChild(ImmutableNodes.leafNode(OTHER, other)).build();
+    }
+
+    private TreeNode treeNode(final ContainerNode data) {
+        return TreeNodeFactory.createTreeNode(data, version.next());
+    }
+
+    @Test
+    public void testUnmodified() {
+        final TreeNode node = treeNode(top(ImmutableNodes.mapNodeBuilder(LIST).withChild(entry("a", "1")).build(),
+            "x"));
+        assertNull(DiffCandidateNode.diff(node, node));
+        assertNull(DiffCandidateNode.diff(node, treeNode((ContainerNode) node.getData())));
+        assertNull(DiffCandidateNode.diff(null, null));
+    }
+
+    @Test
+    public void testWriteAndDelete() {
+        final TreeNode node = treeNode(top(ImmutableNodes.mapNodeBuilder(LIST).build(), "x"));
+        assertEquals(ModificationType.WRITE, DiffCandidateNode.diff(null, node).getModificationType());
+        assertEquals(ModificationType.DELETE, DiffCandidateNode.diff(node, null).getModificationType());
+    }
+
+    @Test
+    public void testSubtreeModified() {
+        final MapEntryNode shared = entry("a", "1");
+        final MapEntryNode removed = entry("b", "2");
+        final TreeNode before = treeNode(top(ImmutableNodes.mapNodeBuilder(LIST).withChild(shared).withChild(removed)
+            .withChild(entry("c", "3")).build(), "x"));
+        final TreeNode after = treeNode(top(ImmutableNodes.mapNodeBuilder(LIST).withChild(shared)
+            .withChild(entry("c", "4")).withChild(entry("d", "5")).build(), "x"));
+
+        final DataTreeCandidateNode root = DiffCandidateNode.diff(before, after);
+        assertNotNull(root);
+        assertEquals(ModificationType.SUBTREE_MODIFIED, root.getModificationType());
+        assertSame(before.getData(), root.getDataBefore().get());
+        assertSame(after.getData(), root.getDataAfter().get());
+
+        // The leaf has equal value, hence it is not reported
+        assertEquals(1, root.getChildNodes().size());
+        assertNull(root.getModifiedChild(OTHER_ID));
+
+        final DataTreeCandidateNode list = root.getModifiedChild(LIST_ID);
+        assertEquals(ModificationType.SUBTREE_MODIFIED, list.getModificationType());
+        assertEquals(3, list.getChildNodes().size());
+        assertNull(list.getModifiedChild(entryId("a")));
+        assertEquals(ModificationType.DELETE, list.getModifiedChild(entryId("b")).getModificationType());
+        assertEquals(ModificationType.WRITE, list.getModifiedChild(entryId("d")).getModificationType());
+
+        final DataTreeCandidateNode modified = list.getModifiedChild(entryId("c"));
+        assertEquals(ModificationType.SUBTREE_MODIFIED, modified.getModificationType());
+        assertEquals(ModificationType.WRITE, modified.getModifiedChild(VALUE_ID).getModificationType());
+    }
+
+    @Test
+    public void testReorderedList() {
+        final MapEntryNode first = entry("a", "1");
+        final MapEntryNode second = entry("b", "2");
+        final TreeNode before = treeNode(top(orderedList().withChild(first).withChild(second).build(), "x"));
+        final TreeNode appended = treeNode(top(orderedList().withChild(first).withChild(second)
+            .withChild(entry("c", "3")).build(), "x"));
+        final TreeNode reordered = treeNode(top(orderedList().withChild(second).withChild(first).build(), "x"));
+
+        assertEquals(ModificationType.SUBTREE_MODIFIED,
+            DiffCandidateNode.diff(before, appended).getModifiedChild(LIST_ID).getModificationType());
+        assertEquals(ModificationType.WRITE,
+            DiffCandidateNode.diff(before, reordered).getModifiedChild(LIST_ID).getModificationType());
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.leafNode;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapEntryBuilder;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapNodeBuilder;
+
+import com.google.common.base.Optional;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.CursorAwareDataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshotCursor;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeStreamContinuation;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeStreamOptions;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeAttrBuilder;
+
+public class DataTreeSnapshotStreamingTest {
+    private static final QName ONE_QNAME = QName.create(TestModel.TEST_QNAME, "one");
+    private static final NodeIdentifier TEST = new NodeIdentifier(TestModel.TEST_QNAME);
+    private static final NodeIdentifier OUTER_LIST = new NodeIdentifier(TestModel.OUTER_LIST_QNAME);
+    private static final NodeIdentifier OUTER_CHOICE = new NodeIdentifier(TestModel.OUTER_CHOICE_QNAME);
+    private static final NodeIdentifier INNER_CONTAINER = new NodeIdentifier(TestModel.INNER_CONTAINER_QNAME);
+    private static final int ENTRIES = 5;
+
+    private InMemoryDataTree inMemoryDataTree;
+
+    @Before
+    public void setUp() throws Exception {
+        inMemoryDataTree = (InMemoryDataTree) InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        inMemoryDataTree.setSchemaContext(TestModel.createTestContext());
+
+        final DataTreeModification mod = inMemoryDataTree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, createTest());
+        mod.ready();
+        inMemoryDataTree.validate(mod);
+        inMemoryDataTree.commit(inMemoryDataTree.prepare(mod));
+    }
+
+    private static ContainerNode createTest() {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> list = mapNodeBuilder(TestModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < ENTRIES; ++i) {
+            list.withChild(mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, i)
+                .withChild(Builders.choiceBuilder().withNodeIdentifier(OUTER_CHOICE)
+                    .withChild(leafNode(ONE_QNAME, "one-" + i)).build())
+                .withChild(mapNodeBuilder(TestModel.INNER_LIST_QNAME)
+                    .withChild(mapEntryBuilder(TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, "name-" + i)
+                        .withChild(leafNode(TestModel.VALUE_QNAME, "value-" + i)).build())
+                    .build())
+                .build());
+        }
+
+        return Builders.containerBuilder().withNodeIdentifier(TEST)
+                .withChild(list.build())
+                .withChild(Builders.containerBuilder().withNodeIdentifier(INNER_CONTAINER)
+                    .withChild(leafNode(TestModel.VALUE_QNAME, "inner")).build())
+                .build();
+    }
+
+    private static DataContainerNodeAttrBuilder<NodeIdentifier, ContainerNode> testBuilder() {
+        return Builders.containerBuilder().withNodeIdentifier(TEST);
+    }
+
+    private NormalizedNode<?, ?> stream(final YangInstanceIdentifier parent, final PathArgument child,
+            final DataTreeStreamOptions options) throws IOException {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        try (DataTreeSnapshotCursor cursor = ((CursorAwareDataTreeSnapshot) inMemoryDataTree.takeSnapshot())
+                .createCursor(parent)) {
+            assertFalse(cursor.streamNode(child, ImmutableNormalizedNodeStreamWriter.from(result), options)
+                .isPresent());
+        }
+        return result.getResult();
+    }
+
+    @Test
+    public void testStreamWhole() throws IOException {
+        assertEquals(createTest(), stream(YangInstanceIdentifier.EMPTY, TEST, DataTreeStreamOptions.DEFAULT));
+    }
+
+    @Test
+    public void testMissingNode() throws IOException {
+        try (DataTreeSnapshotCursor cursor = ((CursorAwareDataTreeSnapshot) inMemoryDataTree.takeSnapshot())
+                .createCursor(TestModel.TEST_PATH)) {
+            final NormalizedNodeResult result = new NormalizedNodeResult();
+            assertFalse(cursor.streamNode(new NodeIdentifier(TestModel.TWO_QNAME),
+                ImmutableNormalizedNodeStreamWriter.from(result), DataTreeStreamOptions.DEFAULT).isPresent());
+            assertFalse(result.isFinished());
+        }
+    }
+
+    @Test
+    public void testDepth() throws IOException {
+        assertEquals(testBuilder().build(), stream(YangInstanceIdentifier.EMPTY, TEST,
+            new DataTreeStreamOptions.Builder().setMaxDepth(1).build()));
+
+        // List entries are emitted with their keys only
+        final CollectionNodeBuilder<MapEntryNode, MapNode> list = mapNodeBuilder(TestModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < ENTRIES; ++i) {
+            list.withChild(mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, i).build());
+        }
+        assertEquals(testBuilder().withChild(list.build()).withChild(Builders.containerBuilder()
+            .withNodeIdentifier(INNER_CONTAINER).build()).build(), stream(YangInstanceIdentifier.EMPTY, TEST,
+                new DataTreeStreamOptions.Builder().setMaxDepth(2).build()));
+    }
+
+    @Test
+    public void testFields() throws IOException {
+        assertEquals(testBuilder().withChild(Builders.containerBuilder().withNodeIdentifier(INNER_CONTAINER)
+            .withChild(leafNode(TestModel.VALUE_QNAME, "inner")).build()).build(),
+            stream(YangInstanceIdentifier.EMPTY, TEST,
+                new DataTreeStreamOptions.Builder().addField(TestModel.INNER_CONTAINER_QNAME).build()));
+
+        // Choices are transparent, list keys are always emitted
+        final CollectionNodeBuilder<MapEntryNode, MapNode> list = mapNodeBuilder(TestModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < ENTRIES; ++i) {
+            list.withChild(mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, i)
+                .withChild(Builders.choiceBuilder().withNodeIdentifier(OUTER_CHOICE)
+                    .withChild(leafNode(ONE_QNAME, "one-" + i)).build())
+                .build());
+        }
+        assertEquals(testBuilder().withChild(list.build()).build(), stream(YangInstanceIdentifier.EMPTY, TEST,
+            new DataTreeStreamOptions.Builder().addField(TestModel.OUTER_LIST_QNAME, ONE_QNAME).build()));
+    }
+
+    @Test
+    public void testPaging() throws IOException {
+        final Set<PathArgument> seen = new HashSet<>();
+        Optional<DataTreeStreamContinuation> continuation = Optional.absent();
+        int pages = 0;
+        do {
+            final NormalizedNodeResult result = new NormalizedNodeResult();
+            try (DataTreeSnapshotCursor cursor = ((CursorAwareDataTreeSnapshot) inMemoryDataTree.takeSnapshot())
+                    .createCursor(TestModel.TEST_PATH)) {
+                continuation = cursor.streamNode(OUTER_LIST, ImmutableNormalizedNodeStreamWriter.from(result),
+                    new DataTreeStreamOptions.Builder().setLimit(2).setContinuation(continuation.orNull()).build());
+            }
+
+            final MapNode page = (MapNode) result.getResult();
+            assertTrue(page.getValue().size() <= 2);
+            for (MapEntryNode entry : page.getValue()) {
+                assertTrue(seen.add(entry.getIdentifier()));
+            }
+            pages++;
+        } while (continuation.isPresent());
+
+        assertEquals(3, pages);
+        assertEquals(ENTRIES, seen.size());
+    }
+
+    @Test
+    public void testLargePaging() throws Exception {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> list = mapNodeBuilder(TestModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < 10000; ++i) {
+            list.withChild(mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, i).build());
+        }
+        final DataTreeModification mod = inMemoryDataTree.takeSnapshot().newModification();
+        mod.write(TestModel.OUTER_LIST_PATH, list.build());
+        mod.ready();
+        inMemoryDataTree.validate(mod);
+        inMemoryDataTree.commit(inMemoryDataTree.prepare(mod));
+
+        final MapNode expected = (MapNode) inMemoryDataTree.takeSnapshot().readNode(TestModel.OUTER_LIST_PATH).get();
+        final List<PathArgument> seen = new ArrayList<>();
+        Optional<DataTreeStreamContinuation> continuation = Optional.absent();
+        do {
+            final NormalizedNodeResult result = new NormalizedNodeResult();
+            try (DataTreeSnapshotCursor cursor = ((CursorAwareDataTreeSnapshot) inMemoryDataTree.takeSnapshot())
+                    .createCursor(TestModel.TEST_PATH)) {
+                continuation = cursor.streamNode(OUTER_LIST, ImmutableNormalizedNodeStreamWriter.from(result),
+                    new DataTreeStreamOptions.Builder().setLimit(100).setContinuation(continuation.orNull()).build());
+            }
+
+            final MapNode page = (MapNode) result.getResult();
+            assertTrue(page.getValue().size() <= 100);
+            for (MapEntryNode entry : page.getValue()) {
+                seen.add(entry.getIdentifier());
+            }
+        } while (continuation.isPresent());
+
+        final List<PathArgument> entries = new ArrayList<>();
+        for (MapEntryNode entry : expected.getValue()) {
+            entries.add(entry.getIdentifier());
+        }
+        assertEquals(entries, seen);
+    }
+
+    @Test
+    public void testPagingModifiedList() throws Exception {
+        final CursorAwareDataTreeSnapshot snapshot = (CursorAwareDataTreeSnapshot) inMemoryDataTree.takeSnapshot();
+        final NormalizedNodeResult first = new NormalizedNodeResult();
+        final Optional<DataTreeStreamContinuation> continuation;
+        try (DataTreeSnapshotCursor cursor = snapshot.createCursor(TestModel.TEST_PATH)) {
+            continuation = cursor.streamNode(OUTER_LIST, ImmutableNormalizedNodeStreamWriter.from(first),
+                new DataTreeStreamOptions.Builder().setLimit(2).build());
+        }
+        assertTrue(continuation.isPresent());
+
+        // Modify an entry which has not been emitted yet, the continuation has to locate its last entry again
+        final MapNode list = (MapNode) snapshot.readNode(TestModel.OUTER_LIST_PATH).get();
+        MapEntryNode modified = null;
+        for (MapEntryNode entry : list.getValue()) {
+            if (!((MapNode) first.getResult()).getChild(entry.getIdentifier()).isPresent()) {
+                modified = entry;
+                break;
+            }
+        }
+        final DataTreeModification mod = snapshot.newModification();
+        mod.write(TestModel.OUTER_LIST_PATH.node(modified.getIdentifier()), Builders.mapEntryBuilder()
+            .withNodeIdentifier(modified.getIdentifier())
+            .withChild(modified.getChild(new NodeIdentifier(TestModel.ID_QNAME)).get()).build());
+        mod.ready();
+        inMemoryDataTree.validate(mod);
+        inMemoryDataTree.commit(inMemoryDataTree.prepare(mod));
+
+        final NormalizedNodeResult second = new NormalizedNodeResult();
+        try (DataTreeSnapshotCursor cursor = ((CursorAwareDataTreeSnapshot) inMemoryDataTree.takeSnapshot())
+                .createCursor(TestModel.TEST_PATH)) {
+            cursor.streamNode(OUTER_LIST, ImmutableNormalizedNodeStreamWriter.from(second),
+                new DataTreeStreamOptions.Builder().setContinuation(continuation.get()).build());
+        }
+
+        final Set<PathArgument> seen = new HashSet<>();
+        for (MapEntryNode entry : ((MapNode) first.getResult()).getValue()) {
+            seen.add(entry.getIdentifier());
+        }
+        for (MapEntryNode entry : ((MapNode) second.getResult()).getValue()) {
+            assertTrue(seen.add(entry.getIdentifier()));
+        }
+        assertEquals(ENTRIES, seen.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidContinuation() throws IOException {
+        stream(TestModel.TEST_PATH, OUTER_LIST, new DataTreeStreamOptions.Builder().setContinuation(
+            DataTreeStreamContinuation.create(new NodeIdentifier(TestModel.TWO_QNAME))).build());
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.leafNode;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapEntryBuilder;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapNodeBuilder;
+
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.SharedSizeReport;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNodeFactory;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNodeSizeEstimator;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableContainerNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableMapNodeBuilder;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class InMemoryDataTreeMemoryAccountingTest {
+    private static final NodeIdentifier TEST = new NodeIdentifier(TestModel.TEST_QNAME);
+    private static final NodeIdentifier OUTER_LIST = new NodeIdentifier(TestModel.OUTER_LIST_QNAME);
+
+    private static MapEntryNode createEntry(final int id, final String value) {
+        return mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, id)
+                .withChild(mapNodeBuilder(TestModel.INNER_LIST_QNAME)
+                    .withChild(mapEntryBuilder(TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, "name-" + id)
+                        .withChild(leafNode(TestModel.VALUE_QNAME, value)).build())
+                    .build())
+                .build();
+    }
+
+    private static ContainerNode createTest(final int entries) {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> list = mapNodeBuilder(TestModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < entries; ++i) {
+            list.withChild(createEntry(i, "value-" + i));
+        }
+        return Builders.containerBuilder().withNodeIdentifier(TEST).withChild(list.build()).build();
+    }
+
+    @Test
+    public void testEstimate() {
+        final TreeNodeSizeEstimator estimator = TreeNodeSizeEstimator.create();
+        final long small = estimator.estimate(createTest(10));
+        final long large = estimator.estimate(createTest(20));
+        assertTrue(small > 0);
+        assertTrue(large > small);
+        assertTrue(estimator.estimate(createEntry(1, "a much longer value")) > estimator.estimate(createEntry(1, "a")));
+
+        final ContainerNode data = createTest(10);
+        assertEquals(estimator.estimate(data), TreeNodeSizeEstimator.createCaching().estimate(data));
+        assertEquals(estimator.estimate(data), estimator.estimate(TreeNodeFactory.createTreeNode(data,
+            Version.initial())));
+    }
+
+    @Test
+    public void testCompare() {
+        final TreeNodeSizeEstimator estimator = TreeNodeSizeEstimator.createCaching();
+        final ContainerNode first = createTest(10);
+        final MapNode list = (MapNode) first.getChild(OUTER_LIST).get();
+        final ContainerNode second = ImmutableContainerNodeBuilder.create(first)
+                .withChild(ImmutableMapNodeBuilder.create(list).withChild(createEntry(3, "modified")).build())
+                .build();
+        final TreeNode firstNode = TreeNodeFactory.createTreeNode(first, Version.initial());
+        final TreeNode secondNode = TreeNodeFactory.createTreeNode(second, Version.initial());
+
+        final SharedSizeReport same = estimator.compare(firstNode, firstNode);
+        assertEquals(estimator.estimate(first), same.getShared());
+        assertEquals(0, same.getFirstExclusive());
+        assertEquals(0, same.getSecondExclusive());
+
+        // Only the path to the replaced entry is not shared
+        final SharedSizeReport report = estimator.compare(firstNode, secondNode);
+        assertEquals(estimator.estimate(first), report.getShared() + report.getFirstExclusive());
+        assertEquals(estimator.estimate(second), report.getShared() + report.getSecondExclusive());
+        assertTrue(report.getFirstExclusive() < report.getShared());
+        assertTrue(report.getFirstExclusive() > estimator.estimate(list.getChild(
+            createEntry(3, "").getIdentifier()).get()));
+    }
+
+    @Test
+    public void testPinned() throws ReactorException, DataValidationFailedException {
+        final InMemoryDataTree inMemoryDataTree = (InMemoryDataTree) InMemoryDataTreeFactory.getInstance().create(
+            TreeType.OPERATIONAL);
+        inMemoryDataTree.setSchemaContext(TestModel.createTestContext());
+        final InMemoryDataTreeMemoryAccounting accounting = InMemoryDataTreeMemoryAccounting.create();
+
+        DataTreeModification mod = inMemoryDataTree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, createTest(10));
+        final long written = TreeNodeSizeEstimator.create().estimate(createTest(10));
+        assertTrue(accounting.estimatePinned(mod, inMemoryDataTree) >= written);
+        mod.ready();
+        inMemoryDataTree.validate(mod);
+        inMemoryDataTree.commit(inMemoryDataTree.prepare(mod));
+
+        final DataTreeSnapshot snapshot = inMemoryDataTree.takeSnapshot();
+        assertEquals(0, accounting.estimatePinned(snapshot, inMemoryDataTree));
+        assertTrue(accounting.estimate(snapshot, TestModel.OUTER_LIST_PATH) > 0);
+        assertEquals(0, accounting.estimate(snapshot, YangInstanceIdentifier.of(TestModel.TWO_QNAME)));
+
+        mod = inMemoryDataTree.takeSnapshot().newModification();
+        mod.delete(TestModel.OUTER_LIST_PATH);
+        mod.ready();
+        inMemoryDataTree.validate(mod);
+        inMemoryDataTree.commit(inMemoryDataTree.prepare(mod));
+
+        // The old snapshot is the only one holding the list
+        assertTrue(accounting.estimatePinned(snapshot, inMemoryDataTree)
+            >= accounting.estimate(snapshot, TestModel.OUTER_LIST_PATH));
+        assertTrue(accounting.estimate(snapshot) > accounting.estimate(inMemoryDataTree.takeSnapshot()));
+    }
+}
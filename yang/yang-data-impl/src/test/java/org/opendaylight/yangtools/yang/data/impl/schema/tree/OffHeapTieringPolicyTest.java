@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapEntry;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapEntryBuilder;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapNodeBuilder;
+
+import com.google.common.base.Optional;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.MutableTreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.OffHeapArena;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.OffHeapNodeCodec;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNodeFactory;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableMapNodeBuilder;
+
+public class OffHeapTieringPolicyTest {
+    /**
+     * A codec which keeps the nodes and identifiers in a list and encodes their index.
+     */
+    private static final class IndexCodec implements OffHeapNodeCodec {
+        private final List<Object> objects = new ArrayList<>();
+        int nodes;
+        int decoded;
+
+        private byte[] encodeObject(final Object obj) {
+            objects.add(obj);
+            return ByteBuffer.allocate(4).putInt(objects.size() - 1).array();
+        }
+
+        @Override
+        public byte[] encode(final NormalizedNode<?, ?> data) {
+            nodes++;
+            return encodeObject(data);
+        }
+
+        @Override
+        public NormalizedNode<?, ?> decode(final ByteBuffer buffer) {
+            decoded++;
+            return (NormalizedNode<?, ?>) objects.get(buffer.getInt());
+        }
+
+        @Override
+        public byte[] encodeIdentifier(final PathArgument identifier) {
+            return encodeObject(identifier);
+        }
+
+        @Override
+        public PathArgument decodeIdentifier(final ByteBuffer buffer) {
+            return (PathArgument) objects.get(buffer.getInt());
+        }
+    }
+
+    private static final NodeIdentifier OUTER_LIST = new NodeIdentifier(TestModel.OUTER_LIST_QNAME);
+    private static final NodeIdentifier NAME = new NodeIdentifier(TestModel.NAME_QNAME);
+
+    private final IndexCodec codec = new IndexCodec();
+    private final OffHeapArena arena = OffHeapArena.create(4096, 1 << 20);
+
+    private static MapNode outerList(final int count) {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> builder = mapNodeBuilder(TestModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < count; ++i) {
+            builder.withChild(mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, i)
+                .withChild(ImmutableNodes.leafNode(TestModel.NAME_QNAME, "name-" + i)).build());
+        }
+        return builder.build();
+    }
+
+    /*
+     * Create a root with an outer list, with a leaf added at a later version.
+     */
+    private static TreeNode createRoot(final Version created, final Version modified) {
+        final ContainerNode original = Builders.containerBuilder().withNodeIdentifier(
+            new NodeIdentifier(TestModel.TEST_QNAME)).withChild(outerList(3)).build();
+        final MutableTreeNode mutable = TreeNodeFactory.createTreeNodeRecursively(original, created).mutable();
+        mutable.setSubtreeVersion(modified);
+        mutable.addChild(TreeNodeFactory.createTreeNode(ImmutableNodes.leafNode(TestModel.NAME_QNAME, "foo"),
+            modified));
+        mutable.setData(Builders.containerBuilder(original)
+            .withChild(ImmutableNodes.leafNode(TestModel.NAME_QNAME, "foo")).build());
+        return mutable.seal();
+    }
+
+    @Test
+    public void testTierColdSubtree() throws Exception {
+        final Version v1 = Version.initial().next();
+        final Version v5 = v1.next();
+        final TreeNode root = createRoot(v1, v5);
+
+        // The first pass only records the list as seen
+        final OffHeapTieringPolicy policy = OffHeapTieringPolicy.create(codec, arena, 2, 4);
+        final OffHeapTieringPolicy.Pass first = policy.new Pass(1, new HashMap<>());
+        assertSame(root, first.tier(root));
+        assertEquals(0, first.count);
+
+        final OffHeapTieringPolicy.Pass pass = policy.new Pass(3, new HashMap<>());
+        final TreeNode tiered = pass.tier(root);
+        assertEquals(1, pass.count);
+        assertSame(v1, tiered.getVersion());
+        assertSame(v5, tiered.getSubtreeVersion());
+        assertEquals(root.getData(), tiered.getData());
+        assertEquals(tiered.getData(), root.getData());
+
+        final TreeNode list = tiered.getChild(OUTER_LIST).get();
+        assertTrue(TreeNodeFactory.isOffHeap(list));
+        assertTrue(list.getData() instanceof MapNode);
+        assertSame(v1, list.getVersion());
+        assertEquals(OUTER_LIST, list.getIdentifier());
+        assertEquals(outerList(3), list.getData());
+        assertEquals(list.getData(), outerList(3));
+        assertEquals(outerList(3).hashCode(), list.getData().hashCode());
+        assertFalse(list.getData().equals(outerList(2)));
+        assertFalse(outerList(2).equals(list.getData()));
+        assertFalse(TreeNodeFactory.isOffHeap(tiered.getChild(NAME).get()));
+
+        // Only the requested entry is decoded
+        final NodeIdentifierWithPredicates entryId = new NodeIdentifierWithPredicates(TestModel.OUTER_LIST_QNAME,
+            TestModel.ID_QNAME, 1);
+        codec.decoded = 0;
+        final Optional<TreeNode> entry = list.getChild(entryId);
+        assertTrue(entry.isPresent());
+        assertSame(v1, entry.get().getVersion());
+        assertEquals(1, codec.decoded);
+        assertFalse(list.getChild(new NodeIdentifierWithPredicates(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME,
+            5)).isPresent());
+
+        // Modifying the list brings it back on-heap, as modifications rebuild the data through immutable builders
+        final MutableTreeNode mutable = list.mutable();
+        mutable.setSubtreeVersion(v5);
+        mutable.setData(ImmutableMapNodeBuilder.create((MapNode) list.getData()).build());
+        final TreeNode sealed = mutable.seal();
+        assertFalse(TreeNodeFactory.isOffHeap(sealed));
+        assertEquals(outerList(3), sealed.getData());
+
+        // Nothing else to do
+        assertSame(tiered, policy.new Pass(3, new HashMap<>()).tier(tiered));
+    }
+
+    @Test
+    public void testSkipHotAndSmallSubtrees() throws Exception {
+        final Version v1 = Version.initial().next();
+        final TreeNode root = createRoot(v1, v1.next());
+
+        // Not idle long enough
+        final OffHeapTieringPolicy hot = OffHeapTieringPolicy.create(codec, arena, 5, 4);
+        assertSame(root, hot.new Pass(1, new HashMap<>()).tier(root));
+        assertSame(root, hot.new Pass(3, new HashMap<>()).tier(root));
+        // Not large enough
+        final OffHeapTieringPolicy small = OffHeapTieringPolicy.create(codec, arena, 2, 100);
+        assertSame(root, small.new Pass(1, new HashMap<>()).tier(root));
+        assertSame(root, small.new Pass(3, new HashMap<>()).tier(root));
+        assertEquals(0, codec.nodes);
+    }
+
+    @Test
+    public void testArenaExhausted() throws Exception {
+        final TreeNode node = TreeNodeFactory.createTreeNode(outerList(100), Version.initial());
+        final OffHeapArena small = OffHeapArena.create(64, 64);
+        assertSame(node, TreeNodeFactory.createOffHeapTreeNode(node, codec, small));
+        assertEquals(0, small.getAllocatedSize());
+
+        final TreeNode moved = TreeNodeFactory.createOffHeapTreeNode(node, codec, arena);
+        assertTrue(TreeNodeFactory.isOffHeap(moved));
+        assertEquals(4096, arena.getAllocatedSize());
+        assertTrue(arena.getUsedSize() > 0);
+        assertSame(moved, TreeNodeFactory.createOffHeapTreeNode(moved, codec, arena));
+    }
+
+    @Test
+    public void testUnsupportedNode() throws Exception {
+        final TreeNode node = TreeNodeFactory.createTreeNode(ImmutableNodes.leafNode(TestModel.NAME_QNAME, "foo"),
+            Version.initial());
+        assertSame(node, TreeNodeFactory.createOffHeapTreeNode(node, codec, arena));
+        assertEquals(0, arena.getAllocatedSize());
+    }
+
+    @Test
+    public void testHasAtLeast() {
+        final MapNode list = outerList(3);
+        // A map, three entries, their keys and names
+        assertTrue(OffHeapTieringPolicy.hasAtLeast(list, 10));
+        assertFalse(OffHeapTieringPolicy.hasAtLeast(list, 11));
+        assertTrue(OffHeapTieringPolicy.hasAtLeast(ImmutableNodes.leafNode(TestModel.NAME_QNAME, "foo"), 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testModifiedNodeCannotMove() throws Exception {
+        final Version v1 = Version.initial().next();
+        TreeNodeFactory.createOffHeapTreeNode(createRoot(v1, v1.next()), codec, arena);
+    }
+
+    private static DataTreeCandidate prepare(final InMemoryDataTree inMemoryDataTree,
+            final DataTreeModification modification) throws DataValidationFailedException {
+        modification.ready();
+        inMemoryDataTree.validate(modification);
+        return inMemoryDataTree.prepare(modification);
+    }
+
+    @Test
+    public void testApply() throws Exception {
+        final InMemoryDataTree inMemoryDataTree = (InMemoryDataTree) InMemoryDataTreeFactory.getInstance().create(
+            TreeType.OPERATIONAL);
+        inMemoryDataTree.setSchemaContext(TestModel.createTestContext());
+
+        DataTreeModification mod = inMemoryDataTree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, ImmutableNodes.containerNode(TestModel.TEST_QNAME));
+        mod.write(TestModel.OUTER_LIST_PATH, outerList(10));
+        inMemoryDataTree.commit(prepare(inMemoryDataTree, mod));
+
+        // Nothing has been seen before
+        final OffHeapTieringPolicy policy = OffHeapTieringPolicy.create(codec, arena, 2, 3);
+        assertEquals(0, policy.apply(inMemoryDataTree));
+
+        for (int i = 0; i < 3; ++i) {
+            mod = inMemoryDataTree.takeSnapshot().newModification();
+            mod.write(TestModel.OUTER_LIST_PATH.node(new NodeIdentifierWithPredicates(TestModel.OUTER_LIST_QNAME,
+                TestModel.ID_QNAME, 100 + i)), mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 100 + i));
+            inMemoryDataTree.commit(prepare(inMemoryDataTree, mod));
+        }
+
+        final NormalizedNode<?, ?> before = inMemoryDataTree.takeSnapshot().readNode(TestModel.TEST_PATH).get();
+
+        // A candidate prepared before tiering can still be committed
+        mod = inMemoryDataTree.takeSnapshot().newModification();
+        mod.delete(TestModel.OUTER_LIST_PATH.node(new NodeIdentifierWithPredicates(TestModel.OUTER_LIST_QNAME,
+            TestModel.ID_QNAME, 0)));
+        final DataTreeCandidate candidate = prepare(inMemoryDataTree, mod);
+
+        // Entries 0-9 have been written by the first commit, entry 100 is too small
+        assertEquals(10, policy.apply(inMemoryDataTree));
+        assertEquals(before, inMemoryDataTree.takeSnapshot().readNode(TestModel.TEST_PATH).get());
+        assertEquals(0, policy.apply(inMemoryDataTree));
+
+        inMemoryDataTree.commit(candidate);
+        assertFalse(inMemoryDataTree.takeSnapshot().readNode(TestModel.OUTER_LIST_PATH.node(
+            new NodeIdentifierWithPredicates(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 0))).isPresent());
+        assertTrue(inMemoryDataTree.takeSnapshot().readNode(TestModel.OUTER_LIST_PATH.node(
+            new NodeIdentifierWithPredicates(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, 1))).isPresent());
+    }
+}
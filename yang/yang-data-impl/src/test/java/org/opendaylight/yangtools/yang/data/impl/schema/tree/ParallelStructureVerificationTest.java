@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.leafNode;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapEntryBuilder;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapNodeBuilder;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeConfiguration;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class ParallelStructureVerificationTest {
+    private static final QName UNKNOWN_QNAME = QName.create(TestModel.TEST_QNAME, "unknown");
+    private static final int ENTRIES = 1000;
+
+    private InMemoryDataTree inMemoryDataTree;
+
+    @Before
+    public void prepare() throws ReactorException {
+        inMemoryDataTree = (InMemoryDataTree) InMemoryDataTreeFactory.getInstance().create(
+            new DataTreeConfiguration.Builder(TreeType.CONFIGURATION).setParallelVerificationThreshold(16).build());
+        inMemoryDataTree.setSchemaContext(TestModel.createTestContext());
+    }
+
+    private static ContainerNode createTest(final int invalidEntry) {
+        final CollectionNodeBuilder<MapEntryNode, MapNode> list = mapNodeBuilder(TestModel.OUTER_LIST_QNAME);
+        for (int i = 0; i < ENTRIES; ++i) {
+            final CollectionNodeBuilder<MapEntryNode, MapNode> inner = mapNodeBuilder(TestModel.INNER_LIST_QNAME);
+            for (int j = 0; j < 20; ++j) {
+                inner.withChild(mapEntryBuilder(TestModel.INNER_LIST_QNAME, TestModel.NAME_QNAME, "name-" + j)
+                    .withChild(leafNode(i == invalidEntry ? UNKNOWN_QNAME : TestModel.VALUE_QNAME, "value-" + j))
+                    .build());
+            }
+            list.withChild(mapEntryBuilder(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, i)
+                .withChild(inner.build()).build());
+        }
+
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME))
+                .withChild(list.build()).build();
+    }
+
+    @Test
+    public void testLargeWrite() throws DataValidationFailedException {
+        final ContainerNode data = createTest(-1);
+        final DataTreeModification mod = inMemoryDataTree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, data);
+        mod.ready();
+        inMemoryDataTree.validate(mod);
+        inMemoryDataTree.commit(inMemoryDataTree.prepare(mod));
+
+        assertEquals(data, inMemoryDataTree.takeSnapshot().readNode(TestModel.TEST_PATH).get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidEntry() {
+        final DataTreeModification mod = inMemoryDataTree.takeSnapshot().newModification();
+        mod.write(TestModel.TEST_PATH, createTest(ENTRIES - 10));
+        mod.ready();
+    }
+
+    @Test
+    public void testConfiguration() {
+        assertEquals(0, DataTreeConfiguration.getDefault(TreeType.CONFIGURATION).getParallelVerificationThreshold());
+        assertEquals(100, new DataTreeConfiguration.Builder(TreeType.OPERATIONAL).setParallelVerificationThreshold(100)
+            .build().getParallelVerificationThreshold());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeThreshold() {
+        new DataTreeConfiguration.Builder(TreeType.CONFIGURATION).setParallelVerificationThreshold(-1);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapEntry;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.mapNodeBuilder;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.SequencedDataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class SequencedDataTreeSnapshotTest {
+    private static final Short ONE_ID = 1;
+    private static final Short TWO_ID = 2;
+
+    private static final YangInstanceIdentifier OUTER_LIST_1_PATH = YangInstanceIdentifier.builder(
+        TestModel.OUTER_LIST_PATH).nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, ONE_ID).build();
+    private static final YangInstanceIdentifier OUTER_LIST_2_PATH = YangInstanceIdentifier.builder(
+        TestModel.OUTER_LIST_PATH).nodeWithKey(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, TWO_ID).build();
+
+    private InMemoryDataTree inMemoryDataTree;
+
+    @Before
+    public void prepare() throws ReactorException {
+        inMemoryDataTree = (InMemoryDataTree) InMemoryDataTreeFactory.getInstance().create(TreeType.OPERATIONAL);
+        inMemoryDataTree.setSchemaContext(TestModel.createTestContext());
+    }
+
+    private DataTreeModification newModification() {
+        return inMemoryDataTree.takeSnapshot().newModification();
+    }
+
+    private void commit(final DataTreeModification modification) throws DataValidationFailedException {
+        modification.ready();
+        inMemoryDataTree.validate(modification);
+        inMemoryDataTree.commit(inMemoryDataTree.prepare(modification));
+    }
+
+    @Test
+    public void testSequence() throws DataValidationFailedException {
+        assertEquals(0, inMemoryDataTree.takeSnapshot().getSequence());
+
+        final DataTreeModification mod = newModification();
+        mod.write(TestModel.TEST_PATH, Builders.containerBuilder()
+            .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build()).build());
+        commit(mod);
+        assertEquals(1, inMemoryDataTree.takeSnapshot().getSequence());
+
+        // Modifications created before the previous commit still receive a higher sequence
+        final DataTreeModification first = newModification();
+        final DataTreeModification second = newModification();
+        second.write(OUTER_LIST_2_PATH, mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, TWO_ID));
+        commit(second);
+        first.write(OUTER_LIST_1_PATH, mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, ONE_ID));
+        commit(first);
+        assertEquals(3, inMemoryDataTree.takeSnapshot().getSequence());
+
+        final Map<YangInstanceIdentifier, NormalizedNode<?, ?>> changed =
+                inMemoryDataTree.takeSnapshot().readChangedSince(2);
+        assertEquals(1, changed.size());
+        assertEquals(mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, ONE_ID),
+            changed.get(OUTER_LIST_1_PATH));
+    }
+
+    @Test
+    public void testReadChangedSince() throws DataValidationFailedException {
+        final DataTreeModification initial = newModification();
+        initial.write(TestModel.TEST_PATH, Builders.containerBuilder()
+            .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(mapNodeBuilder(TestModel.OUTER_LIST_QNAME)
+                .withChild(mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, ONE_ID)).build()).build());
+        commit(initial);
+        final long sequence = inMemoryDataTree.takeSnapshot().getSequence();
+
+        assertTrue(inMemoryDataTree.takeSnapshot().readChangedSince(sequence).isEmpty());
+        assertEquals(ImmutableList.of(TestModel.TEST_PATH),
+            ImmutableList.copyOf(inMemoryDataTree.takeSnapshot().readChangedSince(0).keySet()));
+
+        final DataTreeModification mod = newModification();
+        mod.write(OUTER_LIST_2_PATH, mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, TWO_ID));
+        commit(mod);
+        assertEquals(ImmutableList.of(OUTER_LIST_2_PATH),
+            ImmutableList.copyOf(inMemoryDataTree.takeSnapshot().readChangedSince(sequence).keySet()));
+
+        // A removal is reported through the parent
+        final DataTreeModification delete = newModification();
+        delete.delete(OUTER_LIST_1_PATH);
+        commit(delete);
+        assertEquals(ImmutableList.of(TestModel.OUTER_LIST_PATH), ImmutableList.copyOf(
+            inMemoryDataTree.takeSnapshot().readChangedSince(sequence + 1).keySet()));
+    }
+
+    @Test
+    public void testManyModifiedChildren() throws DataValidationFailedException {
+        final DataTreeModification initial = newModification();
+        initial.write(TestModel.TEST_PATH, Builders.containerBuilder()
+            .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build()).build());
+        commit(initial);
+        final long sequence = inMemoryDataTree.takeSnapshot().getSequence();
+
+        final DataTreeModification mod = newModification();
+        for (int i = 0; i < 100; ++i) {
+            mod.write(YangInstanceIdentifier.builder(TestModel.OUTER_LIST_PATH).nodeWithKey(
+                TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, i).build(),
+                mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, i));
+        }
+        commit(mod);
+
+        // Too many entries have been modified, the list is reported as a whole
+        assertEquals(ImmutableList.of(TestModel.OUTER_LIST_PATH),
+            ImmutableList.copyOf(inMemoryDataTree.takeSnapshot().readChangedSince(sequence).keySet()));
+    }
+
+    @Test
+    public void testHistoryLimit() throws DataValidationFailedException {
+        final DataTreeModification initial = newModification();
+        initial.write(TestModel.TEST_PATH, Builders.containerBuilder()
+            .withNodeIdentifier(new YangInstanceIdentifier.NodeIdentifier(TestModel.TEST_QNAME))
+            .withChild(mapNodeBuilder(TestModel.OUTER_LIST_QNAME).build()).build());
+        commit(initial);
+
+        final int commits = 2 * ChangeHistory.RETAINED_COMMITS;
+        for (int i = 0; i < commits; ++i) {
+            final DataTreeModification mod = newModification();
+            mod.write(OUTER_LIST_1_PATH, mapEntry(TestModel.OUTER_LIST_QNAME, TestModel.ID_QNAME, ONE_ID));
+            commit(mod);
+        }
+
+        final SequencedDataTreeSnapshot snapshot = inMemoryDataTree.takeSnapshot();
+        assertEquals(commits + 1, snapshot.getSequence());
+        assertEquals(ImmutableList.of(OUTER_LIST_1_PATH),
+            ImmutableList.copyOf(snapshot.readChangedSince(commits).keySet()));
+        // The first commit is no longer known, hence everything is reported
+        assertEquals(ImmutableList.of(YangInstanceIdentifier.EMPTY),
+            ImmutableList.copyOf(snapshot.readChangedSince(0).keySet()));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.annotations.Beta;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.OffHeapNodeCodec;
+
+/**
+ * An {@link OffHeapNodeCodec} using the same binary encoding as the journal, which is compact and does not require
+ * a SchemaContext.
+ */
+@Beta
+public final class BinaryOffHeapNodeCodec implements OffHeapNodeCodec {
+    private static final BinaryOffHeapNodeCodec INSTANCE = new BinaryOffHeapNodeCodec();
+
+    private BinaryOffHeapNodeCodec() {
+        // Hidden on purpose
+    }
+
+    public static BinaryOffHeapNodeCodec getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public byte[] encode(@Nonnull final NormalizedNode<?, ?> data) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bos)) {
+            new NormalizedNodeDataOutput(output).writeNormalizedNode(data);
+        }
+        return bos.toByteArray();
+    }
+
+    @Override
+    public NormalizedNode<?, ?> decode(@Nonnull final ByteBuffer buffer) throws IOException {
+        return new NormalizedNodeDataInput(new DataInputStream(new ByteBufferInputStream(buffer))).readNormalizedNode();
+    }
+
+    @Override
+    public byte[] encodeIdentifier(@Nonnull final PathArgument identifier) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bos)) {
+            new NormalizedNodeDataOutput(output).writePathArgument(identifier);
+        }
+        return bos.toByteArray();
+    }
+
+    @Override
+    public PathArgument decodeIdentifier(@Nonnull final ByteBuffer buffer) throws IOException {
+        return new NormalizedNodeDataInput(new DataInputStream(new ByteBufferInputStream(buffer))).readPathArgument();
+    }
+
+    @Override
+    public String toString() {
+        return BinaryOffHeapNodeCodec.class.getSimpleName();
+    }
+
+    /**
+     * An InputStream reading from a ByteBuffer, so direct buffers do not need to be copied to the heap as a whole.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            final int ret = Math.min(len, buffer.remaining());
+            buffer.get(b, off, ret);
+            return ret;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
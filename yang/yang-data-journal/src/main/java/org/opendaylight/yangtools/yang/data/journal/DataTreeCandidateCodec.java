@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+
+/**
+ * Binary encoding of {@link DataTreeCandidate}s. Only the information needed to replay a candidate is retained:
+ * modified nodes, their modification type and the data written to them. Before-images are not stored.
+ */
+final class DataTreeCandidateCodec {
+    private static final byte DELETE = 1;
+    private static final byte SUBTREE_MODIFIED = 2;
+    private static final byte UNMODIFIED = 3;
+    private static final byte WRITE = 4;
+
+    private DataTreeCandidateCodec() {
+        throw new UnsupportedOperationException();
+    }
+
+    static void writeCandidate(final DataOutput output, final DataTreeCandidate candidate) throws IOException {
+        final NormalizedNodeDataOutput writer = new NormalizedNodeDataOutput(output);
+        final YangInstanceIdentifier rootPath = candidate.getRootPath();
+        writer.writeYangInstanceIdentifier(rootPath);
+
+        final DataTreeCandidateNode root = candidate.getRootNode();
+        if (rootPath.isEmpty()) {
+            // The data tree root cannot be written or deleted, only its children
+            switch (root.getModificationType()) {
+            case UNMODIFIED:
+                output.writeByte(UNMODIFIED);
+                break;
+            case APPEARED:
+            case SUBTREE_MODIFIED:
+            case WRITE:
+                output.writeByte(SUBTREE_MODIFIED);
+                writeChildren(writer, output, root);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported root modification " + root.getModificationType());
+            }
+        } else {
+            writeNode(writer, output, root);
+        }
+    }
+
+    static DataTreeCandidate readCandidate(final DataInput input) throws IOException {
+        final NormalizedNodeDataInput reader = new NormalizedNodeDataInput(input);
+        final YangInstanceIdentifier rootPath = reader.readYangInstanceIdentifier();
+        final PathArgument rootId = rootPath.isEmpty() ? null : rootPath.getLastPathArgument();
+        return DataTreeCandidates.newDataTreeCandidate(rootPath, readNode(reader, input, rootId));
+    }
+
+    private static void writeNode(final NormalizedNodeDataOutput writer, final DataOutput output,
+            final DataTreeCandidateNode node) throws IOException {
+        switch (node.getModificationType()) {
+        case DELETE:
+        case DISAPPEARED:
+            output.writeByte(DELETE);
+            break;
+        case APPEARED:
+        case WRITE:
+            output.writeByte(WRITE);
+            writer.writeNormalizedNode(node.getDataAfter().get());
+            break;
+        case SUBTREE_MODIFIED:
+            output.writeByte(SUBTREE_MODIFIED);
+            writeChildren(writer, output, node);
+            break;
+        case UNMODIFIED:
+            output.writeByte(UNMODIFIED);
+            break;
+        default:
+            throw new IllegalArgumentException("Unsupported modification " + node.getModificationType());
+        }
+    }
+
+    private static void writeChildren(final NormalizedNodeDataOutput writer, final DataOutput output,
+            final DataTreeCandidateNode node) throws IOException {
+        final Collection<DataTreeCandidateNode> children = node.getChildNodes();
+        output.writeInt(children.size());
+        for (DataTreeCandidateNode child : children) {
+            writer.writePathArgument(child.getIdentifier());
+            writeNode(writer, output, child);
+        }
+    }
+
+    private static DataTreeCandidateNode readNode(final NormalizedNodeDataInput reader, final DataInput input,
+            final PathArgument identifier) throws IOException {
+        final byte type = input.readByte();
+        switch (type) {
+        case DELETE:
+            return new JournalCandidateNode(identifier, ModificationType.DELETE, null, Collections.emptyMap());
+        case UNMODIFIED:
+            return new JournalCandidateNode(identifier, ModificationType.UNMODIFIED, null, Collections.emptyMap());
+        case WRITE:
+            return new JournalCandidateNode(identifier, ModificationType.WRITE, reader.readNormalizedNode(),
+                Collections.emptyMap());
+        case SUBTREE_MODIFIED:
+            final int size = input.readInt();
+            final Map<PathArgument, DataTreeCandidateNode> children = new LinkedHashMap<>(size);
+            for (int i = 0; i < size; ++i) {
+                final PathArgument childId = reader.readPathArgument();
+                children.put(childId, readNode(reader, input, childId));
+            }
+            return new JournalCandidateNode(identifier, ModificationType.SUBTREE_MODIFIED, null, children);
+        default:
+            throw new IOException("Unknown modification type " + type);
+        }
+    }
+
+    /**
+     * A candidate node reconstructed from the journal. It does not carry before-image data.
+     */
+    private static final class JournalCandidateNode implements DataTreeCandidateNode {
+        private final Map<PathArgument, DataTreeCandidateNode> children;
+        private final NormalizedNode<?, ?> dataAfter;
+        private final PathArgument identifier;
+        private final ModificationType type;
+
+        JournalCandidateNode(final PathArgument identifier, final ModificationType type,
+                final NormalizedNode<?, ?> dataAfter, final Map<PathArgument, DataTreeCandidateNode> children) {
+            this.identifier = identifier;
+            this.type = Preconditions.checkNotNull(type);
+            this.dataAfter = dataAfter;
+            this.children = Preconditions.checkNotNull(children);
+        }
+
+        @Override
+        @Nonnull
+        public PathArgument getIdentifier() {
+            Preconditions.checkState(identifier != null, "Attempted to get identifier of the root node");
+            return identifier;
+        }
+
+        @Override
+        @Nonnull
+        public Collection<DataTreeCandidateNode> getChildNodes() {
+            return children.values();
+        }
+
+        @Override
+        public DataTreeCandidateNode getModifiedChild(final PathArgument childIdentifier) {
+            return children.get(childIdentifier);
+        }
+
+        @Override
+        @Nonnull
+        public ModificationType getModificationType() {
+            return type;
+        }
+
+        @Override
+        @Nonnull
+        public Optional<NormalizedNode<?, ?>> getDataAfter() {
+            return Optional.fromNullable(dataAfter);
+        }
+
+        @Override
+        @Nonnull
+        public Optional<NormalizedNode<?, ?>> getDataBefore() {
+            return Optional.absent();
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + "{identifier = " + identifier + ", type = " + type
+                    + ", children = " + children.values() + "}";
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.concepts.Immutable;
+
+/**
+ * {@link JournaledDataTree} configuration class. It supports the following options:
+ * <ul>
+ * <li>size of journal segment files</li>
+ * <li>number of commits after which the journal is forced to disk</li>
+ * <li>maximum time a commit can remain in the journal without being forced to disk</li>
+ * <li>number of commits after which a snapshot of the data tree is taken and the journal is trimmed</li>
+ * </ul>
+ *
+ * Commits which have not been forced to disk may be lost on a system crash. Setting the sync batch size to 1 makes
+ * each commit durable before it is applied to the data tree, at the cost of a disk flush per commit.
+ */
+@Beta
+public final class JournalConfiguration implements Immutable {
+    public static final JournalConfiguration DEFAULT_CONFIGURATION = new Builder().build();
+
+    private final int segmentSize;
+    private final int syncBatchSize;
+    private final long syncIntervalNanos;
+    private final int snapshotInterval;
+
+    private JournalConfiguration(final int segmentSize, final int syncBatchSize, final long syncIntervalNanos,
+            final int snapshotInterval) {
+        this.segmentSize = segmentSize;
+        this.syncBatchSize = syncBatchSize;
+        this.syncIntervalNanos = syncIntervalNanos;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public int getSyncBatchSize() {
+        return syncBatchSize;
+    }
+
+    public long getSyncInterval(final TimeUnit unit) {
+        return unit.convert(syncIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public int getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    public static class Builder {
+        private int segmentSize = 64 * 1024 * 1024;
+        private int syncBatchSize = 64;
+        private long syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(100);
+        private int snapshotInterval = 10000;
+
+        /**
+         * Set the size of journal segment files.
+         *
+         * @param segmentSize Size in bytes
+         * @return This builder
+         */
+        public Builder setSegmentSize(final int segmentSize) {
+            Preconditions.checkArgument(segmentSize >= 4096, "Segment size %s is too small", segmentSize);
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /**
+         * Set the number of commits after which the journal is forced to disk.
+         *
+         * @param syncBatchSize Number of commits, 1 forces the journal on every commit
+         * @return This builder
+         */
+        public Builder setSyncBatchSize(final int syncBatchSize) {
+            Preconditions.checkArgument(syncBatchSize > 0, "Invalid sync batch size %s", syncBatchSize);
+            this.syncBatchSize = syncBatchSize;
+            return this;
+        }
+
+        /**
+         * Set the interval at which the journal is forced to disk in background.
+         *
+         * @param interval Interval, 0 disables background syncing
+         * @param unit Interval unit
+         * @return This builder
+         */
+        public Builder setSyncInterval(final long interval, final TimeUnit unit) {
+            Preconditions.checkArgument(interval >= 0, "Invalid sync interval %s", interval);
+            this.syncIntervalNanos = unit.toNanos(interval);
+            return this;
+        }
+
+        /**
+         * Set the number of commits after which a snapshot is taken.
+         *
+         * @param snapshotInterval Number of commits, 0 disables automatic snapshots
+         * @return This builder
+         */
+        public Builder setSnapshotInterval(final int snapshotInterval) {
+            Preconditions.checkArgument(snapshotInterval >= 0, "Invalid snapshot interval %s", snapshotInterval);
+            this.snapshotInterval = snapshotInterval;
+            return this;
+        }
+
+        public JournalConfiguration build() {
+            return new JournalConfiguration(segmentSize, syncBatchSize, syncIntervalNanos, snapshotInterval);
+        }
+    }
+}
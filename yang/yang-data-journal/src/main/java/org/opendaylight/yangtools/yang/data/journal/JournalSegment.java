@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.base.Preconditions;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single file of a {@link SegmentedJournal}. The file is preallocated to its full size and memory-mapped, records
+ * are appended sequentially. Each record is laid out as:
+ * <pre>
+ *   int    length of payload
+ *   int    CRC32 of sequence and payload
+ *   long   sequence
+ *   byte[] payload
+ * </pre>
+ * A zero length marks the end of the segment. Records are written length-last, after the terminating zero length
+ * following them, so that a partially-written record is not visible to a reader and stale records left behind by a
+ * recovery are never mistaken for successors of a new record. Records which fail the CRC check when the segment is opened are considered torn writes
+ * and are discarded along with everything that follows them.
+ *
+ * <p>The mapping is released as soon as the segment is closed, rather than when the buffer is garbage-collected,
+ * so that removed segments do not keep occupying disk space and address space. A closed segment must not be used.
+ */
+final class JournalSegment implements AutoCloseable {
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(long sequence, DataInputStream payload) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Unmapper {
+        void unmap(MappedByteBuffer buffer) throws ReflectiveOperationException;
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(JournalSegment.class);
+    private static final int MAGIC = 0x594A524E;
+    private static final int VERSION = 1;
+    private static final Unmapper UNMAPPER = createUnmapper();
+
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_HEADER_SIZE = 16;
+
+    private final MappedByteBuffer buffer;
+    private final FileChannel channel;
+    private final long firstSequence;
+    private final Path file;
+
+    private long lastSequence;
+    private int position = HEADER_SIZE;
+    private int lastRecord = -1;
+
+    private JournalSegment(final Path file, final FileChannel channel, final MappedByteBuffer buffer,
+            final long firstSequence) {
+        this.file = Preconditions.checkNotNull(file);
+        this.channel = Preconditions.checkNotNull(channel);
+        this.buffer = Preconditions.checkNotNull(buffer);
+        this.firstSequence = firstSequence;
+        this.lastSequence = firstSequence - 1;
+    }
+
+    static String fileName(final long firstSequence) {
+        return String.format("journal-%020d.seg", firstSequence);
+    }
+
+    static JournalSegment create(final Path directory, final long firstSequence, final int size) throws IOException {
+        Preconditions.checkArgument(size > HEADER_SIZE + RECORD_HEADER_SIZE, "Invalid segment size %s", size);
+        final Path file = directory.resolve(fileName(firstSequence));
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            final MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putLong(8, firstSequence);
+            buffer.force();
+            return new JournalSegment(file, channel, buffer, firstSequence);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Check whether a segment file has been initialized. A crash while a segment is being created can leave behind
+     * a file which is empty or has not had its header written yet.
+     *
+     * @param file Segment file
+     * @return True if the file has a header, false if it is empty or its header is all zeroes
+     * @throws IOException if the file cannot be read
+     */
+    static boolean isInitialized(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) != -1) {
+                // Keep reading
+            }
+            return !isZero(header);
+        }
+    }
+
+    // Only the bytes which have been read are considered
+    private static boolean isZero(final ByteBuffer buffer) {
+        for (int i = 0; i < buffer.position(); ++i) {
+            if (buffer.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static JournalSegment open(final Path file) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Segment " + file + " has invalid size " + size);
+            }
+
+            final MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Segment " + file + " has invalid magic");
+            }
+            final int version = buffer.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Segment " + file + " has unsupported version " + version);
+            }
+
+            final JournalSegment ret = new JournalSegment(file, channel, buffer, buffer.getLong(8));
+            ret.recover();
+            return ret;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    long getFirstSequence() {
+        return firstSequence;
+    }
+
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    boolean isEmpty() {
+        return lastSequence < firstSequence;
+    }
+
+    /**
+     * Append a record.
+     *
+     * @param sequence Record sequence, must be one greater than the last record's sequence
+     * @param payload Record payload
+     * @return True if the record was appended, false if the segment does not have sufficient space left
+     */
+    boolean append(final long sequence, final byte[] payload) {
+        checkOpen();
+        Preconditions.checkArgument(sequence == lastSequence + 1, "Sequence %s does not follow %s", sequence,
+            lastSequence);
+        // Always leave room for the terminating zero length
+        if ((long) position + RECORD_HEADER_SIZE + payload.length + 4 > buffer.capacity()) {
+            return false;
+        }
+
+        buffer.putInt(position + 4, checksum(sequence, payload));
+        buffer.putLong(position + 8, sequence);
+        final ByteBuffer dup = buffer.duplicate();
+        dup.position(position + RECORD_HEADER_SIZE);
+        dup.put(payload);
+        buffer.putInt(position + RECORD_HEADER_SIZE + payload.length, 0);
+        buffer.putInt(position, payload.length);
+
+        lastRecord = position;
+        lastSequence = sequence;
+        position += RECORD_HEADER_SIZE + payload.length;
+        return true;
+    }
+
+    /**
+     * Remove the most recently appended record. Only a single record can be removed after each append.
+     */
+    void discardLast() {
+        checkOpen();
+        Preconditions.checkState(lastRecord != -1, "No record to discard in %s", file);
+        buffer.putInt(lastRecord, 0);
+        position = lastRecord;
+        lastRecord = -1;
+        lastSequence--;
+    }
+
+    void replay(final long afterSequence, final RecordConsumer consumer) throws IOException {
+        checkOpen();
+        int offset = HEADER_SIZE;
+        while (offset < position) {
+            final int length = buffer.getInt(offset);
+            final long sequence = buffer.getLong(offset + 8);
+            if (sequence > afterSequence) {
+                final byte[] payload = new byte[length];
+                final ByteBuffer dup = buffer.duplicate();
+                dup.position(offset + RECORD_HEADER_SIZE);
+                dup.get(payload);
+                consumer.accept(sequence, new DataInputStream(new ByteArrayInputStream(payload)));
+            }
+            offset += RECORD_HEADER_SIZE + length;
+        }
+    }
+
+    void force() {
+        checkOpen();
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+
+        try {
+            buffer.force();
+        } finally {
+            channel.close();
+            unmap(buffer);
+        }
+    }
+
+    private void checkOpen() {
+        Preconditions.checkState(channel.isOpen(), "Segment %s has been closed", file);
+    }
+
+    private static void unmap(final MappedByteBuffer buffer) {
+        try {
+            UNMAPPER.unmap(buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.warn("Failed to unmap buffer, it will be released when garbage-collected", e);
+        }
+    }
+
+    /*
+     * There is no public API for releasing a mapping, hence we need to reach for the JDK internals, which differ
+     * between Java 8 and later versions. If neither is available, we fall back to garbage collection.
+     */
+    private static Unmapper createUnmapper() {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            final Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            final Object unsafe = field.get(null);
+            return buffer -> invokeCleaner.invoke(unsafe, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.debug("Unsafe.invokeCleaner() is not available", e);
+        }
+
+        try {
+            final Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            final Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            return buffer -> clean.invoke(cleaner.invoke(buffer));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.info("Mapped segments cannot be released explicitly, relying on garbage collection", e);
+            return buffer -> { };
+        }
+    }
+
+    private void recover() {
+        int offset = HEADER_SIZE;
+        long expected = firstSequence;
+        while (offset + 4 <= buffer.capacity()) {
+            final int length = buffer.getInt(offset);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || (long) offset + RECORD_HEADER_SIZE + length > buffer.capacity()) {
+                LOG.warn("Segment {} has invalid record length {} at offset {}, truncating", file, length, offset);
+                break;
+            }
+
+            final long sequence = buffer.getLong(offset + 8);
+            final byte[] payload = new byte[length];
+            final ByteBuffer dup = buffer.duplicate();
+            dup.position(offset + RECORD_HEADER_SIZE);
+            dup.get(payload);
+            if (sequence != expected || buffer.getInt(offset + 4) != checksum(sequence, payload)) {
+                LOG.warn("Segment {} has a corrupted record at offset {}, truncating", file, offset);
+                break;
+            }
+
+            lastSequence = sequence;
+            expected = sequence + 1;
+            offset += RECORD_HEADER_SIZE + length;
+        }
+
+        position = offset;
+        if (offset + 4 <= buffer.capacity() && buffer.getInt(offset) != 0) {
+            buffer.putInt(offset, 0);
+            buffer.force();
+        }
+    }
+
+    private static int checksum(final long sequence, final byte[] payload) {
+        final CRC32 crc = new CRC32();
+        for (int i = 56; i >= 0; i -= 8) {
+            crc.update((int) (sequence >>> i));
+        }
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
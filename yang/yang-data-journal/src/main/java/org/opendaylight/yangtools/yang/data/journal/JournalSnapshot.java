@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A persisted image of the entire data tree, along with the sequence of the last journal record it reflects. The
+ * file is laid out as:
+ * <pre>
+ *   int    magic
+ *   int    version
+ *   long   sequence
+ *   ...    root node, as encoded by {@link NormalizedNodeDataOutput}
+ *   long   CRC32 of the root node encoding
+ * </pre>
+ * Snapshots are written to a temporary file, which is forced to disk and then atomically renamed, so a reader never
+ * observes a partially-written snapshot. The previous snapshot is retained as a fallback.
+ */
+final class JournalSnapshot {
+    private static final Logger LOG = LoggerFactory.getLogger(JournalSnapshot.class);
+    private static final String FILE_PREFIX = "snapshot-";
+    private static final String FILE_SUFFIX = ".bin";
+    private static final String FILE_FORMAT = FILE_PREFIX + "%020d" + FILE_SUFFIX;
+    private static final String SNAPSHOT_GLOB = FILE_PREFIX + "*" + FILE_SUFFIX;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int MAGIC = 0x59534E50;
+    private static final int VERSION = 1;
+
+    private final NormalizedNode<?, ?> data;
+    private final long sequence;
+
+    private JournalSnapshot(final long sequence, final NormalizedNode<?, ?> data) {
+        this.sequence = sequence;
+        this.data = Preconditions.checkNotNull(data);
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    NormalizedNode<?, ?> getData() {
+        return data;
+    }
+
+    static String fileName(final long sequence) {
+        return String.format(FILE_FORMAT, sequence);
+    }
+
+    private static long parseSequence(final Path file) throws IOException {
+        final String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IOException("Invalid snapshot file name " + file, e);
+        }
+    }
+
+    /**
+     * Write a snapshot and remove older snapshots, except the one immediately preceding it. That one is retained, so
+     * that the data tree can still be restored should the new snapshot turn out to be unreadable, hence the journal
+     * has to retain records following it.
+     *
+     * @param directory Target directory
+     * @param sequence Sequence of the last journal record reflected in the data
+     * @param data Root node of the data tree
+     * @return Sequence of the oldest retained snapshot, journal records up to and including it are no longer needed
+     * @throws IOException if the snapshot cannot be written
+     */
+    static long write(final Path directory, final long sequence, final NormalizedNode<?, ?> data)
+            throws IOException {
+        final Path file = directory.resolve(fileName(sequence));
+        final Path temp = directory.resolve(fileName(sequence) + TEMP_SUFFIX);
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Do not close the streams, as that would close the channel before we force it
+            final DataOutputStream header = new DataOutputStream(new BufferedOutputStream(
+                Channels.newOutputStream(channel)));
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            header.writeLong(sequence);
+
+            final CheckedOutputStream checked = new CheckedOutputStream(header, new CRC32());
+            final DataOutputStream body = new DataOutputStream(checked);
+            new NormalizedNodeDataOutput(body).writeNormalizedNode(data);
+            body.flush();
+            header.writeLong(checked.getChecksum().getValue());
+            header.flush();
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        // The rename has to be durable before anything it supersedes is removed
+        SegmentedJournal.forceDirectory(directory);
+        LOG.debug("Wrote snapshot {}", file);
+
+        // Snapshots are listed newest first, the first older one is the previous snapshot
+        final String name = file.getFileName().toString();
+        Path previous = null;
+        for (Path old : listSnapshots(directory)) {
+            if (old.getFileName().toString().compareTo(name) >= 0) {
+                continue;
+            }
+            if (previous == null) {
+                previous = old;
+            } else {
+                Files.delete(old);
+                LOG.debug("Removed snapshot {}", old);
+            }
+        }
+
+        return previous == null ? 0 : parseSequence(previous);
+    }
+
+    /**
+     * Read the most recent valid snapshot present in a directory.
+     *
+     * @param directory Source directory
+     * @return The most recent snapshot, or absent if there is none
+     * @throws IOException if the directory cannot be read
+     */
+    static Optional<JournalSnapshot> readLatest(final Path directory) throws IOException {
+        final List<Path> files = listSnapshots(directory);
+        for (Path file : files) {
+            try {
+                return Optional.of(read(file));
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Ignoring unreadable snapshot {}", file, e);
+            }
+        }
+        return Optional.absent();
+    }
+
+    private static JournalSnapshot read(final Path file) throws IOException {
+        try (InputStream is = Files.newInputStream(file)) {
+            final DataInputStream header = new DataInputStream(new BufferedInputStream(is));
+            if (header.readInt() != MAGIC) {
+                throw new IOException("Snapshot " + file + " has invalid magic");
+            }
+            final int version = header.readInt();
+            if (version != VERSION) {
+                throw new IOException("Snapshot " + file + " has unsupported version " + version);
+            }
+            final long sequence = header.readLong();
+
+            final CheckedInputStream checked = new CheckedInputStream(header, new CRC32());
+            final NormalizedNode<?, ?> data = new NormalizedNodeDataInput(new DataInputStream(checked))
+                    .readNormalizedNode();
+            final long expected = checked.getChecksum().getValue();
+            if (header.readLong() != expected) {
+                throw new IOException("Snapshot " + file + " failed checksum verification");
+            }
+            return new JournalSnapshot(sequence, data);
+        }
+    }
+
+    /**
+     * List snapshot files present in a directory, newest first. Leftover temporary files are removed.
+     */
+    private static List<Path> listSnapshots(final Path directory) throws IOException {
+        final List<Path> ret = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SNAPSHOT_GLOB + "*")) {
+            for (Path file : stream) {
+                if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                    Files.delete(file);
+                } else {
+                    ret.add(file);
+                }
+            }
+        }
+        Collections.sort(ret, Collections.reverseOrder());
+        return ret;
+    }
+}
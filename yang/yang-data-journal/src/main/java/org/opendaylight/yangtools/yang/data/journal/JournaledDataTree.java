@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeSnapshot;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link DataTree} wrapper which persists every committed {@link DataTreeCandidate} into a write-ahead journal
+ * before applying it to the data tree. The journal is a series of preallocated, memory-mapped segment files, hence
+ * appending a candidate is a sequential memory write. Forcing the journal to disk is batched, either after a number
+ * of commits or after a time interval, as specified by {@link JournalConfiguration}.
+ *
+ * <p>Periodically a snapshot of the entire data tree is written in background. The previous snapshot is kept as a
+ * fallback, journal segments covered by both of them are removed. On startup the data tree is restored by loading
+ * the latest readable snapshot and replaying only the journal records which follow it, hence recovery time is
+ * proportional to the size of the data and the journal tail, not to the full commit history.
+ *
+ * <p>Users are expected to perform modifications, validation and preparation on {@link #getDataTree()} as usual,
+ * but must route commits through {@link #commit(DataTreeCandidate)}. Candidates committed directly to the data tree
+ * are not persisted.
+ */
+@Beta
+public final class JournaledDataTree implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(JournaledDataTree.class);
+
+    private final JournalConfiguration config;
+    private final ScheduledExecutorService executor;
+    private final SegmentedJournal journal;
+    private final DataTree dataTree;
+    private final Path directory;
+    private final Object snapshotLock = new Object();
+
+    @GuardedBy("this")
+    private int unsyncedCommits;
+    @GuardedBy("this")
+    private int commitsSinceSnapshot;
+    @GuardedBy("this")
+    private boolean snapshotPending;
+    @GuardedBy("this")
+    private boolean closed;
+
+    private JournaledDataTree(final Path directory, final DataTree dataTree, final SegmentedJournal journal,
+            final JournalConfiguration config) {
+        this.directory = Preconditions.checkNotNull(directory);
+        this.dataTree = Preconditions.checkNotNull(dataTree);
+        this.journal = Preconditions.checkNotNull(journal);
+        this.config = Preconditions.checkNotNull(config);
+
+        final long syncInterval = config.getSyncInterval(TimeUnit.NANOSECONDS);
+        if (syncInterval > 0 || config.getSnapshotInterval() > 0) {
+            executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+                .setNameFormat("journal-" + directory.getFileName() + "-%d").build());
+            if (syncInterval > 0) {
+                executor.scheduleWithFixedDelay(this::backgroundSync, syncInterval, syncInterval,
+                    TimeUnit.NANOSECONDS);
+            }
+        } else {
+            executor = null;
+        }
+    }
+
+    /**
+     * Open a journal in specified directory and restore its contents into a data tree. The data tree is expected to
+     * be empty and not shared with any other journal.
+     *
+     * @param directory Directory holding the journal, created if it does not exist
+     * @param dataTree Data tree to restore
+     * @param config Journal configuration
+     * @return A journaled data tree
+     * @throws IOException if the journal cannot be read or its contents cannot be applied to the data tree
+     */
+    public static JournaledDataTree open(@Nonnull final Path directory, @Nonnull final DataTree dataTree,
+            @Nonnull final JournalConfiguration config) throws IOException {
+        Files.createDirectories(directory);
+
+        final Optional<JournalSnapshot> snapshot = JournalSnapshot.readLatest(directory);
+        final long snapshotSequence;
+        if (snapshot.isPresent()) {
+            snapshotSequence = snapshot.get().getSequence();
+            restoreSnapshot(dataTree, snapshot.get().getData(), snapshotSequence);
+            LOG.debug("Restored snapshot at sequence {}", snapshotSequence);
+        } else {
+            snapshotSequence = 0;
+        }
+
+        final SegmentedJournal journal = SegmentedJournal.open(directory, config.getSegmentSize(),
+            snapshotSequence + 1);
+        try {
+            if (journal.getFirstSequence() > snapshotSequence + 1) {
+                throw new IOException("Journal in " + directory + " starts at " + journal.getFirstSequence()
+                    + ", records after " + snapshotSequence + " are missing");
+            }
+
+            journal.replay(snapshotSequence, (sequence, payload) -> {
+                final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+                DataTreeCandidates.applyToModification(mod, DataTreeCandidateCodec.readCandidate(payload));
+                applyModification(dataTree, mod, sequence);
+            });
+        } catch (IOException | RuntimeException e) {
+            journal.close();
+            throw e;
+        }
+
+        LOG.debug("Replayed journal records {} to {}", snapshotSequence + 1, journal.getLastSequence());
+        return new JournaledDataTree(directory, dataTree, journal, config);
+    }
+
+    private static void restoreSnapshot(final DataTree dataTree, final NormalizedNode<?, ?> data,
+            final long sequence) throws IOException {
+        // A write of the root is the supported way of populating a data tree in bulk, see
+        // DataTreeConfiguration.getParallelVerificationThreshold()
+        final DataTreeModification mod = dataTree.takeSnapshot().newModification();
+        mod.write(YangInstanceIdentifier.EMPTY, data);
+        try {
+            applyModification(dataTree, mod, sequence);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Snapshot at " + sequence + " cannot be applied", e);
+        }
+    }
+
+    private static void applyModification(final DataTree dataTree, final DataTreeModification mod,
+            final long sequence) throws IOException {
+        mod.ready();
+        try {
+            dataTree.validate(mod);
+        } catch (DataValidationFailedException e) {
+            throw new IOException("Journal record " + sequence + " cannot be applied", e);
+        }
+        dataTree.commit(dataTree.prepare(mod));
+    }
+
+    /**
+     * Return the underlying data tree.
+     *
+     * @return Underlying data tree
+     */
+    public DataTree getDataTree() {
+        return dataTree;
+    }
+
+    /**
+     * Return the sequence of the last journal record.
+     *
+     * @return Last record sequence, or 0 if nothing has been journaled yet.
+     */
+    public synchronized long getLastSequence() {
+        return journal.getLastSequence();
+    }
+
+    /**
+     * Append a prepared candidate to the journal and commit it to the data tree. If the commit fails, the journal
+     * record is removed.
+     *
+     * @param candidate Candidate prepared by the underlying data tree
+     * @throws IOException if the candidate cannot be journaled
+     */
+    public synchronized void commit(@Nonnull final DataTreeCandidate candidate) throws IOException {
+        Preconditions.checkState(!closed, "Journal in %s has been closed", directory);
+
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(bos)) {
+            DataTreeCandidateCodec.writeCandidate(dos, candidate);
+        }
+        journal.append(bos.toByteArray());
+
+        try {
+            dataTree.commit(candidate);
+        } catch (RuntimeException e) {
+            journal.discardLast();
+            throw e;
+        }
+
+        if (++unsyncedCommits >= config.getSyncBatchSize()) {
+            syncJournal();
+        }
+        if (config.getSnapshotInterval() > 0 && ++commitsSinceSnapshot >= config.getSnapshotInterval()
+                && !snapshotPending) {
+            snapshotPending = true;
+            executor.execute(this::backgroundSnapshot);
+        }
+    }
+
+    /**
+     * Force all journaled commits to disk.
+     */
+    public synchronized void sync() {
+        Preconditions.checkState(!closed, "Journal in %s has been closed", directory);
+        syncJournal();
+    }
+
+    /**
+     * Write a snapshot of the current data tree state and trim the journal. This method blocks until the snapshot
+     * has been written.
+     *
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            final DataTreeSnapshot snapshot;
+            final long sequence;
+            synchronized (this) {
+                Preconditions.checkState(!closed, "Journal in %s has been closed", directory);
+                snapshot = dataTree.takeSnapshot();
+                sequence = journal.getLastSequence();
+                commitsSinceSnapshot = 0;
+            }
+
+            final Optional<NormalizedNode<?, ?>> data = snapshot.readNode(YangInstanceIdentifier.EMPTY);
+            Preconditions.checkState(data.isPresent(), "Data tree %s has no root node", dataTree);
+            final long retained = JournalSnapshot.write(directory, sequence, data.get());
+
+            // Records following the previous snapshot are retained, so we can fall back to it
+            synchronized (this) {
+                if (!closed) {
+                    journal.compact(retained);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+
+        if (executor != null) {
+            executor.shutdown();
+        }
+        synchronized (snapshotLock) {
+            synchronized (this) {
+                journal.close();
+            }
+        }
+    }
+
+    @GuardedBy("this")
+    private void syncJournal() {
+        journal.sync();
+        unsyncedCommits = 0;
+    }
+
+    private synchronized void backgroundSync() {
+        if (!closed && unsyncedCommits != 0) {
+            syncJournal();
+        }
+    }
+
+    private void backgroundSnapshot() {
+        synchronized (this) {
+            if (closed) {
+                snapshotPending = false;
+                return;
+            }
+        }
+
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Failed to snapshot journal in {}", directory, e);
+        } finally {
+            synchronized (this) {
+                snapshotPending = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.dom.DOMSource;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.common.Revision;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Reader of the binary encoding produced by {@link NormalizedNodeDataOutput}. Just as the writer, an instance keeps
+ * track of {@link QName}s it has encountered, hence it should be used to decode a single record.
+ */
+final class NormalizedNodeDataInput {
+    private final List<QName> qnames = new ArrayList<>();
+    private final DataInput input;
+
+    NormalizedNodeDataInput(final DataInput input) {
+        this.input = Preconditions.checkNotNull(input);
+    }
+
+    NormalizedNode<?, ?> readNormalizedNode() throws IOException {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        final NormalizedNodeStreamWriter writer = ImmutableNormalizedNodeStreamWriter.from(result);
+
+        int depth = 0;
+        do {
+            depth += readEvent(writer);
+        } while (depth != 0);
+
+        Preconditions.checkState(result.isFinished(), "Incomplete node encountered");
+        return result.getResult();
+    }
+
+    YangInstanceIdentifier readYangInstanceIdentifier() throws IOException {
+        final int size = input.readInt();
+        final List<PathArgument> args = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            args.add(readPathArgument());
+        }
+        return YangInstanceIdentifier.create(args);
+    }
+
+    PathArgument readPathArgument() throws IOException {
+        final byte type = input.readByte();
+        switch (type) {
+        case StreamConstants.NODE_IDENTIFIER:
+            return new NodeIdentifier(readQName());
+        case StreamConstants.NODE_IDENTIFIER_WITH_PREDICATES:
+            final QName nodeType = readQName();
+            final int size = input.readInt();
+            final ImmutableMap.Builder<QName, Object> keys = ImmutableMap.builder();
+            for (int i = 0; i < size; ++i) {
+                keys.put(readQName(), readValue());
+            }
+            return new NodeIdentifierWithPredicates(nodeType, keys.build());
+        case StreamConstants.NODE_WITH_VALUE:
+            return new NodeWithValue<>(readQName(), readValue());
+        case StreamConstants.AUGMENTATION_IDENTIFIER:
+            final int count = input.readInt();
+            final ImmutableSet.Builder<QName> names = ImmutableSet.builder();
+            for (int i = 0; i < count; ++i) {
+                names.add(readQName());
+            }
+            return new AugmentationIdentifier(names.build());
+        default:
+            throw new IOException("Unknown path argument type " + type);
+        }
+    }
+
+    /**
+     * Read a single event and forward it to the writer.
+     *
+     * @return Change in nesting depth caused by the event
+     */
+    private int readEvent(final NormalizedNodeStreamWriter writer) throws IOException {
+        final byte token = input.readByte();
+        switch (token) {
+        case StreamConstants.END_NODE:
+            writer.endNode();
+            return -1;
+        case StreamConstants.LEAF_NODE:
+            writer.leafNode(readNodeIdentifier(), readValue());
+            // A leaf at the top level is a complete node
+            return 0;
+        case StreamConstants.LEAF_SET_ENTRY:
+            writer.leafSetEntryNode(readQName(), readValue());
+            return 0;
+        case StreamConstants.ANYXML:
+            writer.anyxmlNode(readNodeIdentifier(), readAnyxml());
+            return 0;
+        case StreamConstants.LEAF_SET:
+            writer.startLeafSet(readNodeIdentifier(), input.readInt());
+            return 1;
+        case StreamConstants.ORDERED_LEAF_SET:
+            writer.startOrderedLeafSet(readNodeIdentifier(), input.readInt());
+            return 1;
+        case StreamConstants.CONTAINER:
+            writer.startContainerNode(readNodeIdentifier(), input.readInt());
+            return 1;
+        case StreamConstants.UNKEYED_LIST:
+            writer.startUnkeyedList(readNodeIdentifier(), input.readInt());
+            return 1;
+        case StreamConstants.UNKEYED_LIST_ITEM:
+            writer.startUnkeyedListItem(readNodeIdentifier(), input.readInt());
+            return 1;
+        case StreamConstants.MAP:
+            writer.startMapNode(readNodeIdentifier(), input.readInt());
+            return 1;
+        case StreamConstants.MAP_ENTRY:
+            final PathArgument entryId = readPathArgument();
+            if (!(entryId instanceof NodeIdentifierWithPredicates)) {
+                throw new IOException("Unexpected map entry identifier " + entryId);
+            }
+            writer.startMapEntryNode((NodeIdentifierWithPredicates) entryId, input.readInt());
+            return 1;
+        case StreamConstants.ORDERED_MAP:
+            writer.startOrderedMapNode(readNodeIdentifier(), input.readInt());
+            return 1;
+        case StreamConstants.CHOICE:
+            writer.startChoiceNode(readNodeIdentifier(), input.readInt());
+            return 1;
+        case StreamConstants.AUGMENTATION:
+            final PathArgument augId = readPathArgument();
+            if (!(augId instanceof AugmentationIdentifier)) {
+                throw new IOException("Unexpected augmentation identifier " + augId);
+            }
+            writer.startAugmentationNode((AugmentationIdentifier) augId);
+            return 1;
+        default:
+            throw new IOException("Unknown node token " + token);
+        }
+    }
+
+    private NodeIdentifier readNodeIdentifier() throws IOException {
+        final PathArgument arg = readPathArgument();
+        if (!(arg instanceof NodeIdentifier)) {
+            throw new IOException("Unexpected node identifier " + arg);
+        }
+        return (NodeIdentifier) arg;
+    }
+
+    private QName readQName() throws IOException {
+        final int ref = input.readInt();
+        if (ref != StreamConstants.QNAME_DEFINITION) {
+            if (ref < 0 || ref >= qnames.size()) {
+                throw new IOException("Invalid QName reference " + ref);
+            }
+            return qnames.get(ref);
+        }
+
+        final URI namespace = URI.create(readString());
+        final String revision = readString();
+        final QName qname = QName.create(QNameModule.of(namespace, revision.isEmpty() ? null : Revision.of(revision)),
+            readString()).intern();
+        qnames.add(qname);
+        return qname;
+    }
+
+    private String readString() throws IOException {
+        return new String(readBytes(), StandardCharsets.UTF_8);
+    }
+
+    private byte[] readBytes() throws IOException {
+        final int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid length " + length);
+        }
+        final byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private Object readValue() throws IOException {
+        final byte type = input.readByte();
+        switch (type) {
+        case StreamConstants.NULL_VALUE:
+            return null;
+        case StreamConstants.STRING_VALUE:
+            return readString();
+        case StreamConstants.BOOLEAN_VALUE:
+            return input.readBoolean();
+        case StreamConstants.BYTE_VALUE:
+            return input.readByte();
+        case StreamConstants.SHORT_VALUE:
+            return input.readShort();
+        case StreamConstants.INT_VALUE:
+            return input.readInt();
+        case StreamConstants.LONG_VALUE:
+            return input.readLong();
+        case StreamConstants.BIG_INTEGER_VALUE:
+            return new BigInteger(readString());
+        case StreamConstants.BIG_DECIMAL_VALUE:
+            return new BigDecimal(readString());
+        case StreamConstants.BINARY_VALUE:
+            return readBytes();
+        case StreamConstants.QNAME_VALUE:
+            return readQName();
+        case StreamConstants.YANG_IDENTIFIER_VALUE:
+            return readYangInstanceIdentifier();
+        case StreamConstants.BITS_VALUE:
+            final int size = input.readInt();
+            final ImmutableSet.Builder<String> bits = ImmutableSet.builder();
+            for (int i = 0; i < size; ++i) {
+                bits.add(readString());
+            }
+            return bits.build();
+        default:
+            throw new IOException("Unknown value type " + type);
+        }
+    }
+
+    private DOMSource readAnyxml() throws IOException {
+        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        try {
+            return new DOMSource(factory.newDocumentBuilder().parse(new InputSource(new StringReader(readString())))
+                .getDocumentElement());
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Failed to parse anyxml", e);
+        }
+    }
+}
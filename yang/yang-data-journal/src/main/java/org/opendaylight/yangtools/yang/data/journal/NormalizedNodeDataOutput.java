@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.base.Preconditions;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+
+/**
+ * A {@link NormalizedNodeStreamWriter} which encodes the events it receives into a compact binary form. Each
+ * {@link QName} is written in full only once per instance, subsequent occurrences are replaced by a reference, so
+ * an instance should be used to encode a single self-contained record. The encoding is read back by
+ * {@link NormalizedNodeDataInput}.
+ *
+ * <p>Values are prefixed with a tag identifying their type. Only the types used to represent YANG data are supported,
+ * other values are rejected.
+ */
+final class NormalizedNodeDataOutput implements NormalizedNodeStreamWriter {
+    private final Map<QName, Integer> qnames = new HashMap<>();
+    private final DataOutput output;
+
+    NormalizedNodeDataOutput(final DataOutput output) {
+        this.output = Preconditions.checkNotNull(output);
+    }
+
+    void writeNormalizedNode(final NormalizedNode<?, ?> node) throws IOException {
+        NormalizedNodeWriter.forStreamWriter(this).write(node);
+    }
+
+    void writeYangInstanceIdentifier(final YangInstanceIdentifier path) throws IOException {
+        final List<PathArgument> args = path.getPathArguments();
+        output.writeInt(args.size());
+        for (PathArgument arg : args) {
+            writePathArgument(arg);
+        }
+    }
+
+    void writePathArgument(final PathArgument arg) throws IOException {
+        if (arg instanceof NodeIdentifier) {
+            output.writeByte(StreamConstants.NODE_IDENTIFIER);
+            writeQName(arg.getNodeType());
+        } else if (arg instanceof NodeIdentifierWithPredicates) {
+            output.writeByte(StreamConstants.NODE_IDENTIFIER_WITH_PREDICATES);
+            writeQName(arg.getNodeType());
+            final Map<QName, Object> keys = ((NodeIdentifierWithPredicates) arg).getKeyValues();
+            output.writeInt(keys.size());
+            for (Entry<QName, Object> e : keys.entrySet()) {
+                writeQName(e.getKey());
+                writeValue(e.getValue());
+            }
+        } else if (arg instanceof NodeWithValue) {
+            output.writeByte(StreamConstants.NODE_WITH_VALUE);
+            writeQName(arg.getNodeType());
+            writeValue(((NodeWithValue<?>) arg).getValue());
+        } else if (arg instanceof AugmentationIdentifier) {
+            output.writeByte(StreamConstants.AUGMENTATION_IDENTIFIER);
+            final Set<QName> names = ((AugmentationIdentifier) arg).getPossibleChildNames();
+            output.writeInt(names.size());
+            for (QName name : names) {
+                writeQName(name);
+            }
+        } else {
+            throw new IOException("Unhandled path argument " + arg);
+        }
+    }
+
+    @Override
+    public void leafNode(final NodeIdentifier name, final Object value) throws IOException {
+        startEvent(StreamConstants.LEAF_NODE, name);
+        writeValue(value);
+    }
+
+    @Override
+    public void startLeafSet(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startEvent(StreamConstants.LEAF_SET, name, childSizeHint);
+    }
+
+    @Override
+    public void startOrderedLeafSet(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startEvent(StreamConstants.ORDERED_LEAF_SET, name, childSizeHint);
+    }
+
+    @Override
+    public void leafSetEntryNode(final QName name, final Object value) throws IOException {
+        output.writeByte(StreamConstants.LEAF_SET_ENTRY);
+        writeQName(name);
+        writeValue(value);
+    }
+
+    @Override
+    public void startContainerNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startEvent(StreamConstants.CONTAINER, name, childSizeHint);
+    }
+
+    @Override
+    public void startUnkeyedList(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startEvent(StreamConstants.UNKEYED_LIST, name, childSizeHint);
+    }
+
+    @Override
+    public void startUnkeyedListItem(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startEvent(StreamConstants.UNKEYED_LIST_ITEM, name, childSizeHint);
+    }
+
+    @Override
+    public void startMapNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startEvent(StreamConstants.MAP, name, childSizeHint);
+    }
+
+    @Override
+    public void startMapEntryNode(final NodeIdentifierWithPredicates identifier, final int childSizeHint)
+            throws IOException {
+        startEvent(StreamConstants.MAP_ENTRY, identifier, childSizeHint);
+    }
+
+    @Override
+    public void startOrderedMapNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startEvent(StreamConstants.ORDERED_MAP, name, childSizeHint);
+    }
+
+    @Override
+    public void startChoiceNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startEvent(StreamConstants.CHOICE, name, childSizeHint);
+    }
+
+    @Override
+    public void startAugmentationNode(final AugmentationIdentifier identifier) throws IOException {
+        startEvent(StreamConstants.AUGMENTATION, identifier);
+    }
+
+    @Override
+    public void anyxmlNode(final NodeIdentifier name, final Object value) throws IOException {
+        Preconditions.checkArgument(value instanceof DOMSource, "Unsupported anyxml value %s", value);
+        startEvent(StreamConstants.ANYXML, name);
+
+        final StringWriter writer = new StringWriter();
+        try {
+            TransformerFactory.newInstance().newTransformer().transform((DOMSource) value, new StreamResult(writer));
+        } catch (TransformerException e) {
+            throw new IOException("Failed to serialize anyxml " + name, e);
+        }
+        writeString(writer.toString());
+    }
+
+    @Override
+    public void startYangModeledAnyXmlNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        // Reconstructing these nodes requires their schema, which is not available when reading
+        throw new IOException("YANG-modeled anyxml " + name + " is not supported");
+    }
+
+    @Override
+    public void endNode() throws IOException {
+        output.writeByte(StreamConstants.END_NODE);
+    }
+
+    @Override
+    public void close() {
+        // No-op
+    }
+
+    @Override
+    public void flush() {
+        // No-op
+    }
+
+    private void startEvent(final byte token, final PathArgument identifier) throws IOException {
+        output.writeByte(token);
+        writePathArgument(identifier);
+    }
+
+    private void startEvent(final byte token, final PathArgument identifier, final int childSizeHint)
+            throws IOException {
+        startEvent(token, identifier);
+        output.writeInt(childSizeHint);
+    }
+
+    private void writeQName(final QName qname) throws IOException {
+        final Integer ref = qnames.get(qname);
+        if (ref != null) {
+            output.writeInt(ref);
+            return;
+        }
+
+        output.writeInt(StreamConstants.QNAME_DEFINITION);
+        writeString(qname.getNamespace().toString());
+        final String revision = qname.getFormattedRevision();
+        writeString(revision == null ? "" : revision);
+        writeString(qname.getLocalName());
+        qnames.put(qname, qnames.size());
+    }
+
+    private void writeString(final String str) throws IOException {
+        final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private void writeValue(final Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(StreamConstants.NULL_VALUE);
+        } else if (value instanceof String) {
+            output.writeByte(StreamConstants.STRING_VALUE);
+            writeString((String) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte(StreamConstants.BOOLEAN_VALUE);
+            output.writeBoolean((Boolean) value);
+        } else if (value instanceof Byte) {
+            output.writeByte(StreamConstants.BYTE_VALUE);
+            output.writeByte((Byte) value);
+        } else if (value instanceof Short) {
+            output.writeByte(StreamConstants.SHORT_VALUE);
+            output.writeShort((Short) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(StreamConstants.INT_VALUE);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(StreamConstants.LONG_VALUE);
+            output.writeLong((Long) value);
+        } else if (value instanceof BigInteger) {
+            output.writeByte(StreamConstants.BIG_INTEGER_VALUE);
+            writeString(value.toString());
+        } else if (value instanceof BigDecimal) {
+            output.writeByte(StreamConstants.BIG_DECIMAL_VALUE);
+            writeString(value.toString());
+        } else if (value instanceof byte[]) {
+            output.writeByte(StreamConstants.BINARY_VALUE);
+            output.writeInt(((byte[]) value).length);
+            output.write((byte[]) value);
+        } else if (value instanceof QName) {
+            output.writeByte(StreamConstants.QNAME_VALUE);
+            writeQName((QName) value);
+        } else if (value instanceof YangInstanceIdentifier) {
+            output.writeByte(StreamConstants.YANG_IDENTIFIER_VALUE);
+            writeYangInstanceIdentifier((YangInstanceIdentifier) value);
+        } else if (value instanceof Set && isStringSet((Set<?>) value)) {
+            output.writeByte(StreamConstants.BITS_VALUE);
+            final Set<?> bits = (Set<?>) value;
+            output.writeInt(bits.size());
+            for (Object bit : bits) {
+                writeString((String) bit);
+            }
+        } else {
+            throw new IOException("Unhandled value " + value + " of " + value.getClass());
+        }
+    }
+
+    private static boolean isStringSet(final Set<?> set) {
+        for (Object o : set) {
+            if (!(o instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
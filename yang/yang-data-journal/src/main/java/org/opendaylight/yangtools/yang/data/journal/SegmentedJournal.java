@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import org.opendaylight.yangtools.yang.data.journal.JournalSegment.RecordConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An append-only journal of sequenced records, stored in a directory as a series of {@link JournalSegment}s. Each
+ * segment is named after the sequence of its first record. Once a segment fills up, it is forced to disk and a new
+ * segment is started. Segments whose records are all covered by a snapshot can be removed via {@link #compact(long)}.
+ *
+ * <p>This class is not thread-safe.
+ */
+final class SegmentedJournal implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(SegmentedJournal.class);
+    private static final String SEGMENT_GLOB = "journal-*.seg";
+
+    private final List<JournalSegment> segments;
+    private final Path directory;
+    private final int segmentSize;
+
+    private JournalSegment current;
+
+    private SegmentedJournal(final Path directory, final int segmentSize, final List<JournalSegment> segments) {
+        this.directory = Preconditions.checkNotNull(directory);
+        this.segmentSize = segmentSize;
+        this.segments = Preconditions.checkNotNull(segments);
+        this.current = segments.get(segments.size() - 1);
+    }
+
+    /**
+     * Open a journal, creating it if it does not exist.
+     *
+     * @param directory Directory holding the journal
+     * @param segmentSize Size of newly-allocated segments
+     * @param nextSequence Sequence to be assigned to the first record if the journal is empty
+     * @return An open journal
+     * @throws IOException if the journal cannot be opened
+     */
+    static SegmentedJournal open(final Path directory, final int segmentSize, final long nextSequence)
+            throws IOException {
+        final List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_GLOB)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        // File names are zero-padded, hence lexicographic order is sequence order
+        Collections.sort(files);
+
+        // A crash while creating a segment may leave it without a header. Nothing has been appended to it yet.
+        if (!files.isEmpty()) {
+            final Path last = files.get(files.size() - 1);
+            if (!JournalSegment.isInitialized(last)) {
+                LOG.warn("Segment {} has not been initialized, removing it", last);
+                Files.delete(last);
+                forceDirectory(directory);
+                files.remove(files.size() - 1);
+            }
+        }
+
+        final List<JournalSegment> segments = new ArrayList<>(files.size() + 1);
+        try {
+            for (Path file : files) {
+                final JournalSegment segment = JournalSegment.open(file);
+                if (!segments.isEmpty()) {
+                    final long expected = segments.get(segments.size() - 1).getLastSequence() + 1;
+                    if (segment.getFirstSequence() != expected) {
+                        // A torn write in a previous segment, everything after it is invalid
+                        LOG.warn("Segment {} starts at {}, expected {}, discarding it and all subsequent segments",
+                            file, segment.getFirstSequence(), expected);
+                        segment.close();
+                        deleteFrom(files, files.indexOf(file));
+                        break;
+                    }
+                }
+                segments.add(segment);
+            }
+
+            if (segments.isEmpty()) {
+                segments.add(JournalSegment.create(directory, nextSequence, segmentSize));
+                forceDirectory(directory);
+            }
+        } catch (IOException | RuntimeException e) {
+            for (JournalSegment segment : segments) {
+                segment.close();
+            }
+            throw e;
+        }
+
+        return new SegmentedJournal(directory, segmentSize, segments);
+    }
+
+    long getFirstSequence() {
+        return segments.get(0).getFirstSequence();
+    }
+
+    long getLastSequence() {
+        return current.getLastSequence();
+    }
+
+    /**
+     * Append a record to the journal. The record is not guaranteed to be durable until {@link #sync()} is invoked.
+     *
+     * @param payload Record payload
+     * @return Sequence assigned to the record
+     * @throws IOException if a new segment cannot be allocated
+     */
+    long append(final byte[] payload) throws IOException {
+        final long sequence = current.getLastSequence() + 1;
+        if (!current.append(sequence, payload)) {
+            // Make sure an oversized record gets a segment which can hold it
+            final int size = (int) Math.min(Integer.MAX_VALUE, Math.max(segmentSize,
+                (long) JournalSegment.HEADER_SIZE + JournalSegment.RECORD_HEADER_SIZE + payload.length + 4));
+            final JournalSegment next = JournalSegment.create(directory, sequence, size);
+            current.force();
+            segments.add(next);
+            current = next;
+            // Make sure the new segment is found after a crash, otherwise syncing records in it is meaningless
+            forceDirectory(directory);
+            Preconditions.checkState(current.append(sequence, payload), "Failed to append %s bytes to new segment",
+                payload.length);
+        }
+        return sequence;
+    }
+
+    /**
+     * Remove the last appended record.
+     */
+    void discardLast() {
+        current.discardLast();
+    }
+
+    /**
+     * Force all appended records to persistent storage.
+     */
+    void sync() {
+        current.force();
+    }
+
+    /**
+     * Feed all records with sequence greater than specified value to a consumer, in sequence order.
+     *
+     * @param afterSequence Sequence of the last record which should be skipped
+     * @param consumer Record consumer
+     * @throws IOException if the consumer fails
+     */
+    void replay(final long afterSequence, final RecordConsumer consumer) throws IOException {
+        for (JournalSegment segment : segments) {
+            if (segment.getLastSequence() > afterSequence) {
+                segment.replay(afterSequence, consumer);
+            }
+        }
+    }
+
+    /**
+     * Delete all segments which contain only records up to specified sequence. The current segment is never removed.
+     *
+     * @param upToSequence Last sequence which no longer needs to be retained
+     * @throws IOException if a segment cannot be removed
+     */
+    void compact(final long upToSequence) throws IOException {
+        final Iterator<JournalSegment> it = segments.iterator();
+        while (it.hasNext()) {
+            final JournalSegment segment = it.next();
+            if (segment == current || segment.getLastSequence() > upToSequence) {
+                break;
+            }
+
+            segment.close();
+            Files.delete(segment.getFile());
+            it.remove();
+            LOG.debug("Removed journal segment {}", segment.getFile());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (JournalSegment segment : segments) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        segments.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Force the contents of a directory to persistent storage, so that files created, renamed or removed in it
+     * remain so after a crash.
+     *
+     * @param directory Directory to force
+     * @throws IOException if the directory cannot be forced
+     */
+    static void forceDirectory(final Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            // Some platforms, notably Windows, do not allow opening directories, nor do they need it
+            LOG.debug("Cannot force directory {}", directory, e);
+        }
+    }
+
+    private static void deleteFrom(final List<Path> files, final int index) throws IOException {
+        for (Path file : files.subList(index, files.size())) {
+            Files.delete(file);
+        }
+    }
+}
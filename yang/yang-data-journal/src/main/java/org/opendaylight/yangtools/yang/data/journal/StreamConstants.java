@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+/**
+ * Tokens used by the binary encoding of normalized nodes, path arguments and values.
+ */
+final class StreamConstants {
+    // Node events
+    static final byte END_NODE = 0;
+    static final byte LEAF_NODE = 1;
+    static final byte LEAF_SET = 2;
+    static final byte ORDERED_LEAF_SET = 3;
+    static final byte LEAF_SET_ENTRY = 4;
+    static final byte CONTAINER = 5;
+    static final byte UNKEYED_LIST = 6;
+    static final byte UNKEYED_LIST_ITEM = 7;
+    static final byte MAP = 8;
+    static final byte MAP_ENTRY = 9;
+    static final byte ORDERED_MAP = 10;
+    static final byte CHOICE = 11;
+    static final byte AUGMENTATION = 12;
+    static final byte ANYXML = 13;
+
+    // Path arguments
+    static final byte NODE_IDENTIFIER = 1;
+    static final byte NODE_IDENTIFIER_WITH_PREDICATES = 2;
+    static final byte NODE_WITH_VALUE = 3;
+    static final byte AUGMENTATION_IDENTIFIER = 4;
+
+    // Values
+    static final byte NULL_VALUE = 0;
+    static final byte STRING_VALUE = 1;
+    static final byte BOOLEAN_VALUE = 2;
+    static final byte BYTE_VALUE = 3;
+    static final byte SHORT_VALUE = 4;
+    static final byte INT_VALUE = 5;
+    static final byte LONG_VALUE = 6;
+    static final byte BIG_INTEGER_VALUE = 7;
+    static final byte BIG_DECIMAL_VALUE = 8;
+    static final byte BINARY_VALUE = 9;
+    static final byte QNAME_VALUE = 10;
+    static final byte YANG_IDENTIFIER_VALUE = 11;
+    static final byte BITS_VALUE = 12;
+
+    // QName references
+    static final int QNAME_DEFINITION = -1;
+
+    private StreamConstants() {
+        throw new UnsupportedOperationException();
+    }
+}
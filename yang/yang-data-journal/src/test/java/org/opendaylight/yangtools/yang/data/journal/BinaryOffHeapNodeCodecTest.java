@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.OffHeapArena;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNodeFactory;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.CollectionNodeBuilder;
+import org.opendaylight.yangtools.yang.data.impl.schema.builder.impl.ImmutableOrderedMapNodeBuilder;
+
+public class BinaryOffHeapNodeCodecTest {
+    private static final QName TOP = QName.create("urn:test", "2016-01-01", "top");
+    private static final QName LIST = QName.create(TOP, "list");
+    private static final QName KEY = QName.create(TOP, "key");
+    private static final QName VALUE = QName.create(TOP, "value");
+
+    private static ContainerNode createTop() {
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TOP))
+                .withChild(ImmutableNodes.mapNodeBuilder(LIST)
+                    .withChild(ImmutableNodes.mapEntryBuilder(LIST, KEY, "a")
+                        .withChild(ImmutableNodes.leafNode(VALUE, 1)).build())
+                    .withChild(ImmutableNodes.mapEntryBuilder(LIST, KEY, "b")
+                        .withChild(ImmutableNodes.leafNode(VALUE, 2L)).build())
+                    .build())
+                .build();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final ContainerNode top = createTop();
+        final byte[] bytes = BinaryOffHeapNodeCodec.getInstance().encode(top);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+
+        assertEquals(top, BinaryOffHeapNodeCodec.getInstance().decode(buffer));
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    public void testOffHeapTreeNode() throws IOException {
+        final ContainerNode top = createTop();
+        final TreeNode node = TreeNodeFactory.createOffHeapTreeNode(TreeNodeFactory.createTreeNode(top,
+            Version.initial()), BinaryOffHeapNodeCodec.getInstance(), OffHeapArena.create(4096, 1 << 20));
+        assertTrue(TreeNodeFactory.isOffHeap(node));
+
+        final NormalizedNode<?, ?> data = node.getData();
+        assertTrue(data instanceof ContainerNode);
+        assertEquals(new NodeIdentifier(TOP), data.getIdentifier());
+        assertTrue(data.equals(top));
+
+        final NodeIdentifierWithPredicates entryId = new NodeIdentifierWithPredicates(LIST, KEY, "b");
+        final NormalizedNode<?, ?> entry = node.getChild(new NodeIdentifier(LIST)).get().getChild(entryId).get()
+                .getData();
+        assertTrue(entry instanceof MapEntryNode);
+        assertEquals(ImmutableNodes.leafNode(VALUE, 2L), ((MapEntryNode) entry).getChild(new NodeIdentifier(VALUE))
+            .get());
+    }
+
+    @Test
+    public void testLargeSubtree() throws IOException {
+        final CollectionNodeBuilder<MapEntryNode, OrderedMapNode> builder = Builders.orderedMapBuilder()
+                .withNodeIdentifier(new NodeIdentifier(LIST));
+        for (int i = 0; i < 1000; ++i) {
+            builder.withChild(ImmutableNodes.mapEntryBuilder(LIST, KEY, "key-" + i)
+                .withChild(ImmutableNodes.leafNode(VALUE, "value-" + i)).build());
+        }
+        final OrderedMapNode list = builder.build();
+        final ContainerNode top = Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TOP))
+                .withChild(list).build();
+
+        final OffHeapArena arena = OffHeapArena.create(4096, 1 << 20);
+        final TreeNode node = TreeNodeFactory.createOffHeapTreeNode(TreeNodeFactory.createTreeNode(top,
+            Version.initial()), BinaryOffHeapNodeCodec.getInstance(), arena);
+        assertTrue(TreeNodeFactory.isOffHeap(node));
+        // Larger than a chunk, hence allocated separately
+        assertTrue(arena.getAllocatedSize() > 4096);
+
+        // The list is too large to be decoded as a whole
+        final TreeNode listNode = node.getChild(new NodeIdentifier(LIST)).get();
+        assertTrue(TreeNodeFactory.isOffHeap(listNode));
+        final OrderedMapNode offHeapList = (OrderedMapNode) listNode.getData();
+        assertEquals(1000, offHeapList.getSize());
+        assertEquals(list.getChild(500), offHeapList.getChild(500));
+        assertEquals(list.getChild(new NodeIdentifierWithPredicates(LIST, KEY, "key-999")),
+            offHeapList.getChild(new NodeIdentifierWithPredicates(LIST, KEY, "key-999")));
+        assertTrue(offHeapList.equals(list));
+        assertTrue(node.getData().equals(top));
+
+        // Entries are decoded as a whole
+        final TreeNode entryNode = listNode.getChild(new NodeIdentifierWithPredicates(LIST, KEY, "key-7")).get();
+        assertFalse(TreeNodeFactory.isOffHeap(entryNode));
+        assertEquals(list.getChild(7), entryNode.getData());
+
+        // Immutable builders copy off-heap nodes
+        final OrderedMapNode copy = ImmutableOrderedMapNodeBuilder.create(offHeapList).build();
+        assertEquals(list, copy);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Date;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNodes;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+
+public class DataTreeCandidateCodecTest {
+    private static final QName TOP = QName.create("urn:test", "2016-01-01", "top");
+    private static final QName LIST = QName.create(TOP, "list");
+    private static final QName KEY = QName.create(TOP, "key");
+    private static final QName VALUE = QName.create(TOP, "value");
+    private static final QName LEAF_LIST = QName.create(TOP, "leaf-list");
+    private static final QName NO_REV = QName.create("urn:test:norev", "leaf");
+
+    private static final YangInstanceIdentifier TOP_PATH = YangInstanceIdentifier.of(TOP);
+
+    private static ContainerNode createTop() {
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TOP))
+                .withChild(ImmutableNodes.mapNodeBuilder(LIST)
+                    .withChild(ImmutableNodes.mapEntryBuilder(LIST, KEY, "a")
+                        .withChild(ImmutableNodes.leafNode(VALUE, 1)).build())
+                    .withChild(ImmutableNodes.mapEntryBuilder(LIST, KEY, "b")
+                        .withChild(ImmutableNodes.leafNode(VALUE, 2L)).build())
+                    .build())
+                .withChild(Builders.leafSetBuilder().withNodeIdentifier(new NodeIdentifier(LEAF_LIST))
+                    .withChild(Builders.leafSetEntryBuilder().withNodeIdentifier(
+                        new NodeWithValue<>(LEAF_LIST, "x")).withValue("x").build())
+                    .build())
+                .withChild(ImmutableNodes.leafNode(NO_REV, ImmutableSet.of("bit1", "bit2")))
+                .withChild(ImmutableNodes.leafNode(KEY, new BigDecimal("1.25")))
+                .withChild(ImmutableNodes.leafNode(QName.create(TOP, "ref"), TOP_PATH))
+                .build();
+    }
+
+    private static DataTreeCandidate roundTrip(final DataTreeCandidate candidate) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(bos)) {
+            DataTreeCandidateCodec.writeCandidate(dos, candidate);
+        }
+        return DataTreeCandidateCodec.readCandidate(new DataInputStream(new ByteArrayInputStream(
+            bos.toByteArray())));
+    }
+
+    @Test
+    public void testNormalizedNodeRoundTrip() throws IOException {
+        final ContainerNode top = createTop();
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new NormalizedNodeDataOutput(new DataOutputStream(bos)).writeNormalizedNode(top);
+
+        final NormalizedNode<?, ?> read = new NormalizedNodeDataInput(new DataInputStream(new ByteArrayInputStream(
+            bos.toByteArray()))).readNormalizedNode();
+        assertEquals(top, read);
+    }
+
+    @Test
+    public void testLeafRoundTrip() throws IOException {
+        final NormalizedNode<?, ?> leaf = ImmutableNodes.leafNode(VALUE, "foo");
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new NormalizedNodeDataOutput(new DataOutputStream(bos)).writeNormalizedNode(leaf);
+
+        assertEquals(leaf, new NormalizedNodeDataInput(new DataInputStream(new ByteArrayInputStream(
+            bos.toByteArray()))).readNormalizedNode());
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnsupportedValue() throws IOException {
+        // Values are encoded by type, arbitrary serializable objects are not accepted
+        new NormalizedNodeDataOutput(new DataOutputStream(new ByteArrayOutputStream())).writeNormalizedNode(
+            ImmutableNodes.leafNode(VALUE, new Date()));
+    }
+
+    @Test
+    public void testWriteCandidate() throws IOException {
+        final ContainerNode top = createTop();
+        final DataTreeCandidate read = roundTrip(DataTreeCandidates.fromNormalizedNode(TOP_PATH, top));
+
+        assertEquals(TOP_PATH, read.getRootPath());
+        assertEquals(ModificationType.WRITE, read.getRootNode().getModificationType());
+        assertEquals(top, read.getRootNode().getDataAfter().get());
+        assertFalse(read.getRootNode().getDataBefore().isPresent());
+    }
+
+    @Test
+    public void testSubtreeCandidate() throws IOException {
+        final NodeIdentifierWithPredicates entryId = new NodeIdentifierWithPredicates(LIST, KEY, "a");
+        final YangInstanceIdentifier listPath = TOP_PATH.node(LIST);
+        final DataTreeCandidateNode written = DataTreeCandidateNodes.fromNormalizedNode(
+            ImmutableNodes.mapEntryBuilder(LIST, KEY, "c").build());
+
+        final DataTreeCandidate read = roundTrip(DataTreeCandidates.newDataTreeCandidate(listPath,
+            new TestCandidateNode(new NodeIdentifier(LIST), ModificationType.SUBTREE_MODIFIED,
+                new TestCandidateNode(entryId, ModificationType.DELETE), written)));
+
+        assertEquals(listPath, read.getRootPath());
+        final DataTreeCandidateNode root = read.getRootNode();
+        assertEquals(ModificationType.SUBTREE_MODIFIED, root.getModificationType());
+        assertEquals(2, root.getChildNodes().size());
+        assertEquals(ModificationType.DELETE, root.getModifiedChild(entryId).getModificationType());
+
+        final DataTreeCandidateNode write = root.getModifiedChild(written.getIdentifier());
+        assertEquals(ModificationType.WRITE, write.getModificationType());
+        assertEquals(written.getDataAfter().get(), write.getDataAfter().get());
+        assertNull(root.getModifiedChild(new NodeIdentifierWithPredicates(LIST, KEY, "b")));
+    }
+
+    private static final class TestCandidateNode implements DataTreeCandidateNode {
+        private final Collection<DataTreeCandidateNode> children;
+        private final PathArgument identifier;
+        private final ModificationType type;
+
+        TestCandidateNode(final PathArgument identifier, final ModificationType type,
+                final DataTreeCandidateNode... children) {
+            this.identifier = identifier;
+            this.type = type;
+            this.children = ImmutableList.copyOf(children);
+        }
+
+        @Override
+        public PathArgument getIdentifier() {
+            return identifier;
+        }
+
+        @Override
+        public Collection<DataTreeCandidateNode> getChildNodes() {
+            return children;
+        }
+
+        @Override
+        public DataTreeCandidateNode getModifiedChild(final PathArgument childIdentifier) {
+            for (DataTreeCandidateNode child : children) {
+                if (childIdentifier.equals(child.getIdentifier())) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public ModificationType getModificationType() {
+            return type;
+        }
+
+        @Override
+        public Optional<NormalizedNode<?, ?>> getDataAfter() {
+            return Optional.absent();
+        }
+
+        @Override
+        public Optional<NormalizedNode<?, ?>> getDataBefore() {
+            return Optional.absent();
+        }
+    }
+}
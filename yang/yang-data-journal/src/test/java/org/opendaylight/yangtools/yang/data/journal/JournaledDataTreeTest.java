@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TipProducingDataTree;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.InMemoryDataTreeFactory;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+
+public class JournaledDataTreeTest {
+    private static final QName TOP = QName.create("urn:opendaylight:params:xml:ns:yang:yangtools:journal-test",
+        "2016-10-01", "top");
+    private static final QName NAME = QName.create(TOP, "name");
+    private static final QName ITEM = QName.create(TOP, "item");
+    private static final QName ID = QName.create(TOP, "id");
+    private static final QName VALUE = QName.create(TOP, "value");
+
+    private static final YangInstanceIdentifier TOP_PATH = YangInstanceIdentifier.of(TOP);
+    private static final YangInstanceIdentifier ITEM_PATH = TOP_PATH.node(ITEM);
+
+    private static final JournalConfiguration CONFIG = new JournalConfiguration.Builder().setSegmentSize(4096)
+            .setSyncInterval(0, TimeUnit.MILLISECONDS).setSnapshotInterval(0).build();
+
+    private static SchemaContext schemaContext;
+
+    private Path directory;
+
+    @BeforeClass
+    public static void beforeClass() throws ReactorException {
+        schemaContext = YangInferencePipeline.RFC6020_REACTOR.newBuild().buildEffective(Collections.singletonList(
+            JournaledDataTreeTest.class.getResourceAsStream("/journal-test.yang")));
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static TipProducingDataTree createDataTree() {
+        final TipProducingDataTree ret = InMemoryDataTreeFactory.getInstance().create(TreeType.CONFIGURATION);
+        ret.setSchemaContext(schemaContext);
+        return ret;
+    }
+
+    private static YangInstanceIdentifier itemPath(final String id) {
+        return ITEM_PATH.node(new NodeIdentifierWithPredicates(ITEM, ID, id));
+    }
+
+    private static void writeItem(final JournaledDataTree journaled, final String id, final int value)
+            throws IOException, DataValidationFailedException {
+        final DataTreeModification mod = journaled.getDataTree().takeSnapshot().newModification();
+        mod.merge(TOP_PATH, ImmutableNodes.containerNode(TOP));
+        mod.merge(ITEM_PATH, ImmutableNodes.mapNodeBuilder(ITEM).build());
+        mod.write(itemPath(id), ImmutableNodes.mapEntryBuilder(ITEM, ID, id)
+            .withChild(ImmutableNodes.leafNode(VALUE, value)).build());
+        commit(journaled, mod);
+    }
+
+    private static void commit(final JournaledDataTree journaled, final DataTreeModification mod)
+            throws IOException, DataValidationFailedException {
+        mod.ready();
+        journaled.getDataTree().validate(mod);
+        journaled.commit(journaled.getDataTree().prepare(mod));
+    }
+
+    private static Optional<NormalizedNode<?, ?>> read(final JournaledDataTree journaled) {
+        return journaled.getDataTree().takeSnapshot().readNode(TOP_PATH);
+    }
+
+    @Test
+    public void testRecoverFromJournal() throws IOException, DataValidationFailedException {
+        final Optional<NormalizedNode<?, ?>> expected;
+        try (JournaledDataTree journaled = JournaledDataTree.open(directory, createDataTree(), CONFIG)) {
+            writeItem(journaled, "a", 1);
+            writeItem(journaled, "b", 2);
+
+            final DataTreeModification mod = journaled.getDataTree().takeSnapshot().newModification();
+            mod.delete(itemPath("a"));
+            mod.write(TOP_PATH.node(NAME), ImmutableNodes.leafNode(NAME, "foo"));
+            commit(journaled, mod);
+
+            assertEquals(3, journaled.getLastSequence());
+            expected = read(journaled);
+        }
+
+        try (JournaledDataTree journaled = JournaledDataTree.open(directory, createDataTree(), CONFIG)) {
+            assertEquals(3, journaled.getLastSequence());
+            assertEquals(expected, read(journaled));
+            assertFalse(journaled.getDataTree().takeSnapshot().readNode(itemPath("a")).isPresent());
+        }
+    }
+
+    @Test
+    public void testRecoverFromSnapshot() throws IOException, DataValidationFailedException {
+        final Optional<NormalizedNode<?, ?>> expected;
+        try (JournaledDataTree journaled = JournaledDataTree.open(directory, createDataTree(), CONFIG)) {
+            for (int i = 0; i < 100; ++i) {
+                writeItem(journaled, "item-" + i, i);
+            }
+            journaled.snapshot();
+            // There is no previous snapshot to fall back to, hence the journal is retained
+            assertTrue(Files.exists(directory.resolve(JournalSegment.fileName(1))));
+
+            for (int i = 100; i < 150; ++i) {
+                writeItem(journaled, "item-" + i, i);
+            }
+            journaled.snapshot();
+            writeItem(journaled, "last", 150);
+            expected = read(journaled);
+        }
+
+        assertTrue(Files.exists(directory.resolve(JournalSnapshot.fileName(100))));
+        assertTrue(Files.exists(directory.resolve(JournalSnapshot.fileName(150))));
+        // Journal segments covered by both snapshots have been removed
+        assertFalse(Files.exists(directory.resolve(JournalSegment.fileName(1))));
+
+        try (JournaledDataTree journaled = JournaledDataTree.open(directory, createDataTree(), CONFIG)) {
+            assertEquals(151, journaled.getLastSequence());
+            assertEquals(expected, read(journaled));
+
+            // A third snapshot removes the oldest one
+            journaled.snapshot();
+        }
+        assertFalse(Files.exists(directory.resolve(JournalSnapshot.fileName(100))));
+        assertTrue(Files.exists(directory.resolve(JournalSnapshot.fileName(150))));
+    }
+
+    @Test
+    public void testRecoverFromPreviousSnapshot() throws IOException, DataValidationFailedException {
+        final Optional<NormalizedNode<?, ?>> expected;
+        try (JournaledDataTree journaled = JournaledDataTree.open(directory, createDataTree(), CONFIG)) {
+            for (int i = 0; i < 100; ++i) {
+                writeItem(journaled, "item-" + i, i);
+                if (i == 49 || i == 99) {
+                    journaled.snapshot();
+                }
+            }
+            writeItem(journaled, "last", 100);
+            expected = read(journaled);
+        }
+
+        // Corrupt the latest snapshot, the previous one and the journal are used instead
+        final Path latest = directory.resolve(JournalSnapshot.fileName(100));
+        final byte[] bytes = Files.readAllBytes(latest);
+        bytes[bytes.length / 2] ^= 0xFF;
+        Files.write(latest, bytes);
+
+        try (JournaledDataTree journaled = JournaledDataTree.open(directory, createDataTree(), CONFIG)) {
+            assertEquals(101, journaled.getLastSequence());
+            assertEquals(expected, read(journaled));
+        }
+    }
+
+    @Test
+    public void testAutomaticSnapshot() throws Exception {
+        final JournalConfiguration config = new JournalConfiguration.Builder().setSyncBatchSize(1)
+                .setSnapshotInterval(10).build();
+        try (JournaledDataTree journaled = JournaledDataTree.open(directory, createDataTree(), config)) {
+            for (int i = 0; i < 10; ++i) {
+                writeItem(journaled, "item-" + i, i);
+            }
+        }
+
+        try (JournaledDataTree journaled = JournaledDataTree.open(directory, createDataTree(), config)) {
+            assertEquals(10, journaled.getLastSequence());
+            assertTrue(journaled.getDataTree().takeSnapshot().readNode(itemPath("item-9")).isPresent());
+        }
+    }
+}
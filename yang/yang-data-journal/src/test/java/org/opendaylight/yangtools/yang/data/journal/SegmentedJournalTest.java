@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.journal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SegmentedJournalTest {
+    private static final int SEGMENT_SIZE = 4096;
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static byte[] payload(final long sequence, final int size) {
+        final byte[] ret = new byte[size];
+        final byte[] str = ("record-" + sequence).getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(str, 0, ret, 0, Math.min(str.length, size));
+        return ret;
+    }
+
+    private static List<byte[]> replay(final SegmentedJournal journal, final long after) throws IOException {
+        final List<byte[]> ret = new ArrayList<>();
+        final long[] expected = { after + 1 };
+        journal.replay(after, (sequence, input) -> {
+            assertEquals(expected[0]++, sequence);
+            final byte[] bytes = new byte[input.available()];
+            input.readFully(bytes);
+            ret.add(bytes);
+        });
+        return ret;
+    }
+
+    @Test
+    public void testAppendAndReopen() throws IOException {
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            assertEquals(0, journal.getLastSequence());
+            for (int i = 1; i <= 100; ++i) {
+                assertEquals(i, journal.append(payload(i, 100)));
+            }
+            journal.sync();
+        }
+
+        // 100 records of 116 bytes do not fit into a single segment
+        assertTrue(countFiles() > 1);
+
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            assertEquals(1, journal.getFirstSequence());
+            assertEquals(100, journal.getLastSequence());
+
+            final List<byte[]> records = replay(journal, 50);
+            assertEquals(50, records.size());
+            assertArrayEquals(payload(51, 100), records.get(0));
+            assertArrayEquals(payload(100, 100), records.get(49));
+
+            assertEquals(101, journal.append(payload(101, 10)));
+        }
+    }
+
+    @Test
+    public void testOversizedRecord() throws IOException {
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            journal.append(payload(1, 10));
+            journal.append(payload(2, 3 * SEGMENT_SIZE));
+            journal.append(payload(3, 10));
+        }
+
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            final List<byte[]> records = replay(journal, 0);
+            assertEquals(3, records.size());
+            assertArrayEquals(payload(2, 3 * SEGMENT_SIZE), records.get(1));
+        }
+    }
+
+    @Test
+    public void testDiscardLast() throws IOException {
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            journal.append(payload(1, 10));
+            journal.append(payload(2, 10));
+            journal.discardLast();
+            assertEquals(1, journal.getLastSequence());
+            assertEquals(2, journal.append(payload(3, 10)));
+        }
+
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            final List<byte[]> records = replay(journal, 0);
+            assertEquals(2, records.size());
+            assertArrayEquals(payload(3, 10), records.get(1));
+        }
+    }
+
+    @Test
+    public void testTornRecord() throws IOException {
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            journal.append(payload(1, 10));
+            journal.append(payload(2, 10));
+        }
+
+        // Corrupt the payload of the second record
+        final Path segment = directory.resolve(JournalSegment.fileName(1));
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(JournalSegment.HEADER_SIZE + 2 * JournalSegment.RECORD_HEADER_SIZE + 10 + 1);
+            file.write(0xFF);
+        }
+
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            assertEquals(1, journal.getLastSequence());
+            assertEquals(1, replay(journal, 0).size());
+            assertEquals(2, journal.append(payload(2, 20)));
+        }
+
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            final List<byte[]> records = replay(journal, 0);
+            assertEquals(2, records.size());
+            assertArrayEquals(payload(2, 20), records.get(1));
+        }
+    }
+
+    @Test
+    public void testTornRecordReplacedWithSameLength() throws IOException {
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            journal.append(payload(1, 10));
+            journal.append(payload(2, 10));
+            journal.append(payload(3, 10));
+        }
+
+        // Corrupt the payload of the second record, the third one remains intact
+        final Path segment = directory.resolve(JournalSegment.fileName(1));
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(JournalSegment.HEADER_SIZE + 2 * JournalSegment.RECORD_HEADER_SIZE + 10 + 1);
+            file.write(0xFF);
+        }
+
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            assertEquals(1, journal.getLastSequence());
+            assertEquals(2, journal.append(payload(4, 10)));
+        }
+
+        // The stale third record must not be picked up as the successor of the new second one
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            assertEquals(2, journal.getLastSequence());
+            final List<byte[]> records = replay(journal, 0);
+            assertEquals(2, records.size());
+            assertArrayEquals(payload(4, 10), records.get(1));
+        }
+    }
+
+    @Test
+    public void testUninitializedSegment() throws IOException {
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            journal.append(payload(1, 10));
+        }
+
+        // A crash after the next segment has been grown, but before its header has been written
+        final Path segment = directory.resolve(JournalSegment.fileName(2));
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.setLength(SEGMENT_SIZE);
+        }
+
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            assertFalse(Files.exists(segment));
+            assertEquals(1, journal.getLastSequence());
+            assertEquals(2, journal.append(payload(2, 10)));
+        }
+
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            assertEquals(2, replay(journal, 0).size());
+        }
+    }
+
+    @Test
+    public void testEmptySegment() throws IOException {
+        // A crash right after the first segment has been created
+        Files.createFile(directory.resolve(JournalSegment.fileName(1)));
+
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            assertEquals(0, journal.getLastSequence());
+            assertEquals(1, journal.append(payload(1, 10)));
+        }
+    }
+
+    @Test
+    public void testCompact() throws IOException {
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1)) {
+            for (int i = 1; i <= 100; ++i) {
+                journal.append(payload(i, 100));
+            }
+
+            journal.compact(50);
+            assertTrue(journal.getFirstSequence() > 1);
+            assertTrue(journal.getFirstSequence() <= 51);
+            assertFalse(Files.exists(directory.resolve(JournalSegment.fileName(1))));
+            assertEquals(50, replay(journal, 50).size());
+
+            // The current segment is always retained
+            journal.compact(100);
+            assertEquals(100, journal.getLastSequence());
+            assertEquals(1, countFiles());
+        }
+    }
+
+    @Test
+    public void testStartSequence() throws IOException {
+        try (SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 42)) {
+            assertEquals(41, journal.getLastSequence());
+            assertEquals(42, journal.append(payload(42, 10)));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAppendAfterClose() throws IOException {
+        final SegmentedJournal journal = SegmentedJournal.open(directory, SEGMENT_SIZE, 1);
+        journal.append(payload(1, 10));
+        journal.close();
+
+        // The segment has been unmapped, it must not be touched
+        journal.append(payload(2, 10));
+    }
+}
@@ -27,8 +27,13 @@ public abstract class AbstractModuleStringIdentityrefCodec extends AbstractStrin
 
     @Override
     protected final QName createQName(final String prefix, final String localName) {
+        return createQName(prefix, (CharSequence) localName);
+    }
+
+    @Override
+    protected final QName createQName(final String prefix, final CharSequence localName) {
         final Module module = moduleForPrefix(prefix);
         Preconditions.checkArgument(module != null, "Failed to lookup prefix %s", prefix);
-        return QName.create(module.getQNameModule(), localName);
+        return QName.internedOf(module.getQNameModule(), localName);
     }
 }
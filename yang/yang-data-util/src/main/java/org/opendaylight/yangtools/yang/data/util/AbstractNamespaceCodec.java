@@ -36,6 +36,20 @@ abstract class AbstractNamespaceCodec {
      */
     @Nullable protected abstract QName createQName(@Nonnull final String prefix, @Nonnull final String localName);
 
+    /**
+     * Create a QName for a prefix and a local name held in a character sequence, such as a view into the string being
+     * parsed. The default implementation converts the local name to a String and invokes
+     * {@link #createQName(String, String)}. Subclasses which can resolve names without that copy should override it.
+     *
+     * @param prefix Prefix for namespace
+     * @param localName local name, which must not be retained
+     * @return QName
+     * @throws IllegalArgumentException if the prefix cannot be resolved
+     */
+    @Nullable protected QName createQName(@Nonnull final String prefix, @Nonnull final CharSequence localName) {
+        return createQName(prefix, localName.toString());
+    }
+
     private static String getIdAndPrefixAsStr(final String pathPart) {
         int predicateStartIndex = pathPart.indexOf('[');
         return predicateStartIndex == -1 ? pathPart : pathPart.substring(0, predicateStartIndex);
@@ -11,6 +11,7 @@ import com.google.common.base.CharMatcher;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import java.nio.CharBuffer;
 import java.util.LinkedList;
 import java.util.List;
 import javax.annotation.Nullable;
@@ -184,11 +185,12 @@ class XpathStringParsingPathArgumentBuilder implements Builder<Iterable<PathArgu
      */
     private QName nextQName() {
         // Consume prefix or identifie
-        final String maybePrefix = nextIdentifier();
-        final String prefix,localName;
+        final CharSequence maybePrefix = nextIdentifier();
+        final String prefix;
+        final CharSequence localName;
         if (COLON == currentChar()) {
             // previous token is prefix;
-            prefix = maybePrefix;
+            prefix = maybePrefix.toString();
             skipCurrentChar();
             localName = nextIdentifier();
         } else {
@@ -210,7 +212,7 @@ class XpathStringParsingPathArgumentBuilder implements Builder<Iterable<PathArgu
     }
 
 
-    private QName createQName(final String prefix, final String localName) {
+    private QName createQName(final String prefix, final CharSequence localName) {
         return codec.createQName(prefix, localName);
     }
 
@@ -302,16 +304,16 @@ class XpathStringParsingPathArgumentBuilder implements Builder<Iterable<PathArgu
     }
 
     /**
-     * Returns string which matches IDENTIFIER YANG ABNF token
-     * and sets processing offset after end of identifier.
+     * Returns following identifier and sets offset to its end. The identifier is returned as a view into the data
+     * being parsed, so resolving it to a QName does not need to copy it.
      *
-     * @return string which matches IDENTIFIER YANG ABNF token
+     * @return following identifier
      */
-    private String nextIdentifier() {
+    private CharSequence nextIdentifier() {
         int start = offset;
         checkValid(IDENTIFIER_FIRST_CHAR.matches(currentChar()), "Identifier must start with character from set 'a-zA-Z_'");
         nextSequenceEnd(IDENTIFIER);
-        return data.substring(start, offset);
+        return CharBuffer.wrap(data, start, offset);
     }
 
     private void nextSequenceEnd(final CharMatcher matcher) {
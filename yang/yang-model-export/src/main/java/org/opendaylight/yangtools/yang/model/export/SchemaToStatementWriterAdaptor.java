@@ -16,7 +16,7 @@ import java.util.Iterator;
 import java.util.List;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.opendaylight.yangtools.yang.common.QName;
-import org.opendaylight.yangtools.yang.common.SimpleDateFormatUtil;
+import org.opendaylight.yangtools.yang.common.Revision;
 import org.opendaylight.yangtools.yang.model.api.RevisionAwareXPath;
 import org.opendaylight.yangtools.yang.model.api.Rfc6020Mapping;
 import org.opendaylight.yangtools.yang.model.api.SchemaPath;
@@ -225,7 +225,7 @@ final class SchemaToStatementWriterAdaptor implements Rfc6020ModuleWriter {
     @Override
     public void startRevisionNode(final Date date) {
         writer.startStatement(Rfc6020Mapping.REVISION);
-        writer.writeArgument(SimpleDateFormatUtil.getRevisionFormat().format(date));
+        writer.writeArgument(Revision.of(date).toString());
     }
 
     @Override
@@ -303,7 +303,7 @@ final class SchemaToStatementWriterAdaptor implements Rfc6020ModuleWriter {
     @Override
     public void startRevisionDateNode(final Date date) {
         writer.startStatement(Rfc6020Mapping.REVISION_DATE);
-        writer.writeArgument(SimpleDateFormatUtil.getRevisionFormat().format(date));
+        writer.writeArgument(Revision.of(date).toString());
     }
 
     @Override
@@ -12,12 +12,9 @@ import com.google.common.base.Optional;
 import com.google.common.base.Supplier;
 import com.google.common.collect.SetMultimap;
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
-import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -40,7 +37,7 @@ import org.opendaylight.yangtools.yang.model.api.UnknownSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.UsesNode;
 
 
-public abstract class AbstractSchemaContext implements SchemaContext {
+public abstract class AbstractSchemaContext implements IndexedSchemaContext {
     protected static final Comparator<Module> REVISION_COMPARATOR = (o1, o2) -> {
         if (o2.getRevision() == null) {
             return -1;
@@ -51,6 +48,8 @@ public abstract class AbstractSchemaContext implements SchemaContext {
 
     protected static final Supplier<TreeSet<Module>> MODULE_SET_SUPPLIER = () -> new TreeSet<>(REVISION_COMPARATOR);
 
+    private volatile SchemaContextIndex index;
+
     /**
      * @return yang sources where key is ModuleIdentifier
      */
@@ -67,39 +66,38 @@ public abstract class AbstractSchemaContext implements SchemaContext {
     protected abstract SetMultimap<String, Module> getNameToModules();
 
     @Override
-    public Set<DataSchemaNode> getDataDefinitions() {
-        final Set<DataSchemaNode> dataDefs = new HashSet<>();
-        for (Module m : getModules()) {
-            dataDefs.addAll(m.getChildNodes());
+    public final SchemaContextIndex getIndex() {
+        SchemaContextIndex ret = index;
+        if (ret == null) {
+            synchronized (this) {
+                ret = index;
+                if (ret == null) {
+                    ret = SchemaContextIndex.create(this);
+                    index = ret;
+                }
+            }
         }
-        return dataDefs;
+        return ret;
+    }
+
+    @Override
+    public Set<DataSchemaNode> getDataDefinitions() {
+        return getIndex().getChildNodes();
     }
 
     @Override
     public Set<NotificationDefinition> getNotifications() {
-        final Set<NotificationDefinition> notifications = new HashSet<>();
-        for (Module m : getModules()) {
-            notifications.addAll(m.getNotifications());
-        }
-        return notifications;
+        return getIndex().getNotifications();
     }
 
     @Override
     public Set<RpcDefinition> getOperations() {
-        final Set<RpcDefinition> rpcs = new HashSet<>();
-        for (Module m : getModules()) {
-            rpcs.addAll(m.getRpcs());
-        }
-        return rpcs;
+        return getIndex().getOperations();
     }
 
     @Override
     public Set<ExtensionDefinition> getExtensions() {
-        final Set<ExtensionDefinition> extensions = new HashSet<>();
-        for (Module m : getModules()) {
-            extensions.addAll(m.getExtensionSchemaNodes());
-        }
-        return extensions;
+        return getIndex().getExtensions();
     }
 
     @Override
@@ -124,12 +122,7 @@ public abstract class AbstractSchemaContext implements SchemaContext {
         if (namespace == null) {
             return null;
         }
-        for (Module module : findModuleByNamespace(namespace)) {
-            if (revision == null || revision.equals(module.getRevision())) {
-                return module;
-            }
-        }
-        return null;
+        return getIndex().findModule(namespace, revision);
     }
 
     @Override
@@ -179,49 +172,27 @@ public abstract class AbstractSchemaContext implements SchemaContext {
 
     @Override
     public List<UnknownSchemaNode> getUnknownSchemaNodes() {
-        final List<UnknownSchemaNode> result = new ArrayList<>();
-        for (Module module : getModules()) {
-            result.addAll(module.getUnknownSchemaNodes());
-        }
-        return Collections.unmodifiableList(result);
+        return getIndex().getUnknownSchemaNodes();
     }
 
     @Override
     public Set<TypeDefinition<?>> getTypeDefinitions() {
-        final Set<TypeDefinition<?>> result = new LinkedHashSet<>();
-        for (Module module : getModules()) {
-            result.addAll(module.getTypeDefinitions());
-        }
-        return Collections.unmodifiableSet(result);
+        return getIndex().getTypeDefinitions();
     }
 
     @Override
     public Set<DataSchemaNode> getChildNodes() {
-        final Set<DataSchemaNode> result = new LinkedHashSet<>();
-        for (Module module : getModules()) {
-            result.addAll(module.getChildNodes());
-        }
-        return Collections.unmodifiableSet(result);
+        return getIndex().getChildNodes();
     }
 
     @Override
     public Set<GroupingDefinition> getGroupings() {
-        final Set<GroupingDefinition> result = new LinkedHashSet<>();
-        for (Module module : getModules()) {
-            result.addAll(module.getGroupings());
-        }
-        return Collections.unmodifiableSet(result);
+        return getIndex().getGroupings();
     }
 
     @Override
     public DataSchemaNode getDataChildByName(final QName name) {
-        for (Module module : getModules()) {
-            final DataSchemaNode result = module.getDataChildByName(name);
-            if (result != null) {
-                return result;
-            }
-        }
-        return null;
+        return getIndex().getDataChildByName(name);
     }
 
     @Override
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util;
+
+import com.google.common.annotations.Beta;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+/**
+ * A {@link SchemaContext} which maintains a {@link SchemaContextIndex}. Utilities such as {@link SchemaContextUtil}
+ * use the index to short-cut lookups which would otherwise require a walk of the schema tree.
+ *
+ * <p>
+ * Aggregate getters, such as {@link #getDataDefinitions()}, {@link #getChildNodes()}, {@link #getNotifications()},
+ * {@link #getOperations()}, {@link #getExtensions()}, {@link #getTypeDefinitions()} and {@link #getGroupings()}, are
+ * served from the index. Unlike the sets previously computed on each invocation, the returned sets are unmodifiable
+ * and shared by all callers. Callers which need to modify the result have to copy it first.
+ */
+@Beta
+public interface IndexedSchemaContext extends SchemaContext {
+    /**
+     * Return the index of this context. The index is computed at most once.
+     *
+     * @return Index of this context
+     */
+    @Nonnull SchemaContextIndex getIndex();
+}
@@ -7,8 +7,17 @@
  */
 package org.opendaylight.yangtools.yang.model.util;
 
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
 import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.xml.xpath.XPathExpressionException;
 import org.opendaylight.yangtools.yang.model.api.RevisionAwareXPath;
+import org.opendaylight.yangtools.yang.model.util.xpath.YangXPathExpression;
+import org.opendaylight.yangtools.yang.model.util.xpath.YangXPathParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * The <code>helper</code> implementation of Instance Rewision Aware XPath
@@ -17,20 +26,61 @@ import org.opendaylight.yangtools.yang.model.api.RevisionAwareXPath;
  * @see RevisionAwareXPath
  */
 public class RevisionAwareXPathImpl implements RevisionAwareXPath {
+    private static final Logger LOG = LoggerFactory.getLogger(RevisionAwareXPathImpl.class);
 
     private final String xpath;
     private final boolean absolute;
 
+    // Lazily populated if not provided at instantiation time
+    private volatile Optional<YangXPathExpression> parsedExpression;
+
     public RevisionAwareXPathImpl(final String xpath, final boolean absolute) {
         this.xpath = xpath;
         this.absolute = absolute;
     }
 
+    /**
+     * Create a new instance with an already-parsed form of the XPath expression, which will be returned from
+     * {@link #getParsedExpression()}.
+     *
+     * @param xpath XPath string, as defined in the model
+     * @param absolute true if the XPath starts at the root of the model
+     * @param parsedExpression Parsed form of the expression, null if it failed to parse
+     */
+    @Beta
+    public RevisionAwareXPathImpl(final String xpath, final boolean absolute,
+            @Nullable final YangXPathExpression parsedExpression) {
+        this(xpath, absolute);
+        this.parsedExpression = Optional.fromNullable(parsedExpression);
+    }
+
     @Override
     public boolean isAbsolute() {
         return absolute;
     }
 
+    /**
+     * Return the parsed form of this XPath, so that users evaluating the expression do not need to parse its string
+     * form again. If this object has not been created with a parsed expression, the string form is parsed on first
+     * access and the result is retained.
+     *
+     * @return Parsed expression, or {@link Optional#absent()} if the XPath is not syntactically valid.
+     */
+    @Beta
+    @Nonnull public Optional<YangXPathExpression> getParsedExpression() {
+        Optional<YangXPathExpression> ret = parsedExpression;
+        if (ret == null) {
+            try {
+                ret = Optional.of(YangXPathParser.parseExpression(xpath));
+            } catch (XPathExpressionException e) {
+                LOG.debug("XPath \"{}\" failed to parse", xpath, e);
+                ret = Optional.absent();
+            }
+            parsedExpression = ret;
+        }
+        return ret;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
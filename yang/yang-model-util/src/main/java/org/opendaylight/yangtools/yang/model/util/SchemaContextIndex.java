@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ExtensionDefinition;
+import org.opendaylight.yangtools.yang.model.api.GroupingDefinition;
+import org.opendaylight.yangtools.yang.model.api.IdentitySchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.NotificationDefinition;
+import org.opendaylight.yangtools.yang.model.api.RpcDefinition;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.UnknownSchemaNode;
+
+/**
+ * Precomputed lookup tables for a {@link SchemaContext}. All of them are built in one pass over the context's modules
+ * and are immutable afterwards, hence lookups are constant-time and do not allocate. Collections returned from this
+ * class are unmodifiable.
+ *
+ * The {@link SchemaPath} index follows the same resolution rules as
+ * {@link SchemaContextUtil#findDataSchemaNode(SchemaContext, SchemaPath)}: data children take precedence over
+ * groupings, which take precedence over RPCs and notifications.
+ */
+@Beta
+@Immutable
+public final class SchemaContextIndex {
+    private final Set<DataSchemaNode> childNodes;
+    private final Set<NotificationDefinition> notifications;
+    private final Set<RpcDefinition> operations;
+    private final Set<ExtensionDefinition> extensions;
+    private final Set<TypeDefinition<?>> typeDefinitions;
+    private final Set<GroupingDefinition> groupings;
+    private final List<UnknownSchemaNode> unknownSchemaNodes;
+
+    private final Map<QName, DataSchemaNode> dataChildren;
+    private final Map<URI, Module> latestModules;
+    private final Map<QNameModule, Module> modules;
+    private final Map<SchemaPath, SchemaNode> schemaNodes;
+    private final Map<QName, IdentitySchemaNode> identities;
+    private final ImmutableSetMultimap<QName, IdentitySchemaNode> derivedIdentities;
+
+    private SchemaContextIndex(final SchemaContext context) {
+        final Set<DataSchemaNode> childBuilder = new LinkedHashSet<>();
+        final Set<NotificationDefinition> notificationBuilder = new LinkedHashSet<>();
+        final Set<RpcDefinition> operationBuilder = new LinkedHashSet<>();
+        final Set<ExtensionDefinition> extensionBuilder = new LinkedHashSet<>();
+        final Set<TypeDefinition<?>> typeBuilder = new LinkedHashSet<>();
+        final Set<GroupingDefinition> groupingBuilder = new LinkedHashSet<>();
+        final ImmutableList.Builder<UnknownSchemaNode> unknownBuilder = ImmutableList.builder();
+        final Map<QName, DataSchemaNode> childMap = new HashMap<>();
+        final Map<URI, Module> latestMap = new HashMap<>();
+        final Map<QNameModule, Module> moduleMap = new HashMap<>();
+        final Map<QName, IdentitySchemaNode> identityMap = new HashMap<>();
+        final ImmutableSetMultimap.Builder<QName, IdentitySchemaNode> derivedBuilder = ImmutableSetMultimap.builder();
+
+        for (Module module : context.getModules()) {
+            childBuilder.addAll(module.getChildNodes());
+            notificationBuilder.addAll(module.getNotifications());
+            operationBuilder.addAll(module.getRpcs());
+            extensionBuilder.addAll(module.getExtensionSchemaNodes());
+            typeBuilder.addAll(module.getTypeDefinitions());
+            groupingBuilder.addAll(module.getGroupings());
+            unknownBuilder.addAll(module.getUnknownSchemaNodes());
+
+            for (DataSchemaNode child : module.getChildNodes()) {
+                childMap.putIfAbsent(child.getQName(), child);
+            }
+
+            // Resolution order mirrors SchemaContext.findModuleByNamespaceAndRevision(): first match wins
+            final URI namespace = module.getNamespace();
+            if (!latestMap.containsKey(namespace)) {
+                final Iterator<Module> it = context.findModuleByNamespace(namespace).iterator();
+                if (it.hasNext()) {
+                    latestMap.put(namespace, it.next());
+                }
+            }
+            moduleMap.putIfAbsent(QNameModule.create(namespace, module.getRevision()), module);
+
+            for (IdentitySchemaNode identity : module.getIdentities()) {
+                identityMap.putIfAbsent(identity.getQName(), identity);
+                for (IdentitySchemaNode base = identity.getBaseIdentity(); base != null; base = base.getBaseIdentity()) {
+                    derivedBuilder.put(base.getQName(), identity);
+                }
+            }
+        }
+
+        childNodes = ImmutableSet.copyOf(childBuilder);
+        notifications = ImmutableSet.copyOf(notificationBuilder);
+        operations = ImmutableSet.copyOf(operationBuilder);
+        extensions = ImmutableSet.copyOf(extensionBuilder);
+        typeDefinitions = ImmutableSet.copyOf(typeBuilder);
+        groupings = ImmutableSet.copyOf(groupingBuilder);
+        unknownSchemaNodes = unknownBuilder.build();
+        dataChildren = ImmutableMap.copyOf(childMap);
+        latestModules = ImmutableMap.copyOf(latestMap);
+        modules = ImmutableMap.copyOf(moduleMap);
+        identities = ImmutableMap.copyOf(identityMap);
+        derivedIdentities = derivedBuilder.build();
+
+        final Map<SchemaPath, SchemaNode> pathMap = new LinkedHashMap<>();
+        for (Module module : context.getModules()) {
+            indexModule(pathMap, module);
+        }
+        schemaNodes = ImmutableMap.copyOf(pathMap);
+    }
+
+    /**
+     * Build an index of a {@link SchemaContext}. The context's {@link SchemaContext#getModules()} and
+     * {@link SchemaContext#findModuleByNamespace(URI)} methods are consulted.
+     *
+     * @param context SchemaContext to index
+     * @return A new index
+     */
+    public static SchemaContextIndex create(@Nonnull final SchemaContext context) {
+        return new SchemaContextIndex(Preconditions.checkNotNull(context));
+    }
+
+    @Nonnull public Set<DataSchemaNode> getChildNodes() {
+        return childNodes;
+    }
+
+    @Nonnull public Set<NotificationDefinition> getNotifications() {
+        return notifications;
+    }
+
+    @Nonnull public Set<RpcDefinition> getOperations() {
+        return operations;
+    }
+
+    @Nonnull public Set<ExtensionDefinition> getExtensions() {
+        return extensions;
+    }
+
+    @Nonnull public Set<TypeDefinition<?>> getTypeDefinitions() {
+        return typeDefinitions;
+    }
+
+    @Nonnull public Set<GroupingDefinition> getGroupings() {
+        return groupings;
+    }
+
+    @Nonnull public List<UnknownSchemaNode> getUnknownSchemaNodes() {
+        return unknownSchemaNodes;
+    }
+
+    /**
+     * Find a top-level data node.
+     *
+     * @param name Node QName
+     * @return Data node, or null if not found
+     */
+    @Nullable public DataSchemaNode getDataChildByName(final QName name) {
+        return dataChildren.get(name);
+    }
+
+    /**
+     * Find a module by its namespace and revision. If the revision is not specified, the latest revision is returned.
+     *
+     * @param namespace Module namespace
+     * @param revision Module revision, may be null
+     * @return Module, or null if not found
+     */
+    @Nullable public Module findModule(final URI namespace, @Nullable final Date revision) {
+        return revision == null ? latestModules.get(namespace) : modules.get(QNameModule.create(namespace, revision));
+    }
+
+    /**
+     * Find a schema node by its path. The node can be a data node, a grouping, an RPC, its input or output, or
+     * a notification, or any node nested in those.
+     *
+     * @param path Schema path, relative paths are interpreted as if they were absolute
+     * @return Schema node, or null if not found
+     */
+    @Nullable public SchemaNode findSchemaNode(@Nonnull final SchemaPath path) {
+        return schemaNodes.get(path.isAbsolute() ? path : SchemaPath.create(path.getPathFromRoot(), true));
+    }
+
+    /**
+     * Find an identity by its QName.
+     *
+     * @param name Identity QName
+     * @return Identity, or null if not found
+     */
+    @Nullable public IdentitySchemaNode findIdentity(final QName name) {
+        return identities.get(name);
+    }
+
+    /**
+     * Return all identities derived from an identity, both directly and indirectly.
+     *
+     * @param base Base identity QName
+     * @return Derived identities, empty if there are none
+     */
+    @Nonnull public Set<IdentitySchemaNode> getDerivedIdentities(final QName base) {
+        return derivedIdentities.get(base);
+    }
+
+    private void indexModule(final Map<SchemaPath, SchemaNode> pathMap, final Module module) {
+        // Only index modules which are reachable via the same resolution rules as SchemaContextUtil uses
+        if (findModule(module.getNamespace(), module.getRevision()) != module) {
+            return;
+        }
+
+        indexChildren(pathMap, SchemaPath.ROOT, module.getChildNodes());
+        indexChildren(pathMap, SchemaPath.ROOT, module.getGroupings());
+        indexChildren(pathMap, SchemaPath.ROOT, module.getRpcs());
+        indexChildren(pathMap, SchemaPath.ROOT, module.getNotifications());
+    }
+
+    private static void indexChildren(final Map<SchemaPath, SchemaNode> pathMap, final SchemaPath parent,
+            final Collection<? extends SchemaNode> children) {
+        for (SchemaNode child : children) {
+            indexNode(pathMap, parent, child);
+        }
+    }
+
+    private static void indexNode(final Map<SchemaPath, SchemaNode> pathMap, final SchemaPath parent,
+            final SchemaNode node) {
+        SchemaPath path = parent.createChild(node.getQName());
+        final SchemaPath nodePath = node.getPath();
+        if (path.equals(nodePath)) {
+            // Reuse the node's own path, so equal keys are shared
+            path = nodePath;
+        }
+
+        // A node with higher precedence may already be present. We still need to index our children, as a lookup
+        // which fails to find them in that node continues with the next candidate.
+        pathMap.putIfAbsent(path, node);
+
+        if (node instanceof DataNodeContainer) {
+            final DataNodeContainer container = (DataNodeContainer) node;
+            indexChildren(pathMap, path, container.getChildNodes());
+            indexChildren(pathMap, path, container.getGroupings());
+        } else if (node instanceof RpcDefinition) {
+            final RpcDefinition rpc = (RpcDefinition) node;
+            final ContainerSchemaNode input = rpc.getInput();
+            if (input != null) {
+                indexNode(pathMap, path, input);
+            }
+            final ContainerSchemaNode output = rpc.getOutput();
+            if (output != null) {
+                indexNode(pathMap, path, output);
+            }
+            indexChildren(pathMap, path, rpc.getGroupings());
+        } else if (node instanceof ChoiceSchemaNode) {
+            for (ChoiceCaseNode caseNode : ((ChoiceSchemaNode) node).getCases()) {
+                indexNode(pathMap, path, caseNode);
+            }
+        }
+    }
+}
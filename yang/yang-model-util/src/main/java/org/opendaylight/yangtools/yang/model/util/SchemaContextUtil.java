@@ -82,6 +82,13 @@ public final class SchemaContextUtil {
         Preconditions.checkArgument(context != null, "Schema Context reference cannot be NULL");
         Preconditions.checkArgument(schemaPath != null, "Schema Path reference cannot be NULL");
 
+        if (context instanceof IndexedSchemaContext) {
+            final SchemaNode indexed = ((IndexedSchemaContext) context).getIndex().findSchemaNode(schemaPath);
+            if (indexed != null) {
+                return indexed;
+            }
+        }
+
         final Iterable<QName> prefixedPath = schemaPath.getPathFromRoot();
         if (prefixedPath == null) {
             LOG.debug("Schema path {} has null path", schemaPath);
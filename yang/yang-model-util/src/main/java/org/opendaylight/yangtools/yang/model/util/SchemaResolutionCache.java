@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.RpcDefinition;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.TypedSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.stmt.SchemaNodeIdentifier;
+import org.opendaylight.yangtools.yang.model.api.type.LeafrefTypeDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Memoizing front-end to {@link SchemaContextUtil}'s path and leafref resolution. Results are cached per
+ * {@link SchemaContext} for as long as the context itself is reachable, so callers which resolve the same paths and
+ * leafrefs over and over, such as codec factories and validators, only pay the cost of the walk once.
+ *
+ * Schema nodes of an {@link IndexedSchemaContext} are looked up in its {@link SchemaContextIndex}. Only paths which the
+ * index does not resolve are cached here, so the two never hold conflicting entries.
+ *
+ * Negative results are cached as well. Lookups which fail with an exception are not cached, hence the exception is
+ * thrown again on each attempt, just like it would be with {@link SchemaContextUtil}.
+ */
+@Beta
+public final class SchemaResolutionCache {
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaResolutionCache.class);
+
+    /*
+     * Values must not reference the context, otherwise the weak keys would never be cleared. Contexts are supplied by
+     * the caller with each lookup instead.
+     */
+    private static final LoadingCache<SchemaContext, SchemaResolutionCache> CACHES = CacheBuilder.newBuilder()
+            .weakKeys().build(new CacheLoader<SchemaContext, SchemaResolutionCache>() {
+                @Override
+                public SchemaResolutionCache load(@Nonnull final SchemaContext key) {
+                    return new SchemaResolutionCache();
+                }
+            });
+
+    private final ConcurrentMap<SchemaPath, Optional<SchemaNode>> nodes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<LeafrefKey, Optional<TypeDefinition<?>>> leafrefs = new ConcurrentHashMap<>();
+
+    private SchemaResolutionCache() {
+        // Hidden on purpose
+    }
+
+    /**
+     * Cached version of {@link SchemaContextUtil#findDataSchemaNode(SchemaContext, SchemaPath)}.
+     *
+     * @param context Schema Context
+     * @param path Schema Path to search for
+     * @return SchemaNode from the end of the Schema Path or null if the node is not present
+     */
+    @Nullable public static SchemaNode findDataSchemaNode(@Nonnull final SchemaContext context,
+            @Nonnull final SchemaPath path) {
+        Preconditions.checkArgument(context != null, "Schema Context reference cannot be NULL");
+        Preconditions.checkArgument(path != null, "Schema Path reference cannot be NULL");
+        return cacheFor(context).findNode(context, path);
+    }
+
+    /**
+     * Find the schema node identified by a {@link SchemaNodeIdentifier}. Relative identifiers are interpreted as if
+     * they were absolute, just like {@link #findDataSchemaNode(SchemaContext, SchemaPath)} does.
+     *
+     * @param context Schema Context
+     * @param identifier Schema Node Identifier to search for
+     * @return SchemaNode at the end of the identifier or null if the node is not present
+     */
+    @Nullable public static SchemaNode findDataSchemaNode(@Nonnull final SchemaContext context,
+            @Nonnull final SchemaNodeIdentifier identifier) {
+        Preconditions.checkArgument(identifier != null, "Schema Node Identifier reference cannot be NULL");
+        return findDataSchemaNode(context, identifier.asSchemaPath());
+    }
+
+    /**
+     * Cached version of {@link SchemaContextUtil#findNodeInSchemaContext(SchemaContext, Iterable)}.
+     *
+     * @param context Schema Context
+     * @param path QNames of the node, starting at the root
+     * @return SchemaNode at the end of the path or null if the node is not present
+     */
+    @Nullable public static SchemaNode findNodeInSchemaContext(@Nonnull final SchemaContext context,
+            @Nonnull final Iterable<QName> path) {
+        return findDataSchemaNode(context, SchemaPath.create(path, true));
+    }
+
+    /**
+     * Cached version of
+     * {@link SchemaContextUtil#getBaseTypeForLeafRef(LeafrefTypeDefinition, SchemaContext, SchemaNode)}.
+     *
+     * @param type leafref type, as found on the schema node or one of its typedefs
+     * @param context Schema Context
+     * @param schema Schema Node of the referencing leaf or leaf-list
+     * @return Resolved base type, or null if the leafref's path cannot be resolved
+     */
+    @Nullable public static TypeDefinition<?> getBaseTypeForLeafRef(@Nonnull final LeafrefTypeDefinition type,
+            @Nonnull final SchemaContext context, @Nonnull final SchemaNode schema) {
+        return cacheFor(context).findLeafref(new LeafrefKey(type, schema),
+            () -> SchemaContextUtil.getBaseTypeForLeafRef(type, context, schema));
+    }
+
+    /**
+     * Cached version of {@link SchemaContextUtil#getBaseTypeForLeafRef(LeafrefTypeDefinition, SchemaContext, QName)}.
+     *
+     * @param type leafref type, defined by a typedef
+     * @param context Schema Context
+     * @param qname QName of the module defining the typedef
+     * @return Resolved base type, or null if the leafref's path is not absolute
+     */
+    @Nullable public static TypeDefinition<?> getBaseTypeForLeafRef(@Nonnull final LeafrefTypeDefinition type,
+            @Nonnull final SchemaContext context, @Nonnull final QName qname) {
+        return cacheFor(context).findLeafref(new LeafrefKey(type, qname.getModule()),
+            () -> SchemaContextUtil.getBaseTypeForLeafRef(type, context, qname));
+    }
+
+    /**
+     * Resolve all data nodes reachable from a context's modules, including RPC inputs and outputs and notifications,
+     * and the base types of all leafrefs found on them. This is useful at startup, where the cost of the walk can be
+     * taken up front, rather than on the first lookup of each node.
+     *
+     * @param context Schema Context
+     */
+    public static void precompute(@Nonnull final SchemaContext context) {
+        Preconditions.checkArgument(context != null, "Schema Context reference cannot be NULL");
+        final SchemaResolutionCache cache = cacheFor(context);
+        for (Module module : context.getModules()) {
+            cache.precomputeChildren(context, module.getChildNodes());
+            cache.precomputeChildren(context, module.getRpcs());
+            cache.precomputeChildren(context, module.getNotifications());
+        }
+        LOG.debug("Precomputed {} unindexed schema nodes and {} leafrefs", cache.nodes.size(), cache.leafrefs.size());
+    }
+
+    private static SchemaResolutionCache cacheFor(final SchemaContext context) {
+        return CACHES.getUnchecked(context);
+    }
+
+    private SchemaNode findNode(final SchemaContext context, final SchemaPath path) {
+        if (context instanceof IndexedSchemaContext) {
+            final SchemaNode indexed = ((IndexedSchemaContext) context).getIndex().findSchemaNode(path);
+            if (indexed != null) {
+                return indexed;
+            }
+        }
+
+        Optional<SchemaNode> ret = nodes.get(path);
+        if (ret == null) {
+            ret = Optional.fromNullable(SchemaContextUtil.findDataSchemaNode(context, path));
+            final Optional<SchemaNode> prev = nodes.putIfAbsent(path, ret);
+            if (prev != null) {
+                ret = prev;
+            }
+        }
+        return ret.orNull();
+    }
+
+    private TypeDefinition<?> findLeafref(final LeafrefKey key, final Supplier<TypeDefinition<?>> resolver) {
+        Optional<TypeDefinition<?>> ret = leafrefs.get(key);
+        if (ret == null) {
+            ret = Optional.fromNullable(resolver.get());
+            final Optional<TypeDefinition<?>> prev = leafrefs.putIfAbsent(key, ret);
+            if (prev != null) {
+                ret = prev;
+            }
+        }
+        return ret.orNull();
+    }
+
+    private void precomputeChildren(final SchemaContext context, final Collection<? extends SchemaNode> children) {
+        for (SchemaNode child : children) {
+            precomputeNode(context, child);
+        }
+    }
+
+    private void precomputeNode(final SchemaContext context, final SchemaNode node) {
+        // Do not assume the path resolves to this node, as a node with higher precedence may be shadowing it
+        findNode(context, node.getPath());
+
+        if (node instanceof TypedSchemaNode) {
+            final TypeDefinition<?> type = ((TypedSchemaNode) node).getType();
+            if (type instanceof LeafrefTypeDefinition) {
+                try {
+                    getBaseTypeForLeafRef((LeafrefTypeDefinition) type, context, node);
+                } catch (RuntimeException e) {
+                    // Leave the entry empty, so the failure is reported to the caller which actually needs it
+                    LOG.debug("Failed to resolve leafref {} of {}", type, node.getPath(), e);
+                }
+            }
+        } else if (node instanceof DataNodeContainer) {
+            precomputeChildren(context, ((DataNodeContainer) node).getChildNodes());
+        } else if (node instanceof ChoiceSchemaNode) {
+            for (ChoiceCaseNode caseNode : ((ChoiceSchemaNode) node).getCases()) {
+                precomputeNode(context, caseNode);
+            }
+        } else if (node instanceof RpcDefinition) {
+            final ContainerSchemaNode input = ((RpcDefinition) node).getInput();
+            if (input != null) {
+                precomputeNode(context, input);
+            }
+            final ContainerSchemaNode output = ((RpcDefinition) node).getOutput();
+            if (output != null) {
+                precomputeNode(context, output);
+            }
+        }
+    }
+
+    private static final class LeafrefKey {
+        private final LeafrefTypeDefinition type;
+        private final Object origin;
+
+        LeafrefKey(final LeafrefTypeDefinition type, final Object origin) {
+            this.type = Preconditions.checkNotNull(type);
+            this.origin = Preconditions.checkNotNull(origin);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(type) + origin.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof LeafrefKey)) {
+                return false;
+            }
+            final LeafrefKey other = (LeafrefKey) obj;
+            return type == other.type && Objects.equals(origin, other.origin);
+        }
+    }
+}
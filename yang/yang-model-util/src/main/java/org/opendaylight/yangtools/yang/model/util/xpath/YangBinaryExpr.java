@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+
+/**
+ * An expression applying a {@link YangBinaryOperator} to two operands.
+ */
+@Beta
+public final class YangBinaryExpr extends YangExpr {
+    private final YangBinaryOperator operator;
+    private final YangExpr leftExpr;
+    private final YangExpr rightExpr;
+
+    private YangBinaryExpr(final YangBinaryOperator operator, final YangExpr leftExpr, final YangExpr rightExpr) {
+        this.operator = Preconditions.checkNotNull(operator);
+        this.leftExpr = Preconditions.checkNotNull(leftExpr);
+        this.rightExpr = Preconditions.checkNotNull(rightExpr);
+    }
+
+    public static YangBinaryExpr of(final YangBinaryOperator operator, final YangExpr leftExpr,
+            final YangExpr rightExpr) {
+        return new YangBinaryExpr(operator, leftExpr, rightExpr);
+    }
+
+    @Nonnull public YangBinaryOperator getOperator() {
+        return operator;
+    }
+
+    @Nonnull public YangExpr getLeftExpr() {
+        return leftExpr;
+    }
+
+    @Nonnull public YangExpr getRightExpr() {
+        return rightExpr;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(operator, leftExpr, rightExpr);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof YangBinaryExpr)) {
+            return false;
+        }
+        final YangBinaryExpr other = (YangBinaryExpr) obj;
+        return operator == other.operator && leftExpr.equals(other.leftExpr) && rightExpr.equals(other.rightExpr);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + leftExpr + " " + operator.getString() + " " + rightExpr + ")";
+    }
+}
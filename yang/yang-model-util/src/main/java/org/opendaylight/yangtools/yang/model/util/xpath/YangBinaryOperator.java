@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
+
+import com.google.common.annotations.Beta;
+import javax.annotation.Nonnull;
+
+/**
+ * XPath binary operators, as defined in XPath 1.0 sections 3.3 through 3.5.
+ */
+@Beta
+public enum YangBinaryOperator {
+    OR("or"),
+    AND("and"),
+    EQUALS("="),
+    NOT_EQUALS("!="),
+    LT("<"),
+    LTE("<="),
+    GT(">"),
+    GTE(">="),
+    PLUS("+"),
+    MINUS("-"),
+    MUL("*"),
+    DIV("div"),
+    MOD("mod"),
+    UNION("|");
+
+    private final String str;
+
+    YangBinaryOperator(final String str) {
+        this.str = str;
+    }
+
+    /**
+     * Return the XPath string representation of this operator.
+     *
+     * @return String representation
+     */
+    @Nonnull public String getString() {
+        return str;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
+
+import com.google.common.annotations.Beta;
+import org.opendaylight.yangtools.concepts.Immutable;
+
+/**
+ * Common base class of all nodes of a parsed XPath expression. Instances are immutable and implement value-based
+ * {@link #equals(Object)} and {@link #hashCode()}, hence they can be freely shared.
+ */
+@Beta
+public abstract class YangExpr implements Immutable {
+    YangExpr() {
+        // Hidden on purpose
+    }
+
+    @Override
+    public abstract int hashCode();
+
+    @Override
+    public abstract boolean equals(Object obj);
+
+    /**
+     * Return the XPath string representation of this expression. The returned string is not guaranteed to be
+     * identical to the string this expression was parsed from, but it is guaranteed to be equivalent to it.
+     *
+     * @return XPath string representation
+     */
+    @Override
+    public abstract String toString();
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+
+/**
+ * A filter expression, as defined in XPath 1.0 section 3.3. It is composed of a primary expression and a non-empty
+ * list of predicates applied to it.
+ */
+@Beta
+public final class YangFilterExpr extends YangExpr {
+    private final YangExpr primaryExpr;
+    private final List<YangExpr> predicates;
+
+    private YangFilterExpr(final YangExpr primaryExpr, final List<YangExpr> predicates) {
+        this.primaryExpr = Preconditions.checkNotNull(primaryExpr);
+        this.predicates = ImmutableList.copyOf(predicates);
+    }
+
+    public static YangFilterExpr of(final YangExpr primaryExpr, final List<YangExpr> predicates) {
+        return new YangFilterExpr(primaryExpr, predicates);
+    }
+
+    @Nonnull public YangExpr getPrimaryExpr() {
+        return primaryExpr;
+    }
+
+    @Nonnull public List<YangExpr> getPredicates() {
+        return predicates;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(primaryExpr, predicates);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof YangFilterExpr)) {
+            return false;
+        }
+        final YangFilterExpr other = (YangFilterExpr) obj;
+        return primaryExpr.equals(other.primaryExpr) && predicates.equals(other.predicates);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder().append('(').append(primaryExpr).append(')');
+        for (YangExpr predicate : predicates) {
+            sb.append('[').append(predicate).append(']');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A function call, as defined in XPath 1.0 section 3.2. The function name may be prefixed, which is the case for
+ * functions defined outside of XPath 1.0 core function library.
+ */
+@Beta
+public final class YangFunctionCallExpr extends YangExpr {
+    private static final Joiner COMMA_JOINER = Joiner.on(", ");
+
+    private final String prefix;
+    private final String name;
+    private final List<YangExpr> arguments;
+
+    private YangFunctionCallExpr(final String prefix, final String name, final List<YangExpr> arguments) {
+        this.prefix = prefix;
+        this.name = Preconditions.checkNotNull(name);
+        this.arguments = ImmutableList.copyOf(arguments);
+    }
+
+    public static YangFunctionCallExpr of(@Nullable final String prefix, final String name,
+            final List<YangExpr> arguments) {
+        return new YangFunctionCallExpr(prefix, name, arguments);
+    }
+
+    @Nullable public String getPrefix() {
+        return prefix;
+    }
+
+    @Nonnull public String getName() {
+        return name;
+    }
+
+    @Nonnull public List<YangExpr> getArguments() {
+        return arguments;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(prefix, name, arguments);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof YangFunctionCallExpr)) {
+            return false;
+        }
+        final YangFunctionCallExpr other = (YangFunctionCallExpr) obj;
+        return Objects.equals(prefix, other.prefix) && name.equals(other.name) && arguments.equals(other.arguments);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        if (prefix != null) {
+            sb.append(prefix).append(':');
+        }
+        sb.append(name).append('(');
+        return COMMA_JOINER.appendTo(sb, arguments).append(')').toString();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import javax.annotation.Nonnull;
+
+/**
+ * A string literal.
+ */
+@Beta
+public final class YangLiteralExpr extends YangExpr {
+    private final String literal;
+
+    private YangLiteralExpr(final String literal) {
+        this.literal = Preconditions.checkNotNull(literal);
+    }
+
+    public static YangLiteralExpr of(final String literal) {
+        return new YangLiteralExpr(literal);
+    }
+
+    @Nonnull public String getLiteral() {
+        return literal;
+    }
+
+    @Override
+    public int hashCode() {
+        return literal.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return this == obj || obj instanceof YangLiteralExpr && literal.equals(((YangLiteralExpr) obj).literal);
+    }
+
+    @Override
+    public String toString() {
+        // XPath 1.0 does not allow escaping, pick a quote which does not appear in the literal
+        final char quote = literal.indexOf('\'') == -1 ? '\'' : '"';
+        return quote + literal + quote;
+    }
+}
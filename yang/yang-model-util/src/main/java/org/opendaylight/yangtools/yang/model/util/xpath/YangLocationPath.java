@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.concepts.Immutable;
+
+/**
+ * A location path, as defined in XPath 1.0 section 2. Abbreviated syntax is expanded during parsing, so that
+ * {@code ..} is represented as {@code parent::node()}, {@code //} as {@code /descendant-or-self::node()/} and so on.
+ */
+@Beta
+public final class YangLocationPath extends YangExpr {
+    /**
+     * A single location step.
+     */
+    public static final class Step implements Immutable {
+        private final YangXPathAxis axis;
+        private final YangNodeTest nodeTest;
+        private final List<YangExpr> predicates;
+
+        private Step(final YangXPathAxis axis, final YangNodeTest nodeTest, final List<YangExpr> predicates) {
+            this.axis = Preconditions.checkNotNull(axis);
+            this.nodeTest = Preconditions.checkNotNull(nodeTest);
+            this.predicates = ImmutableList.copyOf(predicates);
+        }
+
+        public static Step of(final YangXPathAxis axis, final YangNodeTest nodeTest) {
+            return new Step(axis, nodeTest, ImmutableList.of());
+        }
+
+        public static Step of(final YangXPathAxis axis, final YangNodeTest nodeTest, final List<YangExpr> predicates) {
+            return new Step(axis, nodeTest, predicates);
+        }
+
+        @Nonnull public YangXPathAxis getAxis() {
+            return axis;
+        }
+
+        @Nonnull public YangNodeTest getNodeTest() {
+            return nodeTest;
+        }
+
+        @Nonnull public List<YangExpr> getPredicates() {
+            return predicates;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(axis, nodeTest, predicates);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Step)) {
+                return false;
+            }
+            final Step other = (Step) obj;
+            return axis == other.axis && nodeTest.equals(other.nodeTest) && predicates.equals(other.predicates);
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder().append(axis.getString()).append("::").append(nodeTest);
+            for (YangExpr predicate : predicates) {
+                sb.append('[').append(predicate).append(']');
+            }
+            return sb.toString();
+        }
+    }
+
+    private static final Joiner SLASH_JOINER = Joiner.on('/');
+    private static final YangLocationPath ROOT = new YangLocationPath(true, ImmutableList.of());
+
+    private final List<Step> steps;
+    private final boolean absolute;
+
+    private YangLocationPath(final boolean absolute, final List<Step> steps) {
+        this.absolute = absolute;
+        this.steps = ImmutableList.copyOf(steps);
+    }
+
+    /**
+     * Return the location path selecting the root node, i.e. {@code /}.
+     *
+     * @return Root location path
+     */
+    public static YangLocationPath root() {
+        return ROOT;
+    }
+
+    public static YangLocationPath of(final boolean absolute, final List<Step> steps) {
+        if (absolute && steps.isEmpty()) {
+            return ROOT;
+        }
+        Preconditions.checkArgument(absolute || !steps.isEmpty(), "Relative location path requires at least one step");
+        return new YangLocationPath(absolute, steps);
+    }
+
+    public boolean isAbsolute() {
+        return absolute;
+    }
+
+    @Nonnull public List<Step> getSteps() {
+        return steps;
+    }
+
+    @Override
+    public int hashCode() {
+        return Boolean.hashCode(absolute) * 31 + steps.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof YangLocationPath)) {
+            return false;
+        }
+        final YangLocationPath other = (YangLocationPath) obj;
+        return absolute == other.absolute && steps.equals(other.steps);
+    }
+
+    @Override
+    public String toString() {
+        final String str = SLASH_JOINER.join(steps);
+        return absolute ? "/" + str : str;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import javax.annotation.Nonnull;
+
+/**
+ * Unary minus expression, as defined in XPath 1.0 section 3.5.
+ */
+@Beta
+public final class YangNegateExpr extends YangExpr {
+    private final YangExpr subExpr;
+
+    private YangNegateExpr(final YangExpr subExpr) {
+        this.subExpr = Preconditions.checkNotNull(subExpr);
+    }
+
+    public static YangNegateExpr of(final YangExpr subExpr) {
+        return new YangNegateExpr(subExpr);
+    }
+
+    @Nonnull public YangExpr getSubExpr() {
+        return subExpr;
+    }
+
+    @Override
+    public int hashCode() {
+        return ~subExpr.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return this == obj || obj instanceof YangNegateExpr && subExpr.equals(((YangNegateExpr) obj).subExpr);
+    }
+
+    @Override
+    public String toString() {
+        return "-" + subExpr;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.concepts.Immutable;
+
+/**
+ * A node test, as defined in XPath 1.0 section 2.3. It is either a {@link NameTest} or a {@link NodeTypeTest}.
+ */
+@Beta
+public abstract class YangNodeTest implements Immutable {
+    /**
+     * A name test. Both the prefix and the local name are optional: a missing local name corresponds to a {@code *}
+     * wildcard.
+     */
+    public static final class NameTest extends YangNodeTest {
+        private static final NameTest ANY = new NameTest(null, null);
+
+        private final String prefix;
+        private final String localName;
+
+        private NameTest(final String prefix, final String localName) {
+            this.prefix = prefix;
+            this.localName = localName;
+        }
+
+        /**
+         * Return the prefix of this test, if it is present.
+         *
+         * @return Prefix, or null if the test is not prefixed
+         */
+        @Nullable public String getPrefix() {
+            return prefix;
+        }
+
+        /**
+         * Return the local name of this test, if it is present.
+         *
+         * @return Local name, or null if this test is a wildcard
+         */
+        @Nullable public String getLocalName() {
+            return localName;
+        }
+
+        public boolean isWildcard() {
+            return localName == null;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(prefix, localName);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof NameTest)) {
+                return false;
+            }
+            final NameTest other = (NameTest) obj;
+            return Objects.equals(prefix, other.prefix) && Objects.equals(localName, other.localName);
+        }
+
+        @Override
+        public String toString() {
+            final String name = localName == null ? "*" : localName;
+            return prefix == null ? name : prefix + ':' + name;
+        }
+    }
+
+    /**
+     * A node type test, such as {@code node()}.
+     */
+    public static final class NodeTypeTest extends YangNodeTest {
+        private final YangXPathNodeType nodeType;
+        private final String literal;
+
+        private NodeTypeTest(final YangXPathNodeType nodeType, final String literal) {
+            this.nodeType = Preconditions.checkNotNull(nodeType);
+            this.literal = literal;
+        }
+
+        @Nonnull public YangXPathNodeType getNodeType() {
+            return nodeType;
+        }
+
+        /**
+         * Return the literal argument of a {@code processing-instruction()} test.
+         *
+         * @return The literal, or null if not present
+         */
+        @Nullable public String getLiteral() {
+            return literal;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(nodeType, literal);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof NodeTypeTest)) {
+                return false;
+            }
+            final NodeTypeTest other = (NodeTypeTest) obj;
+            return nodeType == other.nodeType && Objects.equals(literal, other.literal);
+        }
+
+        @Override
+        public String toString() {
+            return literal == null ? nodeType.getString() + "()" : nodeType.getString() + "('" + literal + "')";
+        }
+    }
+
+    private static final NodeTypeTest NODE = new NodeTypeTest(YangXPathNodeType.NODE, null);
+
+    YangNodeTest() {
+        // Hidden on purpose
+    }
+
+    /**
+     * Create a name test.
+     *
+     * @param prefix Optional prefix
+     * @param localName Local name, or null to match any local name
+     * @return A name test
+     */
+    public static NameTest nameTest(@Nullable final String prefix, @Nullable final String localName) {
+        return prefix == null && localName == null ? NameTest.ANY : new NameTest(prefix, localName);
+    }
+
+    /**
+     * Create a node type test.
+     *
+     * @param nodeType Node type
+     * @return A node type test
+     */
+    public static NodeTypeTest nodeTypeTest(final YangXPathNodeType nodeType) {
+        return nodeType == YangXPathNodeType.NODE ? NODE : new NodeTypeTest(nodeType, null);
+    }
+
+    /**
+     * Create a {@code processing-instruction()} test with a literal argument.
+     *
+     * @param literal Literal argument
+     * @return A node type test
+     */
+    public static NodeTypeTest processingInstructionTest(final String literal) {
+        return new NodeTypeTest(YangXPathNodeType.PROCESSING_INSTRUCTION, Preconditions.checkNotNull(literal));
+    }
+
+    @Override
+    public abstract int hashCode();
+
+    @Override
+    public abstract boolean equals(Object obj);
+
+    @Override
+    public abstract String toString();
+}
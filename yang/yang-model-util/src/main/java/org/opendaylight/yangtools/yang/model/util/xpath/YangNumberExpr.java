@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
+
+import com.google.common.annotations.Beta;
+import java.math.BigDecimal;
+
+/**
+ * A numeric literal. XPath 1.0 numbers are IEEE 754 double-precision values.
+ */
+@Beta
+public final class YangNumberExpr extends YangExpr {
+    private final double number;
+
+    private YangNumberExpr(final double number) {
+        this.number = number;
+    }
+
+    public static YangNumberExpr of(final double number) {
+        return new YangNumberExpr(number);
+    }
+
+    public double getNumber() {
+        return number;
+    }
+
+    @Override
+    public int hashCode() {
+        return Double.hashCode(number);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return this == obj || obj instanceof YangNumberExpr
+                && Double.compare(number, ((YangNumberExpr) obj).number) == 0;
+    }
+
+    @Override
+    public String toString() {
+        return BigDecimal.valueOf(number).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+
+/**
+ * A path expression composed of a filter expression and a relative location path evaluated with the nodes selected
+ * by the filter expression as the context, as defined in XPath 1.0 section 3.3.
+ */
+@Beta
+public final class YangPathExpr extends YangExpr {
+    private final YangExpr filterExpr;
+    private final YangLocationPath locationPath;
+
+    private YangPathExpr(final YangExpr filterExpr, final YangLocationPath locationPath) {
+        this.filterExpr = Preconditions.checkNotNull(filterExpr);
+        this.locationPath = Preconditions.checkNotNull(locationPath);
+        Preconditions.checkArgument(!locationPath.isAbsolute(), "Location path %s must be relative", locationPath);
+    }
+
+    public static YangPathExpr of(final YangExpr filterExpr, final YangLocationPath locationPath) {
+        return new YangPathExpr(filterExpr, locationPath);
+    }
+
+    @Nonnull public YangExpr getFilterExpr() {
+        return filterExpr;
+    }
+
+    @Nonnull public YangLocationPath getLocationPath() {
+        return locationPath;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(filterExpr, locationPath);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof YangPathExpr)) {
+            return false;
+        }
+        final YangPathExpr other = (YangPathExpr) obj;
+        return filterExpr.equals(other.filterExpr) && locationPath.equals(other.locationPath);
+    }
+
+    @Override
+    public String toString() {
+        return filterExpr + "/" + locationPath;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A variable reference, as defined in XPath 1.0 section 3.7.
+ */
+@Beta
+public final class YangVariableReferenceExpr extends YangExpr {
+    private final String prefix;
+    private final String localName;
+
+    private YangVariableReferenceExpr(final String prefix, final String localName) {
+        this.prefix = prefix;
+        this.localName = Preconditions.checkNotNull(localName);
+    }
+
+    public static YangVariableReferenceExpr of(@Nullable final String prefix, final String localName) {
+        return new YangVariableReferenceExpr(prefix, localName);
+    }
+
+    @Nullable public String getPrefix() {
+        return prefix;
+    }
+
+    @Nonnull public String getLocalName() {
+        return localName;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(prefix, localName);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof YangVariableReferenceExpr)) {
+            return false;
+        }
+        final YangVariableReferenceExpr other = (YangVariableReferenceExpr) obj;
+        return Objects.equals(prefix, other.prefix) && localName.equals(other.localName);
+    }
+
+    @Override
+    public String toString() {
+        return prefix == null ? "$" + localName : "$" + prefix + ':' + localName;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMap.Builder;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * XPath location path axes, as defined in XPath 1.0 section 2.2.
+ */
+@Beta
+public enum YangXPathAxis {
+    ANCESTOR("ancestor"),
+    ANCESTOR_OR_SELF("ancestor-or-self"),
+    ATTRIBUTE("attribute"),
+    CHILD("child"),
+    DESCENDANT("descendant"),
+    DESCENDANT_OR_SELF("descendant-or-self"),
+    FOLLOWING("following"),
+    FOLLOWING_SIBLING("following-sibling"),
+    NAMESPACE("namespace"),
+    PARENT("parent"),
+    PRECEDING("preceding"),
+    PRECEDING_SIBLING("preceding-sibling"),
+    SELF("self");
+
+    private static final Map<String, YangXPathAxis> STRING_TO_AXIS;
+
+    static {
+        final Builder<String, YangXPathAxis> b = ImmutableMap.builder();
+        for (YangXPathAxis axis : values()) {
+            b.put(axis.str, axis);
+        }
+        STRING_TO_AXIS = b.build();
+    }
+
+    private final String str;
+
+    YangXPathAxis(final String str) {
+        this.str = str;
+    }
+
+    /**
+     * Return the axis name, as it appears in an XPath expression.
+     *
+     * @return Axis name
+     */
+    @Nonnull public String getString() {
+        return str;
+    }
+
+    /**
+     * Look up an axis by its name.
+     *
+     * @param str Axis name
+     * @return Axis, or null if the name does not identify an axis
+     */
+    @Nullable public static YangXPathAxis forString(final String str) {
+        return STRING_TO_AXIS.get(str);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.concepts.Immutable;
+
+/**
+ * A parsed XPath expression, as produced by {@link YangXPathParser}. It retains the string it was parsed from, so it
+ * can be used as a drop-in replacement for the string form.
+ */
+@Beta
+public final class YangXPathExpression implements Immutable {
+    private final String xpath;
+    private final YangExpr rootExpr;
+
+    YangXPathExpression(final String xpath, final YangExpr rootExpr) {
+        this.xpath = Preconditions.checkNotNull(xpath);
+        this.rootExpr = Preconditions.checkNotNull(rootExpr);
+    }
+
+    /**
+     * Return the string this expression was parsed from.
+     *
+     * @return Original XPath string
+     */
+    @Nonnull public String getXPath() {
+        return xpath;
+    }
+
+    /**
+     * Return the root of the abstract syntax tree of this expression.
+     *
+     * @return Root expression
+     */
+    @Nonnull public YangExpr getRootExpr() {
+        return rootExpr;
+    }
+
+    /**
+     * Return the set of namespace prefixes used by this expression, either in name tests, function names or
+     * variable references. This is useful for validating that all prefixes can be resolved in the context of the
+     * module which defines this expression.
+     *
+     * @return Set of prefixes
+     */
+    @Nonnull public Set<String> getPrefixes() {
+        final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+        addPrefixes(builder, rootExpr);
+        return builder.build();
+    }
+
+    private static void addPrefix(final ImmutableSet.Builder<String> builder, final String prefix) {
+        if (prefix != null) {
+            builder.add(prefix);
+        }
+    }
+
+    private static void addPrefixes(final ImmutableSet.Builder<String> builder, final Iterable<YangExpr> exprs) {
+        for (YangExpr expr : exprs) {
+            addPrefixes(builder, expr);
+        }
+    }
+
+    private static void addPrefixes(final ImmutableSet.Builder<String> builder, final YangExpr expr) {
+        if (expr instanceof YangBinaryExpr) {
+            addPrefixes(builder, ((YangBinaryExpr) expr).getLeftExpr());
+            addPrefixes(builder, ((YangBinaryExpr) expr).getRightExpr());
+        } else if (expr instanceof YangNegateExpr) {
+            addPrefixes(builder, ((YangNegateExpr) expr).getSubExpr());
+        } else if (expr instanceof YangFunctionCallExpr) {
+            addPrefix(builder, ((YangFunctionCallExpr) expr).getPrefix());
+            addPrefixes(builder, ((YangFunctionCallExpr) expr).getArguments());
+        } else if (expr instanceof YangVariableReferenceExpr) {
+            addPrefix(builder, ((YangVariableReferenceExpr) expr).getPrefix());
+        } else if (expr instanceof YangFilterExpr) {
+            addPrefixes(builder, ((YangFilterExpr) expr).getPrimaryExpr());
+            addPrefixes(builder, ((YangFilterExpr) expr).getPredicates());
+        } else if (expr instanceof YangPathExpr) {
+            addPrefixes(builder, ((YangPathExpr) expr).getFilterExpr());
+            addPrefixes(builder, ((YangPathExpr) expr).getLocationPath());
+        } else if (expr instanceof YangLocationPath) {
+            for (YangLocationPath.Step step : ((YangLocationPath) expr).getSteps()) {
+                final YangNodeTest test = step.getNodeTest();
+                if (test instanceof YangNodeTest.NameTest) {
+                    addPrefix(builder, ((YangNodeTest.NameTest) test).getPrefix());
+                }
+                addPrefixes(builder, step.getPredicates());
+            }
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return xpath.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof YangXPathExpression)) {
+            return false;
+        }
+        final YangXPathExpression other = (YangXPathExpression) obj;
+        return xpath.equals(other.xpath) && rootExpr.equals(other.rootExpr);
+    }
+
+    @Override
+    public String toString() {
+        return xpath;
+    }
+}
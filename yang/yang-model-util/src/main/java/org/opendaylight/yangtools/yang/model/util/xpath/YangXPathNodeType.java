@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMap.Builder;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * XPath node types which can be used in node tests, as defined in XPath 1.0 section 2.3.
+ */
+@Beta
+public enum YangXPathNodeType {
+    COMMENT("comment"),
+    NODE("node"),
+    PROCESSING_INSTRUCTION("processing-instruction"),
+    TEXT("text");
+
+    private static final Map<String, YangXPathNodeType> STRING_TO_TYPE;
+
+    static {
+        final Builder<String, YangXPathNodeType> b = ImmutableMap.builder();
+        for (YangXPathNodeType type : values()) {
+            b.put(type.str, type);
+        }
+        STRING_TO_TYPE = b.build();
+    }
+
+    private final String str;
+
+    YangXPathNodeType(final String str) {
+        this.str = str;
+    }
+
+    /**
+     * Return the node type name, as it appears in an XPath expression.
+     *
+     * @return Node type name
+     */
+    @Nonnull public String getString() {
+        return str;
+    }
+
+    /**
+     * Look up a node type by its name.
+     *
+     * @param str Node type name
+     * @return Node type, or null if the name does not identify a node type
+     */
+    @Nullable public static YangXPathNodeType forString(final String str) {
+        return STRING_TO_TYPE.get(str);
+    }
+}
@@ -0,0 +1,721 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.xml.xpath.XPathExpressionException;
+
+/**
+ * A parser of XPath 1.0 expressions, as used in YANG {@code must}, {@code when} and {@code path} statements. Unlike
+ * the JAXP XPath API, this parser does not require a namespace context nor a function resolver, as it performs only
+ * syntactic analysis. The resulting {@link YangXPathExpression} retains unresolved prefixes, which can be resolved by
+ * the user in the context of the module which defines the expression.
+ *
+ * Abbreviated syntax is expanded, so that {@code .} is represented as {@code self::node()}, {@code ..} as
+ * {@code parent::node()}, {@code @} as the {@code attribute} axis and {@code //} as
+ * {@code /descendant-or-self::node()/}.
+ *
+ * This class is thread-safe.
+ */
+@Beta
+public final class YangXPathParser {
+    private enum TokenType {
+        LPAREN("("),
+        RPAREN(")"),
+        LBRACKET("["),
+        RBRACKET("]"),
+        DOT("."),
+        DOTDOT(".."),
+        AT("@"),
+        COMMA(","),
+        DCOLON("::"),
+        SLASH("/", true),
+        DSLASH("//", true),
+        PIPE("|", true),
+        PLUS("+", true),
+        MINUS("-", true),
+        EQ("=", true),
+        NEQ("!=", true),
+        LT("<", true),
+        LTE("<=", true),
+        GT(">", true),
+        GTE(">=", true),
+        MUL("*", true),
+        AND("and", true),
+        OR("or", true),
+        MOD("mod", true),
+        DIV("div", true),
+        NAME_TEST("name test"),
+        NODE_TYPE("node type"),
+        FUNCTION_NAME("function name"),
+        AXIS_NAME("axis name"),
+        LITERAL("literal"),
+        NUMBER("number"),
+        VARIABLE("variable reference"),
+        EOF("end of expression");
+
+        final String str;
+        final boolean operator;
+
+        TokenType(final String str) {
+            this(str, false);
+        }
+
+        TokenType(final String str, final boolean operator) {
+            this.str = str;
+            this.operator = operator;
+        }
+    }
+
+    private static final class Token {
+        final TokenType type;
+        final int offset;
+        final String prefix;
+        final String text;
+
+        Token(final TokenType type, final int offset) {
+            this(type, offset, null, null);
+        }
+
+        Token(final TokenType type, final int offset, final String prefix, final String text) {
+            this.type = type;
+            this.offset = offset;
+            this.prefix = prefix;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Tokenizer implementing the disambiguation rules of XPath 1.0 section 3.7.
+     */
+    private static final class Lexer {
+        private final List<Token> tokens = new ArrayList<>();
+        private final String str;
+        private int offset;
+
+        Lexer(final String str) {
+            this.str = str;
+        }
+
+        List<Token> tokenize() throws XPathExpressionException {
+            while (true) {
+                skipWhitespace();
+                if (offset == str.length()) {
+                    tokens.add(new Token(TokenType.EOF, offset));
+                    return tokens;
+                }
+                tokens.add(nextToken());
+            }
+        }
+
+        private void skipWhitespace() {
+            while (offset < str.length() && isWhitespace(str.charAt(offset))) {
+                offset++;
+            }
+        }
+
+        private boolean lookingAt(final String expected) {
+            return str.startsWith(expected, offset);
+        }
+
+        private char peekAfterWhitespace() {
+            int i = offset;
+            while (i < str.length() && isWhitespace(str.charAt(i))) {
+                i++;
+            }
+            return i < str.length() ? str.charAt(i) : 0;
+        }
+
+        private boolean followedByDoubleColon() {
+            int i = offset;
+            while (i < str.length() && isWhitespace(str.charAt(i))) {
+                i++;
+            }
+            return str.startsWith("::", i);
+        }
+
+        /*
+         * XPath 1.0 section 3.7: if there is a preceding token and the preceding token is not one of @, ::, (, [, , or
+         * an Operator, then a * must be recognized as a MultiplyOperator and an NCName must be recognized as an
+         * OperatorName.
+         */
+        private boolean inOperatorPosition() {
+            if (tokens.isEmpty()) {
+                return false;
+            }
+
+            final TokenType prev = tokens.get(tokens.size() - 1).type;
+            switch (prev) {
+                case AT:
+                case DCOLON:
+                case LPAREN:
+                case LBRACKET:
+                case COMMA:
+                    return false;
+                default:
+                    return !prev.operator;
+            }
+        }
+
+        private Token simple(final TokenType type) {
+            final Token ret = new Token(type, offset);
+            offset += type.str.length();
+            return ret;
+        }
+
+        private Token nextToken() throws XPathExpressionException {
+            final char c = str.charAt(offset);
+            switch (c) {
+                case '(':
+                    return simple(TokenType.LPAREN);
+                case ')':
+                    return simple(TokenType.RPAREN);
+                case '[':
+                    return simple(TokenType.LBRACKET);
+                case ']':
+                    return simple(TokenType.RBRACKET);
+                case '@':
+                    return simple(TokenType.AT);
+                case ',':
+                    return simple(TokenType.COMMA);
+                case '|':
+                    return simple(TokenType.PIPE);
+                case '+':
+                    return simple(TokenType.PLUS);
+                case '-':
+                    return simple(TokenType.MINUS);
+                case '=':
+                    return simple(TokenType.EQ);
+                case '/':
+                    return simple(lookingAt("//") ? TokenType.DSLASH : TokenType.SLASH);
+                case '<':
+                    return simple(lookingAt("<=") ? TokenType.LTE : TokenType.LT);
+                case '>':
+                    return simple(lookingAt(">=") ? TokenType.GTE : TokenType.GT);
+                case '!':
+                    if (lookingAt("!=")) {
+                        return simple(TokenType.NEQ);
+                    }
+                    throw error("Unexpected character '!'", offset);
+                case ':':
+                    if (lookingAt("::")) {
+                        return simple(TokenType.DCOLON);
+                    }
+                    throw error("Unexpected character ':'", offset);
+                case '.':
+                    if (lookingAt("..")) {
+                        return simple(TokenType.DOTDOT);
+                    }
+                    if (offset + 1 < str.length() && isDigit(str.charAt(offset + 1))) {
+                        return number();
+                    }
+                    return simple(TokenType.DOT);
+                case '"':
+                case '\'':
+                    return literal(c);
+                case '$':
+                    return variable();
+                case '*':
+                    if (inOperatorPosition()) {
+                        return simple(TokenType.MUL);
+                    }
+                    offset++;
+                    return new Token(TokenType.NAME_TEST, offset - 1);
+                default:
+                    if (isDigit(c)) {
+                        return number();
+                    }
+                    if (isNameStartChar(c)) {
+                        return name();
+                    }
+                    throw error("Unexpected character '" + c + "'", offset);
+            }
+        }
+
+        private Token literal(final char quote) throws XPathExpressionException {
+            final int start = offset;
+            final int end = str.indexOf(quote, start + 1);
+            if (end == -1) {
+                throw error("Unterminated literal", start);
+            }
+
+            offset = end + 1;
+            return new Token(TokenType.LITERAL, start, null, str.substring(start + 1, end));
+        }
+
+        private Token number() {
+            final int start = offset;
+            while (offset < str.length() && isDigit(str.charAt(offset))) {
+                offset++;
+            }
+            if (offset < str.length() && str.charAt(offset) == '.') {
+                offset++;
+                while (offset < str.length() && isDigit(str.charAt(offset))) {
+                    offset++;
+                }
+            }
+            return new Token(TokenType.NUMBER, start, null, str.substring(start, offset));
+        }
+
+        private String ncName() throws XPathExpressionException {
+            final int start = offset;
+            if (offset == str.length() || !isNameStartChar(str.charAt(offset))) {
+                throw error("Expected a name", start);
+            }
+
+            offset++;
+            while (offset < str.length() && isNameChar(str.charAt(offset))) {
+                offset++;
+            }
+            return str.substring(start, offset);
+        }
+
+        private Token variable() throws XPathExpressionException {
+            final int start = offset++;
+            final String first = ncName();
+            if (offset + 1 < str.length() && str.charAt(offset) == ':' && isNameStartChar(str.charAt(offset + 1))) {
+                offset++;
+                return new Token(TokenType.VARIABLE, start, first, ncName());
+            }
+            return new Token(TokenType.VARIABLE, start, null, first);
+        }
+
+        private Token name() throws XPathExpressionException {
+            final int start = offset;
+            final String first = ncName();
+
+            if (inOperatorPosition()) {
+                switch (first) {
+                    case "and":
+                        return new Token(TokenType.AND, start);
+                    case "or":
+                        return new Token(TokenType.OR, start);
+                    case "mod":
+                        return new Token(TokenType.MOD, start);
+                    case "div":
+                        return new Token(TokenType.DIV, start);
+                    default:
+                        throw error("Expected an operator, found '" + first + "'", start);
+                }
+            }
+
+            // Prefixed name, or a prefixed wildcard
+            if (offset + 1 < str.length() && str.charAt(offset) == ':') {
+                final char next = str.charAt(offset + 1);
+                if (next == '*') {
+                    offset += 2;
+                    return new Token(TokenType.NAME_TEST, start, first, null);
+                }
+                if (isNameStartChar(next)) {
+                    offset++;
+                    final String localName = ncName();
+                    return new Token(peekAfterWhitespace() == '(' ? TokenType.FUNCTION_NAME : TokenType.NAME_TEST,
+                        start, first, localName);
+                }
+            }
+
+            if (peekAfterWhitespace() == '(') {
+                return new Token(YangXPathNodeType.forString(first) != null ? TokenType.NODE_TYPE
+                        : TokenType.FUNCTION_NAME, start, null, first);
+            }
+            if (followedByDoubleColon()) {
+                return new Token(TokenType.AXIS_NAME, start, null, first);
+            }
+            return new Token(TokenType.NAME_TEST, start, null, first);
+        }
+
+        private XPathExpressionException error(final String message, final int at) {
+            return YangXPathParser.error(str, message, at);
+        }
+    }
+
+    /**
+     * Recursive-descent parser of the XPath 1.0 grammar, operating on tokens produced by {@link Lexer}.
+     */
+    private static final class Parser {
+        private final List<Token> tokens;
+        private final String str;
+        private int index;
+
+        Parser(final String str, final List<Token> tokens) {
+            this.str = str;
+            this.tokens = tokens;
+        }
+
+        private Token peek() {
+            return tokens.get(index);
+        }
+
+        private TokenType peekType() {
+            return tokens.get(index).type;
+        }
+
+        private Token next() {
+            return tokens.get(index++);
+        }
+
+        private boolean consumeIf(final TokenType type) {
+            if (peekType() == type) {
+                index++;
+                return true;
+            }
+            return false;
+        }
+
+        private Token expect(final TokenType type) throws XPathExpressionException {
+            final Token token = peek();
+            if (token.type != type) {
+                throw error("Expected " + type.str + ", found " + token.type.str, token.offset);
+            }
+            index++;
+            return token;
+        }
+
+        private XPathExpressionException error(final String message, final int at) {
+            return YangXPathParser.error(str, message, at);
+        }
+
+        YangExpr parse() throws XPathExpressionException {
+            final YangExpr ret = parseExpr();
+            final Token token = peek();
+            if (token.type != TokenType.EOF) {
+                throw error("Unexpected " + token.type.str, token.offset);
+            }
+            return ret;
+        }
+
+        private YangExpr parseExpr() throws XPathExpressionException {
+            return parseOrExpr();
+        }
+
+        private YangExpr parseOrExpr() throws XPathExpressionException {
+            YangExpr ret = parseAndExpr();
+            while (consumeIf(TokenType.OR)) {
+                ret = YangBinaryExpr.of(YangBinaryOperator.OR, ret, parseAndExpr());
+            }
+            return ret;
+        }
+
+        private YangExpr parseAndExpr() throws XPathExpressionException {
+            YangExpr ret = parseEqualityExpr();
+            while (consumeIf(TokenType.AND)) {
+                ret = YangBinaryExpr.of(YangBinaryOperator.AND, ret, parseEqualityExpr());
+            }
+            return ret;
+        }
+
+        private YangExpr parseEqualityExpr() throws XPathExpressionException {
+            YangExpr ret = parseRelationalExpr();
+            while (true) {
+                if (consumeIf(TokenType.EQ)) {
+                    ret = YangBinaryExpr.of(YangBinaryOperator.EQUALS, ret, parseRelationalExpr());
+                } else if (consumeIf(TokenType.NEQ)) {
+                    ret = YangBinaryExpr.of(YangBinaryOperator.NOT_EQUALS, ret, parseRelationalExpr());
+                } else {
+                    return ret;
+                }
+            }
+        }
+
+        private YangExpr parseRelationalExpr() throws XPathExpressionException {
+            YangExpr ret = parseAdditiveExpr();
+            while (true) {
+                final YangBinaryOperator operator;
+                switch (peekType()) {
+                    case LT:
+                        operator = YangBinaryOperator.LT;
+                        break;
+                    case LTE:
+                        operator = YangBinaryOperator.LTE;
+                        break;
+                    case GT:
+                        operator = YangBinaryOperator.GT;
+                        break;
+                    case GTE:
+                        operator = YangBinaryOperator.GTE;
+                        break;
+                    default:
+                        return ret;
+                }
+                index++;
+                ret = YangBinaryExpr.of(operator, ret, parseAdditiveExpr());
+            }
+        }
+
+        private YangExpr parseAdditiveExpr() throws XPathExpressionException {
+            YangExpr ret = parseMultiplicativeExpr();
+            while (true) {
+                if (consumeIf(TokenType.PLUS)) {
+                    ret = YangBinaryExpr.of(YangBinaryOperator.PLUS, ret, parseMultiplicativeExpr());
+                } else if (consumeIf(TokenType.MINUS)) {
+                    ret = YangBinaryExpr.of(YangBinaryOperator.MINUS, ret, parseMultiplicativeExpr());
+                } else {
+                    return ret;
+                }
+            }
+        }
+
+        private YangExpr parseMultiplicativeExpr() throws XPathExpressionException {
+            YangExpr ret = parseUnaryExpr();
+            while (true) {
+                final YangBinaryOperator operator;
+                switch (peekType()) {
+                    case MUL:
+                        operator = YangBinaryOperator.MUL;
+                        break;
+                    case DIV:
+                        operator = YangBinaryOperator.DIV;
+                        break;
+                    case MOD:
+                        operator = YangBinaryOperator.MOD;
+                        break;
+                    default:
+                        return ret;
+                }
+                index++;
+                ret = YangBinaryExpr.of(operator, ret, parseUnaryExpr());
+            }
+        }
+
+        private YangExpr parseUnaryExpr() throws XPathExpressionException {
+            if (consumeIf(TokenType.MINUS)) {
+                return YangNegateExpr.of(parseUnaryExpr());
+            }
+            return parseUnionExpr();
+        }
+
+        private YangExpr parseUnionExpr() throws XPathExpressionException {
+            YangExpr ret = parsePathExpr();
+            while (consumeIf(TokenType.PIPE)) {
+                ret = YangBinaryExpr.of(YangBinaryOperator.UNION, ret, parsePathExpr());
+            }
+            return ret;
+        }
+
+        private static boolean startsStep(final TokenType type) {
+            switch (type) {
+                case DOT:
+                case DOTDOT:
+                case AT:
+                case AXIS_NAME:
+                case NAME_TEST:
+                case NODE_TYPE:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private YangExpr parsePathExpr() throws XPathExpressionException {
+            final TokenType type = peekType();
+            if (type == TokenType.SLASH || type == TokenType.DSLASH || startsStep(type)) {
+                return parseLocationPath();
+            }
+
+            final YangExpr primary = parsePrimaryExpr();
+            final List<YangExpr> predicates = parsePredicates();
+            final YangExpr filter = predicates.isEmpty() ? primary : YangFilterExpr.of(primary, predicates);
+
+            final List<YangLocationPath.Step> steps = new ArrayList<>();
+            if (consumeIf(TokenType.SLASH)) {
+                parseRelativeLocationPath(steps);
+            } else if (consumeIf(TokenType.DSLASH)) {
+                steps.add(DESCENDANT_OR_SELF);
+                parseRelativeLocationPath(steps);
+            } else {
+                return filter;
+            }
+            return YangPathExpr.of(filter, YangLocationPath.of(false, steps));
+        }
+
+        private YangLocationPath parseLocationPath() throws XPathExpressionException {
+            final List<YangLocationPath.Step> steps = new ArrayList<>();
+            if (consumeIf(TokenType.SLASH)) {
+                if (startsStep(peekType())) {
+                    parseRelativeLocationPath(steps);
+                }
+                return YangLocationPath.of(true, steps);
+            }
+            if (consumeIf(TokenType.DSLASH)) {
+                steps.add(DESCENDANT_OR_SELF);
+                parseRelativeLocationPath(steps);
+                return YangLocationPath.of(true, steps);
+            }
+
+            parseRelativeLocationPath(steps);
+            return YangLocationPath.of(false, steps);
+        }
+
+        private void parseRelativeLocationPath(final List<YangLocationPath.Step> steps)
+                throws XPathExpressionException {
+            steps.add(parseStep());
+            while (true) {
+                if (consumeIf(TokenType.SLASH)) {
+                    steps.add(parseStep());
+                } else if (consumeIf(TokenType.DSLASH)) {
+                    steps.add(DESCENDANT_OR_SELF);
+                    steps.add(parseStep());
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private YangLocationPath.Step parseStep() throws XPathExpressionException {
+            final Token token = next();
+            final YangXPathAxis axis;
+            switch (token.type) {
+                case DOT:
+                    return SELF;
+                case DOTDOT:
+                    return PARENT;
+                case AT:
+                    axis = YangXPathAxis.ATTRIBUTE;
+                    break;
+                case AXIS_NAME:
+                    axis = YangXPathAxis.forString(token.text);
+                    if (axis == null) {
+                        throw error("Unknown axis '" + token.text + "'", token.offset);
+                    }
+                    expect(TokenType.DCOLON);
+                    break;
+                case NAME_TEST:
+                case NODE_TYPE:
+                    axis = YangXPathAxis.CHILD;
+                    index--;
+                    break;
+                default:
+                    throw error("Expected a location step, found " + token.type.str, token.offset);
+            }
+
+            final YangNodeTest nodeTest = parseNodeTest();
+            return YangLocationPath.Step.of(axis, nodeTest, parsePredicates());
+        }
+
+        private YangNodeTest parseNodeTest() throws XPathExpressionException {
+            final Token token = next();
+            switch (token.type) {
+                case NAME_TEST:
+                    return YangNodeTest.nameTest(token.prefix, token.text);
+                case NODE_TYPE:
+                    final YangXPathNodeType nodeType = YangXPathNodeType.forString(token.text);
+                    expect(TokenType.LPAREN);
+                    final YangNodeTest ret;
+                    if (nodeType == YangXPathNodeType.PROCESSING_INSTRUCTION && peekType() == TokenType.LITERAL) {
+                        ret = YangNodeTest.processingInstructionTest(next().text);
+                    } else {
+                        ret = YangNodeTest.nodeTypeTest(nodeType);
+                    }
+                    expect(TokenType.RPAREN);
+                    return ret;
+                default:
+                    throw error("Expected a node test, found " + token.type.str, token.offset);
+            }
+        }
+
+        private List<YangExpr> parsePredicates() throws XPathExpressionException {
+            if (peekType() != TokenType.LBRACKET) {
+                return Collections.emptyList();
+            }
+
+            final List<YangExpr> predicates = new ArrayList<>(1);
+            while (consumeIf(TokenType.LBRACKET)) {
+                predicates.add(parseExpr());
+                expect(TokenType.RBRACKET);
+            }
+            return predicates;
+        }
+
+        private YangExpr parsePrimaryExpr() throws XPathExpressionException {
+            final Token token = next();
+            switch (token.type) {
+                case VARIABLE:
+                    return YangVariableReferenceExpr.of(token.prefix, token.text);
+                case LPAREN:
+                    final YangExpr ret = parseExpr();
+                    expect(TokenType.RPAREN);
+                    return ret;
+                case LITERAL:
+                    return YangLiteralExpr.of(token.text);
+                case NUMBER:
+                    return YangNumberExpr.of(Double.parseDouble(token.text));
+                case FUNCTION_NAME:
+                    return parseFunctionCall(token);
+                default:
+                    throw error("Expected an expression, found " + token.type.str, token.offset);
+            }
+        }
+
+        private YangExpr parseFunctionCall(final Token name) throws XPathExpressionException {
+            expect(TokenType.LPAREN);
+            if (consumeIf(TokenType.RPAREN)) {
+                return YangFunctionCallExpr.of(name.prefix, name.text, ImmutableList.of());
+            }
+
+            final List<YangExpr> args = new ArrayList<>();
+            do {
+                args.add(parseExpr());
+            } while (consumeIf(TokenType.COMMA));
+            expect(TokenType.RPAREN);
+            return YangFunctionCallExpr.of(name.prefix, name.text, args);
+        }
+    }
+
+    private static final YangLocationPath.Step SELF = YangLocationPath.Step.of(YangXPathAxis.SELF,
+        YangNodeTest.nodeTypeTest(YangXPathNodeType.NODE));
+    private static final YangLocationPath.Step PARENT = YangLocationPath.Step.of(YangXPathAxis.PARENT,
+        YangNodeTest.nodeTypeTest(YangXPathNodeType.NODE));
+    private static final YangLocationPath.Step DESCENDANT_OR_SELF = YangLocationPath.Step.of(
+        YangXPathAxis.DESCENDANT_OR_SELF, YangNodeTest.nodeTypeTest(YangXPathNodeType.NODE));
+
+    private YangXPathParser() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Parse an XPath 1.0 expression.
+     *
+     * @param xpath XPath expression string
+     * @return A parsed expression
+     * @throws NullPointerException if xpath is null
+     * @throws XPathExpressionException if the string is not a syntactically valid XPath expression
+     */
+    @Nonnull public static YangXPathExpression parseExpression(final String xpath) throws XPathExpressionException {
+        Preconditions.checkNotNull(xpath);
+        final List<Token> tokens = new Lexer(xpath).tokenize();
+        return new YangXPathExpression(xpath, new Parser(xpath, tokens).parse());
+    }
+
+    private static XPathExpressionException error(final String str, final String message, final int offset) {
+        return new XPathExpressionException(String.format("%s at offset %s of \"%s\"", message, offset, str));
+    }
+
+    private static boolean isWhitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isNameStartChar(final char c) {
+        return c == '_' || Character.isLetter(c);
+    }
+
+    private static boolean isNameChar(final char c) {
+        return c == '_' || c == '-' || c == '.' || c == '\u00B7' || Character.isLetterOrDigit(c)
+                || Character.getType(c) == Character.NON_SPACING_MARK
+                || Character.getType(c) == Character.COMBINING_SPACING_MARK;
+    }
+}
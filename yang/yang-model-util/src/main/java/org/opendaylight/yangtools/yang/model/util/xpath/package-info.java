@@ -0,0 +1,12 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+/**
+ * Parser and abstract syntax tree of XPath 1.0 expressions as used in YANG {@code must}, {@code when} and
+ * {@code path} statements.
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
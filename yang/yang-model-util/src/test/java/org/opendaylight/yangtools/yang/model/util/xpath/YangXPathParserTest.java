@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.xpath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import javax.xml.xpath.XPathExpressionException;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.model.util.RevisionAwareXPathImpl;
+
+public class YangXPathParserTest {
+
+    private static YangExpr parse(final String xpath) throws XPathExpressionException {
+        return YangXPathParser.parseExpression(xpath).getRootExpr();
+    }
+
+    @Test
+    public void testLeafrefPath() throws XPathExpressionException {
+        final YangExpr expr = parse("../foo:bar");
+        assertTrue(expr instanceof YangLocationPath);
+
+        final YangLocationPath path = (YangLocationPath) expr;
+        assertFalse(path.isAbsolute());
+
+        final List<YangLocationPath.Step> steps = path.getSteps();
+        assertEquals(2, steps.size());
+        assertEquals(YangXPathAxis.PARENT, steps.get(0).getAxis());
+        assertEquals(YangNodeTest.nodeTypeTest(YangXPathNodeType.NODE), steps.get(0).getNodeTest());
+        assertEquals(YangXPathAxis.CHILD, steps.get(1).getAxis());
+        assertEquals(YangNodeTest.nameTest("foo", "bar"), steps.get(1).getNodeTest());
+    }
+
+    @Test
+    public void testAbsolutePathWithPredicate() throws XPathExpressionException {
+        final YangXPathExpression expr = YangXPathParser.parseExpression("/a:b/c:d[e:f = current()/../g]");
+        assertEquals(ImmutableSet.of("a", "c", "e"), expr.getPrefixes());
+        assertEquals("/child::a:b/child::c:d[(child::e:f = current()/parent::node()/child::g)]",
+            expr.getRootExpr().toString());
+
+        final YangLocationPath path = (YangLocationPath) expr.getRootExpr();
+        assertTrue(path.isAbsolute());
+        final YangExpr predicate = path.getSteps().get(1).getPredicates().get(0);
+        assertTrue(predicate instanceof YangBinaryExpr);
+        assertEquals(YangBinaryOperator.EQUALS, ((YangBinaryExpr) predicate).getOperator());
+        assertTrue(((YangBinaryExpr) predicate).getRightExpr() instanceof YangPathExpr);
+    }
+
+    @Test
+    public void testOperatorDisambiguation() throws XPathExpressionException {
+        // 'and' and '*' are operators here, 'div' is an element name
+        final YangExpr expr = parse("div * 2 and not(mod)");
+        assertEquals(YangBinaryExpr.of(YangBinaryOperator.AND,
+            YangBinaryExpr.of(YangBinaryOperator.MUL,
+                YangLocationPath.of(false, ImmutableList.of(YangLocationPath.Step.of(YangXPathAxis.CHILD,
+                    YangNodeTest.nameTest(null, "div")))),
+                YangNumberExpr.of(2)),
+            YangFunctionCallExpr.of(null, "not", ImmutableList.of(
+                YangLocationPath.of(false, ImmutableList.of(YangLocationPath.Step.of(YangXPathAxis.CHILD,
+                    YangNodeTest.nameTest(null, "mod"))))))), expr);
+    }
+
+    @Test
+    public void testOperatorPrecedence() throws XPathExpressionException {
+        assertEquals("((1 + (2 * 3)) = 7)", parse("1 + 2 * 3 = 7").toString());
+        assertEquals("((a or (b and c)) or d)", parse("a or b and c or d").toString()
+            .replace("child::", ""));
+        assertEquals("(-1 - -2)", parse("-1 - -2").toString());
+    }
+
+    @Test
+    public void testAbbreviations() throws XPathExpressionException {
+        assertSame(YangLocationPath.root(), parse("/"));
+        assertEquals("self::node()", parse(".").toString());
+        assertEquals("attribute::x", parse("@x").toString());
+        assertEquals("/descendant-or-self::node()/child::*", parse("//*").toString());
+        assertEquals("child::a/descendant-or-self::node()/child::b", parse("a//b").toString());
+    }
+
+    @Test
+    public void testFilterExpression() throws XPathExpressionException {
+        final YangExpr expr = parse("(a | b)[1]/c");
+        assertTrue(expr instanceof YangPathExpr);
+        final YangExpr filter = ((YangPathExpr) expr).getFilterExpr();
+        assertTrue(filter instanceof YangFilterExpr);
+        assertEquals(ImmutableList.of(YangNumberExpr.of(1)), ((YangFilterExpr) filter).getPredicates());
+    }
+
+    @Test
+    public void testLiteralsAndVariables() throws XPathExpressionException {
+        assertEquals(YangLiteralExpr.of("x\"y"), parse("'x\"y'"));
+        assertEquals(YangVariableReferenceExpr.of("p", "v"), parse("$p:v"));
+        assertEquals(YangFunctionCallExpr.of("x", "foo", ImmutableList.of()), parse("x:foo()"));
+    }
+
+    @Test
+    public void testEquality() throws XPathExpressionException {
+        assertEquals(YangXPathParser.parseExpression("../a"), YangXPathParser.parseExpression("../a"));
+        assertEquals(parse("../a"), parse(" parent::node() / child::a "));
+    }
+
+    @Test(expected = XPathExpressionException.class)
+    public void testIncompleteExpression() throws XPathExpressionException {
+        parse("a +");
+    }
+
+    @Test(expected = XPathExpressionException.class)
+    public void testTrailingSlash() throws XPathExpressionException {
+        parse("/a/");
+    }
+
+    @Test(expected = XPathExpressionException.class)
+    public void testUnterminatedLiteral() throws XPathExpressionException {
+        parse("'abc");
+    }
+
+    @Test(expected = XPathExpressionException.class)
+    public void testUnknownAxis() throws XPathExpressionException {
+        parse("a::b");
+    }
+
+    @Test(expected = XPathExpressionException.class)
+    public void testMissingOperator() throws XPathExpressionException {
+        parse("a b");
+    }
+
+    @Test
+    public void testRevisionAwareXPathImpl() {
+        final RevisionAwareXPathImpl valid = new RevisionAwareXPathImpl("../foo", false);
+        assertTrue(valid.getParsedExpression().isPresent());
+        assertSame(valid.getParsedExpression().get(), valid.getParsedExpression().get());
+
+        final RevisionAwareXPathImpl invalid = new RevisionAwareXPathImpl("../foo[", false);
+        assertFalse(invalid.getParsedExpression().isPresent());
+        assertEquals(new RevisionAwareXPathImpl("../foo[", false, null), invalid);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.spi.meta;
+
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.model.api.meta.IdentifierNamespace;
+
+/**
+ * An {@link IdentifierNamespace} implementing an internment interface for immutable objects held by effective
+ * statements, such as descriptions, references, constraints and schema paths. The namespace is stored in the global
+ * context, hence equal objects are shared across all sources processed by a single reactor and the cache is released
+ * together with the reactor once the effective model has been built.
+ *
+ * Lookups in this namespace always return a non-null object. They capture the first object instance and return that
+ * on subsequent lookups. Objects placed in this namespace must be immutable and must have an {@code equals()} method
+ * which takes into account all of their observable state.
+ */
+public final class EffectiveObjectCacheNamespace extends
+        NamespaceBehaviour<Object, Object, EffectiveObjectCacheNamespace> implements IdentifierNamespace<Object, Object> {
+
+    private static final EffectiveObjectCacheNamespace INSTANCE = new EffectiveObjectCacheNamespace();
+
+    private EffectiveObjectCacheNamespace() {
+        super(EffectiveObjectCacheNamespace.class);
+    }
+
+    public static EffectiveObjectCacheNamespace getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Return a shared instance of an object equal to the specified object.
+     *
+     * @param ctx Statement context which is being processed
+     * @param obj Object to be interned, may be null
+     * @return Shared instance, or null if obj is null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T intern(final StmtContext<?, ?, ?> ctx, @Nullable final T obj) {
+        if (obj == null) {
+            return null;
+        }
+
+        return (T) ctx.getFromNamespace(EffectiveObjectCacheNamespace.class, obj);
+    }
+
+    @Override
+    public Object get(final Object identifier) {
+        throw new UnsupportedOperationException("Identifier/implementation API borkage");
+    }
+
+    private static NamespaceStorageNode getRoot(final NamespaceStorageNode storage) {
+        NamespaceStorageNode wlk = storage;
+
+        while (wlk.getParentNamespaceStorage() != null) {
+            wlk = wlk.getParentNamespaceStorage();
+        }
+
+        return wlk;
+    }
+
+    @Override
+    public Object getFrom(final NamespaceStorageNode storage, final Object key) {
+        final NamespaceStorageNode root = getRoot(storage);
+        final Object stored = root.getFromLocalStorage(EffectiveObjectCacheNamespace.class, key);
+        if (stored == null) {
+            root.addToLocalStorage(EffectiveObjectCacheNamespace.class, key, key);
+            return key;
+        } else {
+            return stored;
+        }
+    }
+
+    @Override
+    public Map<Object, Object> getAllFrom(final NamespaceStorageNode storage) {
+        return getRoot(storage).getAllFromLocalStorage(EffectiveObjectCacheNamespace.class);
+    }
+
+    @Override
+    public void addTo(final NamespaceStorageNode storage, final Object key, final Object value) {
+        throw new UnsupportedOperationException("Automagically populated");
+    }
+}
@@ -23,6 +23,7 @@ import org.opendaylight.yangtools.yang.model.api.stmt.KeyStatement;
 import org.opendaylight.yangtools.yang.model.api.stmt.RefineStatement;
 import org.opendaylight.yangtools.yang.model.api.stmt.SchemaNodeIdentifier;
 import org.opendaylight.yangtools.yang.model.api.stmt.UsesStatement;
+import org.opendaylight.yangtools.yang.parser.spi.meta.EffectiveObjectCacheNamespace;
 import org.opendaylight.yangtools.yang.parser.spi.meta.InferenceException;
 import org.opendaylight.yangtools.yang.parser.spi.meta.NamespaceBehaviour.NamespaceStorageNode;
 import org.opendaylight.yangtools.yang.parser.spi.meta.NamespaceBehaviour.Registry;
@@ -208,7 +209,7 @@ final class SubstatementContext<A, D extends DeclaredStatement<A>, E extends Eff
             synchronized (this) {
                 local = schemaPath;
                 if (local == null) {
-                    local = createSchemaPath();
+                    local = EffectiveObjectCacheNamespace.intern(this, createSchemaPath());
                     schemaPath = local;
                 }
             }
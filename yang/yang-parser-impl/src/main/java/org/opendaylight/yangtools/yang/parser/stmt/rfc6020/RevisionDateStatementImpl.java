@@ -7,9 +7,8 @@
  */
 package org.opendaylight.yangtools.yang.parser.stmt.rfc6020;
 
-import java.text.ParseException;
 import java.util.Date;
-import org.opendaylight.yangtools.yang.common.SimpleDateFormatUtil;
+import org.opendaylight.yangtools.yang.common.Revision;
 import org.opendaylight.yangtools.yang.model.api.Rfc6020Mapping;
 import org.opendaylight.yangtools.yang.model.api.meta.EffectiveStatement;
 import org.opendaylight.yangtools.yang.model.api.stmt.RevisionDateStatement;
@@ -39,8 +38,8 @@ public class RevisionDateStatementImpl extends AbstractDeclaredStatement<Date> i
         @Override
         public Date parseArgumentValue(final StmtContext<?, ?, ?> ctx, final String value) {
             try {
-                return SimpleDateFormatUtil.getRevisionFormat().parse(value);
-            } catch (ParseException e) {
+                return Revision.of(value).toDate();
+            } catch (IllegalArgumentException e) {
                 throw new SourceException(ctx.getStatementSourceReference(), e,
                     "Revision value %s is not in required format yyyy-MM-dd", value);
             }
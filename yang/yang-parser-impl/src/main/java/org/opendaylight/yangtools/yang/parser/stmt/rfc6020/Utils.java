@@ -31,13 +31,12 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 import javax.annotation.Nullable;
-import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 import org.antlr.v4.runtime.tree.TerminalNode;
 import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.common.Revision;
 import org.opendaylight.yangtools.yang.common.SimpleDateFormatUtil;
 import org.opendaylight.yangtools.yang.model.api.DeviateKind;
 import org.opendaylight.yangtools.yang.model.api.ModuleIdentifier;
@@ -54,6 +53,8 @@ import org.opendaylight.yangtools.yang.model.api.stmt.SubmoduleStatement;
 import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
 import org.opendaylight.yangtools.yang.model.util.RevisionAwareXPathImpl;
+import org.opendaylight.yangtools.yang.model.util.xpath.YangXPathExpression;
+import org.opendaylight.yangtools.yang.model.util.xpath.YangXPathParser;
 import org.opendaylight.yangtools.yang.parser.spi.meta.QNameCacheNamespace;
 import org.opendaylight.yangtools.yang.parser.spi.meta.StmtContext;
 import org.opendaylight.yangtools.yang.parser.spi.meta.StmtContextUtils;
@@ -302,23 +303,19 @@ public final class Utils {
         KEYWORD_TO_DEVIATE_MAP = keywordToDeviateMapBuilder.build();
     }
 
-    private static final ThreadLocal<XPathFactory> XPATH_FACTORY = new ThreadLocal<XPathFactory>() {
-        @Override
-        protected XPathFactory initialValue() {
-            return XPathFactory.newInstance();
-        }
-    };
-
     private Utils() {
         throw new UnsupportedOperationException();
     }
 
     /**
-     * Cleanup any resources attached to the current thread. Threads interacting with this class can cause thread-local
-     * caches to them. Invoke this method if you want to detach those resources.
+     * Cleanup any resources attached to the current thread. This class no longer attaches any thread-local state,
+     * hence this method does nothing.
+     *
+     * @deprecated This method is a no-op and will be removed.
      */
+    @Deprecated
     public static void detachFromCurrentThread() {
-        XPATH_FACTORY.remove();
+        // No-op
     }
 
     public static Collection<SchemaNodeIdentifier.Relative> transformKeysStringToKeyNodes(final StmtContext<?, ?, ?> ctx,
@@ -361,18 +358,26 @@ public final class Utils {
     }
 
     static RevisionAwareXPath parseXPath(final StmtContext<?, ?, ?> ctx, final String path) {
-        final XPath xPath = XPATH_FACTORY.get().newXPath();
-        xPath.setNamespaceContext(StmtNamespaceContext.create(ctx));
-
         final String trimmed = trimSingleLastSlashFromXPath(path);
+
+        YangXPathExpression parsed;
         try {
-            // TODO: we could capture the result and expose its 'evaluate' method
-            xPath.compile(trimmed);
+            parsed = YangXPathParser.parseExpression(trimmed);
         } catch (final XPathExpressionException e) {
             LOG.warn("Argument \"{}\" is not valid XPath string at \"{}\"", path, ctx.getStatementSourceReference(), e);
+            parsed = null;
+        }
+
+        if (parsed != null) {
+            for (final String prefix : parsed.getPrefixes()) {
+                if (getModuleQNameByPrefix(ctx, prefix) == null) {
+                    LOG.warn("Argument \"{}\" references unknown prefix \"{}\" at \"{}\"", path, prefix,
+                        ctx.getStatementSourceReference());
+                }
+            }
         }
 
-        return new RevisionAwareXPathImpl(path, PATH_ABS.matcher(path).matches());
+        return new RevisionAwareXPathImpl(path, PATH_ABS.matcher(path).matches(), parsed);
     }
 
     public static QName trimPrefix(final QName identifier) {
@@ -707,7 +712,7 @@ public final class Utils {
             // creates SourceIdentifier for a submodule
             final Date revision = Optional.fromNullable(Utils.getLatestRevision(root.declaredSubstatements()))
                     .or(SimpleDateFormatUtil.DEFAULT_DATE_REV);
-            final String formattedRevision = SimpleDateFormatUtil.getRevisionFormat().format(revision);
+            final String formattedRevision = Revision.of(revision).toString();
             return RevisionSourceIdentifier.create((String) root.getStatementArgument(),
                     formattedRevision);
         }
@@ -11,6 +11,7 @@ import com.google.common.base.Verify;
 import org.opendaylight.yangtools.yang.model.api.meta.DeclaredStatement;
 import org.opendaylight.yangtools.yang.model.api.meta.StatementDefinition;
 import org.opendaylight.yangtools.yang.model.api.meta.StatementSource;
+import org.opendaylight.yangtools.yang.parser.spi.meta.EffectiveObjectCacheNamespace;
 import org.opendaylight.yangtools.yang.parser.spi.meta.StmtContext;
 import org.opendaylight.yangtools.yang.parser.stmt.reactor.StatementContextBase;
 
@@ -40,7 +41,7 @@ public abstract class DeclaredEffectiveStatementBase<A, D extends DeclaredStatem
     protected DeclaredEffectiveStatementBase(StmtContext<A, D, ?> ctx, final boolean buildUnknownSubstatements) {
         super(ctx, buildUnknownSubstatements);
 
-        this.argument = ctx.getStatementArgument();
+        this.argument = internArgument(ctx, ctx.getStatementArgument());
         this.statementSource = ctx.getStatementSource();
 
         /*
@@ -57,6 +58,14 @@ public abstract class DeclaredEffectiveStatementBase<A, D extends DeclaredStatem
                 ctx);
     }
 
+    /*
+     * String arguments, like descriptions, references and units, are frequently duplicated across modules and
+     * across copies made by uses and augment statements. Share them across the entire reactor.
+     */
+    private static <A> A internArgument(final StmtContext<A, ?, ?> ctx, final A argument) {
+        return argument instanceof String ? EffectiveObjectCacheNamespace.intern(ctx, argument) : argument;
+    }
+
     @Override
     public final StatementDefinition statementDefinition() {
         return declaredInstance.statementDefinition();
@@ -8,13 +8,13 @@
 package org.opendaylight.yangtools.yang.parser.stmt.rfc6020.effective.type;
 
 import com.google.common.collect.ImmutableList;
-import java.util.ArrayList;
 import java.util.List;
 import org.opendaylight.yangtools.yang.model.api.meta.DeclaredStatement;
 import org.opendaylight.yangtools.yang.model.api.meta.EffectiveStatement;
 import org.opendaylight.yangtools.yang.model.api.type.LengthConstraint;
 import org.opendaylight.yangtools.yang.model.api.type.PatternConstraint;
 import org.opendaylight.yangtools.yang.model.api.type.RangeConstraint;
+import org.opendaylight.yangtools.yang.parser.spi.meta.EffectiveObjectCacheNamespace;
 import org.opendaylight.yangtools.yang.parser.spi.meta.StmtContext;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.effective.DeclaredEffectiveStatementBase;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.effective.DescriptionEffectiveStatementImpl;
@@ -56,7 +56,7 @@ abstract class AbstractConstraintEffectiveStatement<A, D extends DeclaredStateme
         this.reference = referenceInit;
         this.errorAppTag = errorAppTagInit;
         this.errorMessage = errorMessageInit;
-        this.constraints = constraintFactory.createConstraints(this, super.argument());
+        this.constraints = constraintFactory.createConstraints(ctx, this, super.argument());
     }
 
     @Override
@@ -87,21 +87,20 @@ abstract class AbstractConstraintEffectiveStatement<A, D extends DeclaredStateme
 }
 
 abstract class ConstraintFactory<A> {
-    abstract protected A createConstraints(AbstractConstraintEffectiveStatement<A, ?> stmt, A argument);
+    abstract protected A createConstraints(StmtContext<?, ?, ?> ctx, AbstractConstraintEffectiveStatement<A, ?> stmt,
+            A argument);
 }
 
 abstract class ListConstraintFactory<A> extends ConstraintFactory<List<A>> {
     @Override
-    protected List<A> createConstraints(final AbstractConstraintEffectiveStatement<List<A>, ?> stmt, final List<A> argument) {
-        if (!stmt.isCustomizedStatement()) {
-            return ImmutableList.copyOf(argument);
-        }
-
-        List<A> customizedConstraints = new ArrayList<>();
+    protected List<A> createConstraints(final StmtContext<?, ?, ?> ctx,
+            final AbstractConstraintEffectiveStatement<List<A>, ?> stmt, final List<A> argument) {
+        final ImmutableList.Builder<A> builder = ImmutableList.builder();
         for (A constraint : argument) {
-            customizedConstraints.add(createCustomizedConstraint(constraint, stmt));
+            final A effective = stmt.isCustomizedStatement() ? createCustomizedConstraint(constraint, stmt) : constraint;
+            builder.add(EffectiveObjectCacheNamespace.intern(ctx, effective));
         }
-        return customizedConstraints;
+        return EffectiveObjectCacheNamespace.intern(ctx, builder.build());
     }
 
     abstract protected A createCustomizedConstraint(A constraint, AbstractConstraintEffectiveStatement<List<A>, ?> stmt);
@@ -127,11 +126,12 @@ final class RangeConstraintFactory extends ListConstraintFactory<RangeConstraint
 
 final class PatternConstraintFactory extends ConstraintFactory<PatternConstraint> {
     @Override
-    protected PatternConstraint createConstraints(final AbstractConstraintEffectiveStatement<PatternConstraint, ?> stmt, final PatternConstraint argument) {
+    protected PatternConstraint createConstraints(final StmtContext<?, ?, ?> ctx,
+            final AbstractConstraintEffectiveStatement<PatternConstraint, ?> stmt, final PatternConstraint argument) {
         if (!stmt.isCustomizedStatement()) {
-            return argument;
+            return EffectiveObjectCacheNamespace.intern(ctx, argument);
         } else {
-            return createCustomizedConstraint(argument, stmt);
+            return EffectiveObjectCacheNamespace.intern(ctx, createCustomizedConstraint(argument, stmt));
         }
     }
 
@@ -100,6 +100,12 @@ public class RangeConstraintEffectiveImpl implements RangeConstraint {
         if (!Objects.equals(description, other.description)) {
             return false;
         }
+        if (!Objects.equals(errorAppTag, other.errorAppTag)) {
+            return false;
+        }
+        if (!Objects.equals(errorMessage, other.errorMessage)) {
+            return false;
+        }
         if (!Objects.equals(max, other.max)) {
             return false;
         }
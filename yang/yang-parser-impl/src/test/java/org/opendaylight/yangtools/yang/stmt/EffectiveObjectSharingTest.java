@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.stmt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.type.PatternConstraint;
+import org.opendaylight.yangtools.yang.model.api.type.StringTypeDefinition;
+
+public class EffectiveObjectSharingTest {
+    private static final String FOO = "foo";
+    private static final String BAR = "bar";
+    private static final String REVISION = "2016-10-19";
+
+    @Test
+    public void testSharedObjects() throws Exception {
+        final SchemaContext schemaContext = StmtTestUtils.parseYangSources("/effective-object-sharing");
+
+        final ContainerSchemaNode root = (ContainerSchemaNode) schemaContext.getDataChildByName(
+            QName.create(FOO, REVISION, "root"));
+        final LeafSchemaNode first = (LeafSchemaNode) root.getDataChildByName(QName.create(FOO, REVISION, "first"));
+        final LeafSchemaNode second = (LeafSchemaNode) root.getDataChildByName(QName.create(FOO, REVISION, "second"));
+        final LeafSchemaNode third = (LeafSchemaNode) schemaContext.getDataChildByName(
+            QName.create(BAR, REVISION, "third"));
+        final LeafSchemaNode fourth = (LeafSchemaNode) schemaContext.getDataChildByName(
+            QName.create(BAR, REVISION, "fourth"));
+
+        // Descriptions are shared both within a module and across modules
+        assertEquals("shared description", first.getDescription());
+        assertSame(first.getDescription(), second.getDescription());
+        assertSame(first.getDescription(), third.getDescription());
+        assertSame(first.getDescription(), fourth.getDescription());
+
+        // Parent paths of sibling nodes are shared, while the nodes themselves are distinct
+        assertSame(first.getPath().getParent(), second.getPath().getParent());
+        assertNotSame(first.getPath(), second.getPath());
+
+        assertTrue(third.getType() instanceof StringTypeDefinition);
+        assertTrue(fourth.getType() instanceof StringTypeDefinition);
+        final List<PatternConstraint> thirdPatterns = ((StringTypeDefinition) third.getType()).getPatternConstraints();
+        final List<PatternConstraint> fourthPatterns =
+                ((StringTypeDefinition) fourth.getType()).getPatternConstraints();
+        assertEquals(1, thirdPatterns.size());
+        assertEquals(1, fourthPatterns.size());
+        assertSame(thirdPatterns.get(0), fourthPatterns.get(0));
+    }
+}
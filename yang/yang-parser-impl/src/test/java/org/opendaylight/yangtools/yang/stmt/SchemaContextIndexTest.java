@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.stmt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.IdentitySchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.NotificationDefinition;
+import org.opendaylight.yangtools.yang.model.api.RpcDefinition;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.model.util.IndexedSchemaContext;
+import org.opendaylight.yangtools.yang.model.util.SchemaContextIndex;
+import org.opendaylight.yangtools.yang.model.util.SchemaContextUtil;
+
+public class SchemaContextIndexTest {
+    private static final String FOO = "foo";
+    private static final String REVISION = "2016-10-19";
+
+    private static QName foo(final String localName) {
+        return QName.create(FOO, REVISION, localName);
+    }
+
+    private static SchemaPath path(final String... localNames) {
+        SchemaPath ret = SchemaPath.ROOT;
+        for (String localName : localNames) {
+            ret = ret.createChild(foo(localName));
+        }
+        return ret;
+    }
+
+    @Test
+    public void testIndex() throws Exception {
+        final SchemaContext schemaContext = StmtTestUtils.parseYangSources("/schema-context-index");
+        assertTrue(schemaContext instanceof IndexedSchemaContext);
+        final SchemaContextIndex index = ((IndexedSchemaContext) schemaContext).getIndex();
+        assertSame(index, ((IndexedSchemaContext) schemaContext).getIndex());
+
+        final Module module = schemaContext.findModuleByNamespaceAndRevision(foo("x").getNamespace(),
+            foo("x").getRevision());
+        assertNotNull(module);
+        assertSame(module, schemaContext.findModuleByNamespaceAndRevision(foo("x").getNamespace(), null));
+
+        // Sets are computed once
+        assertSame(schemaContext.getChildNodes(), schemaContext.getChildNodes());
+        assertSame(schemaContext.getOperations(), schemaContext.getOperations());
+        assertEquals(module.getChildNodes(), schemaContext.getChildNodes());
+        assertSame(module.getDataChildByName(foo("cont")), schemaContext.getDataChildByName(foo("cont")));
+
+        // Paths resolve to the same nodes as a walk of the tree does
+        for (SchemaPath path : new SchemaPath[] {
+            path("cont"), path("cont", "ch"), path("cont", "ch", "first"), path("cont", "ch", "first", "first-leaf"),
+            path("cont", "grp-leaf"), path("grp"), path("grp", "grp-leaf"), path("op"), path("op", "input"),
+            path("op", "input", "in-leaf"), path("notif"), path("notif", "notif-leaf"),
+        }) {
+            final SchemaNode indexed = index.findSchemaNode(path);
+            assertNotNull(path.toString(), indexed);
+            assertSame(SchemaContextUtil.findNodeInSchemaContext(schemaContext, path.getPathFromRoot()), indexed);
+            assertSame(indexed, SchemaContextUtil.findDataSchemaNode(schemaContext, path));
+        }
+        assertNull(index.findSchemaNode(path("cont", "nonexistent")));
+
+        assertTrue(index.findSchemaNode(path("cont", "grp-leaf")) instanceof LeafSchemaNode);
+        assertTrue(index.findSchemaNode(path("op")) instanceof RpcDefinition);
+        assertTrue(index.findSchemaNode(path("notif")) instanceof NotificationDefinition);
+
+        // Identities, including indirectly-derived ones
+        final IdentitySchemaNode base = index.findIdentity(foo("base"));
+        assertNotNull(base);
+        final Set<IdentitySchemaNode> derived = index.getDerivedIdentities(foo("base"));
+        assertEquals(ImmutableSet.of(index.findIdentity(foo("derived")), index.findIdentity(foo("derived-derived"))),
+            derived);
+        assertEquals(ImmutableSet.of(index.findIdentity(foo("derived-derived"))),
+            index.getDerivedIdentities(foo("derived")));
+        assertTrue(index.getDerivedIdentities(foo("derived-derived")).isEmpty());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.stmt;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.stmt.SchemaNodeIdentifier;
+import org.opendaylight.yangtools.yang.model.api.type.BinaryTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.IntegerTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.LeafrefTypeDefinition;
+import org.opendaylight.yangtools.yang.model.util.IndexedSchemaContext;
+import org.opendaylight.yangtools.yang.model.util.SchemaContextUtil;
+import org.opendaylight.yangtools.yang.model.util.SchemaResolutionCache;
+
+public class SchemaResolutionCacheTest {
+    private static final String NS = "foo";
+    private static final String REV = "2016-03-01";
+
+    @Test
+    public void testLookups() throws Exception {
+        final SchemaContext context = StmtTestUtils.parseYangSources("/bugs/bug5437");
+        SchemaResolutionCache.precompute(context);
+
+        final QName root = QName.create(NS, REV, "root");
+        final SchemaPath leafRefPath = SchemaPath.create(true, root, QName.create(NS, REV, "con-grp"),
+            QName.create(NS, REV, "leaf-ref"));
+        final SchemaPath leafRef2Path = SchemaPath.create(true, root, QName.create(NS, REV, "leaf-ref-2"));
+
+        final LeafSchemaNode leafRef = (LeafSchemaNode) SchemaResolutionCache.findDataSchemaNode(context,
+            leafRefPath);
+        final LeafSchemaNode leafRef2 = (LeafSchemaNode) SchemaResolutionCache.findDataSchemaNode(context,
+            leafRef2Path);
+        assertSame(SchemaContextUtil.findDataSchemaNode(context, leafRefPath), leafRef);
+        assertSame(SchemaContextUtil.findDataSchemaNode(context, leafRef2Path), leafRef2);
+        // Indexed nodes are served from the context's index
+        assertSame(((IndexedSchemaContext) context).getIndex().findSchemaNode(leafRefPath), leafRef);
+        assertSame(leafRef, SchemaResolutionCache.findNodeInSchemaContext(context, leafRefPath.getPathFromRoot()));
+        assertSame(leafRef, SchemaResolutionCache.findDataSchemaNode(context,
+            SchemaNodeIdentifier.create(leafRefPath.getPathFromRoot(), true)));
+
+        final TypeDefinition<?> type = SchemaResolutionCache.getBaseTypeForLeafRef(
+            (LeafrefTypeDefinition) leafRef.getType(), context, leafRef);
+        final TypeDefinition<?> type2 = SchemaResolutionCache.getBaseTypeForLeafRef(
+            (LeafrefTypeDefinition) leafRef2.getType(), context, leafRef2);
+        assertTrue(type instanceof BinaryTypeDefinition);
+        assertTrue(type2 instanceof IntegerTypeDefinition);
+        assertSame(type, SchemaResolutionCache.getBaseTypeForLeafRef((LeafrefTypeDefinition) leafRef.getType(),
+            context, leafRef));
+
+        final SchemaPath missing = SchemaPath.create(true, root, QName.create(NS, REV, "missing"));
+        assertNull(SchemaResolutionCache.findDataSchemaNode(context, missing));
+        assertNull(SchemaResolutionCache.findDataSchemaNode(context, missing));
+    }
+}